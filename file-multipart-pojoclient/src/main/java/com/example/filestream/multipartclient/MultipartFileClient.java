@@ -26,6 +26,9 @@ public class MultipartFileClient {
     private static final String BOUNDARY = "----WebKitFormBoundary" + System.currentTimeMillis();
     private static final String LINE_FEED = "\r\n";
     
+    // 스레드별로 재사용하는 복사 루프 버퍼
+    private static final ThreadLocal<byte[]> transferBuffers = new ThreadLocal<>();
+    
     static {
         loadConfiguration();
     }
@@ -175,8 +178,6 @@ public class MultipartFileClient {
         System.out.println("Total size: " + totalSize + " bytes");
         System.out.println("Metadata: " + metadataJson);
         
-        printMemoryUsage("Before upload");
-
         // URL 연결 설정
         URL url = new URL(targetUrl);
         HttpURLConnection connection = (HttpURLConnection) url.openConnection();
@@ -196,7 +197,6 @@ public class MultipartFileClient {
             connection.setChunkedStreamingMode(bufferSize);
             
             System.out.println("Sending multipart request to: " + targetUrl);
-            printMemoryUsage("During upload");
             
             // Multipart 데이터 전송
             try (OutputStream outputStream = connection.getOutputStream();
@@ -216,8 +216,6 @@ public class MultipartFileClient {
                 writer.flush();
             }
             
-            printMemoryUsage("After upload");
-            
             // 응답 처리
             int statusCode = connection.getResponseCode();
             String responseBody = readResponseBody(connection);
@@ -273,6 +271,18 @@ public class MultipartFileClient {
         writer.flush();
     }
     
+    /**
+     * 현재 스레드의 전송 버퍼 (복사 루프마다 새로 할당하지 않고 재사용)
+     */
+    private static byte[] transferBuffer() {
+        byte[] buffer = transferBuffers.get();
+        if (buffer == null || buffer.length != bufferSize) {
+            buffer = new byte[bufferSize];
+            transferBuffers.set(buffer);
+        }
+        return buffer;
+    }
+
     /**
      * Multipart file part 추가
      */
@@ -293,7 +303,7 @@ public class MultipartFileClient {
         long lastProgressUpdate = 0;
         
         try (InputStream inputStream = Files.newInputStream(filePath)) {
-            byte[] buffer = new byte[bufferSize];
+            byte[] buffer = transferBuffer();
             int bytesReadThisTime;
             while ((bytesReadThisTime = inputStream.read(buffer)) != -1) {
                 outputStream.write(buffer, 0, bytesReadThisTime);
@@ -7,7 +7,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 
-@SpringBootApplication
+@SpringBootApplication(scanBasePackages = {"com.example.filestream.multipart", "com.example.filestream.common"})
 public class FileMultipartServerApplication {
 
     private static final Logger logger = LoggerFactory.getLogger(FileMultipartServerApplication.class);
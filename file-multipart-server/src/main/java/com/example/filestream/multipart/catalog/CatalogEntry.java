@@ -0,0 +1,48 @@
+package com.example.filestream.multipart.catalog;
+
+/**
+ * 카탈로그에 기록된 저장 파일 하나 (변경 불가).
+ * 시작 시 디렉토리 스캔으로 복구한 항목 중 메타데이터 색인에 기록이 없는 파일은 sha256, category 가 null 이다.
+ */
+public final class CatalogEntry {
+
+    private final String name;
+    private final long size;
+    private final long lastModified;
+    private final String sha256;
+    private final String category;
+
+    public CatalogEntry(String name, long size, long lastModified, String sha256, String category) {
+        this.name = name;
+        this.size = size;
+        this.lastModified = lastModified;
+        this.sha256 = sha256;
+        this.category = category;
+    }
+
+    /**
+     * 저장 파일명 (savedFilename)
+     */
+    public String getName() {
+        return name;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * 마지막 수정 시각 (epoch millis)
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+}
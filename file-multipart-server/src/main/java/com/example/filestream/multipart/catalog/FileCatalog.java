@@ -0,0 +1,270 @@
+package com.example.filestream.multipart.catalog;
+
+import com.example.filestream.common.storage.ShardedLayout;
+import com.example.filestream.multipart.metadata.MetadataIndex;
+import com.example.filestream.multipart.metadata.MetadataRecord;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * 저장된 파일 목록을 메모리에 유지하는 카탈로그 (저장 파일명 순으로 정렬).
+ *
+ * 업로드가 끝나면 저장 경로에서 바로 등록하고, 서버 시작 시에는 업로드 디렉토리(sharded 배치면 샤드 디렉토리 포함)를
+ * 병렬로 스캔해 다시 만든다. 스캔으로 알 수 없는 sha256, category 는 메타데이터 색인(file.metadata.index)의 기록으로 채운다.
+ * 두 경로 모두 수정 시각은 파일 시스템의 값을 쓴다. 목록 조회는 디렉토리를 읽지 않고 정렬된 맵을 순회하므로
+ * 마지막으로 받은 이름(cursor) 이후부터 필요한 만큼만 읽을 수 있다.
+ *
+ * <pre>
+ * file.catalog.entries  카탈로그의 파일 수
+ * </pre>
+ */
+@Component
+public class FileCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileCatalog.class);
+
+    // 디렉토리 하나를 읽으며 모은 파일을 stat 작업 하나로 넘기는 단위
+    private static final int STAT_BATCH_SIZE = 1024;
+
+    private final ShardedLayout shardedLayout;
+
+    private final MetadataIndex metadataIndex;
+
+    private final int parallelism;
+
+    private final ConcurrentSkipListMap<String, CatalogEntry> entries = new ConcurrentSkipListMap<>();
+
+    public FileCatalog(ShardedLayout shardedLayout, MetadataIndex metadataIndex, MeterRegistry registry,
+                       @Value("${file.catalog.scan.parallelism:0}") int parallelism) {
+        this.shardedLayout = shardedLayout;
+        this.metadataIndex = metadataIndex;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        Gauge.builder("file.catalog.entries", entries, ConcurrentSkipListMap::size)
+                .description("Files known to the in-memory catalog")
+                .register(registry);
+    }
+
+    /**
+     * 업로드 디렉토리를 병렬 스캔해 카탈로그 재구성
+     */
+    @PostConstruct
+    public void rebuild() throws IOException {
+        long startTime = System.nanoTime();
+        Path root = shardedLayout.getRoot();
+        if (!Files.isDirectory(root)) {
+            logger.info("File catalog: upload directory {} does not exist yet", root.toAbsolutePath());
+            return;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            // 업로드 디렉토리 바로 아래의 파일 (flat 배치, 이동하지 않은 파일)
+            pool.invoke(new ScanTask(root, false));
+            if (shardedLayout.isSharded() && Files.isDirectory(shardedLayout.getShardRoot())) {
+                pool.invoke(new ScanTask(shardedLayout.getShardRoot(), true));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdown();
+        }
+        restoreMetadata();
+        logger.info("File catalog: {} files scanned from {} in {} ms ({} threads)", entries.size(),
+                root.toAbsolutePath(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime), parallelism);
+    }
+
+    /**
+     * 스캔으로 만든 항목에 메타데이터 색인의 sha256, category 를 채움 (크기가 다르면 기록 이후 바뀐 파일이므로 제외)
+     */
+    private void restoreMetadata() throws IOException {
+        metadataIndex.forEach(record -> {
+            for (MetadataRecord.StoredFile file : record.getFiles()) {
+                entries.computeIfPresent(file.getSavedFilename(), (name, entry) -> {
+                    if (entry.getSha256() != null || entry.getCategory() != null || entry.getSize() != file.getSize()) {
+                        return entry;
+                    }
+                    return new CatalogEntry(name, entry.getSize(), entry.getLastModified(), file.getSha256(),
+                            record.getCategory());
+                });
+            }
+        });
+    }
+
+    /**
+     * 저장이 끝난 파일 등록 (같은 이름이면 교체). 크기와 수정 시각은 재시작 후 스캔과 같도록 저장 경로에서 읽는다
+     */
+    public void register(Path file, String name, String sha256, String category) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        entries.put(name, new CatalogEntry(name, attributes.size(), attributes.lastModifiedTime().toMillis(),
+                sha256, category));
+    }
+
+    public CatalogEntry get(String name) {
+        return entries.get(name);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * after 다음 이름부터 before 앞까지 prefix 로 시작하고 filter 를 만족하는 항목을 이름순으로 순회 (복사 없이 맵을 직접 순회).
+     * after, before 가 null 이면 처음부터, 끝까지
+     */
+    public Iterator<CatalogEntry> iterate(String prefix, String after, String before, Predicate<CatalogEntry> filter) {
+        NavigableMap<String, CatalogEntry> range = entries;
+        String start = prefix != null ? prefix : "";
+        if (after != null && after.compareTo(start) >= 0) {
+            start = after;
+            range = range.tailMap(after, false);
+        } else if (!start.isEmpty()) {
+            range = range.tailMap(start, true);
+        }
+        if (before != null) {
+            if (start.compareTo(before) >= 0) {
+                return Collections.emptyIterator();
+            }
+            range = range.headMap(before, false);
+        }
+        Iterator<CatalogEntry> values = range.values().iterator();
+
+        return new Iterator<CatalogEntry>() {
+            private CatalogEntry next = advance();
+
+            private CatalogEntry advance() {
+                while (values.hasNext()) {
+                    CatalogEntry candidate = values.next();
+                    if (prefix != null && !candidate.getName().startsWith(prefix)) {
+                        // 정렬되어 있으므로 prefix 범위를 벗어나면 끝
+                        return null;
+                    }
+                    if (filter == null || filter.test(candidate)) {
+                        return candidate;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public CatalogEntry next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                CatalogEntry current = next;
+                next = advance();
+                return current;
+            }
+        };
+    }
+
+    /**
+     * 디렉토리 하나를 읽어 하위 디렉토리는 별도 작업으로, 파일은 묶음 단위 stat 작업으로 나눔
+     */
+    private final class ScanTask extends RecursiveAction {
+
+        private final Path directory;
+        private final boolean sharded;
+
+        ScanTask(Path directory, boolean sharded) {
+            this.directory = directory;
+            this.sharded = sharded;
+        }
+
+        @Override
+        protected void compute() {
+            List<RecursiveAction> tasks = new ArrayList<>();
+            List<Path> batch = new ArrayList<>(STAT_BATCH_SIZE);
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                for (Path path : stream) {
+                    if (!sharded && path.getFileName().toString().startsWith(".")) {
+                        // 업로드 디렉토리의 내부 디렉토리 (.shards 는 따로 스캔)
+                        continue;
+                    }
+                    if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                        if (sharded) {
+                            tasks.add(new ScanTask(path, true));
+                        }
+                        continue;
+                    }
+                    batch.add(path);
+                    if (batch.size() == STAT_BATCH_SIZE) {
+                        tasks.add(new StatTask(batch, sharded));
+                        batch = new ArrayList<>(STAT_BATCH_SIZE);
+                    }
+                }
+            } catch (NoSuchFileException e) {
+                // 스캔 중 삭제된 샤드 디렉토리
+                return;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (!batch.isEmpty()) {
+                tasks.add(new StatTask(batch, sharded));
+            }
+            invokeAll(tasks);
+        }
+    }
+
+    private final class StatTask extends RecursiveAction {
+
+        private final List<Path> paths;
+        private final boolean sharded;
+
+        StatTask(List<Path> paths, boolean sharded) {
+            this.paths = paths;
+            this.sharded = sharded;
+        }
+
+        @Override
+        protected void compute() {
+            for (Path path : paths) {
+                String name = sharded ? shardedLayout.nameOf(path) : path.getFileName().toString();
+                if (name == null) {
+                    continue;
+                }
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class,
+                            LinkOption.NOFOLLOW_LINKS);
+                    if (attributes.isRegularFile()) {
+                        // 스캔 중 업로드로 등록된 항목(체크섬, 분류 포함)을 덮어쓰지 않음
+                        entries.putIfAbsent(name, new CatalogEntry(name, attributes.size(),
+                                attributes.lastModifiedTime().toMillis(), null, null));
+                    }
+                } catch (IOException e) {
+                    // 스캔 중 삭제되거나 옮겨진 파일
+                    logger.debug("Skipped {} while scanning: {}", path, e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.filestream.multipart.checksum;
+
+import java.io.IOException;
+
+/**
+ * 저장한 파일의 체크섬이 클라이언트가 보낸 값과 다를 때 발생
+ */
+public class ChecksumMismatchException extends IOException {
+
+    private final String filename;
+    private final String actualSha256;
+
+    public ChecksumMismatchException(String filename, String actualSha256) {
+        super("Checksum mismatch for file: " + filename);
+        this.filename = filename;
+        this.actualSha256 = actualSha256;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public String getActualSha256() {
+        return actualSha256;
+    }
+}
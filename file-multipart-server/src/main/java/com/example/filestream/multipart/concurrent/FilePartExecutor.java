@@ -0,0 +1,71 @@
+package com.example.filestream.multipart.concurrent;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 다중 파일 업로드의 파트 저장(기록 + 체크섬)을 병렬로 처리하는 서버 공용 스레드 풀.
+ * 스레드 수와 대기열 크기가 고정되어 있으며, 대기열이 가득 차면 요청 스레드가 직접 처리하여
+ * 부하가 몰려도 스레드와 메모리가 늘어나지 않는다.
+ *
+ * <pre>
+ * file.upload.parts.active  저장 중인 파트 수
+ * file.upload.parts.queued  대기열의 파트 수
+ * </pre>
+ */
+@Component
+public class FilePartExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(FilePartExecutor.class);
+
+    private final ThreadPoolExecutor executor;
+
+    public FilePartExecutor(MeterRegistry registry,
+                            @Value("${file.upload.parts.parallelism:0}") int parallelism,
+                            @Value("${file.upload.parts.queue.capacity:256}") int queueCapacity) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(queueCapacity, 1)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "upload-part-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+
+        Gauge.builder("file.upload.parts.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("File parts currently being stored")
+                .register(registry);
+        Gauge.builder("file.upload.parts.queued", executor, e -> e.getQueue().size())
+                .description("File parts waiting for a storage thread")
+                .register(registry);
+        logger.info("File part executor: {} threads, queue capacity {}", threads, queueCapacity);
+    }
+
+    public <T> Future<T> submit(Callable<T> task) {
+        return executor.submit(task);
+    }
+
+    public int getParallelism() {
+        return executor.getMaximumPoolSize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
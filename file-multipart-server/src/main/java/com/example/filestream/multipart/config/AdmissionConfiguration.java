@@ -0,0 +1,31 @@
+package com.example.filestream.multipart.config;
+
+import com.example.filestream.common.admission.AdmissionConfigurationSupport;
+import com.example.filestream.common.admission.AdmissionController;
+import com.example.filestream.common.admission.AdmissionFilter;
+import com.example.filestream.common.admission.AdmissionRejectedException;
+import com.example.filestream.multipart.dto.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 업로드 수락 제어 필터 등록 (multipart 파싱 전에 거부, 응답은 ErrorResponse 형식)
+ */
+@Configuration
+public class AdmissionConfiguration extends AdmissionConfigurationSupport {
+
+    @Override
+    protected String[] admissionUrlPatterns() {
+        return new String[]{"/api/v1/multipart/upload", "/api/v1/multipart/upload/single"};
+    }
+
+    @Override
+    protected AdmissionFilter createFilter(AdmissionController admissionController, ObjectMapper objectMapper) {
+        return new AdmissionFilter(admissionController, objectMapper) {
+            @Override
+            protected Object rejectionBody(AdmissionRejectedException e) {
+                return new ErrorResponse("Service Unavailable", e.getMessage() + " (" + e.getReason() + ")", 503);
+            }
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.filestream.multipart.config;
+
+import com.example.filestream.multipart.naming.FileIdGenerator;
+import com.example.filestream.multipart.naming.TimeOrderedFileIdGenerator;
+import com.example.filestream.multipart.naming.TimestampFileIdGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 저장 파일명 ID 생성 전략 등록 (FileIdGenerator 빈을 직접 등록하면 그 빈을 사용)
+ */
+@Configuration
+public class FileIdConfiguration {
+
+    public static final String STRATEGY_TIME_ORDERED = "time-ordered";
+    public static final String STRATEGY_TIMESTAMP = "timestamp";
+
+    private static final Logger logger = LoggerFactory.getLogger(FileIdConfiguration.class);
+
+    @Bean
+    @ConditionalOnMissingBean(FileIdGenerator.class)
+    public FileIdGenerator fileIdGenerator(@Value("${file.upload.id.strategy:" + STRATEGY_TIME_ORDERED + "}") String strategy,
+                                           @Value("${file.upload.id.node:-1}") long node) {
+        if (STRATEGY_TIME_ORDERED.equalsIgnoreCase(strategy)) {
+            TimeOrderedFileIdGenerator generator = new TimeOrderedFileIdGenerator(node);
+            logger.info("File IDs: time-ordered, node {}", generator.getNode());
+            return generator;
+        }
+        if (STRATEGY_TIMESTAMP.equalsIgnoreCase(strategy)) {
+            return new TimestampFileIdGenerator();
+        }
+        throw new IllegalStateException("Unknown file.upload.id.strategy: " + strategy
+                + " (expected " + STRATEGY_TIME_ORDERED + " or " + STRATEGY_TIMESTAMP + ")");
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.filestream.multipart.controller;
+
+import com.example.filestream.multipart.catalog.CatalogEntry;
+import com.example.filestream.multipart.catalog.FileCatalog;
+import com.example.filestream.multipart.dto.ErrorResponse;
+import com.example.filestream.multipart.naming.FileIdGenerator;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.function.Predicate;
+
+/**
+ * 업로드된 파일 목록 조회 ({@link FileCatalog} 기반, 디렉토리를 읽지 않음)
+ *
+ * 응답은 항목을 하나씩 JSON 으로 바로 써 내려가므로 파일 수와 상관없이 메모리 사용량이 일정하다.
+ */
+@RestController
+@RequestMapping("/api/v1/multipart")
+public class FileCatalogController {
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    private final FileCatalog fileCatalog;
+
+    private final FileIdGenerator fileIdGenerator;
+
+    private final int defaultPageSize;
+
+    private final int maxPageSize;
+
+    public FileCatalogController(FileCatalog fileCatalog, FileIdGenerator fileIdGenerator,
+                                 @Value("${file.catalog.page.size:1000}") int defaultPageSize,
+                                 @Value("${file.catalog.page.max:100000}") int maxPageSize) {
+        this.fileCatalog = fileCatalog;
+        this.fileIdGenerator = fileIdGenerator;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * 업로드된 파일 목록 조회 (저장 파일명 배열, 이름순)
+     */
+    @GetMapping("/files")
+    public void listUploadedFiles(HttpServletResponse response) throws IOException {
+        Iterator<CatalogEntry> entries = fileCatalog.iterate(null, null, null, null);
+        try (JsonGenerator generator = openJson(response)) {
+            generator.writeStartArray();
+            while (entries.hasNext()) {
+                generator.writeString(entries.next().getName());
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * 파일 목록 페이지 조회
+     *
+     * <pre>
+     * prefix          저장 파일명 접두어
+     * modifiedAfter   이 시각 이후(포함) 수정된 파일 (epoch millis 또는 ISO-8601)
+     * modifiedBefore  이 시각 이전(제외) 수정된 파일
+     * createdAfter    이 시각 이후(포함) 만든 ID 의 파일 (time-ordered ID 에서만, 파일명 범위로 바로 찾음)
+     * createdBefore   이 시각 이전(제외) 만든 ID 의 파일
+     * cursor          이전 응답의 nextCursor (다음 페이지)
+     * limit           페이지 크기 (기본 file.catalog.page.size, 최대 file.catalog.page.max)
+     * </pre>
+     *
+     * 응답: {"files":[{name,size,lastModified,sha256,category}...],"count":n,"nextCursor":"..."}
+     * nextCursor 가 null 이면 마지막 페이지다.
+     */
+    @GetMapping("/catalog")
+    public ResponseEntity<?> listCatalog(@RequestParam(required = false) String prefix,
+                                         @RequestParam(required = false) String modifiedAfter,
+                                         @RequestParam(required = false) String modifiedBefore,
+                                         @RequestParam(required = false) String createdAfter,
+                                         @RequestParam(required = false) String createdBefore,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer limit,
+                                         HttpServletResponse response) throws IOException {
+        String after;
+        String before = null;
+        long from;
+        long to;
+        long createdFrom = Long.MIN_VALUE;
+        long createdTo = Long.MAX_VALUE;
+        try {
+            after = decodeCursor(cursor);
+            from = parseTime(modifiedAfter, Long.MIN_VALUE);
+            to = parseTime(modifiedBefore, Long.MAX_VALUE);
+            if (StringUtils.hasText(createdAfter) || StringUtils.hasText(createdBefore)) {
+                if (fileIdGenerator.lowerBound(0) == null) {
+                    throw new IllegalArgumentException("createdAfter/createdBefore require time-ordered file IDs");
+                }
+                // 저장 파일명이 ID 로 시작하므로 생성 시각 범위가 파일명 범위가 된다
+                // (파일명은 ID 뒤에 '_' 가 붙어 lowerBound 보다 항상 크다)
+                if (StringUtils.hasText(createdAfter)) {
+                    createdFrom = parseTime(createdAfter, 0);
+                    String lowerBound = fileIdGenerator.lowerBound(createdFrom);
+                    if (after == null || after.compareTo(lowerBound) < 0) {
+                        after = lowerBound;
+                    }
+                }
+                if (StringUtils.hasText(createdBefore)) {
+                    createdTo = parseTime(createdBefore, 0);
+                    before = fileIdGenerator.lowerBound(createdTo);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Invalid Parameter", e.getMessage(), 400));
+        }
+        int pageSize = limit == null ? defaultPageSize : limit;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Invalid Parameter",
+                    "limit must be between 1 and " + maxPageSize, 400));
+        }
+
+        Predicate<CatalogEntry> filter = null;
+        if (from != Long.MIN_VALUE || to != Long.MAX_VALUE) {
+            filter = entry -> entry.getLastModified() >= from && entry.getLastModified() < to;
+        }
+        if (createdFrom != Long.MIN_VALUE || createdTo != Long.MAX_VALUE) {
+            // 범위 안에 있어도 ID 형식이 아닌 이름(이전 형식의 파일명 등)은 제외
+            long lower = createdFrom;
+            long upper = createdTo;
+            Predicate<CatalogEntry> created = entry -> {
+                long timestamp = fileIdGenerator.timestampOf(entry.getName());
+                return timestamp >= 0 && timestamp >= lower && timestamp < upper;
+            };
+            filter = filter == null ? created : filter.and(created);
+        }
+        Iterator<CatalogEntry> entries = fileCatalog.iterate(StringUtils.hasLength(prefix) ? prefix : null,
+                after, before, filter);
+
+        try (JsonGenerator generator = openJson(response)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("files");
+            int count = 0;
+            String last = null;
+            while (count < pageSize && entries.hasNext()) {
+                CatalogEntry entry = entries.next();
+                generator.writeStartObject();
+                generator.writeStringField("name", entry.getName());
+                generator.writeNumberField("size", entry.getSize());
+                generator.writeNumberField("lastModified", entry.getLastModified());
+                generator.writeStringField("sha256", entry.getSha256());
+                generator.writeStringField("category", entry.getCategory());
+                generator.writeEndObject();
+                last = entry.getName();
+                count++;
+            }
+            generator.writeEndArray();
+            generator.writeNumberField("count", count);
+            // 남은 항목이 있을 때만 다음 페이지 커서 제공
+            generator.writeStringField("nextCursor", entries.hasNext() ? encodeCursor(last) : null);
+            generator.writeEndObject();
+        }
+        return null;
+    }
+
+    private JsonGenerator openJson(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        return jsonFactory.createGenerator(response.getOutputStream(), JsonEncoding.UTF8);
+    }
+
+    static String encodeCursor(String name) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(name.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    static long parseTime(String value, long defaultValue) {
+        if (!StringUtils.hasText(value)) {
+            return defaultValue;
+        }
+        try {
+            if (value.chars().allMatch(Character::isDigit)) {
+                return Long.parseLong(value);
+            }
+            try {
+                return Instant.parse(value).toEpochMilli();
+            } catch (DateTimeParseException e) {
+                return OffsetDateTime.parse(value).toInstant().toEpochMilli();
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid time (epoch millis or ISO-8601 expected): " + value);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.filestream.multipart.controller;
+
+import com.example.filestream.multipart.dto.ErrorResponse;
+import com.example.filestream.multipart.dto.MetadataQueryResponse;
+import com.example.filestream.multipart.metadata.MetadataIndex;
+import com.example.filestream.multipart.metadata.MetadataRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 업로드 메타데이터 조회 ({@link MetadataIndex} 기반)
+ */
+@RestController
+@RequestMapping("/api/v1/multipart")
+public class MetadataQueryController {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetadataQueryController.class);
+
+    private final MetadataIndex metadataIndex;
+
+    private final int defaultPageSize;
+
+    private final int maxPageSize;
+
+    public MetadataQueryController(MetadataIndex metadataIndex,
+                                   @Value("${file.metadata.query.page.size:100}") int defaultPageSize,
+                                   @Value("${file.metadata.query.page.max:1000}") int maxPageSize) {
+        this.metadataIndex = metadataIndex;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * 업로드 메타데이터 조회 (최신순, 조건은 모두 만족해야 함)
+     *
+     * <pre>
+     * category        분류 (대소문자 구분 없음)
+     * tag             태그 (여러 번 지정하면 모두 포함한 업로드)
+     * uploadedBy      업로드한 사용자
+     * from / to       업로드 시각 범위 (epoch millis 또는 ISO-8601, from 포함 / to 제외)
+     * cursor          이전 응답의 nextCursor (다음 페이지)
+     * limit           페이지 크기 (기본 file.metadata.query.page.size, 최대 file.metadata.query.page.max)
+     * </pre>
+     */
+    @GetMapping("/metadata")
+    public ResponseEntity<?> queryMetadata(@RequestParam(required = false) String category,
+                                           @RequestParam(required = false) List<String> tag,
+                                           @RequestParam(required = false) String uploadedBy,
+                                           @RequestParam(required = false) String from,
+                                           @RequestParam(required = false) String to,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(required = false) Integer limit) {
+        if (!metadataIndex.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ErrorResponse("Not Found", "Metadata index is disabled (file.metadata.index.enabled)", 404));
+        }
+        long fromTime;
+        long toTime;
+        long before;
+        try {
+            fromTime = FileCatalogController.parseTime(from, Long.MIN_VALUE);
+            toTime = FileCatalogController.parseTime(to, Long.MAX_VALUE);
+            before = StringUtils.hasText(cursor) ? Long.parseLong(cursor) : -1;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Invalid Parameter", e.getMessage(), 400));
+        }
+        int pageSize = limit == null ? defaultPageSize : limit;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Invalid Parameter",
+                    "limit must be between 1 and " + maxPageSize, 400));
+        }
+
+        try {
+            long startTime = System.nanoTime();
+            // 한 건 더 읽어 다음 페이지가 있는지 확인
+            List<MetadataRecord> uploads = metadataIndex.query(category, tag, uploadedBy, fromTime, toTime, before,
+                    pageSize + 1);
+            String nextCursor = null;
+            if (uploads.size() > pageSize) {
+                uploads = uploads.subList(0, pageSize);
+                nextCursor = String.valueOf(uploads.get(pageSize - 1).getId());
+            }
+            long tookMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTime);
+            return ResponseEntity.ok(new MetadataQueryResponse(uploads, nextCursor, tookMicros));
+
+        } catch (IOException e) {
+            logger.error("Error querying metadata: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Query Error", "Failed to read metadata: " + e.getMessage(), 500));
+        }
+    }
+}
@@ -1,9 +1,24 @@
 package com.example.filestream.multipart.controller;
 
+import com.example.filestream.common.buffer.DirectBufferPool;
+import com.example.filestream.common.buffer.StreamBuffers;
+import com.example.filestream.common.checksum.StreamDigest;
+import com.example.filestream.common.storage.ShardedLayout;
+import com.example.filestream.multipart.catalog.FileCatalog;
+import com.example.filestream.multipart.checksum.ChecksumMismatchException;
+import com.example.filestream.multipart.concurrent.FilePartExecutor;
 import com.example.filestream.multipart.dto.ErrorResponse;
 import com.example.filestream.multipart.dto.FileUploadMetadata;
 import com.example.filestream.multipart.dto.FileUploadResponse;
+import com.example.filestream.multipart.metadata.MetadataIndex;
+import com.example.filestream.multipart.metrics.UploadMetrics;
+import com.example.filestream.multipart.naming.FileIdGenerator;
+import com.example.filestream.multipart.naming.FilenameSanitizer;
+import com.example.filestream.multipart.parser.MalformedMultipartException;
+import com.example.filestream.multipart.parser.MultipartLimitExceededException;
+import com.example.filestream.multipart.parser.MultipartStreamParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,21 +26,46 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+
+import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
-
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * spring.servlet.multipart.enabled=true 이면 Spring 이 파트를 임시 파일로 받아둔 뒤 업로드 디렉토리로 복사하고,
+ * false 이면 요청 본문을 {@link MultipartStreamParser} 로 한 번만 읽으며 파일 파트를 최종 위치에 바로 기록한다.
+ * 스트리밍 방식에서 metadata, checksums 필드는 메모리에서 처리한다.
+ *
+ * 파일 하나가 실패했을 때의 처리는 file.upload.parts.failure.mode 로 정한다.
+ * fail(기본값)은 요청 전체를 실패시키고 이미 저장한 파일을 삭제하며, partial 은 나머지 파일을 저장하고
+ * 실패한 파일에 error 를 채워 207 Multi-Status 로 응답한다 (모두 실패하면 fail 과 같다).
+ */
 @RestController
 @RequestMapping("/api/v1/multipart")
 public class MultipartFileUploadController {
 
+    // 스트리밍 방식에서 메모리로 읽는 일반 필드(metadata, checksums)의 최대 크기
+    private static final int MAX_FIELD_SIZE = 1024 * 1024;
+
+    public static final String FAILURE_MODE_FAIL = "fail";
+    public static final String FAILURE_MODE_PARTIAL = "partial";
+
     private static final Logger logger = LoggerFactory.getLogger(MultipartFileUploadController.class);
     private final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -35,100 +75,399 @@ public class MultipartFileUploadController {
     @Value("${file.stream.buffer.size:8192}")
     private int bufferSize;
 
+    @Value("${spring.servlet.multipart.max-file-size:100MB}")
+    private DataSize maxFileSize;
+
+    @Value("${spring.servlet.multipart.max-request-size:500MB}")
+    private DataSize maxRequestSize;
+
+    @Value("${file.upload.parts.failure.mode:" + FAILURE_MODE_FAIL + "}")
+    private String failureMode;
+
+    private final UploadMetrics uploadMetrics;
+
+    private final DirectBufferPool bufferPool;
+
+    private final FilePartExecutor partExecutor;
+
+    private final ShardedLayout shardedLayout;
+
+    private final FileCatalog fileCatalog;
+
+    private final MetadataIndex metadataIndex;
+
+    private final FileIdGenerator fileIdGenerator;
+
+    public MultipartFileUploadController(UploadMetrics uploadMetrics, DirectBufferPool bufferPool,
+                                         FilePartExecutor partExecutor, ShardedLayout shardedLayout,
+                                         FileCatalog fileCatalog, MetadataIndex metadataIndex,
+                                         FileIdGenerator fileIdGenerator) {
+        this.uploadMetrics = uploadMetrics;
+        this.bufferPool = bufferPool;
+        this.partExecutor = partExecutor;
+        this.shardedLayout = shardedLayout;
+        this.fileCatalog = fileCatalog;
+        this.metadataIndex = metadataIndex;
+        this.fileIdGenerator = fileIdGenerator;
+    }
+
     /**
      * 다중 파일 업로드 (JSON 메타데이터 선택사항)
+     * checksums 필드에 {"원본파일명": "sha256"} 형태의 JSON 을 보내면 저장 시 함께 검증한다.
      */
     @PostMapping("/upload")
-    public ResponseEntity<?> uploadFiles(
-            @RequestParam("files") MultipartFile[] files,
-            @RequestParam(value = "metadata", required = false) String metadataJson) {
+    public ResponseEntity<?> uploadFiles(HttpServletRequest request) {
+
+        UploadMetrics.Sample sample = uploadMetrics.start(UploadMetrics.ENDPOINT_UPLOAD);
+        try {
+            if (request instanceof MultipartHttpServletRequest) {
+                MultipartHttpServletRequest multipartRequest = (MultipartHttpServletRequest) request;
+                return uploadSpooledFiles(multipartRequest.getFiles("files").toArray(new MultipartFile[0]),
+                        multipartRequest.getParameter("metadata"), multipartRequest.getParameter("checksums"), sample);
+            }
+            return uploadStreamedFiles(request, sample);
+
+        } catch (InvalidUploadException e) {
+            sample.failure(UploadMetrics.CAUSE_BAD_REQUEST);
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getError(), e.getMessage(), 400));
+        } catch (ChecksumMismatchException e) {
+            sample.failure(UploadMetrics.CAUSE_CHECKSUM_MISMATCH);
+            return checksumMismatch(e);
+        } catch (MultipartLimitExceededException e) {
+            sample.failure(UploadMetrics.CAUSE_TOO_LARGE);
+            return payloadTooLarge(e);
+        } catch (MalformedMultipartException e) {
+            sample.failure(UploadMetrics.CAUSE_BAD_REQUEST);
+            return ResponseEntity.badRequest().body(new ErrorResponse("Malformed Multipart", e.getMessage(), 400));
+        } catch (IOException e) {
+            logger.error("Error during file upload: {}", e.getMessage(), e);
+            sample.failure(UploadMetrics.CAUSE_IO_ERROR);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Upload Error", "Failed to save files: " + e.getMessage(), 500));
+        } finally {
+            sample.stop();
+        }
+    }
+
+    /**
+     * Spring 이 임시 파일로 받아둔 파트를 업로드 디렉토리로 복사
+     */
+    private ResponseEntity<?> uploadSpooledFiles(MultipartFile[] files, String metadataJson, String checksumsJson,
+                                                 UploadMetrics.Sample sample) throws IOException {
+        // JSON 메타데이터 파싱 (선택사항)
+        FileUploadMetadata metadata = parseMetadata(metadataJson);
+        if (metadata == null) {
+            // 메타데이터가 제공되지 않은 경우 기본값 생성
+            List<String> filenames = new ArrayList<>();
+            for (MultipartFile file : files) {
+                filenames.add(getOriginalFilenameSafe(file));
+            }
+            metadata = createDefaultMetadataForMultipleFiles(filenames);
+            logger.info("No metadata provided, using default metadata");
+        }
+
+        // 파일 검증
+        if (files.length == 0) {
+            throw new InvalidUploadException("No Files", "At least one file must be provided");
+        }
+
+        // 클라이언트가 보낸 파일별 SHA-256 (선택사항)
+        Map<String, String> expectedChecksums = parseChecksums(checksumsJson);
+
+        logger.info("Uploading {} files with metadata: {}", files.length, metadata);
 
-        printMemoryUsage("Upload start");
+        // 업로드 디렉토리 생성
+        Path uploadPath = createUploadDirectory();
+
+        // 파일들을 병렬로 저장 (응답은 요청의 파일 순서 유지)
+        List<MultipartFile> storedParts = new ArrayList<>();
+        List<Future<FileUploadResponse.FileInfo>> futures = new ArrayList<>();
+        for (MultipartFile file : files) {
+            if (file.isEmpty()) {
+                logger.warn("Skipping empty file: {}", file.getOriginalFilename());
+                continue;
+            }
+            String expectedSha256 = expectedChecksums.get(getOriginalFilenameSafe(file));
+            long submittedAt = System.nanoTime();
+            storedParts.add(file);
+            futures.add(partExecutor.submit(() -> {
+                long queuedNanos = System.nanoTime() - submittedAt;
+                FileUploadResponse.FileInfo fileInfo = processFile(file, uploadPath, expectedSha256);
+                fileInfo.setQueuedMs(TimeUnit.NANOSECONDS.toMillis(queuedNanos));
+                return fileInfo;
+            }));
+        }
+
+        List<FileUploadResponse.FileInfo> fileInfos = new ArrayList<>();
+        IOException firstFailure = null;
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                fileInfos.add(futures.get(i).get());
+            } catch (CancellationException e) {
+                // 앞선 파일 실패로 시작 전에 취소됨
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelAll(futures);
+                if (firstFailure == null) {
+                    firstFailure = new InterruptedIOException("Interrupted while storing files");
+                }
+            } catch (ExecutionException e) {
+                IOException failure = asIOException(e.getCause());
+                MultipartFile file = storedParts.get(i);
+                logger.warn("Failed to store file {}: {}", getOriginalFilenameSafe(file), failure.getMessage());
+                if (firstFailure == null) {
+                    firstFailure = failure;
+                }
+                if (isPartialSuccess()) {
+                    fileInfos.add(failedFileInfo(getOriginalFilenameSafe(file), file.getContentType(), failure));
+                } else {
+                    // 아직 시작하지 않은 파일은 취소하고, 진행 중인 파일은 끝난 뒤 삭제
+                    cancelAll(futures);
+                }
+            }
+        }
+
+        if (firstFailure != null && (!isPartialSuccess() || countStored(fileInfos) == 0)) {
+            // 하나라도 실패하면 요청 전체를 거부하고 이미 저장한 파일 삭제
+            deleteSavedFiles(fileInfos);
+            throw firstFailure;
+        }
+
+        long totalSize = fileInfos.stream().mapToLong(FileUploadResponse.FileInfo::getSize).sum();
+        return uploadCompleted(fileInfos, totalSize, metadata, sample);
+    }
+
+    /**
+     * 요청 본문을 한 번만 읽으며 파일 파트를 업로드 디렉토리에 바로 기록.
+     * metadata, checksums 는 파일 파트 뒤에 와도 되며, 본문을 모두 읽은 뒤 검증에 실패하면 기록한 파일을 삭제한다.
+     */
+    private ResponseEntity<?> uploadStreamedFiles(HttpServletRequest request, UploadMetrics.Sample sample)
+            throws IOException {
+        MultipartStreamParser parser = newParser(request);
+        Path uploadPath = createUploadDirectory();
+
+        List<FileUploadResponse.FileInfo> fileInfos = new ArrayList<>();
+        List<String> filenames = new ArrayList<>();
+        String metadataJson = null;
+        String checksumsJson = null;
+        long totalSize = 0;
+        IOException firstFailure = null;
 
         try {
-            // JSON 메타데이터 파싱 (선택사항)
-            FileUploadMetadata metadata;
-            if (StringUtils.hasText(metadataJson)) {
-                try {
-                    metadata = objectMapper.readValue(metadataJson, FileUploadMetadata.class);
-                    
-                    // 메타데이터 검증 (제공된 경우만)
-                    if (!StringUtils.hasText(metadata.getDescription()) || !StringUtils.hasText(metadata.getCategory())) {
-                        return ResponseEntity.badRequest()
-                                .body(new ErrorResponse("Validation Error", "Description and category are required when metadata is provided", 400));
+            MultipartStreamParser.Part part;
+            while ((part = parser.nextPart()) != null) {
+                if (part.isFile() && "files".equals(part.getName())) {
+                    String originalFilename = part.getFilename().isEmpty() ? "unnamed_file" : part.getFilename();
+                    filenames.add(originalFilename);
+                    FileUploadResponse.FileInfo fileInfo;
+                    try {
+                        fileInfo = saveFile(part.getInputStream(), originalFilename,
+                                part.getContentType(), uploadPath).getFileInfo();
+                    } catch (MultipartLimitExceededException e) {
+                        boolean requestTooLarge = maxRequestSize.toBytes() > 0
+                                && parser.getBytesRead() > maxRequestSize.toBytes();
+                        if (!isPartialSuccess() || requestTooLarge) {
+                            throw e;
+                        }
+                        // 이 파트의 나머지는 다음 nextPart 에서 건너뜀
+                        fileInfos.add(failedFileInfo(originalFilename, part.getContentType(), e));
+                        firstFailure = firstFailure != null ? firstFailure : e;
+                        continue;
                     }
-                } catch (JsonProcessingException e) {
-                    logger.error("Invalid JSON metadata: {}", e.getMessage());
-                    return ResponseEntity.badRequest()
-                            .body(new ErrorResponse("Invalid JSON", "Metadata JSON is malformed: " + e.getMessage(), 400));
+                    if (fileInfo.getSize() == 0) {
+                        logger.warn("Skipping empty file: {}", originalFilename);
+                        Files.deleteIfExists(Paths.get(fileInfo.getPath()));
+                        continue;
+                    }
+                    fileInfos.add(fileInfo);
+                    totalSize += fileInfo.getSize();
+                } else if ("metadata".equals(part.getName())) {
+                    metadataJson = part.readString(MAX_FIELD_SIZE);
+                } else if ("checksums".equals(part.getName())) {
+                    checksumsJson = part.readString(MAX_FIELD_SIZE);
                 }
-            } else {
-                // 메타데이터가 제공되지 않은 경우 기본값 생성
-                metadata = createDefaultMetadataForMultipleFiles(files);
+            }
+
+            FileUploadMetadata metadata = parseMetadata(metadataJson);
+            if (metadata == null) {
+                metadata = createDefaultMetadataForMultipleFiles(filenames);
                 logger.info("No metadata provided, using default metadata");
             }
+            if (filenames.isEmpty()) {
+                throw new InvalidUploadException("No Files", "At least one file must be provided");
+            }
 
-            // 파일 검증
-            if (files == null || files.length == 0) {
-                return ResponseEntity.badRequest()
-                        .body(new ErrorResponse("No Files", "At least one file must be provided", 400));
+            // fail 모드에서는 하나라도 불일치하면 요청 전체를 거부
+            Map<String, String> expectedChecksums = parseChecksums(checksumsJson);
+            for (int i = 0; i < fileInfos.size(); i++) {
+                FileUploadResponse.FileInfo fileInfo = fileInfos.get(i);
+                String expectedSha256 = expectedChecksums.get(fileInfo.getOriginalFilename());
+                if (fileInfo.getError() == null && expectedSha256 != null && !expectedSha256.trim().equalsIgnoreCase(fileInfo.getSha256())) {
+                    logger.warn("Checksum mismatch for file {}: expected {}, actual {}",
+                            fileInfo.getOriginalFilename(), expectedSha256, fileInfo.getSha256());
+                    ChecksumMismatchException mismatch = new ChecksumMismatchException(
+                            fileInfo.getOriginalFilename(), fileInfo.getSha256());
+                    if (!isPartialSuccess()) {
+                        throw mismatch;
+                    }
+                    Files.deleteIfExists(Paths.get(fileInfo.getPath()));
+                    totalSize -= fileInfo.getSize();
+                    fileInfos.set(i, failedFileInfo(fileInfo.getOriginalFilename(), fileInfo.getContentType(), mismatch));
+                    firstFailure = firstFailure != null ? firstFailure : mismatch;
+                }
+            }
+            if (firstFailure != null && countStored(fileInfos) == 0) {
+                throw firstFailure;
             }
 
-            logger.info("Uploading {} files with metadata: {}", files.length, metadata);
+            logger.info("Streamed {} files ({} bytes) with metadata: {}", fileInfos.size(), totalSize, metadata);
+            return uploadCompleted(fileInfos, totalSize, metadata, sample);
 
-            // 업로드 디렉토리 생성
-            Path uploadPath = createUploadDirectory();
-            
-            // 파일들 처리
-            List<FileUploadResponse.FileInfo> fileInfos = new ArrayList<>();
-            long totalSize = 0;
+        } catch (IOException e) {
+            deleteSavedFiles(fileInfos);
+            throw e;
+        }
+    }
 
-            for (MultipartFile file : files) {
-                if (file.isEmpty()) {
-                    logger.warn("Skipping empty file: {}", file.getOriginalFilename());
-                    continue;
-                }
+    private ResponseEntity<?> uploadCompleted(List<FileUploadResponse.FileInfo> fileInfos, long totalSize,
+                                              FileUploadMetadata metadata, UploadMetrics.Sample sample) {
+        int storedCount = countStored(fileInfos);
+        int failedCount = fileInfos.size() - storedCount;
+
+        // 응답 생성
+        FileUploadResponse response = new FileUploadResponse(
+                failedCount == 0
+                        ? String.format("Successfully uploaded %d files", storedCount)
+                        : String.format("Uploaded %d files, %d failed", storedCount, failedCount),
+                fileInfos,
+                metadata
+        );
+
+        registerStored(fileInfos, metadata);
 
-                FileUploadResponse.FileInfo fileInfo = processFile(file, uploadPath, metadata);
-                fileInfos.add(fileInfo);
-                totalSize += fileInfo.getSize();
+        logger.info("Upload completed successfully. Files: {}, Failed: {}, Total size: {} bytes", 
+                   storedCount, failedCount, totalSize);
+        sample.success(totalSize);
 
-                printMemoryUsage("File processed: " + file.getOriginalFilename());
+        return ResponseEntity.status(failedCount == 0 ? HttpStatus.OK : HttpStatus.MULTI_STATUS).body(response);
+    }
+
+    /**
+     * 저장된 파일을 카탈로그에 등록하고 (실패한 파일 제외) 업로드 메타데이터를 색인에 기록
+     * 파일은 이미 저장되었으므로 메타데이터 기록 실패는 응답을 바꾸지 않는다.
+     */
+    private void registerStored(List<FileUploadResponse.FileInfo> fileInfos, FileUploadMetadata metadata) {
+        String category = metadata != null ? metadata.getCategory() : null;
+        boolean stored = false;
+        for (FileUploadResponse.FileInfo fileInfo : fileInfos) {
+            if (fileInfo.getError() == null) {
+                try {
+                    fileCatalog.register(Paths.get(fileInfo.getPath()), fileInfo.getSavedFilename(),
+                            fileInfo.getSha256(), category);
+                } catch (IOException e) {
+                    // 응답 전에 삭제된 파일 (다음 시작 시 스캔으로 다시 맞춰짐)
+                    logger.warn("Failed to register {} in catalog: {}", fileInfo.getSavedFilename(), e.getMessage());
+                }
+                stored = true;
             }
+        }
+        if (stored && metadata != null) {
+            try {
+                metadataIndex.append(metadata, fileInfos);
+            } catch (IOException e) {
+                logger.error("Failed to record upload metadata: {}", e.getMessage(), e);
+            }
+        }
+    }
 
-            // 응답 생성
-            FileUploadResponse response = new FileUploadResponse(
-                    String.format("Successfully uploaded %d files", fileInfos.size()),
-                    fileInfos,
-                    metadata
-            );
+    private boolean isPartialSuccess() {
+        return FAILURE_MODE_PARTIAL.equalsIgnoreCase(failureMode);
+    }
 
-            printMemoryUsage("Upload completed");
+    private static int countStored(List<FileUploadResponse.FileInfo> fileInfos) {
+        return (int) fileInfos.stream().filter(fileInfo -> fileInfo.getError() == null).count();
+    }
 
-            logger.info("Upload completed successfully. Files: {}, Total size: {} bytes", 
-                       fileInfos.size(), totalSize);
+    /**
+     * 부분 성공 응답에 넣을 실패한 파일 정보 (저장된 파일 없음)
+     */
+    private static FileUploadResponse.FileInfo failedFileInfo(String originalFilename, String contentType,
+                                                              IOException failure) {
+        FileUploadResponse.FileInfo fileInfo = new FileUploadResponse.FileInfo(
+                originalFilename, null, contentType, 0, null);
+        fileInfo.setError(failure.getMessage());
+        return fileInfo;
+    }
 
-            return ResponseEntity.ok(response);
+    private static void cancelAll(List<? extends Future<?>> futures) {
+        for (Future<?> future : futures) {
+            future.cancel(false);
+        }
+    }
 
-        } catch (IOException e) {
-            logger.error("Error during file upload: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ErrorResponse("Upload Error", "Failed to save files: " + e.getMessage(), 500));
+    private static IOException asIOException(Throwable cause) {
+        if (cause instanceof IOException) {
+            return (IOException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
         }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IOException(cause);
     }
 
     /**
      * 단일 파일 업로드 (간단한 버전)
+     * X-Content-SHA256 헤더가 있으면 저장 시 함께 검증한다.
      */
     @PostMapping("/upload/single")
     public ResponseEntity<?> uploadSingleFile(
-            @RequestParam("file") MultipartFile file,
-            @RequestParam(value = "metadata", required = false) String metadataJson) {
+            HttpServletRequest request,
+            @RequestHeader(value = StreamDigest.SHA256_HEADER, required = false) String expectedSha256) {
 
+        UploadMetrics.Sample sample = uploadMetrics.start(UploadMetrics.ENDPOINT_SINGLE);
+        FileUploadResponse.FileInfo fileInfo = null;
         try {
-            if (file.isEmpty()) {
-                return ResponseEntity.badRequest()
-                        .body(new ErrorResponse("Empty File", "File cannot be empty", 400));
+            String metadataJson;
+            String originalFilename;
+            if (request instanceof MultipartHttpServletRequest) {
+                MultipartHttpServletRequest multipartRequest = (MultipartHttpServletRequest) request;
+                MultipartFile file = multipartRequest.getFile("file");
+                if (file == null) {
+                    throw new InvalidUploadException("Missing File", "Required part 'file' is not present");
+                }
+                if (file.isEmpty()) {
+                    throw new InvalidUploadException("Empty File", "File cannot be empty");
+                }
+                metadataJson = multipartRequest.getParameter("metadata");
+                originalFilename = getOriginalFilenameSafe(file);
+                fileInfo = processFile(file, createUploadDirectory(), expectedSha256);
+            } else {
+                // 스트리밍 방식: 첫 번째 file 파트를 바로 기록하고 metadata 는 메모리에서 처리
+                MultipartStreamParser parser = newParser(request);
+                Path uploadPath = createUploadDirectory();
+                metadataJson = null;
+                originalFilename = null;
+                StoredFile storedFile = null;
+                MultipartStreamParser.Part part;
+                while ((part = parser.nextPart()) != null) {
+                    if (storedFile == null && part.isFile() && "file".equals(part.getName())) {
+                        originalFilename = part.getFilename().isEmpty() ? "unnamed_file" : part.getFilename();
+                        storedFile = saveFile(part.getInputStream(), originalFilename, part.getContentType(), uploadPath);
+                        fileInfo = storedFile.getFileInfo();
+                    } else if ("metadata".equals(part.getName())) {
+                        metadataJson = part.readString(MAX_FIELD_SIZE);
+                    }
+                }
+                if (storedFile == null) {
+                    throw new InvalidUploadException("Missing File", "Required part 'file' is not present");
+                }
+                if (fileInfo.getSize() == 0) {
+                    throw new InvalidUploadException("Empty File", "File cannot be empty");
+                }
+                verifyChecksum(storedFile, expectedSha256);
             }
 
             // 기본 메타데이터 생성
@@ -137,88 +476,212 @@ public class MultipartFileUploadController {
                 try {
                     metadata = objectMapper.readValue(metadataJson, FileUploadMetadata.class);
                 } catch (JsonProcessingException e) {
-                    metadata = createDefaultMetadata(file);
+                    metadata = createDefaultMetadata(originalFilename);
                 }
             } else {
-                metadata = createDefaultMetadata(file);
+                metadata = createDefaultMetadata(originalFilename);
             }
 
-            Path uploadPath = createUploadDirectory();
-            FileUploadResponse.FileInfo fileInfo = processFile(file, uploadPath, metadata);
+            registerStored(Collections.singletonList(fileInfo), metadata);
+            sample.success(fileInfo.getSize());
 
             FileUploadResponse response = new FileUploadResponse(
-                    "File uploaded successfully: " + file.getOriginalFilename(),
+                    "File uploaded successfully: " + originalFilename,
                     Collections.singletonList(fileInfo),
                     metadata
             );
 
             return ResponseEntity.ok(response);
 
+        } catch (InvalidUploadException e) {
+            deleteSavedFile(fileInfo);
+            sample.failure(UploadMetrics.CAUSE_BAD_REQUEST);
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getError(), e.getMessage(), 400));
+        } catch (ChecksumMismatchException e) {
+            sample.failure(UploadMetrics.CAUSE_CHECKSUM_MISMATCH);
+            return checksumMismatch(e);
+        } catch (MultipartLimitExceededException e) {
+            deleteSavedFile(fileInfo);
+            sample.failure(UploadMetrics.CAUSE_TOO_LARGE);
+            return payloadTooLarge(e);
+        } catch (MalformedMultipartException e) {
+            deleteSavedFile(fileInfo);
+            sample.failure(UploadMetrics.CAUSE_BAD_REQUEST);
+            return ResponseEntity.badRequest().body(new ErrorResponse("Malformed Multipart", e.getMessage(), 400));
         } catch (IOException e) {
+            deleteSavedFile(fileInfo);
             logger.error("Error during single file upload: {}", e.getMessage(), e);
+            sample.failure(UploadMetrics.CAUSE_IO_ERROR);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ErrorResponse("Upload Error", "Failed to save file: " + e.getMessage(), 500));
+        } finally {
+            sample.stop();
         }
     }
 
     /**
-     * 업로드된 파일 목록 조회
+     * 파일 처리 (저장)
+     * 복사 루프에서 CRC32C/SHA-256 을 함께 계산하며, expectedSha256 이 주어지면 불일치 시 파일을 삭제한다.
      */
-    @GetMapping("/files")
-    public ResponseEntity<?> listUploadedFiles() {
-        try {
-            Path uploadPath = Paths.get(uploadDirectory);
-            if (!Files.exists(uploadPath)) {
-                return ResponseEntity.ok(Collections.emptyList());
-            }
-
-            List<String> files = new ArrayList<>();
-            Files.list(uploadPath)
-                    .filter(Files::isRegularFile)
-                    .forEach(path -> files.add(path.getFileName().toString()));
-
-            return ResponseEntity.ok(files);
-
-        } catch (IOException e) {
-            logger.error("Error listing files: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ErrorResponse("List Error", "Failed to list files: " + e.getMessage(), 500));
+    private FileUploadResponse.FileInfo processFile(MultipartFile file, Path uploadPath,
+                                                    String expectedSha256) throws IOException {
+        StoredFile storedFile;
+        try (InputStream inputStream = file.getInputStream()) {
+            storedFile = saveFile(inputStream, getOriginalFilenameSafe(file), file.getContentType(), uploadPath);
         }
+        verifyChecksum(storedFile, expectedSha256);
+        return storedFile.getFileInfo();
     }
 
     /**
-     * 파일 처리 (저장)
+     * 스트림을 고유한 이름의 파일로 저장 (스트리밍 방식, 체크섬 동시 계산)
+     * 파트 크기가 spring.servlet.multipart.max-file-size 를 넘으면 기록을 멈추고 파일을 삭제한다.
      */
-    private FileUploadResponse.FileInfo processFile(MultipartFile file, Path uploadPath, FileUploadMetadata metadata) throws IOException {
-        String originalFilename = getOriginalFilenameSafe(file);
+    private StoredFile saveFile(InputStream inputStream, String originalFilename, String contentType,
+                                Path uploadPath) throws IOException {
         String cleanedFilename = StringUtils.cleanPath(originalFilename);
         String fileExtension = getFileExtension(cleanedFilename);
         
-        // 고유한 파일명 생성 (타임스탬프 + UUID)
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-        String uniqueId = UUID.randomUUID().toString().substring(0, 8);
-        String savedFilename = String.format("%s_%s_%s%s", 
-                timestamp, uniqueId, sanitizeFilename(cleanedFilename), fileExtension);
-
-        Path filePath = uploadPath.resolve(savedFilename);
-
-        // 파일 저장 (스트리밍 방식)
-        try {
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+        // 고유한 파일명 생성 (ID + 원본 파일명)
+        String savedFilename = fileIdGenerator.nextId() + "_" + sanitizeFilename(cleanedFilename) + fileExtension;
+
+        // sharded 배치는 파일명 해시로 정한 하위 디렉토리에 저장
+        Path filePath = shardedLayout.isSharded()
+                ? shardedLayout.prepare(savedFilename) : uploadPath.resolve(savedFilename);
+
+        long startTime = System.nanoTime();
+        StreamDigest digest = new StreamDigest();
+        long limit = maxFileSize.toBytes();
+        long fileSize = 0;
+        ByteBuffer buffer = bufferPool.acquire(bufferSize);
+        try (FileChannel fileChannel = FileChannel.open(filePath,
+                     StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (StreamBuffers.read(inputStream, buffer) != -1) {
+                buffer.flip();
+                fileSize += buffer.remaining();
+                if (limit > 0 && fileSize > limit) {
+                    throw new MultipartLimitExceededException("File too large: " + originalFilename, limit);
+                }
+                digest.update(buffer);
+                while (buffer.hasRemaining()) {
+                    fileChannel.write(buffer);
+                }
+                buffer.clear();
+            }
         } catch (IOException e) {
             logger.error("Failed to save file {}: {}", savedFilename, e.getMessage());
+            Files.deleteIfExists(filePath);
             throw e;
+        } finally {
+            bufferPool.release(buffer);
         }
 
-        logger.info("File saved: {} -> {} ({} bytes)", originalFilename, savedFilename, file.getSize());
+        logger.info("File saved: {} -> {} ({} bytes, sha256={})",
+                originalFilename, savedFilename, fileSize, digest.getSha256());
 
-        return new FileUploadResponse.FileInfo(
+        FileUploadResponse.FileInfo fileInfo = new FileUploadResponse.FileInfo(
                 originalFilename,
                 savedFilename,
-                file.getContentType(),
-                file.getSize(),
+                contentType,
+                fileSize,
                 filePath.toString()
         );
+        fileInfo.setSha256(digest.getSha256());
+        fileInfo.setCrc32c(digest.getCrc32c());
+        fileInfo.setElapsedMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        return new StoredFile(fileInfo, digest);
+    }
+
+    /**
+     * 기대값이 있으면 체크섬을 검증하고 불일치 시 저장한 파일 삭제
+     */
+    private void verifyChecksum(StoredFile storedFile, String expectedSha256) throws IOException {
+        FileUploadResponse.FileInfo fileInfo = storedFile.getFileInfo();
+        if (!storedFile.getDigest().matches(expectedSha256, null)) {
+            logger.warn("Checksum mismatch for file {}: expected {}, actual {}",
+                    fileInfo.getOriginalFilename(), expectedSha256, fileInfo.getSha256());
+            Files.deleteIfExists(Paths.get(fileInfo.getPath()));
+            throw new ChecksumMismatchException(fileInfo.getOriginalFilename(), fileInfo.getSha256());
+        }
+    }
+
+    /**
+     * 메타데이터 JSON 파싱 및 검증 (제공되지 않았으면 null)
+     */
+    private FileUploadMetadata parseMetadata(String metadataJson) throws InvalidUploadException {
+        if (!StringUtils.hasText(metadataJson)) {
+            return null;
+        }
+        FileUploadMetadata metadata;
+        try {
+            metadata = objectMapper.readValue(metadataJson, FileUploadMetadata.class);
+        } catch (JsonProcessingException e) {
+            logger.error("Invalid JSON metadata: {}", e.getMessage());
+            throw new InvalidUploadException("Invalid JSON", "Metadata JSON is malformed: " + e.getMessage());
+        }
+        // 메타데이터 검증 (제공된 경우만)
+        if (!StringUtils.hasText(metadata.getDescription()) || !StringUtils.hasText(metadata.getCategory())) {
+            throw new InvalidUploadException("Validation Error", "Description and category are required when metadata is provided");
+        }
+        return metadata;
+    }
+
+    /**
+     * 파일별 SHA-256 JSON 파싱 (제공되지 않았으면 빈 맵)
+     */
+    private Map<String, String> parseChecksums(String checksumsJson) throws InvalidUploadException {
+        if (!StringUtils.hasText(checksumsJson)) {
+            return Collections.emptyMap();
+        }
+        try {
+            return objectMapper.readValue(checksumsJson, new TypeReference<Map<String, String>>() {});
+        } catch (JsonProcessingException e) {
+            throw new InvalidUploadException("Invalid JSON", "Checksums JSON is malformed: " + e.getMessage());
+        }
+    }
+
+    private MultipartStreamParser newParser(HttpServletRequest request) throws IOException {
+        String boundary = MultipartStreamParser.extractBoundary(request.getContentType());
+        if (boundary == null) {
+            throw new InvalidUploadException("Not Multipart", "Content-Type must be multipart/form-data with a boundary");
+        }
+        return new MultipartStreamParser(request.getInputStream(), boundary, bufferSize, maxRequestSize.toBytes());
+    }
+
+    private void deleteSavedFiles(List<FileUploadResponse.FileInfo> fileInfos) throws IOException {
+        for (FileUploadResponse.FileInfo saved : fileInfos) {
+            if (saved.getPath() != null) {
+                Files.deleteIfExists(Paths.get(saved.getPath()));
+            }
+        }
+    }
+
+    private void deleteSavedFile(FileUploadResponse.FileInfo fileInfo) {
+        if (fileInfo == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(Paths.get(fileInfo.getPath()));
+        } catch (IOException e) {
+            logger.warn("Failed to delete rejected file {}: {}", fileInfo.getPath(), e.getMessage());
+        }
+    }
+
+    /**
+     * 크기 한도 초과 응답
+     */
+    private ResponseEntity<ErrorResponse> payloadTooLarge(MultipartLimitExceededException e) {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body(new ErrorResponse("Payload Too Large", e.getMessage(), 413));
+    }
+
+    /**
+     * 체크섬 불일치 응답
+     */
+    private ResponseEntity<ErrorResponse> checksumMismatch(ChecksumMismatchException e) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(new ErrorResponse("Checksum Mismatch",
+                        e.getMessage() + " (actual sha256: " + e.getActualSha256() + ")", 422));
     }
 
     /**
@@ -236,9 +699,9 @@ public class MultipartFileUploadController {
     /**
      * 기본 메타데이터 생성
      */
-    private FileUploadMetadata createDefaultMetadata(MultipartFile file) {
+    private FileUploadMetadata createDefaultMetadata(String originalFilename) {
         FileUploadMetadata metadata = new FileUploadMetadata();
-        metadata.setDescription("Single file upload: " + file.getOriginalFilename());
+        metadata.setDescription("Single file upload: " + originalFilename);
         metadata.setCategory("general");
         metadata.setUploadedBy("anonymous");
         return metadata;
@@ -247,14 +710,14 @@ public class MultipartFileUploadController {
     /**
      * 다중 파일용 기본 메타데이터 생성
      */
-    private FileUploadMetadata createDefaultMetadataForMultipleFiles(MultipartFile[] files) {
+    private FileUploadMetadata createDefaultMetadataForMultipleFiles(List<String> originalFilenames) {
         FileUploadMetadata metadata = new FileUploadMetadata();
         
-        if (files != null && files.length > 0) {
-            if (files.length == 1) {
-                metadata.setDescription("Single file upload: " + getOriginalFilenameSafe(files[0]));
+        if (!originalFilenames.isEmpty()) {
+            if (originalFilenames.size() == 1) {
+                metadata.setDescription("Single file upload: " + originalFilenames.get(0));
             } else {
-                metadata.setDescription("Multiple files upload: " + files.length + " files");
+                metadata.setDescription("Multiple files upload: " + originalFilenames.size() + " files");
             }
         } else {
             metadata.setDescription("File upload");
@@ -285,7 +748,7 @@ public class MultipartFileUploadController {
         String nameWithoutExtension = lastDotIndex > 0 ? filename.substring(0, lastDotIndex) : filename;
         
         // 특수문자를 언더스코어로 치환
-        return nameWithoutExtension.replaceAll("[^a-zA-Z0-9가-힣._-]", "_");
+        return FilenameSanitizer.sanitize(nameWithoutExtension);
     }
 
     /**
@@ -299,24 +762,41 @@ public class MultipartFileUploadController {
     }
 
     /**
-     * 메모리 사용량 출력
+     * 저장한 파일 정보와 계산한 체크섬
+     */
+    private static class StoredFile {
+
+        private final FileUploadResponse.FileInfo fileInfo;
+        private final StreamDigest digest;
+
+        StoredFile(FileUploadResponse.FileInfo fileInfo, StreamDigest digest) {
+            this.fileInfo = fileInfo;
+            this.digest = digest;
+        }
+
+        FileUploadResponse.FileInfo getFileInfo() {
+            return fileInfo;
+        }
+
+        StreamDigest getDigest() {
+            return digest;
+        }
+    }
+
+    /**
+     * 400 으로 응답할 요청 오류 (error 는 ErrorResponse 의 error 필드)
      */
-    private void printMemoryUsage(String phase) {
-        Runtime runtime = Runtime.getRuntime();
-        long totalMemory = runtime.totalMemory();
-        long freeMemory = runtime.freeMemory();
-        long usedMemory = totalMemory - freeMemory;
-        long maxMemory = runtime.maxMemory();
-
-        logger.info("[{}] Memory Usage - Used: {} MB / Max: {} MB",
-                phase,
-                String.format("%.2f", usedMemory / 1024.0 / 1024.0),
-                String.format("%.2f", maxMemory / 1024.0 / 1024.0));
-
-        // 20MB 이상 사용 시 경고
-        if (usedMemory > 20 * 1024 * 1024) {
-            logger.warn("⚠️ WARNING: Memory usage exceeds 20MB limit! Used: {} MB",
-                    String.format("%.2f", usedMemory / 1024.0 / 1024.0));
+    private static class InvalidUploadException extends IOException {
+
+        private final String error;
+
+        InvalidUploadException(String error, String message) {
+            super(message);
+            this.error = error;
+        }
+
+        String getError() {
+            return error;
         }
     }
 }
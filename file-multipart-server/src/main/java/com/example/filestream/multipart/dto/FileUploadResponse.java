@@ -15,6 +15,8 @@ public class FileUploadResponse {
     private FileUploadMetadata metadata;
     private long totalSize;
     private int fileCount;
+    // 부분 성공 응답에서 저장에 실패한 파일 수 (모두 성공하면 null)
+    private Integer failedCount;
     
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime uploadedAt;
@@ -30,8 +32,7 @@ public class FileUploadResponse {
         this.message = message;
         this.files = files;
         this.metadata = metadata;
-        this.fileCount = files != null ? files.size() : 0;
-        this.totalSize = files != null ? files.stream().mapToLong(FileInfo::getSize).sum() : 0;
+        countFiles(files);
     }
     
     // Getters and Setters
@@ -49,8 +50,7 @@ public class FileUploadResponse {
     
     public void setFiles(List<FileInfo> files) {
         this.files = files;
-        this.fileCount = files != null ? files.size() : 0;
-        this.totalSize = files != null ? files.stream().mapToLong(FileInfo::getSize).sum() : 0;
+        countFiles(files);
     }
     
     public FileUploadMetadata getMetadata() {
@@ -77,6 +77,21 @@ public class FileUploadResponse {
         this.fileCount = fileCount;
     }
     
+    public Integer getFailedCount() {
+        return failedCount;
+    }
+    
+    public void setFailedCount(Integer failedCount) {
+        this.failedCount = failedCount;
+    }
+    
+    private void countFiles(List<FileInfo> files) {
+        this.fileCount = files != null ? (int) files.stream().filter(file -> file.getError() == null).count() : 0;
+        this.totalSize = files != null ? files.stream().mapToLong(FileInfo::getSize).sum() : 0;
+        int failed = files != null ? files.size() - fileCount : 0;
+        this.failedCount = failed > 0 ? failed : null;
+    }
+    
     public LocalDateTime getUploadedAt() {
         return uploadedAt;
     }
@@ -94,6 +109,13 @@ public class FileUploadResponse {
         private String contentType;
         private long size;
         private String path;
+        private String sha256;
+        private String crc32c;
+        // 저장 스레드를 기다린 시간과 저장(기록 + 체크섬)에 걸린 시간
+        private Long queuedMs;
+        private Long elapsedMs;
+        // 부분 성공 모드에서 저장에 실패한 파일의 사유 (성공 시 null)
+        private String error;
         
         // 기본 생성자
         public FileInfo() {}
@@ -147,5 +169,45 @@ public class FileUploadResponse {
         public void setPath(String path) {
             this.path = path;
         }
+        
+        public String getSha256() {
+            return sha256;
+        }
+        
+        public void setSha256(String sha256) {
+            this.sha256 = sha256;
+        }
+        
+        public String getCrc32c() {
+            return crc32c;
+        }
+        
+        public void setCrc32c(String crc32c) {
+            this.crc32c = crc32c;
+        }
+        
+        public Long getQueuedMs() {
+            return queuedMs;
+        }
+        
+        public void setQueuedMs(Long queuedMs) {
+            this.queuedMs = queuedMs;
+        }
+        
+        public Long getElapsedMs() {
+            return elapsedMs;
+        }
+        
+        public void setElapsedMs(Long elapsedMs) {
+            this.elapsedMs = elapsedMs;
+        }
+        
+        public String getError() {
+            return error;
+        }
+        
+        public void setError(String error) {
+            this.error = error;
+        }
     }
 }
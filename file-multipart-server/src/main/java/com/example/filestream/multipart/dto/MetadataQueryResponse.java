@@ -0,0 +1,59 @@
+package com.example.filestream.multipart.dto;
+
+import com.example.filestream.multipart.metadata.MetadataRecord;
+
+import java.util.List;
+
+/**
+ * 업로드 메타데이터 조회 응답 정보
+ */
+public class MetadataQueryResponse {
+
+    private List<MetadataRecord> uploads;
+    private int count;
+    // 다음 페이지 커서 (마지막 페이지면 null)
+    private String nextCursor;
+    // 색인 조회와 레코드 읽기에 걸린 시간
+    private long tookMicros;
+
+    // 기본 생성자
+    public MetadataQueryResponse() {}
+
+    // 생성자
+    public MetadataQueryResponse(List<MetadataRecord> uploads, String nextCursor, long tookMicros) {
+        this.uploads = uploads;
+        this.count = uploads.size();
+        this.nextCursor = nextCursor;
+        this.tookMicros = tookMicros;
+    }
+
+    // Getters and Setters
+    public List<MetadataRecord> getUploads() {
+        return uploads;
+    }
+
+    public void setUploads(List<MetadataRecord> uploads) {
+        this.uploads = uploads;
+        this.count = uploads == null ? 0 : uploads.size();
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public long getTookMicros() {
+        return tookMicros;
+    }
+
+    public void setTookMicros(long tookMicros) {
+        this.tookMicros = tookMicros;
+    }
+}
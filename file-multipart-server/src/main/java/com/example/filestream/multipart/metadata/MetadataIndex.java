@@ -0,0 +1,585 @@
+package com.example.filestream.multipart.metadata;
+
+import com.example.filestream.multipart.dto.FileUploadMetadata;
+import com.example.filestream.multipart.dto.FileUploadResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * 업로드 메타데이터 색인 (file.metadata.index.enabled=true).
+ *
+ * 업로드마다 메타데이터와 저장된 파일 목록을 이진 레코드 하나로 로그({upload}/.metadata/uploads.log)에 이어 붙이고,
+ * category, tags, uploadedBy 별 역색인(레코드 번호 목록)과 레코드 위치, 업로드 시각만 메모리에 둔다.
+ * 조회는 역색인 목록을 교차해 레코드 번호를 고른 뒤 해당 레코드만 로그에서 읽는다.
+ * 시작 시 로그를 처음부터 읽어 색인을 다시 만들고, 기록 중 끊긴 꼬리 레코드는 잘라낸다.
+ *
+ * <pre>
+ * 레코드  magic(4) length(4) crc32(4) payload
+ * payload uploadedAt(8) category uploadedBy description tagCount tag... customFields(JSON) fileCount
+ *         [savedFilename size sha256(32 bytes 또는 0)]...
+ * 문자열은 varint(UTF-8 길이 + 1, 0 = null) 뒤에 UTF-8, 개수와 크기는 varint
+ * </pre>
+ *
+ * - 레코드 번호는 기록 순서이고 업로드 시각은 감소하지 않도록 기록하므로, 시각 범위는 번호 범위로 바뀐다 (이진 검색).
+ * - category, tag, uploadedBy 는 대소문자를 구분하지 않는다 (소문자로 색인, 저장값은 그대로).
+ */
+@Component
+public class MetadataIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetadataIndex.class);
+
+    public static final String METADATA_DIRECTORY = ".metadata";
+
+    private static final String LOG_FILE = "uploads.log";
+    private static final int RECORD_MAGIC = 0x4d445831; // "MDX1"
+    private static final int HEADER_SIZE = 12;
+    private static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+    private static final int SHA256_LENGTH = 32;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Path logPath;
+    private final boolean enabled;
+    private final boolean syncOnWrite;
+
+    // 색인 조회는 read lock, 레코드 추가 후 색인 갱신은 write lock
+    private final ReentrantReadWriteLock indexLock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> byCategory = new HashMap<>();
+    private final Map<String, Postings> byTag = new HashMap<>();
+    private final Map<String, Postings> byUploadedBy = new HashMap<>();
+    // 레코드 번호 -> 로그 내 위치, 업로드 시각
+    private long[] offsets = new long[1024];
+    private long[] times = new long[1024];
+    private int count;
+    // 마지막 레코드의 끝 (레코드 크기 = 다음 레코드 위치 - 위치)
+    private long indexedEnd;
+
+    // 레코드 추가는 이 잠금 안에서 순서대로 진행
+    private final Object appendLock = new Object();
+    private volatile FileChannel channel;
+    private long length;
+    private long lastUploadedAt = Long.MIN_VALUE;
+
+    public MetadataIndex(@Value("${file.upload.directory:./uploads}") String uploadDirectory,
+                         @Value("${file.metadata.index.enabled:true}") boolean enabled,
+                         @Value("${file.metadata.index.sync:false}") boolean syncOnWrite,
+                         MeterRegistry registry) {
+        this.logPath = Paths.get(uploadDirectory).resolve(METADATA_DIRECTORY).resolve(LOG_FILE);
+        this.enabled = enabled;
+        this.syncOnWrite = syncOnWrite;
+        Gauge.builder("file.metadata.records", this, MetadataIndex::getRecordCount)
+                .description("Uploads recorded in the metadata index")
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        long startTime = System.nanoTime();
+        Files.createDirectories(logPath.getParent());
+        long validLength = Files.exists(logPath) ? replay() : 0;
+
+        channel = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        if (channel.size() > validLength) {
+            logger.warn("Truncating {} bytes of incomplete records in {}", channel.size() - validLength, logPath);
+            channel.truncate(validLength);
+        }
+        length = validLength;
+        logger.info("Metadata index: {} uploads loaded from {} in {} ms", count, logPath.toAbsolutePath(),
+                (System.nanoTime() - startTime) / 1_000_000);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        synchronized (appendLock) {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getRecordCount() {
+        indexLock.readLock().lock();
+        try {
+            return count;
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 업로드 하나의 메타데이터와 저장된 파일(error 가 없는 파일)을 기록하고 레코드 번호 반환 (비활성이면 -1).
+     * 인코딩한 레코드가 16MB 를 넘으면 기록하지 않고 IOException
+     */
+    public long append(FileUploadMetadata metadata, List<FileUploadResponse.FileInfo> fileInfos) throws IOException {
+        if (!enabled) {
+            return -1;
+        }
+        List<MetadataRecord.StoredFile> files = new ArrayList<>(fileInfos.size());
+        for (FileUploadResponse.FileInfo fileInfo : fileInfos) {
+            if (fileInfo.getError() == null) {
+                files.add(new MetadataRecord.StoredFile(fileInfo.getSavedFilename(), fileInfo.getSize(),
+                        fileInfo.getSha256()));
+            }
+        }
+        String customFields = metadata.getCustomFields() == null || metadata.getCustomFields().isEmpty() ? null
+                : objectMapper.writeValueAsString(metadata.getCustomFields());
+
+        synchronized (appendLock) {
+            if (channel == null) {
+                throw new IOException("Metadata index is closed");
+            }
+            // 시각 범위 검색이 번호 순서를 쓸 수 있도록 시계가 뒤로 가도 감소하지 않게 기록
+            long uploadedAt = Math.max(System.currentTimeMillis(), lastUploadedAt);
+            byte[] payload = encode(uploadedAt, metadata, customFields, files);
+            if (payload.length > MAX_RECORD_SIZE) {
+                // 복구 시 읽을 수 없는 레코드를 기록하면 그 뒤의 레코드까지 잘려 나가므로 기록하지 않음
+                throw new IOException("Metadata record too large: " + payload.length + " bytes (max "
+                        + MAX_RECORD_SIZE + ")");
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(RECORD_MAGIC).putInt(payload.length).putInt((int) crc.getValue());
+            header.flip();
+            long position = length;
+            long written = position;
+            ByteBuffer body = ByteBuffer.wrap(payload);
+            while (header.hasRemaining()) {
+                written += channel.write(header, written);
+            }
+            while (body.hasRemaining()) {
+                written += channel.write(body, written);
+            }
+            if (syncOnWrite) {
+                channel.force(false);
+            }
+            length = written;
+            lastUploadedAt = uploadedAt;
+            return index(position, written, uploadedAt, metadata.getCategory(), metadata.getUploadedBy(),
+                    metadata.getTags());
+        }
+    }
+
+    /**
+     * 기록된 레코드를 오래된 순으로 모두 읽음 (카탈로그 재구성용, 비활성이면 아무것도 하지 않음).
+     * 호출 시점까지 색인된 레코드만 읽으며 이후 추가되는 레코드는 포함하지 않는다.
+     */
+    public void forEach(Consumer<MetadataRecord> action) throws IOException {
+        if (!enabled) {
+            return;
+        }
+        int total = getRecordCount();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(logPath), 65536))) {
+            for (int id = 0; id < total; id++) {
+                if (in.readInt() != RECORD_MAGIC) {
+                    throw new IOException("Corrupted metadata record " + id + " in " + logPath);
+                }
+                byte[] payload = new byte[in.readInt()];
+                in.readInt();
+                in.readFully(payload);
+                action.accept(decode(id, ByteBuffer.wrap(payload)));
+            }
+        }
+    }
+
+    /**
+     * 조건을 모두 만족하는 업로드를 최신순으로 limit 개까지 조회.
+     * 조건이 null 이거나 비어 있으면 적용하지 않으며, 시각은 from 이상 to 미만, before 가 0 이상이면 그보다 작은 번호만
+     */
+    public List<MetadataRecord> query(String category, List<String> tags, String uploadedBy,
+                                      long from, long to, long before, int limit) throws IOException {
+        if (!enabled || limit <= 0) {
+            return Collections.emptyList();
+        }
+        int[] ids = new int[limit];
+        long[] positions;
+        long[] ends;
+        int found = 0;
+
+        indexLock.readLock().lock();
+        try {
+            int low = lowerBound(from);
+            int high = lowerBound(to);
+            if (before >= 0 && before < high) {
+                high = (int) before;
+            }
+
+            List<Postings> criteria = new ArrayList<>();
+            if (!collect(byCategory, category, criteria) || !collect(byUploadedBy, uploadedBy, criteria)) {
+                return Collections.emptyList();
+            }
+            if (tags != null) {
+                for (String tag : tags) {
+                    if (!collect(byTag, tag, criteria)) {
+                        return Collections.emptyList();
+                    }
+                }
+            }
+
+            if (criteria.isEmpty()) {
+                for (int id = high - 1; id >= low && found < limit; id--) {
+                    ids[found++] = id;
+                }
+            } else {
+                // 가장 짧은 목록을 최신순으로 훑으며 나머지 목록에 있는지 이진 검색
+                criteria.sort(Comparator.comparingInt(postings -> postings.size));
+                Postings driver = criteria.get(0);
+                for (int i = driver.lastIndexBelow(high); i >= 0 && found < limit; i--) {
+                    int id = driver.ids[i];
+                    if (id < low) {
+                        break;
+                    }
+                    if (containsAll(criteria, id)) {
+                        ids[found++] = id;
+                    }
+                }
+            }
+
+            positions = new long[found];
+            ends = new long[found];
+            for (int i = 0; i < found; i++) {
+                positions[i] = offsets[ids[i]];
+                ends[i] = ids[i] + 1 < count ? offsets[ids[i] + 1] : indexedEnd;
+            }
+        } finally {
+            indexLock.readLock().unlock();
+        }
+
+        List<MetadataRecord> records = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            records.add(read(ids[i], positions[i], ends[i]));
+        }
+        return records;
+    }
+
+    private static boolean collect(Map<String, Postings> index, String key, List<Postings> criteria) {
+        if (!StringUtils.hasText(key)) {
+            return true;
+        }
+        Postings postings = index.get(normalize(key));
+        if (postings == null) {
+            return false;
+        }
+        criteria.add(postings);
+        return true;
+    }
+
+    private static boolean containsAll(List<Postings> criteria, int id) {
+        for (int i = 1; i < criteria.size(); i++) {
+            if (!criteria.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 업로드 시각이 value 이상인 첫 레코드 번호 (indexLock 안에서 호출)
+     */
+    private int lowerBound(long value) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (times[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int index(long position, long end, long uploadedAt, String category, String uploadedBy,
+                      List<String> tags) {
+        indexLock.writeLock().lock();
+        try {
+            int id = count;
+            if (id == offsets.length) {
+                offsets = Arrays.copyOf(offsets, id * 2);
+                times = Arrays.copyOf(times, id * 2);
+            }
+            offsets[id] = position;
+            times[id] = uploadedAt;
+            addPosting(byCategory, category, id);
+            addPosting(byUploadedBy, uploadedBy, id);
+            if (tags != null) {
+                for (String tag : tags) {
+                    addPosting(byTag, tag, id);
+                }
+            }
+            count = id + 1;
+            indexedEnd = end;
+            return id;
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    private static void addPosting(Map<String, Postings> index, String key, int id) {
+        if (StringUtils.hasText(key)) {
+            index.computeIfAbsent(normalize(key), k -> new Postings()).add(id);
+        }
+    }
+
+    private static String normalize(String key) {
+        return key.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 로그를 처음부터 읽어 색인을 만들고 마지막으로 온전한 레코드의 끝 위치 반환
+     */
+    private long replay() throws IOException {
+        long size = Files.size(logPath);
+        long position = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(logPath), 65536))) {
+            while (position + HEADER_SIZE <= size) {
+                int magic = in.readInt();
+                int recordLength = in.readInt();
+                int recordCrc = in.readInt();
+                if (magic != RECORD_MAGIC || recordLength <= 0 || recordLength > MAX_RECORD_SIZE
+                        || position + HEADER_SIZE + recordLength > size) {
+                    break;
+                }
+                byte[] payload = new byte[recordLength];
+                in.readFully(payload);
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int) crc.getValue() != recordCrc) {
+                    break;
+                }
+                MetadataRecord record = decode(count, ByteBuffer.wrap(payload));
+                long end = position + HEADER_SIZE + recordLength;
+                index(position, end, record.getUploadedAt(), record.getCategory(), record.getUploadedBy(),
+                        record.getTags());
+                lastUploadedAt = Math.max(lastUploadedAt, record.getUploadedAt());
+                position = end;
+            }
+        } catch (EOFException | IllegalArgumentException | BufferUnderflowException e) {
+            logger.warn("Unreadable metadata record at offset {} in {}: {}", position, logPath, e.toString());
+        }
+        return position;
+    }
+
+    /**
+     * 색인에 있는 위치와 크기로 레코드를 한 번에 읽음
+     */
+    private MetadataRecord read(int id, long position, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) (end - position));
+        readFully(buffer, position);
+        buffer.flip();
+        if (buffer.getInt() != RECORD_MAGIC || buffer.getInt() != buffer.capacity() - HEADER_SIZE) {
+            throw new IOException("Corrupted metadata record " + id + " at offset " + position);
+        }
+        buffer.getInt();
+        return decode(id, buffer);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        FileChannel current = channel;
+        if (current == null) {
+            throw new IOException("Metadata index is closed");
+        }
+        while (buffer.hasRemaining()) {
+            int read = current.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException("Unexpected end of metadata log at " + position);
+            }
+        }
+    }
+
+    private static byte[] encode(long uploadedAt, FileUploadMetadata metadata, String customFields,
+                                 List<MetadataRecord.StoredFile> files) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (uploadedAt >>> shift));
+        }
+        writeString(out, metadata.getCategory());
+        writeString(out, metadata.getUploadedBy());
+        writeString(out, metadata.getDescription());
+        List<String> tags = metadata.getTags() == null ? Collections.emptyList() : metadata.getTags();
+        writeVarLong(out, tags.size());
+        for (String tag : tags) {
+            writeString(out, tag);
+        }
+        writeString(out, customFields);
+        writeVarLong(out, files.size());
+        for (MetadataRecord.StoredFile file : files) {
+            writeString(out, file.getSavedFilename());
+            writeVarLong(out, file.getSize());
+            byte[] sha256 = file.getSha256() == null ? new byte[0] : hexToBytes(file.getSha256());
+            writeVarLong(out, sha256.length);
+            out.write(sha256, 0, sha256.length);
+        }
+        return out.toByteArray();
+    }
+
+    private MetadataRecord decode(long id, ByteBuffer in) throws IOException {
+        long uploadedAt = in.getLong();
+        String category = readString(in);
+        String uploadedBy = readString(in);
+        String description = readString(in);
+        int tagCount = (int) readVarLong(in);
+        List<String> tags = new ArrayList<>(tagCount);
+        for (int i = 0; i < tagCount; i++) {
+            tags.add(readString(in));
+        }
+        String customFieldsJson = readString(in);
+        Map<String, Object> customFields = customFieldsJson == null ? null
+                : objectMapper.readValue(customFieldsJson, new TypeReference<Map<String, Object>>() {});
+        int fileCount = (int) readVarLong(in);
+        List<MetadataRecord.StoredFile> files = new ArrayList<>(fileCount);
+        for (int i = 0; i < fileCount; i++) {
+            String savedFilename = readString(in);
+            long size = readVarLong(in);
+            byte[] sha256 = new byte[(int) readVarLong(in)];
+            in.get(sha256);
+            files.add(new MetadataRecord.StoredFile(savedFilename, size,
+                    sha256.length == 0 ? null : bytesToHex(sha256)));
+        }
+        return new MetadataRecord(id, uploadedAt, category, uploadedBy, description, tags, customFields, files);
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static String readString(ByteBuffer in) {
+        long encoded = readVarLong(in);
+        if (encoded == 0) {
+            return null;
+        }
+        if (encoded - 1 > in.remaining()) {
+            throw new IllegalArgumentException("String length exceeds record: " + (encoded - 1));
+        }
+        String value = new String(in.array(), in.position(), (int) (encoded - 1), StandardCharsets.UTF_8);
+        in.position(in.position() + (int) (encoded - 1));
+        return value;
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in metadata record");
+    }
+
+    private static byte[] hexToBytes(String hex) {
+        if (hex.length() != SHA256_LENGTH * 2) {
+            return new byte[0];
+        }
+        byte[] bytes = new byte[SHA256_LENGTH];
+        for (int i = 0; i < bytes.length; i++) {
+            int high = Character.digit(hex.charAt(i * 2), 16);
+            int low = Character.digit(hex.charAt(i * 2 + 1), 16);
+            if (high < 0 || low < 0) {
+                return new byte[0];
+            }
+            bytes[i] = (byte) ((high << 4) | low);
+        }
+        return bytes;
+    }
+
+    private static String bytesToHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * 레코드 번호 목록 (추가 순서 = 오름차순)
+     */
+    private static final class Postings {
+
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            // 한 레코드에 같은 태그가 여러 번 있어도 한 번만
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        /**
+         * bound 보다 작은 가장 큰 번호의 위치 (없으면 -1)
+         */
+        int lastIndexBelow(int bound) {
+            int index = Arrays.binarySearch(ids, 0, size, bound);
+            return index >= 0 ? index - 1 : -index - 2;
+        }
+    }
+}
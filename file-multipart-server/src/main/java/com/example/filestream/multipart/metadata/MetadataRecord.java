@@ -0,0 +1,97 @@
+package com.example.filestream.multipart.metadata;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 메타데이터 로그에 기록된 업로드 하나 (요청의 메타데이터와 저장된 파일 목록)
+ */
+public class MetadataRecord {
+
+    private final long id;
+    private final long uploadedAt;
+    private final String category;
+    private final String uploadedBy;
+    private final String description;
+    private final List<String> tags;
+    private final Map<String, Object> customFields;
+    private final List<StoredFile> files;
+
+    public MetadataRecord(long id, long uploadedAt, String category, String uploadedBy, String description,
+                          List<String> tags, Map<String, Object> customFields, List<StoredFile> files) {
+        this.id = id;
+        this.uploadedAt = uploadedAt;
+        this.category = category;
+        this.uploadedBy = uploadedBy;
+        this.description = description;
+        this.tags = tags;
+        this.customFields = customFields;
+        this.files = files;
+    }
+
+    /**
+     * 로그 내 순번 (0부터, 업로드 순서)
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * 서버가 기록한 업로드 시각 (epoch millis)
+     */
+    public long getUploadedAt() {
+        return uploadedAt;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public String getUploadedBy() {
+        return uploadedBy;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public Map<String, Object> getCustomFields() {
+        return customFields;
+    }
+
+    public List<StoredFile> getFiles() {
+        return files;
+    }
+
+    /**
+     * 업로드에서 저장된 파일
+     */
+    public static class StoredFile {
+
+        private final String savedFilename;
+        private final long size;
+        private final String sha256;
+
+        public StoredFile(String savedFilename, long size, String sha256) {
+            this.savedFilename = savedFilename;
+            this.size = size;
+            this.sha256 = sha256;
+        }
+
+        public String getSavedFilename() {
+            return savedFilename;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public String getSha256() {
+            return sha256;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.filestream.multipart.naming;
+
+/**
+ * 저장 파일명 앞에 붙이는 고유 ID 생성 전략 (file.upload.id.strategy).
+ * FileIdGenerator 빈을 직접 등록하면 설정 대신 그 빈을 사용한다.
+ */
+public interface FileIdGenerator {
+
+    /**
+     * 새 ID (여러 스레드에서 동시에 호출된다)
+     */
+    String nextId();
+
+    /**
+     * epochMillis 시각 이후에 만들어지는 모든 ID 보다 작거나 같은 문자열.
+     * ID 가 만든 순서대로 정렬되지 않는 전략이면 null
+     */
+    default String lowerBound(long epochMillis) {
+        return null;
+    }
+
+    /**
+     * 저장 파일명 앞의 ID 가 만들어진 시각 (epoch millis), 이 전략의 ID 가 아니거나 알 수 없으면 -1
+     */
+    default long timestampOf(String savedFilename) {
+        return -1;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.filestream.multipart.naming;
+
+/**
+ * 저장 파일명에 쓸 수 없는 문자를 '_' 로 바꿈 (영문, 숫자, 한글 음절, '.', '_', '-' 만 허용).
+ * 정규식 [^a-zA-Z0-9가-힣._-] 치환과 결과가 같으며, 바꿀 문자가 없으면 입력 문자열을 그대로 반환한다.
+ */
+public final class FilenameSanitizer {
+
+    private FilenameSanitizer() {
+    }
+
+    public static String sanitize(String name) {
+        int length = name.length();
+        int i = 0;
+        while (i < length && isAllowed(name.charAt(i))) {
+            i++;
+        }
+        if (i == length) {
+            return name;
+        }
+
+        StringBuilder sanitized = new StringBuilder(length);
+        sanitized.append(name, 0, i);
+        while (i < length) {
+            char c = name.charAt(i);
+            if (isAllowed(c)) {
+                sanitized.append(c);
+                i++;
+            } else {
+                sanitized.append('_');
+                // 서로게이트 쌍(이모지 등)은 한 글자로 보고 '_' 하나로
+                i += Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(name.charAt(i + 1)) ? 2 : 1;
+            }
+        }
+        return sanitized.toString();
+    }
+
+    private static boolean isAllowed(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '.' || c == '_' || c == '-' || (c >= '가' && c <= '힣');
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.filestream.multipart.naming;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 시간순으로 정렬되는 64비트 ID (Snowflake 형식)를 Crockford Base32 13자로 표현 (file.upload.id.strategy=time-ordered).
+ *
+ * <pre>
+ * time(42, 2020-01-01 부터 ms) node(10) sequence(12)
+ * </pre>
+ *
+ * - 고정 길이이고 Base32 문자가 ASCII 순서이므로 문자열 순서가 생성 순서와 같다.
+ * - 같은 ms 에 4096 개를 넘거나 시계가 뒤로 가면 다음 ms 를 미리 당겨 쓰므로 한 프로세스 안에서는 항상 증가한다 (CAS, 잠금 없음).
+ * - node 는 업로드 디렉토리를 공유하는 서버마다 다르게 지정한다 (음수면 시작 시 임의로 정함).
+ */
+public class TimeOrderedFileIdGenerator implements FileIdGenerator {
+
+    public static final long EPOCH = 1577836800000L; // 2020-01-01T00:00:00Z
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE = (1L << NODE_BITS) - 1;
+    private static final int LENGTH = 13;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int[] DECODE = new int[128];
+
+    static {
+        Arrays.fill(DECODE, -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DECODE[ALPHABET[i]] = i;
+        }
+    }
+
+    // (ms - EPOCH) << SEQUENCE_BITS | sequence
+    private final AtomicLong state = new AtomicLong();
+    private final long node;
+
+    public TimeOrderedFileIdGenerator(long node) {
+        if (node > MAX_NODE) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE + ": " + node);
+        }
+        this.node = node < 0 ? ThreadLocalRandom.current().nextLong(MAX_NODE + 1) : node;
+    }
+
+    public long getNode() {
+        return node;
+    }
+
+    @Override
+    public String nextId() {
+        long now = (System.currentTimeMillis() - EPOCH) << SEQUENCE_BITS;
+        long timeAndSequence = state.updateAndGet(previous -> Math.max(previous + 1, now));
+        long id = (timeAndSequence >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS)
+                | node << SEQUENCE_BITS
+                | (timeAndSequence & ((1L << SEQUENCE_BITS) - 1));
+        return encode(id);
+    }
+
+    @Override
+    public String lowerBound(long epochMillis) {
+        return encode(Math.max(0, epochMillis - EPOCH) << (NODE_BITS + SEQUENCE_BITS));
+    }
+
+    @Override
+    public long timestampOf(String savedFilename) {
+        if (savedFilename == null || savedFilename.length() < LENGTH
+                || (savedFilename.length() > LENGTH && savedFilename.charAt(LENGTH) != '_')) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            char c = savedFilename.charAt(i);
+            int digit = c < DECODE.length ? DECODE[c] : -1;
+            if (digit < 0) {
+                return -1;
+            }
+            value = value << 5 | digit;
+        }
+        return (value >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH;
+    }
+
+    /**
+     * 부호 없는 64비트 값을 13자로 (첫 글자가 상위 4비트)
+     */
+    private static String encode(long value) {
+        char[] chars = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return new String(chars);
+    }
+}
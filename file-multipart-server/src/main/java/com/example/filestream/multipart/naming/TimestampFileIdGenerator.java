@@ -0,0 +1,28 @@
+package com.example.filestream.multipart.naming;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 기존 형식의 ID: yyyyMMdd_HHmmss_{16진수 8자리} (file.upload.id.strategy=timestamp).
+ * 같은 초 안에서는 생성 순서대로 정렬되지 않는다.
+ */
+public class TimestampFileIdGenerator implements FileIdGenerator {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    @Override
+    public String nextId() {
+        StringBuilder id = new StringBuilder(24);
+        TIMESTAMP_FORMAT.formatTo(LocalDateTime.now(), id);
+        id.append('_');
+        // 이름 충돌만 피하면 되므로 SecureRandom(UUID.randomUUID) 대신 스레드별 난수
+        int random = ThreadLocalRandom.current().nextInt();
+        for (int shift = 28; shift >= 0; shift -= 4) {
+            id.append(HEX[(random >>> shift) & 0xF]);
+        }
+        return id.toString();
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.filestream.multipart.parser;
+
+import java.io.IOException;
+
+/**
+ * 요청 본문이 multipart/form-data 형식에 맞지 않을 때 발생
+ */
+public class MalformedMultipartException extends IOException {
+
+    public MalformedMultipartException(String message) {
+        super(message);
+    }
+}
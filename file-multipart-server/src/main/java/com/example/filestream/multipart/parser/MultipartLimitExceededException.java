@@ -0,0 +1,20 @@
+package com.example.filestream.multipart.parser;
+
+import java.io.IOException;
+
+/**
+ * 파트 또는 요청 전체 크기가 설정된 한도를 넘었을 때 발생
+ */
+public class MultipartLimitExceededException extends IOException {
+
+    private final long limit;
+
+    public MultipartLimitExceededException(String message, long limit) {
+        super(message + " (limit: " + limit + " bytes)");
+        this.limit = limit;
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+}
@@ -0,0 +1,413 @@
+package com.example.filestream.multipart.parser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * multipart/form-data 본문을 한 번만 읽으며 파트를 순서대로 꺼내는 스트리밍 파서.
+ * 각 파트의 내용은 다음 경계(boundary) 직전까지만 읽히는 InputStream 으로 제공되므로
+ * 파일 파트를 임시 파일 없이 최종 위치에 바로 기록할 수 있다.
+ * 메모리는 고정 크기 읽기 버퍼와 파트 헤더(최대 16KB)만 사용하며 파트 크기와 무관하다.
+ *
+ * <pre>
+ * MultipartStreamParser parser = new MultipartStreamParser(in, boundary, 8192, maxRequestSize);
+ * MultipartStreamParser.Part part;
+ * while ((part = parser.nextPart()) != null) {
+ *     // part.getInputStream() 을 끝까지 읽지 않아도 다음 nextPart() 에서 나머지를 건너뛴다
+ * }
+ * </pre>
+ */
+public class MultipartStreamParser {
+
+    private static final int MAX_HEADER_SIZE = 16 * 1024;
+
+    private final InputStream input;
+    // 파트 사이 구분자: CRLF + "--" + boundary
+    private final byte[] delimiter;
+    private final byte[] buffer;
+    private int head;
+    private int tail;
+
+    private final long maxRequestSize;
+    private long bytesRead;
+
+    private PartInputStream current;
+    private boolean finished;
+
+    /**
+     * @param maxRequestSize 본문 전체 최대 크기 (0 이하이면 제한 없음)
+     */
+    public MultipartStreamParser(InputStream input, String boundary, int bufferSize, long maxRequestSize) {
+        this.input = input;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        this.buffer = new byte[Math.max(bufferSize, delimiter.length * 2 + 2)];
+        this.maxRequestSize = maxRequestSize;
+        // 첫 경계는 CRLF 없이 본문 맨 앞에 올 수 있으므로 CRLF 가 앞에 있었던 것처럼 시작
+        buffer[0] = '\r';
+        buffer[1] = '\n';
+        tail = 2;
+    }
+
+    /**
+     * Content-Type 헤더에서 boundary 추출 (multipart/form-data 가 아니면 null)
+     */
+    public static String extractBoundary(String contentType) {
+        if (contentType == null || !contentType.toLowerCase(Locale.ROOT).startsWith("multipart/form-data")) {
+            return null;
+        }
+        for (String parameter : contentType.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.regionMatches(true, 0, "boundary=", 0, 9)) {
+                String boundary = unquote(trimmed.substring(9).trim());
+                return boundary.isEmpty() || boundary.length() > 70 ? null : boundary;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 다음 파트 (더 이상 없으면 null). 이전 파트에서 읽지 않은 내용은 건너뛴다.
+     */
+    public Part nextPart() throws IOException {
+        if (finished) {
+            return null;
+        }
+        // 첫 호출이면 서문(preamble)을, 아니면 이전 파트의 남은 내용을 첫 구분자까지 버림
+        PartInputStream previous = current != null ? current : new PartInputStream();
+        previous.drain();
+
+        // 구분자 직후 "--" 이면 본문 끝, 아니면 (공백 후) CRLF 다음에 파트 헤더
+        if (!ensure(2)) {
+            throw new MalformedMultipartException("Multipart body ended without a closing boundary");
+        }
+        if (buffer[head] == '-' && buffer[head + 1] == '-') {
+            finished = true;
+            current = null;
+            return null;
+        }
+        skipLine();
+
+        Map<String, String> headers = readHeaders();
+        current = new PartInputStream();
+        return new Part(headers, current);
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    private Map<String, String> readHeaders() throws IOException {
+        Map<String, String> headers = new LinkedHashMap<>();
+        ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+        int headerBytes = 0;
+        while (true) {
+            line.reset();
+            readLine(line);
+            headerBytes += line.size() + 2;
+            if (headerBytes > MAX_HEADER_SIZE) {
+                throw new MultipartLimitExceededException("Multipart part headers too large", MAX_HEADER_SIZE);
+            }
+            if (line.size() == 0) {
+                return headers;
+            }
+            // 브라우저는 파일명을 UTF-8 그대로 보낸다
+            String header = new String(line.toByteArray(), StandardCharsets.UTF_8);
+            int colon = header.indexOf(':');
+            if (colon <= 0) {
+                throw new MalformedMultipartException("Malformed multipart header: " + header);
+            }
+            headers.put(header.substring(0, colon).trim().toLowerCase(Locale.ROOT), header.substring(colon + 1).trim());
+        }
+    }
+
+    /**
+     * CRLF 까지 읽어 CRLF 를 제외한 내용을 line 에 담는다
+     */
+    private void readLine(ByteArrayOutputStream line) throws IOException {
+        while (true) {
+            if (!ensure(1)) {
+                throw new MalformedMultipartException("Multipart body ended inside part headers");
+            }
+            byte b = buffer[head++];
+            if (b == '\r') {
+                if (!ensure(1)) {
+                    throw new MalformedMultipartException("Multipart body ended inside part headers");
+                }
+                if (buffer[head] == '\n') {
+                    head++;
+                    return;
+                }
+            }
+            line.write(b);
+            if (line.size() > MAX_HEADER_SIZE) {
+                throw new MultipartLimitExceededException("Multipart part headers too large", MAX_HEADER_SIZE);
+            }
+        }
+    }
+
+    private void skipLine() throws IOException {
+        ByteArrayOutputStream padding = new ByteArrayOutputStream(8);
+        readLine(padding);
+        for (byte b : padding.toByteArray()) {
+            if (b != ' ' && b != '\t') {
+                throw new MalformedMultipartException("Unexpected data after multipart boundary");
+            }
+        }
+    }
+
+    /**
+     * 버퍼에 최소 count 바이트가 있도록 채움 (본문이 먼저 끝나면 false)
+     */
+    private boolean ensure(int count) throws IOException {
+        while (tail - head < count) {
+            if (!fill()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 남은 데이터를 버퍼 앞으로 옮기고 한 번 더 읽음 (본문 끝이면 false)
+     */
+    private boolean fill() throws IOException {
+        if (head > 0) {
+            System.arraycopy(buffer, head, buffer, 0, tail - head);
+            tail -= head;
+            head = 0;
+        }
+        int read = input.read(buffer, tail, buffer.length - tail);
+        if (read == -1) {
+            return false;
+        }
+        tail += read;
+        bytesRead += read;
+        if (maxRequestSize > 0 && bytesRead > maxRequestSize) {
+            throw new MultipartLimitExceededException("Multipart request too large", maxRequestSize);
+        }
+        return true;
+    }
+
+    /**
+     * buffer[head, tail) 에서 구분자 위치 (없으면 -1)
+     */
+    private int indexOfDelimiter() {
+        int last = tail - delimiter.length;
+        byte first = delimiter[0];
+        for (int i = head; i <= last; i++) {
+            if (buffer[i] != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < delimiter.length && buffer[i + j] == delimiter[j]) {
+                j++;
+            }
+            if (j == delimiter.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    /**
+     * 파트 하나. 헤더는 모두 읽힌 상태이며 내용은 {@link #getInputStream()} 으로 한 번만 읽을 수 있다.
+     */
+    public static class Part {
+
+        private final Map<String, String> headers;
+        private final InputStream inputStream;
+        private final String name;
+        private final String filename;
+
+        Part(Map<String, String> headers, InputStream inputStream) {
+            this.headers = headers;
+            this.inputStream = inputStream;
+            Map<String, String> disposition = parseDisposition(headers.get("content-disposition"));
+            this.name = disposition.get("name");
+            String encodedFilename = disposition.get("filename*");
+            this.filename = encodedFilename != null ? decodeExtValue(encodedFilename) : disposition.get("filename");
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * 파일 파트의 원본 파일명 (일반 필드는 null)
+         */
+        public String getFilename() {
+            return filename;
+        }
+
+        public boolean isFile() {
+            return filename != null;
+        }
+
+        public String getContentType() {
+            return headers.get("content-type");
+        }
+
+        public String getHeader(String name) {
+            return headers.get(name.toLowerCase(Locale.ROOT));
+        }
+
+        public InputStream getInputStream() {
+            return inputStream;
+        }
+
+        /**
+         * 일반 필드 값을 UTF-8 문자열로 읽음 (maxBytes 초과 시 예외)
+         */
+        public String readString(int maxBytes) throws IOException {
+            ByteArrayOutputStream value = new ByteArrayOutputStream();
+            byte[] chunk = new byte[1024];
+            int read;
+            while ((read = inputStream.read(chunk)) != -1) {
+                if (value.size() + read > maxBytes) {
+                    throw new MultipartLimitExceededException("Multipart field '" + name + "' too large", maxBytes);
+                }
+                value.write(chunk, 0, read);
+            }
+            return new String(value.toByteArray(), StandardCharsets.UTF_8);
+        }
+
+        /**
+         * form-data; name="files"; filename="a.txt" 형태의 파라미터 파싱 (따옴표 안의 ; 와 \" 처리)
+         */
+        private static Map<String, String> parseDisposition(String disposition) {
+            Map<String, String> parameters = new LinkedHashMap<>();
+            if (disposition == null) {
+                return parameters;
+            }
+            int i = disposition.indexOf(';');
+            while (i >= 0 && i < disposition.length()) {
+                int eq = disposition.indexOf('=', i);
+                if (eq < 0) {
+                    break;
+                }
+                String key = disposition.substring(i + 1, eq).trim().toLowerCase(Locale.ROOT);
+                StringBuilder value = new StringBuilder();
+                int j = eq + 1;
+                while (j < disposition.length() && disposition.charAt(j) == ' ') {
+                    j++;
+                }
+                if (j < disposition.length() && disposition.charAt(j) == '"') {
+                    j++;
+                    while (j < disposition.length() && disposition.charAt(j) != '"') {
+                        char c = disposition.charAt(j);
+                        if (c == '\\' && j + 1 < disposition.length() && disposition.charAt(j + 1) == '"') {
+                            c = '"';
+                            j++;
+                        }
+                        value.append(c);
+                        j++;
+                    }
+                    j++;
+                } else {
+                    while (j < disposition.length() && disposition.charAt(j) != ';') {
+                        value.append(disposition.charAt(j));
+                        j++;
+                    }
+                }
+                parameters.put(key, value.toString().trim());
+                i = disposition.indexOf(';', j);
+            }
+            return parameters;
+        }
+
+        /**
+         * RFC 5987 확장 값 (UTF-8''%ED%8C%8C%EC%9D%BC.txt)
+         */
+        private static String decodeExtValue(String value) {
+            int quote = value.indexOf("''");
+            if (quote < 0) {
+                return value;
+            }
+            String charset = value.substring(0, quote);
+            try {
+                return URLDecoder.decode(value.substring(quote + 2).replace("+", "%2B"),
+                        charset.isEmpty() ? "UTF-8" : charset);
+            } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+                return value.substring(quote + 2);
+            }
+        }
+    }
+
+    /**
+     * 현재 파트의 내용을 다음 구분자 직전까지 제공하는 스트림.
+     * 구분자의 일부일 수 있는 버퍼 끝 (delimiter.length - 1) 바이트는 다음 읽기까지 남겨둔다.
+     */
+    private class PartInputStream extends InputStream {
+
+        private boolean done;
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (done) {
+                return -1;
+            }
+            if (len == 0) {
+                return 0;
+            }
+            while (true) {
+                int index = indexOfDelimiter();
+                int available;
+                if (index >= 0) {
+                    if (index == head) {
+                        head += delimiter.length;
+                        done = true;
+                        return -1;
+                    }
+                    available = index - head;
+                } else {
+                    available = tail - head - (delimiter.length - 1);
+                }
+                if (available > 0) {
+                    int count = Math.min(len, available);
+                    System.arraycopy(buffer, head, b, off, count);
+                    head += count;
+                    return count;
+                }
+                if (!fill()) {
+                    throw new MalformedMultipartException("Multipart body ended before the closing boundary");
+                }
+            }
+        }
+
+        @Override
+        public int available() {
+            if (done) {
+                return 0;
+            }
+            int index = indexOfDelimiter();
+            return Math.max(index >= 0 ? index - head : tail - head - (delimiter.length - 1), 0);
+        }
+
+        void drain() throws IOException {
+            byte[] skip = new byte[4096];
+            while (read(skip, 0, skip.length) != -1) {
+                // 버림
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.filestream.multipart.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Tomcat 요청 처리를 가상 스레드에서 실행 (Java 21 빌드 -Pjava21 에만 포함).
+ * 요청마다 가상 스레드를 만들어 server.tomcat.threads.max 와 상관없이 동시 업로드를 처리하고,
+ * 업로드 복사 루프는 기존처럼 블로킹 InputStream 을 그대로 읽는다.
+ * file.upload.virtual-threads.enabled=false 이면 기존 플랫폼 스레드 풀을 사용한다.
+ *
+ * Tomcat 9 는 소켓 읽기를 synchronized 블록 안의 Object.wait 로 기다리므로 JDK 21~23 에서는
+ * 읽기를 기다리는 동안 캐리어 스레드가 고정(pinning)된다. JDK 가 캐리어를
+ * jdk.virtualThreadScheduler.maxPoolSize(기본 256) 까지 늘려 보상하므로
+ * 수락 제어의 동시 업로드 한도를 그보다 작게 유지해야 한다 (JDK 24 이상은 고정되지 않음).
+ */
+@Configuration
+@ConditionalOnProperty(name = "file.upload.virtual-threads.enabled", havingValue = "true", matchIfMissing = true)
+public class VirtualThreadConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfiguration.class);
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadExecutorCustomizer(
+            @Value("${file.upload.admission.max.concurrent:64}") int maxConcurrentUploads) {
+        return protocolHandler -> {
+            protocolHandler.setExecutor(Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("http-vt-", 0).factory()));
+            logger.info("Tomcat request processing runs on virtual threads");
+
+            int maxCarriers = Integer.getInteger("jdk.virtualThreadScheduler.maxPoolSize",
+                    Math.max(Runtime.getRuntime().availableProcessors(), 256));
+            if (Runtime.version().feature() < 24 && maxConcurrentUploads >= maxCarriers) {
+                logger.warn("file.upload.admission.max.concurrent={} is not below the virtual thread carrier limit {}; "
+                                + "blocked socket reads pin carriers on this JDK, raise -Djdk.virtualThreadScheduler.maxPoolSize",
+                        maxConcurrentUploads, maxCarriers);
+            }
+        };
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.filestream.multipart.controller;
+
+import com.example.filestream.common.storage.ShardedLayout;
+import com.example.filestream.multipart.catalog.CatalogEntry;
+import com.example.filestream.multipart.catalog.FileCatalog;
+import com.example.filestream.multipart.metadata.MetadataIndex;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "file.upload.directory=./target/catalog-uploads")
+@AutoConfigureMockMvc
+class FileCatalogControllerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FileCatalog fileCatalog;
+
+    @Autowired
+    private ShardedLayout shardedLayout;
+
+    @Autowired
+    private MetadataIndex metadataIndex;
+
+    private JsonNode get(String url) throws Exception {
+        String body = mockMvc.perform(MockMvcRequestBuilders.get(url))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    @Test
+    @DisplayName("업로드한 파일을 카탈로그에 등록하고 커서로 페이지를 이어 조회하는지 테스트")
+    void listCatalog_pagesWithCursor() throws Exception {
+        long startTime = System.currentTimeMillis();
+        // 수정 시각은 파일 시스템 값이므로 시스템 시계보다 거친 시각이 startTime 앞으로 가지 않도록 대기
+        Thread.sleep(20);
+        MockMultipartFile file1 = new MockMultipartFile(
+                "files", "one.txt", MediaType.TEXT_PLAIN_VALUE, "one".getBytes(StandardCharsets.UTF_8));
+        MockMultipartFile file2 = new MockMultipartFile(
+                "files", "two.txt", MediaType.TEXT_PLAIN_VALUE, "two".getBytes(StandardCharsets.UTF_8));
+        MockMultipartFile file3 = new MockMultipartFile(
+                "files", "three.txt", MediaType.TEXT_PLAIN_VALUE, "three".getBytes(StandardCharsets.UTF_8));
+        String metadata = "{\"description\":\"catalog\",\"category\":\"catalog-test\"}";
+        mockMvc.perform(MockMvcRequestBuilders.multipart("/api/v1/multipart/upload")
+                        .file(file1).file(file2).file(file3).param("metadata", metadata))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        // 이번 업로드만 두 개씩 조회
+        List<String> names = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+        do {
+            JsonNode page = get("/api/v1/multipart/catalog?limit=2&modifiedAfter=" + startTime + "&cursor=" + cursor);
+            for (JsonNode entry : page.path("files")) {
+                names.add(entry.path("name").asText());
+                assertEquals("catalog-test", entry.path("category").asText());
+                assertEquals(64, entry.path("sha256").asText().length());
+            }
+            assertEquals(page.path("files").size(), page.path("count").asInt());
+            cursor = page.path("nextCursor").isNull() ? null : page.path("nextCursor").asText();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, names.size());
+        assertEquals(2, pages);
+        List<String> sorted = new ArrayList<>(names);
+        sorted.sort(null);
+        assertEquals(sorted, names);
+
+        // time-ordered ID 의 생성 시각 범위는 파일명 범위로 조회 (업로드 순서 = 이름순)
+        JsonNode created = get("/api/v1/multipart/catalog?createdAfter=" + startTime);
+        assertEquals(3, created.path("count").asInt());
+        assertEquals(names.get(0), created.path("files").get(0).path("name").asText());
+        assertTrue(names.get(0).endsWith("_one.txt"));
+
+        // prefix 는 저장 파일명 전체로 한 건만
+        JsonNode single = get("/api/v1/multipart/catalog?prefix=" + names.get(0));
+        assertEquals(1, single.path("count").asInt());
+        assertTrue(single.path("nextCursor").isNull());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/multipart/files"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[?(@ == '" + names.get(1) + "')]").exists());
+    }
+
+    @Test
+    @DisplayName("서버 시작 시 스캔으로 디렉토리의 파일을 카탈로그에 복구하는지 테스트")
+    void rebuild_scansUploadDirectory() throws Exception {
+        Path uploadPath = Paths.get("./target/catalog-uploads");
+        Files.createDirectories(uploadPath);
+        Path existing = uploadPath.resolve("scanned-" + System.nanoTime() + ".txt");
+        Files.write(existing, "scanned".getBytes(StandardCharsets.UTF_8));
+
+        fileCatalog.rebuild();
+
+        JsonNode page = get("/api/v1/multipart/catalog?prefix=" + existing.getFileName());
+        assertEquals(1, page.path("count").asInt());
+        JsonNode entry = page.path("files").get(0);
+        assertEquals(7, entry.path("size").asLong());
+        assertTrue(entry.path("sha256").isNull());
+    }
+
+    @Test
+    @DisplayName("재시작 시 스캔한 파일의 sha256, category 를 메타데이터 색인에서 복구하는지 테스트")
+    void rebuild_restoresMetadataFromIndex() throws Exception {
+        MockMultipartFile file = new MockMultipartFile(
+                "files", "restored.txt", MediaType.TEXT_PLAIN_VALUE, "restored".getBytes(StandardCharsets.UTF_8));
+        String body = mockMvc.perform(MockMvcRequestBuilders.multipart("/api/v1/multipart/upload")
+                        .file(file).param("metadata", "{\"description\":\"restore\",\"category\":\"restored\"}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode stored = objectMapper.readTree(body).path("files").get(0);
+        String savedFilename = stored.path("savedFilename").asText();
+        CatalogEntry registered = fileCatalog.get(savedFilename);
+        assertEquals(Files.getLastModifiedTime(Paths.get(stored.path("path").asText())).toMillis(),
+                registered.getLastModified());
+
+        // 메모리 카탈로그가 비어 있는 재시작 상황
+        FileCatalog restarted = new FileCatalog(shardedLayout, metadataIndex, new SimpleMeterRegistry(), 1);
+        restarted.rebuild();
+
+        CatalogEntry restored = restarted.get(savedFilename);
+        assertEquals(stored.path("sha256").asText(), restored.getSha256());
+        assertEquals("restored", restored.getCategory());
+        assertEquals(registered.getLastModified(), restored.getLastModified());
+    }
+
+    @Test
+    @DisplayName("잘못된 커서, 시각, limit 은 400 으로 응답하는지 테스트")
+    void listCatalog_rejectsInvalidParameters() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/multipart/catalog").param("cursor", "not*base64"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/multipart/catalog").param("modifiedAfter", "yesterday"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/multipart/catalog").param("limit", "0"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+}
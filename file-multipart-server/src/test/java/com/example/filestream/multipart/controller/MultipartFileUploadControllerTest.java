@@ -11,7 +11,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
-@SpringBootTest
+import java.nio.charset.StandardCharsets;
+
+@SpringBootTest(properties = "file.upload.directory=./target/test-uploads")
 @AutoConfigureMockMvc
 class MultipartFileUploadControllerTest {
 
@@ -39,5 +41,59 @@ class MultipartFileUploadControllerTest {
         mockMvc.perform(MockMvcRequestBuilders.multipart("/api/v1/multipart/upload"))
                 .andExpect(MockMvcResultMatchers.status().isBadRequest());
     }
-}
 
+    @Test
+    @DisplayName("파일별 체크섬 반환 및 불일치 시 거부 테스트")
+    void uploadFiles_checksum() throws Exception {
+        MockMultipartFile file = new MockMultipartFile(
+                "files", "abc.txt", MediaType.TEXT_PLAIN_VALUE, "abc".getBytes());
+
+        mockMvc.perform(MockMvcRequestBuilders.multipart("/api/v1/multipart/upload")
+                        .file(file)
+                        .param("checksums", "{\"abc.txt\":\"ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad\"}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.files[0].sha256")
+                        .value("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.files[0].crc32c").exists());
+
+        mockMvc.perform(MockMvcRequestBuilders.multipart("/api/v1/multipart/upload")
+                        .file(file)
+                        .param("checksums", "{\"abc.txt\":\"deadbeef\"}"))
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
+    }
+
+    @Test
+    @DisplayName("스트리밍 파서로 파일 뒤에 온 메타데이터와 체크섬까지 처리하는지 테스트")
+    void uploadFiles_streaming() throws Exception {
+        String boundary = "streamingBoundary";
+        String body = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"files\"; filename=\"abc.txt\"\r\n"
+                + "Content-Type: text/plain\r\n\r\n"
+                + "abc\r\n"
+                + "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"metadata\"\r\n\r\n"
+                + "{\"description\":\"streamed\",\"category\":\"test\"}\r\n"
+                + "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"checksums\"\r\n\r\n"
+                + "{\"abc.txt\":\"ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad\"}\r\n"
+                + "--" + boundary + "--\r\n";
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/multipart/upload")
+                        .contentType("multipart/form-data; boundary=" + boundary)
+                        .content(body.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.fileCount").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.files[0].size").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.metadata.description").value("streamed"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/multipart/upload")
+                        .contentType("multipart/form-data; boundary=" + boundary)
+                        .content(body.replace("ba7816bf", "00000000").getBytes(StandardCharsets.UTF_8)))
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/multipart/upload")
+                        .contentType("multipart/form-data; boundary=" + boundary)
+                        .content(body.substring(0, body.length() - 10).getBytes(StandardCharsets.UTF_8)))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.filestream.multipart.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMultipartHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.nio.charset.StandardCharsets;
+
+@SpringBootTest(properties = {
+        "file.upload.directory=./target/test-uploads",
+        "file.upload.parts.parallelism=3",
+        "file.upload.parts.failure.mode=partial"
+})
+@AutoConfigureMockMvc
+class ParallelPartUploadTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("병렬 저장 후에도 요청의 파일 순서와 파일별 소요 시간을 반환하는지 테스트")
+    void uploadFiles_keepsOrder() throws Exception {
+        MockMultipartHttpServletRequestBuilder request = MockMvcRequestBuilders.multipart("/api/v1/multipart/upload");
+        for (int i = 0; i < 8; i++) {
+            // 앞쪽 파일일수록 크게 만들어 늦게 끝나도록 함
+            byte[] content = new byte[(8 - i) * 256 * 1024];
+            request.file(new MockMultipartFile("files", "part-" + i + ".bin", MediaType.APPLICATION_OCTET_STREAM_VALUE, content));
+        }
+
+        mockMvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.fileCount").value(8))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.files[0].originalFilename").value("part-0.bin"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.files[7].originalFilename").value("part-7.bin"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.files[7].size").value(256 * 1024))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.files[0].elapsedMs").exists())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.files[0].queuedMs").exists())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.failedCount").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("partial 모드에서 실패한 파일만 error 로 표시하고 207 을 반환하는지 테스트")
+    void uploadFiles_partialSuccess() throws Exception {
+        MockMultipartFile good = new MockMultipartFile(
+                "files", "good.txt", MediaType.TEXT_PLAIN_VALUE, "abc".getBytes(StandardCharsets.UTF_8));
+        MockMultipartFile bad = new MockMultipartFile(
+                "files", "bad.txt", MediaType.TEXT_PLAIN_VALUE, "xyz".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(MockMvcRequestBuilders.multipart("/api/v1/multipart/upload")
+                        .file(bad)
+                        .file(good)
+                        .param("checksums", "{\"bad.txt\":\"deadbeef\"}"))
+                .andExpect(MockMvcResultMatchers.status().isMultiStatus())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.fileCount").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.failedCount").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.files[0].originalFilename").value("bad.txt"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.files[0].error").exists())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.files[0].path").doesNotExist())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.files[1].originalFilename").value("good.txt"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.files[1].error").doesNotExist());
+
+        // 모두 실패하면 fail 모드와 같이 422
+        mockMvc.perform(MockMvcRequestBuilders.multipart("/api/v1/multipart/upload")
+                        .file(bad)
+                        .param("checksums", "{\"bad.txt\":\"deadbeef\"}"))
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
+    }
+}
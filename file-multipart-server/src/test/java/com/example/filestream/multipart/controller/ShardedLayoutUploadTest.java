@@ -0,0 +1,55 @@
+package com.example.filestream.multipart.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "file.upload.directory=./target/sharded-uploads",
+        "file.storage.layout=sharded"
+})
+@AutoConfigureMockMvc
+class ShardedLayoutUploadTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("sharded 배치에서 파일을 해시 디렉토리에 저장하고 목록에 저장 파일명으로 표시하는지 테스트")
+    void uploadFile_storedInShardDirectory() throws Exception {
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "sharded.txt", MediaType.TEXT_PLAIN_VALUE, "sharded".getBytes(StandardCharsets.UTF_8));
+
+        String body = mockMvc.perform(MockMvcRequestBuilders.multipart("/api/v1/multipart/upload/single").file(file))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode stored = new ObjectMapper().readTree(body).path("files").get(0);
+        String savedFilename = stored.path("savedFilename").asText();
+        Path path = Paths.get(stored.path("path").asText());
+
+        assertTrue(Files.isRegularFile(path));
+        assertTrue(path.startsWith(Paths.get("./target/sharded-uploads/.shards")));
+        assertEquals(3, path.getNameCount() - Paths.get("./target/sharded-uploads/.shards").getNameCount());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/multipart/files"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[?(@ == '" + savedFilename + "')]").exists());
+    }
+}
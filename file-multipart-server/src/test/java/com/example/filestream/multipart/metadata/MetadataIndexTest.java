@@ -0,0 +1,157 @@
+package com.example.filestream.multipart.metadata;
+
+import com.example.filestream.multipart.dto.FileUploadMetadata;
+import com.example.filestream.multipart.dto.FileUploadResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetadataIndexTest {
+
+    @TempDir
+    Path uploadDirectory;
+
+    private MetadataIndex index;
+
+    private MetadataIndex open() throws IOException {
+        if (index != null) {
+            index.stop();
+        }
+        index = new MetadataIndex(uploadDirectory.toString(), true, false, new SimpleMeterRegistry());
+        index.start();
+        return index;
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        if (index != null) {
+            index.stop();
+        }
+    }
+
+    private static long append(MetadataIndex index, String category, String uploadedBy, String... tags)
+            throws IOException {
+        FileUploadMetadata metadata = new FileUploadMetadata();
+        metadata.setDescription("test");
+        metadata.setCategory(category);
+        metadata.setUploadedBy(uploadedBy);
+        metadata.setTags(Arrays.asList(tags));
+        metadata.setCustomFields(Collections.singletonMap("project", "alpha"));
+        FileUploadResponse.FileInfo stored = new FileUploadResponse.FileInfo(
+                "a.txt", "saved-a.txt", "text/plain", 3, "/tmp/saved-a.txt");
+        stored.setSha256("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+        FileUploadResponse.FileInfo failed = new FileUploadResponse.FileInfo("b.txt", null, "text/plain", 0, null);
+        failed.setError("disk full");
+        return index.append(metadata, Arrays.asList(stored, failed));
+    }
+
+    private static List<Long> ids(List<MetadataRecord> records) {
+        return records.stream().map(MetadataRecord::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("category, tag, uploadedBy 조건을 교차해 최신순으로 조회하고 커서로 이어 조회하는지 테스트")
+    void query_intersectsIndexes() throws IOException {
+        MetadataIndex index = open();
+        append(index, "documents", "alice", "report", "2025");
+        append(index, "images", "bob", "photo");
+        append(index, "Documents", "bob", "report");
+        append(index, "documents", "alice", "draft", "report");
+
+        assertEquals(Arrays.asList(3L, 2L, 0L), ids(index.query("documents", null, null,
+                Long.MIN_VALUE, Long.MAX_VALUE, -1, 10)));
+        assertEquals(Arrays.asList(3L, 0L), ids(index.query(null, Arrays.asList("REPORT", "report"), "alice",
+                Long.MIN_VALUE, Long.MAX_VALUE, -1, 10)));
+        assertEquals(Collections.singletonList(2L), ids(index.query("documents", null, null,
+                Long.MIN_VALUE, Long.MAX_VALUE, 3, 1)));
+        assertTrue(index.query("videos", null, null, Long.MIN_VALUE, Long.MAX_VALUE, -1, 10).isEmpty());
+
+        MetadataRecord record = index.query(null, Collections.singletonList("photo"), null,
+                Long.MIN_VALUE, Long.MAX_VALUE, -1, 10).get(0);
+        assertEquals("images", record.getCategory());
+        assertEquals("alpha", record.getCustomFields().get("project"));
+        assertEquals(1, record.getFiles().size());
+        assertEquals("saved-a.txt", record.getFiles().get(0).getSavedFilename());
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",
+                record.getFiles().get(0).getSha256());
+    }
+
+    @Test
+    @DisplayName("업로드 시각 범위를 레코드 번호 범위로 조회하는지 테스트")
+    void query_filtersByTimeRange() throws Exception {
+        MetadataIndex index = open();
+        append(index, "general", "alice");
+        Thread.sleep(5);
+        long middle = System.currentTimeMillis();
+        append(index, "general", "alice");
+        append(index, "general", "alice");
+
+        assertEquals(Arrays.asList(2L, 1L), ids(index.query(null, null, null, middle, Long.MAX_VALUE, -1, 10)));
+        assertEquals(Collections.singletonList(0L), ids(index.query("general", null, null,
+                Long.MIN_VALUE, middle, -1, 10)));
+    }
+
+    @Test
+    @DisplayName("시작 시 로그에서 색인을 복구하고 끊긴 꼬리 레코드는 잘라내는지 테스트")
+    void start_replaysLogAndTruncatesTornTail() throws IOException {
+        MetadataIndex index = open();
+        append(index, "documents", "alice", "report");
+        append(index, "images", "bob", "photo");
+        index.stop();
+
+        Path log = uploadDirectory.resolve(MetadataIndex.METADATA_DIRECTORY).resolve("uploads.log");
+        long validSize = Files.size(log);
+        Files.write(log, new byte[] {0x4d, 0x44, 0x58, 0x31, 0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+
+        index = open();
+        assertEquals(2, index.getRecordCount());
+        assertEquals(validSize, Files.size(log));
+        assertEquals(Collections.singletonList(1L), ids(index.query(null, Collections.singletonList("photo"), "BOB",
+                Long.MIN_VALUE, Long.MAX_VALUE, -1, 10)));
+
+        assertEquals(2L, append(index, "documents", "carol"));
+        assertEquals(Arrays.asList(2L, 0L), ids(index.query("documents", null, null,
+                Long.MIN_VALUE, Long.MAX_VALUE, -1, 10)));
+        assertTrue(index.query(null, null, "carol", Long.MIN_VALUE, Long.MAX_VALUE, -1, 10).get(0).getTags()
+                .isEmpty());
+    }
+
+    @Test
+    @DisplayName("16MB 를 넘는 레코드는 기록하지 않아 재시작 후에도 이후 레코드가 유지되는지 테스트")
+    void append_rejectsOversizedRecord() throws IOException {
+        MetadataIndex index = open();
+        append(index, "documents", "alice", "report");
+
+        FileUploadMetadata oversized = new FileUploadMetadata();
+        oversized.setCategory("documents");
+        char[] description = new char[17 * 1024 * 1024];
+        Arrays.fill(description, 'x');
+        oversized.setDescription(new String(description));
+        assertThrows(IOException.class, () -> index.append(oversized, Collections.emptyList()));
+
+        assertEquals(1L, append(index, "documents", "bob"));
+        index.stop();
+
+        MetadataIndex reopened = open();
+        assertEquals(2, reopened.getRecordCount());
+        assertEquals(Arrays.asList(1L, 0L), ids(reopened.query("documents", null, null,
+                Long.MIN_VALUE, Long.MAX_VALUE, -1, 10)));
+        assertEquals("bob", reopened.query(null, null, "bob", Long.MIN_VALUE, Long.MAX_VALUE, -1, 10).get(0)
+                .getUploadedBy());
+    }
+}
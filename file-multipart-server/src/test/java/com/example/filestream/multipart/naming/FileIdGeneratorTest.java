@@ -0,0 +1,71 @@
+package com.example.filestream.multipart.naming;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileIdGeneratorTest {
+
+    @Test
+    @DisplayName("time-ordered ID 가 생성 순서대로 정렬되고 여러 스레드에서도 중복되지 않는지 테스트")
+    void timeOrdered_isMonotonicAndUnique() throws InterruptedException {
+        TimeOrderedFileIdGenerator generator = new TimeOrderedFileIdGenerator(7);
+        long before = System.currentTimeMillis();
+
+        // 같은 ms 에 순번(4096)을 넘겨도 증가
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            ids.add(generator.nextId());
+        }
+        List<String> sorted = new ArrayList<>(ids);
+        Collections.sort(sorted);
+        assertEquals(sorted, ids);
+        assertEquals(13, ids.get(0).length());
+        assertTrue(generator.timestampOf(ids.get(0) + "_report.pdf") >= before);
+        assertTrue(generator.lowerBound(before).compareTo(ids.get(0)) <= 0);
+
+        Set<String> unique = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(8);
+        for (int t = 0; t < 8; t++) {
+            new Thread(() -> {
+                for (int i = 0; i < 20000; i++) {
+                    unique.add(generator.nextId());
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        assertEquals(160000, unique.size());
+    }
+
+    @Test
+    @DisplayName("ID 형식이 아닌 파일명은 생성 시각을 알 수 없는지 테스트")
+    void timestampOf_rejectsOtherNames() {
+        TimeOrderedFileIdGenerator generator = new TimeOrderedFileIdGenerator(-1);
+        assertTrue(generator.getNode() >= 0 && generator.getNode() < 1024);
+        assertEquals(-1, generator.timestampOf("20250715_143022_a1b2c3d4_document.pdf"));
+        assertEquals(-1, generator.timestampOf("short"));
+        assertEquals(-1, generator.timestampOf(new TimestampFileIdGenerator().nextId()));
+    }
+
+    @Test
+    @DisplayName("허용하지 않는 문자를 정규식 치환과 같게 바꾸고, 바꿀 문자가 없으면 같은 문자열을 반환하는지 테스트")
+    void sanitize_matchesRegex() {
+        String[] names = {"report_2025-v1.final", "보고서 (최종)", "a/b\\c:d*e?f", "emoji😀name", "tab\tnewline\n", "ÄÖÜ", ""};
+        for (String name : names) {
+            assertEquals(name.replaceAll("[^a-zA-Z0-9가-힣._-]", "_"), FilenameSanitizer.sanitize(name));
+        }
+        String clean = "already_clean-이름.v2";
+        assertSame(clean, FilenameSanitizer.sanitize(clean));
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.filestream.multipart.parser;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MultipartStreamParserTest {
+
+    private static final String BOUNDARY = "----TestBoundary7MA4YWxkTrZu0gW";
+
+    @Test
+    @DisplayName("작은 버퍼로 경계가 버퍼에 걸쳐도 필드와 파일 파트를 순서대로 파싱하는지 테스트")
+    void nextPart_parsesFieldsAndFilesAcrossBufferBoundaries() throws IOException {
+        byte[] binary = new byte[100_000];
+        new Random(7).nextBytes(binary);
+        // 구분자와 비슷한 바이트열이 내용에 섞여 있어도 잘리지 않아야 함
+        byte[] lookalike = ("\r\n--" + BOUNDARY.substring(0, 10)).getBytes(StandardCharsets.ISO_8859_1);
+        System.arraycopy(lookalike, 0, binary, 5000, lookalike.length);
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        write(body, "preamble to ignore\r\n");
+        write(body, "--" + BOUNDARY + "\r\n");
+        write(body, "Content-Disposition: form-data; name=\"metadata\"\r\n\r\n");
+        write(body, "{\"category\":\"문서\"}");
+        write(body, "\r\n--" + BOUNDARY + "\r\n");
+        write(body, "Content-Disposition: form-data; name=\"files\"; filename=\"보고서 \\\"최종\\\";v2.bin\"\r\n");
+        write(body, "Content-Type: application/octet-stream\r\n\r\n");
+        body.write(binary);
+        write(body, "\r\n--" + BOUNDARY + "\r\n");
+        write(body, "Content-Disposition: form-data; name=\"files\"; filename=\"empty.txt\"\r\n\r\n");
+        write(body, "\r\n--" + BOUNDARY + "--\r\n");
+
+        MultipartStreamParser parser = new MultipartStreamParser(
+                new TrickleInputStream(body.toByteArray()), BOUNDARY, 64, 0);
+
+        MultipartStreamParser.Part metadata = parser.nextPart();
+        assertEquals("metadata", metadata.getName());
+        assertFalse(metadata.isFile());
+        assertEquals("{\"category\":\"문서\"}", metadata.readString(1024));
+
+        MultipartStreamParser.Part file = parser.nextPart();
+        assertEquals("files", file.getName());
+        assertEquals("보고서 \"최종\";v2.bin", file.getFilename());
+        assertEquals("application/octet-stream", file.getContentType());
+        assertArrayEquals(binary, readAll(file.getInputStream()));
+
+        MultipartStreamParser.Part empty = parser.nextPart();
+        assertTrue(empty.isFile());
+        // 읽지 않은 파트는 다음 nextPart 에서 건너뜀
+        assertNull(parser.nextPart());
+        assertNull(parser.nextPart());
+    }
+
+    @Test
+    @DisplayName("닫는 경계 없이 끝난 본문과 한도를 넘는 본문을 거부하는지 테스트")
+    void nextPart_rejectsTruncatedAndOversizedBodies() throws IOException {
+        String truncated = "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"files\"; filename=\"a.txt\"\r\n\r\n"
+                + "partial content";
+        MultipartStreamParser parser = new MultipartStreamParser(
+                new ByteArrayInputStream(truncated.getBytes(StandardCharsets.UTF_8)), BOUNDARY, 8192, 0);
+        MultipartStreamParser.Part part = parser.nextPart();
+        assertThrows(MalformedMultipartException.class, () -> readAll(part.getInputStream()));
+
+        String complete = truncated + "\r\n--" + BOUNDARY + "--\r\n";
+        MultipartStreamParser limited = new MultipartStreamParser(
+                new ByteArrayInputStream(complete.getBytes(StandardCharsets.UTF_8)), BOUNDARY, 64, 100);
+        assertThrows(MultipartLimitExceededException.class, () -> {
+            MultipartStreamParser.Part next;
+            while ((next = limited.nextPart()) != null) {
+                readAll(next.getInputStream());
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Content-Type 에서 boundary 를 추출하는지 테스트")
+    void extractBoundary() {
+        assertEquals("abc", MultipartStreamParser.extractBoundary("multipart/form-data; boundary=abc"));
+        assertEquals("a b", MultipartStreamParser.extractBoundary("Multipart/Form-Data; charset=UTF-8; boundary=\"a b\""));
+        assertNull(MultipartStreamParser.extractBoundary("application/octet-stream"));
+        assertNull(MultipartStreamParser.extractBoundary("multipart/form-data"));
+    }
+
+    private static void write(ByteArrayOutputStream out, String value) throws IOException {
+        out.write(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] readAll(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] chunk = new byte[777];
+        int read;
+        while ((read = inputStream.read(chunk)) != -1) {
+            out.write(chunk, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 네트워크처럼 한 번에 적은 바이트만 돌려주는 스트림
+     */
+    private static class TrickleInputStream extends ByteArrayInputStream {
+
+        TrickleInputStream(byte[] data) {
+            super(data);
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, 13));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.filestream.common.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.coyote.http11.AbstractHttp11Protocol;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * 업로드 수락 제어 필터 등록.
+ * 각 서버의 @Configuration 이 상속해 수락 제어를 적용할 업로드 경로를 지정한다 (필요하면 {@link #createFilter} 재정의).
+ */
+public abstract class AdmissionConfigurationSupport {
+
+    /**
+     * 수락 제어를 적용할 업로드 경로
+     */
+    protected abstract String[] admissionUrlPatterns();
+
+    protected AdmissionFilter createFilter(AdmissionController admissionController, ObjectMapper objectMapper) {
+        return new AdmissionFilter(admissionController, objectMapper);
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdmissionFilter> admissionFilter(AdmissionController admissionController,
+                                                                   ObjectMapper objectMapper) {
+        FilterRegistrationBean<AdmissionFilter> registration = new FilterRegistrationBean<>(
+                createFilter(admissionController, objectMapper));
+        registration.addUrlPatterns(admissionUrlPatterns());
+        registration.setName("admissionFilter");
+        return registration;
+    }
+
+    /**
+     * Expect: 100-continue 요청에는 본문을 처음 읽을 때 100 응답을 보낸다.
+     * 수락 제어에서 거부되면 클라이언트가 본문을 보내기 전에 503 을 받는다.
+     */
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> continueResponseCustomizer() {
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            if (connector.getProtocolHandler() instanceof AbstractHttp11Protocol) {
+                ((AbstractHttp11Protocol<?>) connector.getProtocolHandler()).setContinueResponseTiming("onRead");
+            }
+        });
+    }
+}
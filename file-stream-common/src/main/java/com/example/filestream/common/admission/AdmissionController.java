@@ -0,0 +1,183 @@
+package com.example.filestream.common.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 업로드 수락 제어.
+ * 본문을 읽기 전에 동시 업로드 수, 선언된 Content-Length 합계(진행 중 바이트), 디스크 여유 공간을 확인해
+ * 한도를 넘으면 거부한다. 거부된 요청은 503 + Retry-After 로 응답하여 클라이언트가 나중에 다시 시도하게 한다.
+ * Content-Length 가 없는(chunked) 요청은 동시 업로드 수와 디스크 여유만 확인한다.
+ *
+ * <pre>
+ * file.upload.admission.active    수락되어 진행 중인 업로드 수
+ * file.upload.admission.inflight  수락된 업로드가 선언한 바이트 합계
+ * file.upload.admission.rejected  거부 원인별 카운터 (reason=concurrency|inflight_bytes|disk)
+ * </pre>
+ */
+@Component
+public class AdmissionController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionController.class);
+
+    public static final String REASON_CONCURRENCY = "concurrency";
+    public static final String REASON_INFLIGHT_BYTES = "inflight_bytes";
+    public static final String REASON_DISK = "disk";
+
+    private final boolean enabled;
+    private final int maxConcurrent;
+    private final long maxInFlightBytes;
+    private final long minFreeDisk;
+    private final int retryAfterSeconds;
+    private final int diskRetryAfterSeconds;
+    private final Path uploadDirectory;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong inFlightBytes = new AtomicLong();
+
+    private final Counter concurrencyRejections;
+    private final Counter bytesRejections;
+    private final Counter diskRejections;
+
+    public AdmissionController(MeterRegistry registry,
+                               @Value("${file.upload.directory:./uploads}") String uploadDirectory,
+                               @Value("${file.upload.admission.enabled:true}") boolean enabled,
+                               @Value("${file.upload.admission.max.concurrent:64}") int maxConcurrent,
+                               @Value("${file.upload.admission.max.inflight.bytes:4294967296}") long maxInFlightBytes,
+                               @Value("${file.upload.admission.min.free.disk:1073741824}") long minFreeDisk,
+                               @Value("${file.upload.admission.retry.after:1}") int retryAfterSeconds,
+                               @Value("${file.upload.admission.disk.retry.after:30}") int diskRetryAfterSeconds) {
+        this.enabled = enabled;
+        this.maxConcurrent = maxConcurrent;
+        this.maxInFlightBytes = maxInFlightBytes;
+        this.minFreeDisk = minFreeDisk;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.diskRetryAfterSeconds = diskRetryAfterSeconds;
+        this.uploadDirectory = Paths.get(uploadDirectory).toAbsolutePath();
+
+        Gauge.builder("file.upload.admission.active", active, AtomicInteger::get)
+                .description("Uploads admitted and still in progress")
+                .register(registry);
+        Gauge.builder("file.upload.admission.inflight", inFlightBytes, AtomicLong::get)
+                .description("Declared bytes of admitted uploads")
+                .baseUnit("bytes")
+                .register(registry);
+        concurrencyRejections = rejectionCounter(registry, REASON_CONCURRENCY);
+        bytesRejections = rejectionCounter(registry, REASON_INFLIGHT_BYTES);
+        diskRejections = rejectionCounter(registry, REASON_DISK);
+    }
+
+    private static Counter rejectionCounter(MeterRegistry registry, String reason) {
+        return Counter.builder("file.upload.admission.rejected")
+                .description("Uploads rejected with 503 before reading the body")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    /**
+     * 업로드 수락 (반환된 Permit 은 업로드가 끝나면 반드시 release)
+     *
+     * @param declaredBytes 요청의 Content-Length (모르면 -1)
+     * @throws AdmissionRejectedException 한도 초과
+     */
+    public Permit tryAcquire(long declaredBytes) {
+        if (!enabled) {
+            return new Permit(0, false);
+        }
+        long bytes = Math.max(declaredBytes, 0);
+
+        int current;
+        do {
+            current = active.get();
+            if (current >= maxConcurrent) {
+                concurrencyRejections.increment();
+                throw new AdmissionRejectedException(REASON_CONCURRENCY,
+                        "Too many concurrent uploads (limit " + maxConcurrent + ")", retryAfterSeconds);
+            }
+        } while (!active.compareAndSet(current, current + 1));
+
+        // 한도보다 큰 파일 하나가 영영 거부되지 않도록, 진행 중인 업로드가 없으면 크기와 상관없이 수락
+        long reserved;
+        do {
+            reserved = inFlightBytes.get();
+            if (reserved > 0 && reserved + bytes > maxInFlightBytes) {
+                active.decrementAndGet();
+                bytesRejections.increment();
+                throw new AdmissionRejectedException(REASON_INFLIGHT_BYTES,
+                        "Too many bytes in flight (limit " + maxInFlightBytes + " bytes)", retryAfterSeconds);
+            }
+        } while (!inFlightBytes.compareAndSet(reserved, reserved + bytes));
+
+        // 아직 기록되지 않은 진행 중 바이트까지 빼고도 최소 여유 공간이 남아야 수락
+        long usable = usableSpace();
+        if (usable >= 0 && usable - reserved - bytes < minFreeDisk) {
+            active.decrementAndGet();
+            inFlightBytes.addAndGet(-bytes);
+            diskRejections.increment();
+            throw new AdmissionRejectedException(REASON_DISK,
+                    "Insufficient disk space on server", diskRetryAfterSeconds);
+        }
+        return new Permit(bytes, true);
+    }
+
+    public int getActive() {
+        return active.get();
+    }
+
+    public long getInFlightBytes() {
+        return inFlightBytes.get();
+    }
+
+    /**
+     * 업로드 디렉토리(없으면 가장 가까운 상위 디렉토리)가 속한 파일 시스템의 사용 가능 공간, 확인할 수 없으면 -1
+     */
+    private long usableSpace() {
+        Path path = uploadDirectory;
+        while (path != null && !Files.exists(path)) {
+            path = path.getParent();
+        }
+        if (path == null) {
+            return -1;
+        }
+        try {
+            return Files.getFileStore(path).getUsableSpace();
+        } catch (IOException e) {
+            logger.warn("Failed to read free disk space for {}: {}", path, e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * 수락된 업로드 하나의 예약 (release 는 한 번만 반영)
+     */
+    public class Permit {
+
+        private final long bytes;
+        private final AtomicBoolean held;
+
+        private Permit(long bytes, boolean held) {
+            this.bytes = bytes;
+            this.held = new AtomicBoolean(held);
+        }
+
+        public void release() {
+            if (held.compareAndSet(true, false)) {
+                inFlightBytes.addAndGet(-bytes);
+                active.decrementAndGet();
+            }
+        }
+    }
+}
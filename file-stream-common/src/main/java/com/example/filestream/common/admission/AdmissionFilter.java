@@ -0,0 +1,122 @@
+package com.example.filestream.common.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 업로드 요청을 본문을 읽기 전에 수락 제어에 통과시킨다.
+ * 비동기 업로드는 컨테이너 스레드가 반환된 뒤에도 진행되므로 AsyncContext 가 끝날 때 예약을 해제한다.
+ * 거부 응답(503) 본문은 서버마다 오류 응답 형식에 맞게 {@link #rejectionBody} 를 재정의한다.
+ */
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionFilter.class);
+
+    private final AdmissionController admissionController;
+
+    private final ObjectMapper objectMapper;
+
+    public AdmissionFilter(AdmissionController admissionController, ObjectMapper objectMapper) {
+        this.admissionController = admissionController;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!isUploadMethod(request.getMethod())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        AdmissionController.Permit permit;
+        try {
+            permit = admissionController.tryAcquire(request.getContentLengthLong());
+        } catch (AdmissionRejectedException e) {
+            logger.warn("Upload rejected ({}): {}", e.getReason(), e.getMessage());
+            reject(response, e);
+            return;
+        }
+
+        boolean releaseOnAsyncComplete = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new PermitReleaseListener(permit));
+                releaseOnAsyncComplete = true;
+            }
+        } finally {
+            if (!releaseOnAsyncComplete) {
+                permit.release();
+            }
+        }
+    }
+
+    /**
+     * 본문을 받는 요청만 수락 제어 (세션 조회/삭제 같은 GET, HEAD, DELETE 는 통과)
+     */
+    private static boolean isUploadMethod(String method) {
+        return "POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method);
+    }
+
+    private void reject(HttpServletResponse response, AdmissionRejectedException e) throws IOException {
+        response.setStatus(503);
+        response.setHeader("Retry-After", String.valueOf(e.getRetryAfterSeconds()));
+        response.setContentType("application/json");
+        objectMapper.writeValue(response.getOutputStream(), rejectionBody(e));
+    }
+
+    /**
+     * 거부 응답 본문 (기본: error, reason, retryAfter)
+     */
+    protected Object rejectionBody(AdmissionRejectedException e) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", e.getMessage());
+        body.put("reason", e.getReason());
+        body.put("retryAfter", e.getRetryAfterSeconds());
+        return body;
+    }
+
+    /**
+     * 비동기 업로드 종료(완료, 오류, 타임아웃) 시 예약 해제
+     */
+    private static class PermitReleaseListener implements AsyncListener {
+
+        private final AdmissionController.Permit permit;
+
+        PermitReleaseListener(AdmissionController.Permit permit) {
+            this.permit = permit;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permit.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            permit.release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            permit.release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.filestream.common.admission;
+
+/**
+ * 동시 업로드 수, 진행 중 바이트 또는 디스크 여유 한도를 넘어 업로드를 받지 않을 때 발생
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final String reason;
+    private final int retryAfterSeconds;
+
+    public AdmissionRejectedException(String reason, String message, int retryAfterSeconds) {
+        super(message);
+        this.reason = reason;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.filestream.common.buffer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 복사 루프용 direct ByteBuffer 풀.
+ * 크기는 4KB 부터 2배씩 증가하는 크기 등급(size class)으로 올림되며, 반납된 버퍼는
+ * 스레드별 캐시(등급당 1개)에 먼저 보관하고 넘치면 공유 큐로 보낸다.
+ * 풀이 보유하는 direct 메모리가 file.stream.buffer.pool.max.bytes 에 도달하면
+ * 요청을 실패시키지 않고 풀에 속하지 않는 힙 버퍼를 대신 반환한다.
+ * 가상 스레드는 요청마다 새로 만들어지므로 스레드별 캐시를 건너뛰고 공유 큐만 사용한다.
+ *
+ * <pre>
+ * file.buffer.pool.acquire      대여 결과별 카운터 (result=thread_hit|shared_hit|miss|exhausted|unpooled)
+ * file.buffer.pool.outstanding  대여 중인 버퍼 수
+ * file.buffer.pool.allocated    풀이 할당한 direct 메모리 (bytes)
+ * file.buffer.pool.idle         공유 큐에서 대기 중인 버퍼 수
+ * </pre>
+ */
+@Component
+public class DirectBufferPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(DirectBufferPool.class);
+
+    private static final int MIN_CLASS_SHIFT = 12; // 4KB
+
+    // Java 21 의 Thread.isVirtual() (이전 JDK 에서는 null)
+    private static final MethodHandle IS_VIRTUAL = lookupIsVirtual();
+
+    private final boolean enabled;
+    private final long maxBytes;
+    private final int classCount;
+
+    private final Queue<ByteBuffer>[] shared;
+    private final AtomicInteger idle = new AtomicInteger();
+    private final AtomicLong allocatedBytes = new AtomicLong();
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    // 종료된 스레드의 캐시를 회수하기 위해 모든 스레드 캐시를 추적
+    private final Map<ThreadCache, Boolean> threadCaches = new ConcurrentHashMap<>();
+    private final ThreadLocal<ThreadCache> threadCache = ThreadLocal.withInitial(this::newThreadCache);
+
+    private final Counter threadHits;
+    private final Counter sharedHits;
+    private final Counter misses;
+    private final Counter exhausted;
+    private final Counter unpooled;
+
+    @SuppressWarnings("unchecked")
+    public DirectBufferPool(MeterRegistry registry,
+                            @Value("${file.stream.buffer.pool.enabled:true}") boolean enabled,
+                            @Value("${file.stream.buffer.pool.max.size:1048576}") int maxBufferSize,
+                            @Value("${file.stream.buffer.pool.max.bytes:67108864}") long maxBytes) {
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        this.classCount = sizeClass(Math.max(maxBufferSize, 1 << MIN_CLASS_SHIFT)) + 1;
+        this.shared = new Queue[classCount];
+        for (int i = 0; i < classCount; i++) {
+            shared[i] = new ConcurrentLinkedQueue<>();
+        }
+
+        this.threadHits = acquireCounter(registry, "thread_hit");
+        this.sharedHits = acquireCounter(registry, "shared_hit");
+        this.misses = acquireCounter(registry, "miss");
+        this.exhausted = acquireCounter(registry, "exhausted");
+        this.unpooled = acquireCounter(registry, "unpooled");
+        Gauge.builder("file.buffer.pool.outstanding", outstanding, AtomicInteger::get)
+                .description("Buffers currently leased from the pool")
+                .register(registry);
+        Gauge.builder("file.buffer.pool.allocated", allocatedBytes, AtomicLong::get)
+                .description("Direct memory allocated by the pool")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("file.buffer.pool.idle", idle, AtomicInteger::get)
+                .description("Buffers waiting in the shared queues")
+                .register(registry);
+    }
+
+    private static Counter acquireCounter(MeterRegistry registry, String result) {
+        return Counter.builder("file.buffer.pool.acquire")
+                .description("Buffer pool acquisitions")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * size 이상(최대 크기 등급까지)의 용량을 가진 비워진 버퍼를 대여한다.
+     * 사용 후 반드시 {@link #release(ByteBuffer)} 로 반납해야 한다.
+     */
+    public ByteBuffer acquire(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive: " + size);
+        }
+        int sizeClass = Math.min(sizeClass(size), classCount - 1);
+        outstanding.incrementAndGet();
+
+        if (!enabled) {
+            unpooled.increment();
+            return ByteBuffer.allocate(1 << (sizeClass + MIN_CLASS_SHIFT));
+        }
+
+        ByteBuffer buffer = isVirtualThread() ? null : threadCache.get().take(sizeClass);
+        if (buffer != null) {
+            threadHits.increment();
+            return buffer;
+        }
+
+        buffer = pollShared(sizeClass);
+        if (buffer != null) {
+            sharedHits.increment();
+            return buffer;
+        }
+
+        int capacity = 1 << (sizeClass + MIN_CLASS_SHIFT);
+        if (!reserve(capacity)) {
+            // 종료된 스레드가 들고 있던 버퍼를 회수한 뒤 한 번 더 시도
+            reclaimDeadThreadCaches();
+            buffer = pollShared(sizeClass);
+            if (buffer != null) {
+                sharedHits.increment();
+                return buffer;
+            }
+            if (!reserve(capacity)) {
+                exhausted.increment();
+                return ByteBuffer.allocate(capacity);
+            }
+        }
+
+        try {
+            buffer = ByteBuffer.allocateDirect(capacity);
+        } catch (OutOfMemoryError e) {
+            // -XX:MaxDirectMemorySize 한도 초과 - 힙 버퍼로 계속 진행
+            allocatedBytes.addAndGet(-capacity);
+            logger.warn("Direct buffer allocation of {} bytes failed, falling back to heap: {}", capacity, e.getMessage());
+            exhausted.increment();
+            return ByteBuffer.allocate(capacity);
+        }
+        misses.increment();
+        return buffer;
+    }
+
+    /**
+     * 대여한 버퍼 반납 (풀 소진 시 받은 힙 버퍼는 버려진다)
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null) {
+            return;
+        }
+        outstanding.decrementAndGet();
+        if (!buffer.isDirect()) {
+            return;
+        }
+
+        buffer.clear();
+        int sizeClass = sizeClass(buffer.capacity());
+        if (isVirtualThread() || !threadCache.get().offer(sizeClass, buffer)) {
+            shared[sizeClass].offer(buffer);
+            idle.incrementAndGet();
+        }
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes.get();
+    }
+
+    private ByteBuffer pollShared(int sizeClass) {
+        ByteBuffer buffer = shared[sizeClass].poll();
+        if (buffer != null) {
+            idle.decrementAndGet();
+        }
+        return buffer;
+    }
+
+    private boolean reserve(int capacity) {
+        long current;
+        do {
+            current = allocatedBytes.get();
+            if (current + capacity > maxBytes) {
+                return false;
+            }
+        } while (!allocatedBytes.compareAndSet(current, current + capacity));
+        return true;
+    }
+
+    private void reclaimDeadThreadCaches() {
+        Iterator<ThreadCache> iterator = threadCaches.keySet().iterator();
+        while (iterator.hasNext()) {
+            ThreadCache cache = iterator.next();
+            Thread owner = cache.owner.get();
+            if (owner != null && owner.isAlive()) {
+                continue;
+            }
+            iterator.remove();
+            for (int i = 0; i < classCount; i++) {
+                ByteBuffer buffer = cache.take(i);
+                if (buffer != null) {
+                    shared[i].offer(buffer);
+                    idle.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * 현재 스레드가 가상 스레드인지 여부.
+     * 요청이 끝나면 사라지는 가상 스레드에 버퍼를 캐시하면 다음 요청이 재사용하지 못하고 풀 한도까지 새로 할당한다.
+     */
+    static boolean isVirtualThread() {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(Thread.currentThread());
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    private static MethodHandle lookupIsVirtual() {
+        try {
+            return MethodHandles.publicLookup().findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private ThreadCache newThreadCache() {
+        ThreadCache cache = new ThreadCache(Thread.currentThread(), classCount);
+        threadCaches.put(cache, Boolean.TRUE);
+        return cache;
+    }
+
+    /**
+     * 크기 등급 인덱스 (0 = 4KB, 1 = 8KB, ...)
+     */
+    private static int sizeClass(int size) {
+        int shift = 32 - Integer.numberOfLeadingZeros(Math.max(size, 1) - 1);
+        return Math.max(shift - MIN_CLASS_SHIFT, 0);
+    }
+
+    /**
+     * 스레드별 캐시 (등급당 1개). 회수 시 다른 스레드가 접근하므로 원자적 배열을 사용한다.
+     */
+    private static class ThreadCache {
+        private final WeakReference<Thread> owner;
+        private final AtomicReferenceArray<ByteBuffer> slots;
+
+        ThreadCache(Thread owner, int classCount) {
+            this.owner = new WeakReference<>(owner);
+            this.slots = new AtomicReferenceArray<>(classCount);
+        }
+
+        ByteBuffer take(int sizeClass) {
+            return slots.getAndSet(sizeClass, null);
+        }
+
+        boolean offer(int sizeClass, ByteBuffer buffer) {
+            return slots.compareAndSet(sizeClass, null, buffer);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.filestream.common.buffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * InputStream 과 ByteBuffer 사이의 읽기 도우미.
+ * direct 버퍼로 읽을 때는 스레드별로 재사용하는 중간 배열을 거치므로 요청마다 배열을 새로 만들지 않는다.
+ */
+public final class StreamBuffers {
+
+    private static final int MAX_SCRATCH_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<byte[]> SCRATCH = new ThreadLocal<>();
+
+    private StreamBuffers() {
+    }
+
+    /**
+     * 버퍼의 남은 공간만큼 한 번 읽어 position 을 전진시키고 읽은 바이트 수(스트림 끝이면 -1)를 반환
+     */
+    public static int read(InputStream inputStream, ByteBuffer buffer) throws IOException {
+        if (buffer.hasArray()) {
+            int bytesRead = inputStream.read(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            if (bytesRead > 0) {
+                buffer.position(buffer.position() + bytesRead);
+            }
+            return bytesRead;
+        }
+
+        byte[] scratch = scratch(Math.min(buffer.remaining(), MAX_SCRATCH_SIZE));
+        int bytesRead = inputStream.read(scratch, 0, Math.min(buffer.remaining(), scratch.length));
+        if (bytesRead > 0) {
+            buffer.put(scratch, 0, bytesRead);
+        }
+        return bytesRead;
+    }
+
+    /**
+     * 버퍼가 가득 차거나 스트림이 끝날 때까지 읽는다.
+     * 적응형 버퍼는 버퍼 하나를 채우는 데 걸린 시간으로 피어의 전송 속도를 가늠한다.
+     *
+     * @return 채운 바이트 수 (첫 읽기에서 스트림 끝이면 -1)
+     */
+    public static int fill(InputStream inputStream, ByteBuffer buffer) throws IOException {
+        int total = read(inputStream, buffer);
+        if (total <= 0) {
+            return total;
+        }
+        while (buffer.hasRemaining()) {
+            int bytesRead = read(inputStream, buffer);
+            if (bytesRead == -1) {
+                break;
+            }
+            total += bytesRead;
+        }
+        return total;
+    }
+
+    private static byte[] scratch(int size) {
+        byte[] scratch = SCRATCH.get();
+        if (scratch == null || scratch.length < size) {
+            scratch = new byte[size];
+            SCRATCH.set(scratch);
+        }
+        return scratch;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.filestream.common.checksum;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 복사 루프에서 데이터가 지나갈 때 CRC32C 와 SHA-256 을 함께 계산한다.
+ * 파일을 다시 읽지 않고 저장과 동시에 무결성 값을 얻기 위해 사용한다.
+ */
+public class StreamDigest {
+
+    public static final String SHA256_HEADER = "X-Content-SHA256";
+    public static final String CRC32C_HEADER = "X-Content-CRC32C";
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Crc32c crc32c = new Crc32c();
+    private final MessageDigest sha256;
+    private String sha256Hex;
+
+    public StreamDigest() {
+        try {
+            this.sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public void update(byte[] buffer, int offset, int length) {
+        crc32c.update(buffer, offset, length);
+        sha256.update(buffer, offset, length);
+    }
+
+    /**
+     * 버퍼의 position 부터 limit 까지 반영 (버퍼의 position 은 변경하지 않음)
+     */
+    public void update(ByteBuffer buffer) {
+        crc32c.update(buffer.duplicate());
+        sha256.update(buffer.duplicate());
+    }
+
+    /**
+     * 8자리 소문자 16진수 CRC32C 값
+     */
+    public String getCrc32c() {
+        return String.format("%08x", crc32c.getValue());
+    }
+
+    /**
+     * 소문자 16진수 SHA-256 값 (최초 호출 시 계산이 확정되며 이후 update 는 반영되지 않음)
+     */
+    public String getSha256() {
+        if (sha256Hex == null) {
+            sha256Hex = toHex(sha256.digest());
+        }
+        return sha256Hex;
+    }
+
+    /**
+     * 클라이언트가 보낸 기대값과 비교 (null 인 항목은 검증하지 않음)
+     */
+    public boolean matches(String expectedSha256, String expectedCrc32c) {
+        if (expectedSha256 != null && !expectedSha256.trim().equalsIgnoreCase(getSha256())) {
+            return false;
+        }
+        return expectedCrc32c == null || expectedCrc32c.trim().equalsIgnoreCase(getCrc32c());
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0x0F];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0x0F];
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.filestream.common.storage;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * /actuator/reshard - 업로드 디렉토리를 sharded 배치로 옮기는 작업 실행 및 진행 상황 조회
+ *
+ * <pre>
+ * GET  /actuator/reshard   배치 설정, 이동이 필요한지(pending), 진행 상황 (state, scanned, moved, superseded, failed)
+ * POST /actuator/reshard   백그라운드 이동 시작 (실행 중이면 현재 상태 반환)
+ * </pre>
+ */
+@Component
+@Endpoint(id = "reshard")
+public class ShardMigrationEndpoint {
+
+    private final ShardMigrator shardMigrator;
+
+    public ShardMigrationEndpoint(ShardMigrator shardMigrator) {
+        this.shardMigrator = shardMigrator;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return shardMigrator.status();
+    }
+
+    @WriteOperation
+    public Map<String, Object> start() {
+        try {
+            return shardMigrator.start();
+        } catch (IllegalStateException e) {
+            Map<String, Object> status = shardMigrator.status();
+            status.put("error", e.getMessage());
+            return status;
+        }
+    }
+}
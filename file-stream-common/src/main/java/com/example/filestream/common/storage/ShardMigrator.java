@@ -0,0 +1,254 @@
+package com.example.filestream.common.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 실행 중 flat 업로드 디렉토리를 sharded 배치로 옮기는 도구 (POST /actuator/reshard 또는 file.storage.shard.migrate.on.startup)
+ *
+ * 업로드 디렉토리의 파일(내부 디렉토리 제외)과 depth/width 변경 전 배치에 있는 파일을 새 위치로 하나씩 옮긴다.
+ * 옮기는 동안에도 {@link ShardedLayout#find} 가 이전 위치를 함께 찾으므로 업로드와 다운로드는 멈추지 않는다.
+ * 새 위치에 이미 파일이 있으면(이동 중 새로 업로드된 경우) 이전 파일을 지운다.
+ * 새 위치는 하드 링크로 만든 뒤 이전 이름을 지우므로, 이동 사이에 업로드된 새 파일을 덮어쓰지 않는다.
+ */
+@Component
+public class ShardMigrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardMigrator.class);
+
+    public static final String STATE_IDLE = "idle";
+    public static final String STATE_RUNNING = "running";
+    public static final String STATE_COMPLETED = "completed";
+    public static final String STATE_FAILED = "failed";
+
+    private final ShardedLayout layout;
+
+    // 초당 최대 이동 파일 수 (0 = 제한 없음), 실행 중인 업로드의 디스크 사용을 방해하지 않도록 조절
+    private final int rate;
+
+    private final boolean migrateOnStartup;
+
+    private final AtomicLong scanned = new AtomicLong();
+    private final AtomicLong moved = new AtomicLong();
+    private final AtomicLong superseded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile String state = STATE_IDLE;
+    private volatile String error;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+    private volatile boolean stopping;
+    private Thread worker;
+
+    public ShardMigrator(ShardedLayout layout,
+                         @Value("${file.storage.shard.migrate.rate:0}") int rate,
+                         @Value("${file.storage.shard.migrate.on.startup:false}") boolean migrateOnStartup) {
+        this.layout = layout;
+        this.rate = rate;
+        this.migrateOnStartup = migrateOnStartup;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (migrateOnStartup && layout.needsMigration()) {
+            start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        stopping = true;
+        Thread running = worker;
+        if (running != null) {
+            running.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    /**
+     * 백그라운드 이동 시작 (이미 실행 중이면 현재 상태만 반환)
+     */
+    public synchronized Map<String, Object> start() {
+        if (!layout.isSharded()) {
+            throw new IllegalStateException("Storage layout is flat, set file.storage.layout=sharded first");
+        }
+        if (!STATE_RUNNING.equals(state)) {
+            scanned.set(0);
+            moved.set(0);
+            superseded.set(0);
+            failed.set(0);
+            error = null;
+            startedAt = System.currentTimeMillis();
+            finishedAt = 0;
+            state = STATE_RUNNING;
+            worker = new Thread(this::run, "shard-migrator");
+            worker.setDaemon(true);
+            worker.start();
+        }
+        return status();
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", state);
+        status.put("layout", layout.isSharded() ? ShardedLayout.LAYOUT_SHARDED : ShardedLayout.LAYOUT_FLAT);
+        status.put("depth", layout.getDepth());
+        status.put("width", layout.getWidth());
+        status.put("pending", layout.needsMigration());
+        status.put("scanned", scanned.get());
+        status.put("moved", moved.get());
+        status.put("superseded", superseded.get());
+        status.put("failed", failed.get());
+        if (startedAt > 0) {
+            status.put("elapsedMs", (finishedAt > 0 ? finishedAt : System.currentTimeMillis()) - startedAt);
+        }
+        if (error != null) {
+            status.put("error", error);
+        }
+        return status;
+    }
+
+    private void run() {
+        logger.info("Shard migration started (depth={}, width={})", layout.getDepth(), layout.getWidth());
+        try {
+            migrateFlatFiles();
+            if (layout.hasPreviousGeometry() && !stopping) {
+                reshardExistingFiles();
+            }
+            if (stopping) {
+                state = STATE_IDLE;
+                logger.info("Shard migration interrupted after {} files", moved.get());
+                return;
+            }
+            if (failed.get() == 0) {
+                layout.completeMigration();
+            }
+            state = failed.get() == 0 ? STATE_COMPLETED : STATE_FAILED;
+            logger.info("Shard migration finished: {} scanned, {} moved, {} superseded, {} failed",
+                    scanned.get(), moved.get(), superseded.get(), failed.get());
+        } catch (IOException | RuntimeException e) {
+            error = e.getMessage();
+            state = STATE_FAILED;
+            logger.error("Shard migration failed after {} files", moved.get(), e);
+        } finally {
+            finishedAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * 업로드 디렉토리의 파일을 옮기고 비게 된 하위 디렉토리(번들 경로 등) 삭제
+     */
+    private void migrateFlatFiles() throws IOException {
+        Path root = layout.getRoot();
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (stopping) {
+                    return FileVisitResult.TERMINATE;
+                }
+                // 내부 디렉토리(.shards, .incoming, .segments 등 . 으로 시작) 제외
+                return dir.equals(root) || !root.relativize(dir).toString().startsWith(".")
+                        ? FileVisitResult.CONTINUE : FileVisitResult.SKIP_SUBTREE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile() && !root.relativize(file).toString().startsWith(".")) {
+                    migrate(file, root.relativize(file).toString().replace('\\', '/'));
+                }
+                return stopping ? FileVisitResult.TERMINATE : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException e) {
+                if (!dir.equals(root)) {
+                    try {
+                        Files.delete(dir);
+                    } catch (DirectoryNotEmptyException ignored) {
+                        // 남은 파일이 있는 디렉토리
+                    } catch (IOException ex) {
+                        logger.debug("Could not remove {}: {}", dir, ex.getMessage());
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * depth/width 변경 전 위치에 있는 샤드 파일을 새 위치로 이동
+     */
+    private void reshardExistingFiles() throws IOException {
+        Files.walkFileTree(layout.getShardRoot(), new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                String name = layout.nameOf(file);
+                if (attrs.isRegularFile() && name != null && !file.equals(layout.locate(name))) {
+                    migrate(file, name);
+                }
+                return stopping ? FileVisitResult.TERMINATE : FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void migrate(Path source, String name) {
+        scanned.incrementAndGet();
+        try {
+            Path target = layout.prepare(name);
+            try {
+                // 링크는 대상이 있으면 실패하므로 이동 중 업로드된 새 파일을 덮어쓰지 않음
+                Files.createLink(target, source);
+                Files.delete(source);
+                moved.incrementAndGet();
+            } catch (FileAlreadyExistsException e) {
+                Files.deleteIfExists(source);
+                superseded.incrementAndGet();
+            } catch (UnsupportedOperationException | FileSystemException e) {
+                if (Files.exists(target)) {
+                    Files.deleteIfExists(source);
+                    superseded.incrementAndGet();
+                } else {
+                    // 하드 링크를 지원하지 않는 파일 시스템
+                    Files.move(source, target);
+                    moved.incrementAndGet();
+                }
+            }
+        } catch (IOException e) {
+            failed.incrementAndGet();
+            logger.warn("Failed to move {} into shard layout: {}", source, e.getMessage());
+        }
+        pace();
+    }
+
+    private void pace() {
+        if (rate <= 0) {
+            return;
+        }
+        long expectedNanos = TimeUnit.SECONDS.toNanos(1) * scanned.get() / rate;
+        long elapsedNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - startedAt);
+        if (expectedNanos > elapsedNanos) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(expectedNanos - elapsedNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stopping = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.example.filestream.common.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 저장 파일 배치 (file.storage.layout)
+ * - flat: 업로드 디렉토리에 파일명 그대로 저장
+ * - sharded: 저장 파일명 SHA-256 의 앞부분으로 하위 디렉토리를 나눠 저장 ({upload}/.shards/3f/a2/{저장 파일명}, depth=2, width=2)
+ *
+ * 디렉토리 하나에 수백만 개 항목이 쌓이면 생성, 조회, 목록이 느려지므로 sharded 는 항목을 16^(depth*width) 개 디렉토리로 분산한다.
+ * 경로는 파일명만으로 계산되므로 조회는 색인 없이 O(1) 이다.
+ *
+ * 배치는 .shards/layout.properties 에 기록한다. depth/width 를 바꿨거나 이전 flat 파일이 남아 있으면
+ * {@link ShardMigrator} 가 옮기는 동안 조회는 새 위치, 이전 배치 위치, 업로드 디렉토리 순으로 찾는다.
+ */
+@Component
+public class ShardedLayout {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedLayout.class);
+
+    public static final String LAYOUT_FLAT = "flat";
+    public static final String LAYOUT_SHARDED = "sharded";
+    public static final String SHARD_DIRECTORY = ".shards";
+
+    private static final String LAYOUT_FILE = "layout.properties";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    // 생성한 샤드 디렉토리를 기억할 최대 글자 수 (16^5 = 약 100만 개)
+    private static final int MAX_CACHED_PREFIX_LENGTH = 5;
+
+    private final Path root;
+    private final Path shardRoot;
+    private final String layout;
+    private final Geometry geometry;
+    // 샤드 디렉토리 생성 여부 캐시 (파일마다 createDirectories 호출 방지)
+    private final Map<Path, Boolean> createdDirectories = new ConcurrentHashMap<>();
+    // 이동이 끝나지 않은 이전 배치 (없으면 null)
+    private volatile Geometry previous;
+    // 업로드 디렉토리에 이전 flat 파일이 남아 있을 수 있는지
+    private volatile boolean legacyFiles;
+
+    public ShardedLayout(@Value("${file.upload.directory:./uploads}") String uploadDirectory,
+                         @Value("${file.storage.layout:flat}") String layout,
+                         @Value("${file.storage.shard.depth:2}") int depth,
+                         @Value("${file.storage.shard.width:2}") int width) {
+        this.root = Paths.get(uploadDirectory);
+        this.shardRoot = root.resolve(SHARD_DIRECTORY);
+        this.layout = layout;
+        this.geometry = new Geometry(depth, width);
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!LAYOUT_FLAT.equals(layout) && !LAYOUT_SHARDED.equals(layout)) {
+            throw new IllegalStateException("Unknown storage layout: " + layout);
+        }
+        if (!isSharded()) {
+            return;
+        }
+        if (geometry.depth < 1 || geometry.depth > 4 || geometry.width < 1 || geometry.width > 4) {
+            throw new IllegalStateException("Shard depth and width must be between 1 and 4: "
+                    + geometry.depth + "/" + geometry.width);
+        }
+        Files.createDirectories(shardRoot);
+
+        Path layoutFile = shardRoot.resolve(LAYOUT_FILE);
+        if (Files.exists(layoutFile)) {
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(layoutFile)) {
+                properties.load(in);
+            }
+            Geometry recorded = new Geometry(Integer.parseInt(properties.getProperty("depth")),
+                    Integer.parseInt(properties.getProperty("width")));
+            if (!recorded.equals(geometry)) {
+                previous = recorded;
+                logger.warn("Shard layout changed from {} to {}, run POST /actuator/reshard to move files",
+                        recorded, geometry);
+            }
+        } else {
+            writeLayoutFile();
+        }
+
+        legacyFiles = hasLegacyFiles();
+        if (legacyFiles) {
+            logger.warn("Flat files found in {}, run POST /actuator/reshard to move them into {}",
+                    root.toAbsolutePath(), SHARD_DIRECTORY);
+        }
+        logger.info("Storage layout: sharded {} under {}", geometry, shardRoot.toAbsolutePath());
+    }
+
+    public boolean isSharded() {
+        return LAYOUT_SHARDED.equals(layout);
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    public Path getShardRoot() {
+        return shardRoot;
+    }
+
+    public int getDepth() {
+        return geometry.depth;
+    }
+
+    public int getWidth() {
+        return geometry.width;
+    }
+
+    /**
+     * 이전 배치나 flat 파일이 남아 있어 이동이 필요한지
+     */
+    public boolean needsMigration() {
+        return isSharded() && (previous != null || legacyFiles);
+    }
+
+    boolean hasPreviousGeometry() {
+        return previous != null;
+    }
+
+    /**
+     * 파일을 저장할 경로 (새 파일, 덮어쓰기)
+     */
+    public Path locate(String name) {
+        return isSharded() ? geometry.locate(shardRoot, name) : root.resolve(name);
+    }
+
+    /**
+     * 저장할 경로의 상위 디렉토리 생성 (sharded 는 한 번 만든 디렉토리를 기억)
+     */
+    public Path prepare(String name) throws IOException {
+        Path target = locate(name);
+        Path parent = target.getParent();
+        if (isSharded() && name.indexOf('/') < 0 && geometry.depth * geometry.width <= MAX_CACHED_PREFIX_LENGTH) {
+            if (!createdDirectories.containsKey(parent)) {
+                Files.createDirectories(parent);
+                createdDirectories.put(parent, Boolean.TRUE);
+            }
+        } else if (isSharded() || name.indexOf('/') >= 0) {
+            Files.createDirectories(parent);
+        }
+        return target;
+    }
+
+    /**
+     * 저장된 파일 경로 (없으면 null). 이동 중에는 새 위치, 이전 배치 위치, 업로드 디렉토리 순으로 찾고,
+     * 찾는 사이 파일이 옮겨졌을 수 있으므로 마지막에 새 위치를 한 번 더 확인한다.
+     */
+    public Path find(String name) {
+        Path target = locate(name);
+        if (Files.isRegularFile(target)) {
+            return target;
+        }
+        if (!needsMigration()) {
+            return null;
+        }
+        for (Path candidate : staleLocations(name)) {
+            if (Files.isRegularFile(candidate)) {
+                return candidate;
+            }
+        }
+        return Files.isRegularFile(target) ? target : null;
+    }
+
+    /**
+     * 새 위치에 저장한 뒤 남은 이전 위치의 같은 이름 파일 삭제 (이동 중에만)
+     */
+    public boolean removeStale(String name) throws IOException {
+        boolean removed = false;
+        if (needsMigration()) {
+            for (Path candidate : staleLocations(name)) {
+                removed |= Files.deleteIfExists(candidate);
+            }
+        }
+        return removed;
+    }
+
+    private Path[] staleLocations(String name) {
+        Geometry old = previous;
+        return old != null
+                ? new Path[]{old.locate(shardRoot, name), root.resolve(name)}
+                : new Path[]{root.resolve(name)};
+    }
+
+    /**
+     * 샤드 디렉토리 안의 파일 경로를 파일명으로 변환. 샤드 경로와 파일명 해시가 맞지 않으면 null
+     */
+    public String nameOf(Path file) {
+        Path relative = shardRoot.relativize(file);
+        String name = geometry.nameOf(relative);
+        if (name == null && previous != null) {
+            name = previous.nameOf(relative);
+        }
+        return name;
+    }
+
+    /**
+     * 이동 완료 (ShardMigrator 에서 호출). 현재 배치를 기록하고 이전 위치 조회를 멈춘다
+     */
+    void completeMigration() throws IOException {
+        writeLayoutFile();
+        previous = null;
+        legacyFiles = hasLegacyFiles();
+    }
+
+    private void writeLayoutFile() throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("depth", String.valueOf(geometry.depth));
+        properties.setProperty("width", String.valueOf(geometry.width));
+        Path temp = shardRoot.resolve(LAYOUT_FILE + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            properties.store(out, "Shard layout of " + SHARD_DIRECTORY);
+        }
+        Files.move(temp, shardRoot.resolve(LAYOUT_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 업로드 디렉토리에 내부 디렉토리('.' 으로 시작) 외의 항목이 있는지
+     */
+    private boolean hasLegacyFiles() throws IOException {
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(root,
+                entry -> !entry.getFileName().toString().startsWith("."))) {
+            return entries.iterator().hasNext();
+        }
+    }
+
+    static String hashPrefix(String name, int length) {
+        byte[] hash;
+        try {
+            hash = MessageDigest.getInstance("SHA-256").digest(name.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        char[] prefix = new char[length];
+        for (int i = 0; i < length; i++) {
+            int b = hash[i / 2] & 0xff;
+            prefix[i] = HEX[i % 2 == 0 ? b >>> 4 : b & 0x0f];
+        }
+        return new String(prefix);
+    }
+
+    /**
+     * 샤드 디렉토리 단계 수(depth)와 단계별 16진수 글자 수(width)
+     */
+    private static final class Geometry {
+
+        private final int depth;
+        private final int width;
+
+        Geometry(int depth, int width) {
+            this.depth = depth;
+            this.width = width;
+        }
+
+        Path locate(Path shardRoot, String name) {
+            String prefix = hashPrefix(name, depth * width);
+            Path directory = shardRoot;
+            for (int level = 0; level < depth; level++) {
+                directory = directory.resolve(prefix.substring(level * width, (level + 1) * width));
+            }
+            return directory.resolve(name);
+        }
+
+        String nameOf(Path relative) {
+            if (relative.getNameCount() <= depth) {
+                return null;
+            }
+            StringBuilder prefix = new StringBuilder();
+            for (int level = 0; level < depth; level++) {
+                prefix.append(relative.getName(level));
+            }
+            String name = relative.subpath(depth, relative.getNameCount()).toString().replace('\\', '/');
+            return prefix.toString().equals(hashPrefix(name, depth * width)) ? name : null;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Geometry && ((Geometry) other).depth == depth && ((Geometry) other).width == width;
+        }
+
+        @Override
+        public int hashCode() {
+            return depth * 31 + width;
+        }
+
+        @Override
+        public String toString() {
+            return "depth=" + depth + ", width=" + width;
+        }
+    }
+}
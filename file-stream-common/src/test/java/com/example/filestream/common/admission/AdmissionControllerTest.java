@@ -0,0 +1,76 @@
+package com.example.filestream.common.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AdmissionControllerTest {
+
+    @TempDir
+    Path uploadDirectory;
+
+    @Test
+    @DisplayName("동시 업로드 한도 초과 시 거부하고 해제 후 다시 수락하는지 테스트")
+    void tryAcquire_rejectsOverConcurrencyLimit() {
+        AdmissionController admission = new AdmissionController(new SimpleMeterRegistry(),
+                uploadDirectory.toString(), true, 2, Long.MAX_VALUE, 0, 1, 30);
+
+        AdmissionController.Permit first = admission.tryAcquire(100);
+        AdmissionController.Permit second = admission.tryAcquire(-1);
+        AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class,
+                () -> admission.tryAcquire(100));
+        assertEquals(AdmissionController.REASON_CONCURRENCY, e.getReason());
+        assertEquals(1, e.getRetryAfterSeconds());
+
+        first.release();
+        first.release();
+        assertEquals(1, admission.getActive());
+        admission.tryAcquire(100).release();
+        second.release();
+        assertEquals(0, admission.getActive());
+        assertEquals(0, admission.getInFlightBytes());
+    }
+
+    @Test
+    @DisplayName("진행 중 바이트 한도 초과 시 거부하되 단독 업로드는 크기와 상관없이 수락하는지 테스트")
+    void tryAcquire_rejectsOverInFlightBytes() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AdmissionController admission = new AdmissionController(registry,
+                uploadDirectory.toString(), true, 10, 1000, 0, 1, 30);
+
+        AdmissionController.Permit large = admission.tryAcquire(5000);
+        AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class,
+                () -> admission.tryAcquire(10));
+        assertEquals(AdmissionController.REASON_INFLIGHT_BYTES, e.getReason());
+        assertEquals(1, admission.getActive());
+
+        large.release();
+        AdmissionController.Permit small = admission.tryAcquire(600);
+        assertThrows(AdmissionRejectedException.class, () -> admission.tryAcquire(600));
+        small.release();
+
+        assertEquals(2.0, registry.get("file.upload.admission.rejected")
+                .tag("reason", AdmissionController.REASON_INFLIGHT_BYTES).counter().count());
+    }
+
+    @Test
+    @DisplayName("디스크 여유 공간이 부족하면 긴 Retry-After 로 거부하는지 테스트")
+    void tryAcquire_rejectsWhenDiskHeadroomIsLow() {
+        AdmissionController admission = new AdmissionController(new SimpleMeterRegistry(),
+                uploadDirectory.resolve("not-created-yet").toString(), true, 10, Long.MAX_VALUE,
+                Long.MAX_VALUE / 2, 1, 30);
+
+        AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class,
+                () -> admission.tryAcquire(100));
+        assertEquals(AdmissionController.REASON_DISK, e.getReason());
+        assertEquals(30, e.getRetryAfterSeconds());
+        assertEquals(0, admission.getActive());
+        assertEquals(0, admission.getInFlightBytes());
+    }
+}
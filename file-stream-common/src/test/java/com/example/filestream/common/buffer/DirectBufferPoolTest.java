@@ -0,0 +1,72 @@
+package com.example.filestream.common.buffer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DirectBufferPoolTest {
+
+    @Test
+    @DisplayName("반납한 버퍼를 같은 크기 등급 요청에 재사용하는지 테스트")
+    void acquire_reusesReleasedBuffer() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DirectBufferPool pool = new DirectBufferPool(registry, true, 1048576, 1048576);
+
+        ByteBuffer first = pool.acquire(5000);
+        assertTrue(first.isDirect());
+        assertEquals(8192, first.capacity());
+        pool.release(first);
+
+        ByteBuffer second = pool.acquire(8192);
+        assertSame(first, second);
+        pool.release(second);
+
+        assertEquals(0, pool.getOutstanding());
+        assertEquals(1.0, registry.get("file.buffer.pool.acquire").tag("result", "miss").counter().count());
+        assertEquals(1.0, registry.get("file.buffer.pool.acquire").tag("result", "thread_hit").counter().count());
+    }
+
+    @Test
+    @DisplayName("풀 한도 초과 시 힙 버퍼로 대체하는지 테스트")
+    void acquire_fallsBackToHeapWhenExhausted() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DirectBufferPool pool = new DirectBufferPool(registry, true, 1048576, 8192);
+
+        ByteBuffer pooled = pool.acquire(8192);
+        ByteBuffer fallback = pool.acquire(8192);
+        assertTrue(pooled.isDirect());
+        assertFalse(fallback.isDirect());
+        assertEquals(2, pool.getOutstanding());
+
+        pool.release(fallback);
+        pool.release(pooled);
+        assertEquals(0, pool.getOutstanding());
+        assertEquals(8192, pool.getAllocatedBytes());
+        assertEquals(1.0, registry.get("file.buffer.pool.acquire").tag("result", "exhausted").counter().count());
+    }
+
+    @Test
+    @DisplayName("종료된 스레드가 보관하던 버퍼를 회수하는지 테스트")
+    void acquire_reclaimsBuffersFromDeadThreads() throws InterruptedException {
+        DirectBufferPool pool = new DirectBufferPool(new SimpleMeterRegistry(), true, 1048576, 8192);
+
+        ByteBuffer[] leased = new ByteBuffer[1];
+        Thread worker = new Thread(() -> {
+            leased[0] = pool.acquire(8192);
+            pool.release(leased[0]);
+        });
+        worker.start();
+        worker.join();
+
+        ByteBuffer reclaimed = pool.acquire(8192);
+        assertSame(leased[0], reclaimed);
+        pool.release(reclaimed);
+    }
+}
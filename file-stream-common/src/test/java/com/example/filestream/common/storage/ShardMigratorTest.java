@@ -0,0 +1,101 @@
+package com.example.filestream.common.storage;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardMigratorTest {
+
+    @TempDir
+    Path uploadDirectory;
+
+    private ShardedLayout open(int depth, int width) throws IOException {
+        ShardedLayout layout = new ShardedLayout(uploadDirectory.toString(), ShardedLayout.LAYOUT_SHARDED, depth, width);
+        layout.init();
+        return layout;
+    }
+
+    private static void migrate(ShardedLayout layout) throws InterruptedException {
+        ShardMigrator migrator = new ShardMigrator(layout, 0, false);
+        migrator.start();
+        while (ShardMigrator.STATE_RUNNING.equals(migrator.status().get("state"))) {
+            Thread.sleep(10);
+        }
+        assertEquals(ShardMigrator.STATE_COMPLETED, migrator.status().get("state"));
+    }
+
+    private void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("파일명 해시 앞부분으로 샤드 경로를 정하고 경로에서 파일명을 복원하는지 테스트")
+    void locate_usesHashPrefixDirectories() throws IOException {
+        ShardedLayout layout = open(2, 2);
+        Path path = layout.locate("report.pdf");
+        String prefix = ShardedLayout.hashPrefix("report.pdf", 4);
+
+        assertEquals(layout.getShardRoot().resolve(prefix.substring(0, 2)).resolve(prefix.substring(2))
+                .resolve("report.pdf"), path);
+        assertEquals("report.pdf", layout.nameOf(path));
+        assertEquals("photos/a.txt", layout.nameOf(layout.locate("photos/a.txt")));
+        // 해시와 맞지 않는 위치의 파일
+        assertNull(layout.nameOf(layout.getShardRoot().resolve("00").resolve("00").resolve("report.pdf")));
+    }
+
+    @Test
+    @DisplayName("flat 파일을 이동 전에도 찾고, 이동 후 샤드 위치로 옮기며 먼저 업로드된 새 파일은 유지하는지 테스트")
+    void migrate_movesFlatFilesOnline() throws Exception {
+        write(uploadDirectory.resolve("a.txt"), "old-a");
+        write(uploadDirectory.resolve("b.txt"), "old-b");
+        write(uploadDirectory.resolve("photos").resolve("c.txt"), "old-c");
+        write(uploadDirectory.resolve(".incoming").resolve("x.uploading"), "staging");
+
+        ShardedLayout layout = open(2, 2);
+        assertTrue(layout.needsMigration());
+        assertEquals(uploadDirectory.resolve("a.txt"), layout.find("a.txt"));
+
+        // 이동 전에 새 위치로 업로드된 파일
+        write(layout.prepare("b.txt"), "new-b");
+
+        migrate(layout);
+        assertFalse(layout.needsMigration());
+        assertEquals("old-a", new String(Files.readAllBytes(layout.find("a.txt")), StandardCharsets.UTF_8));
+        assertEquals("new-b", new String(Files.readAllBytes(layout.find("b.txt")), StandardCharsets.UTF_8));
+        assertEquals(layout.locate("photos/c.txt"), layout.find("photos/c.txt"));
+        assertFalse(Files.exists(uploadDirectory.resolve("a.txt")));
+        assertFalse(Files.exists(uploadDirectory.resolve("photos")));
+        assertTrue(Files.exists(uploadDirectory.resolve(".incoming").resolve("x.uploading")));
+    }
+
+    @Test
+    @DisplayName("depth/width 변경 시 이전 배치의 파일을 찾고 새 배치로 다시 나누는지 테스트")
+    void migrate_reshardsAfterGeometryChange() throws Exception {
+        ShardedLayout before = open(1, 1);
+        write(before.prepare("a.txt"), "a");
+        write(before.prepare("b.txt"), "b");
+
+        ShardedLayout after = open(2, 2);
+        assertTrue(after.needsMigration());
+        assertEquals(before.locate("a.txt"), after.find("a.txt"));
+
+        migrate(after);
+        assertEquals(after.locate("a.txt"), after.find("a.txt"));
+        assertEquals(after.locate("b.txt"), after.find("b.txt"));
+        assertFalse(Files.exists(before.locate("a.txt")));
+
+        ShardedLayout reopened = open(2, 2);
+        assertFalse(reopened.needsMigration());
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.filestream.httpclient;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 연결 하나의 전송 청크 크기를 관측값으로 조정 (file.stream.chunk.adaptive=true).
+ * window 번의 쓰기마다 평균 쓰기 지연을 보고 2배 단위로 크기를 바꾼다.
+ * 지연이 목표 이하이면 확대(네트워크가 더 받을 수 있음), 목표의 4배를 넘으면 축소(느린 링크에 큰 버퍼는 낭비)하며,
+ * 그 사이에서는 유지하므로 크기는 대략 (전송 속도 x 목표 지연) 근처에서 수렴한다.
+ */
+class AdaptiveChunkSizer {
+    private static final int MAX_TRACE_ENTRIES = 32;
+    
+    private final int minSize = ceilPowerOfTwo(Math.max(FileStreamClient.adaptiveMinChunk, 1));
+    private final int maxSize = Math.max(Integer.highestOneBit(Math.max(FileStreamClient.adaptiveMaxChunk, 1)), minSize);
+    private final long targetLatencyNanos = FileStreamClient.adaptiveTargetLatency * 1000;
+    private int size = minSize;
+    private int samples;
+    private long sampleBytes;
+    private long sampleNanos;
+    private long totalBytes;
+    private int adjustments;
+    private final List<String> trace = new ArrayList<>();
+    
+    AdaptiveChunkSizer() {
+        addTrace(0, 0);
+    }
+    
+    int getSize() {
+        return size;
+    }
+    
+    void record(int bytesWritten, long elapsedNanos) {
+        totalBytes += bytesWritten;
+        sampleBytes += bytesWritten;
+        sampleNanos += elapsedNanos;
+        if (++samples < Math.max(FileStreamClient.adaptiveWindow, 1)) {
+            return;
+        }
+        
+        long averageBytes = sampleBytes / samples;
+        long averageNanos = sampleNanos / samples;
+        samples = 0;
+        sampleBytes = 0;
+        sampleNanos = 0;
+        
+        int next = size;
+        if (averageBytes * 10 >= size * 9L && averageNanos <= targetLatencyNanos) {
+            next = Math.min(size * 2, maxSize);
+        } else if (averageNanos > targetLatencyNanos * 4) {
+            next = Math.max(size / 2, minSize);
+        }
+        if (next != size) {
+            size = next;
+            adjustments++;
+            addTrace(averageBytes, averageNanos);
+        }
+    }
+    
+    void printSummary() {
+        System.out.println("Adaptive chunk size: " + size + " bytes (" + adjustments + " adjustments)");
+        for (String entry : trace) {
+            System.out.println("  " + entry);
+        }
+    }
+    
+    private void addTrace(long averageBytes, long averageNanos) {
+        if (trace.size() < MAX_TRACE_ENTRIES) {
+            trace.add(String.format("at %d bytes -> %d (avg write %d bytes, %d us)",
+                totalBytes, size, averageBytes, averageNanos / 1000));
+        }
+    }
+    
+    private static int ceilPowerOfTwo(int value) {
+        int highest = Integer.highestOneBit(value);
+        return highest == value ? value : highest << 1;
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.filestream.httpclient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.http.HttpConnection;
+import org.apache.http.HttpInetConnection;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpCoreContext;
+import org.apache.http.util.EntityUtils;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 배치 업로드. 파일마다 한 요청으로, concurrency 개씩 동시에 전송한다.
+ * 하나의 PoolingHttpClientConnectionManager 로 연결을 keep-alive 로 재사용하므로 파일마다 JVM 과 TCP 연결을 새로 만들지 않는다.
+ * 파일별 결과를 출력(및 report 파일에 기록)하고 마지막에 전체 처리량을 요약한다.
+ */
+class BatchUploader {
+    private final RequestConfig requestConfig;
+    private final int concurrency;
+    private final long keepAlive;
+    private final String reportPath;
+
+    /**
+     * @param keepAlive  서버가 Keep-Alive 시간을 알려주지 않을 때 연결 유지 시간 (ms)
+     * @param reportPath 파일별 결과를 기록할 TSV 파일 (null 이면 화면에만 출력)
+     */
+    BatchUploader(RequestConfig requestConfig, int concurrency, long keepAlive, String reportPath) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Batch concurrency must be at least 1: " + concurrency);
+        }
+        this.requestConfig = requestConfig;
+        this.concurrency = concurrency;
+        this.keepAlive = keepAlive;
+        this.reportPath = reportPath;
+    }
+
+    /**
+     * 파일 목록을 targetUrl 로 전송하고 요약을 출력. 모두 성공하면 true
+     */
+    boolean upload(List<BundleFile> files, String targetUrl) throws IOException, InterruptedException {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(concurrency);
+        connectionManager.setDefaultMaxPerRoute(concurrency);
+        // 오래 쉬었던 연결은 재사용 전에 끊겼는지 확인
+        connectionManager.setValidateAfterInactivity(2000);
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        AtomicInteger newConnections = new AtomicInteger();
+
+        List<BatchResult> results = new ArrayList<>(files.size());
+        long startTime = System.nanoTime();
+        try (CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> {
+                    long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return serverKeepAlive > 0 ? serverKeepAlive : keepAlive;
+                })
+                // 응답을 받은 연결의 첫 요청이면 새로 연 연결 (재사용 여부 확인용)
+                .addInterceptorLast((HttpResponseInterceptor) (response, context) -> {
+                    HttpConnection connection = HttpCoreContext.adapt(context).getConnection();
+                    if (connection instanceof HttpInetConnection && connection.getMetrics().getRequestCount() == 1) {
+                        newConnections.incrementAndGet();
+                    }
+                })
+                .build();
+             PrintWriter report = reportPath != null
+                 ? new PrintWriter(Files.newBufferedWriter(Paths.get(reportPath), StandardCharsets.UTF_8)) : null) {
+
+            if (report != null) {
+                report.println("result\tname\tsize\tstatus\telapsedMs\tsha256\terror");
+            }
+            List<Future<BatchResult>> futures = new ArrayList<>(files.size());
+            for (BundleFile file : files) {
+                futures.add(executor.submit(() -> uploadFile(httpClient, file, targetUrl)));
+            }
+            // 제출 순서대로 결과를 모아 출력 (전송은 동시에 진행)
+            for (int i = 0; i < futures.size(); i++) {
+                BatchResult result;
+                try {
+                    result = futures.get(i).get();
+                } catch (ExecutionException e) {
+                    result = new BatchResult(files.get(i), -1, 0, null, String.valueOf(e.getCause()));
+                }
+                results.add(result);
+                System.out.printf("[%d/%d] %-4s %3s %s (%d bytes, %.1f ms)%s%n", i + 1, files.size(),
+                    result.isSuccess() ? "OK" : "FAIL", result.status > 0 ? String.valueOf(result.status) : "-",
+                    result.file.name, result.file.size, result.elapsedNanos / 1_000_000.0,
+                    result.error != null ? " " + result.error : "");
+                if (report != null) {
+                    report.printf("%s\t%s\t%d\t%d\t%.3f\t%s\t%s%n", result.isSuccess() ? "OK" : "FAIL",
+                        result.file.name, result.file.size, result.status, result.elapsedNanos / 1_000_000.0,
+                        result.sha256 != null ? result.sha256 : "",
+                        result.error != null ? result.error.replace('\t', ' ').replace('\n', ' ') : "");
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        double elapsedSeconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+
+        // 요약: 성공/실패 수, 전송량, 처리량, 파일별 지연 분포, 새로 연 연결 수
+        int succeeded = 0;
+        long uploadedBytes = 0;
+        long[] latencies = new long[results.size()];
+        for (int i = 0; i < results.size(); i++) {
+            BatchResult result = results.get(i);
+            latencies[i] = result.elapsedNanos;
+            if (result.isSuccess()) {
+                succeeded++;
+                uploadedBytes += result.file.size;
+            }
+        }
+        Arrays.sort(latencies);
+        System.out.println("Batch upload summary:");
+        System.out.printf("- Files: %d succeeded, %d failed (of %d)%n", succeeded, results.size() - succeeded, results.size());
+        System.out.printf("- Uploaded: %d bytes in %.2f s (%.2f MB/s, %.1f files/s)%n", uploadedBytes, elapsedSeconds,
+            elapsedSeconds > 0 ? uploadedBytes / 1024.0 / 1024.0 / elapsedSeconds : 0.0,
+            elapsedSeconds > 0 ? results.size() / elapsedSeconds : 0.0);
+        if (latencies.length > 0) {
+            System.out.printf("- Latency per file: p50 %.1f ms, p95 %.1f ms, max %.1f ms%n",
+                percentile(latencies, 0.50) / 1_000_000.0, percentile(latencies, 0.95) / 1_000_000.0,
+                latencies[latencies.length - 1] / 1_000_000.0);
+        }
+        System.out.println("- Connections opened: " + newConnections.get() + " (pool size " + concurrency + ")");
+        if (reportPath != null) {
+            System.out.println("- Report: " + reportPath);
+        }
+        return succeeded == results.size();
+    }
+
+    /**
+     * 정렬된 값에서 fraction(0 ~ 1) 위치의 값 (nearest-rank)
+     */
+    static long percentile(long[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    /**
+     * 배치의 파일 하나 전송 (503 이면 백오프 후 재시도). 실패는 예외 대신 결과로 반환
+     */
+    private static BatchResult uploadFile(CloseableHttpClient httpClient, BundleFile file, String targetUrl) {
+        long startTime = System.nanoTime();
+        if (file.size > FileStreamClient.maxFileSize) {
+            return new BatchResult(file, -1, System.nanoTime() - startTime, null,
+                "File size exceeds maximum allowed size (" + FileStreamClient.maxFileSize + " bytes)");
+        }
+        try {
+            String finalUrl = targetUrl + "?filename=" + URLEncoder.encode(file.name, "UTF-8");
+            for (int attempt = 1; ; attempt++) {
+                HttpPost httpPost = new HttpPost(finalUrl);
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                ChunkedStreamingEntity entity = new ChunkedStreamingEntity(file.path, 0, file.size,
+                    FileStreamClient.chunkSize, false);
+                entity.setDigest(digest);
+                httpPost.setEntity(entity);
+
+                int statusCode;
+                String retryAfter;
+                String responseBody;
+                // 응답 본문을 끝까지 읽고 닫아야 연결이 풀로 돌아간다
+                try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
+                    statusCode = response.getStatusLine().getStatusCode();
+                    retryAfter = response.containsHeader("Retry-After")
+                        ? response.getFirstHeader("Retry-After").getValue() : null;
+                    responseBody = response.getEntity() != null ? EntityUtils.toString(response.getEntity()) : "";
+                }
+
+                if (statusCode == 503 && attempt <= FileStreamClient.busyMaxRetries) {
+                    Thread.sleep(FileStreamClient.busyBackoffMillis(retryAfter, attempt));
+                    continue;
+                }
+                if (statusCode != 200) {
+                    return new BatchResult(file, statusCode, System.nanoTime() - startTime, null,
+                        "HTTP " + statusCode + ": " + responseBody);
+                }
+                String localSha256 = FileStreamClient.toHex(digest.digest());
+                JsonNode jsonResponse = FileStreamClient.objectMapper.readTree(responseBody);
+                if (jsonResponse.has("sha256") && !localSha256.equalsIgnoreCase(jsonResponse.get("sha256").asText())) {
+                    return new BatchResult(file, statusCode, System.nanoTime() - startTime, localSha256,
+                        "Checksum mismatch: server stored sha256=" + jsonResponse.get("sha256").asText());
+                }
+                return new BatchResult(file, statusCode, System.nanoTime() - startTime, localSha256, null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new BatchResult(file, -1, System.nanoTime() - startTime, null, "Interrupted");
+        } catch (Exception e) {
+            return new BatchResult(file, -1, System.nanoTime() - startTime, null, e.toString());
+        }
+    }
+
+    /**
+     * 배치 목록 파일: 한 줄에 파일 경로 하나 (빈 줄과 # 주석 무시, 상대 경로는 목록 파일 위치 기준).
+     * 경로 뒤에 탭으로 구분해 서버에 저장할 이름을 지정할 수 있다 (없으면 파일 이름)
+     */
+    static List<BundleFile> readManifest(Path manifest) throws IOException {
+        Path base = manifest.toAbsolutePath().getParent();
+        List<BundleFile> files = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            String entry = line.trim();
+            if (entry.isEmpty() || entry.startsWith("#")) {
+                continue;
+            }
+            String name = null;
+            int tab = line.indexOf('\t');
+            if (tab >= 0) {
+                entry = line.substring(0, tab).trim();
+                name = line.substring(tab + 1).trim();
+            }
+            Path path = base.resolve(entry).normalize();
+            if (!Files.isRegularFile(path)) {
+                throw new FileNotFoundException("Manifest line " + lineNumber + ": not a regular file: " + path);
+            }
+            if (name == null || name.isEmpty()) {
+                name = path.getFileName().toString();
+            }
+            files.add(new BundleFile(path, name, Files.size(path), Files.getLastModifiedTime(path).toMillis() / 1000));
+        }
+        return files;
+    }
+
+    /**
+     * 배치 업로드의 파일별 결과 (status 는 HTTP 상태, 요청 전에 실패하면 -1)
+     */
+    static class BatchResult {
+        private final BundleFile file;
+        private final int status;
+        private final long elapsedNanos;
+        private final String sha256;
+        private final String error;
+
+        BatchResult(BundleFile file, int status, long elapsedNanos, String sha256, String error) {
+            this.file = file;
+            this.status = status;
+            this.elapsedNanos = elapsedNanos;
+            this.sha256 = sha256;
+            this.error = error;
+        }
+
+        boolean isSuccess() {
+            return error == null;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.filestream.httpclient;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 디렉토리 업로드와 배치 업로드에 담을 파일 (서버에 저장할 이름, 크기, 전송 중 계산한 SHA-256)
+ */
+class BundleFile {
+    final Path path;
+    final String name;
+    final long size;
+    final long modifiedSeconds;
+    String sha256;
+
+    BundleFile(Path path, String name, long size, long modifiedSeconds) {
+        this.path = path;
+        this.name = name;
+        this.size = size;
+        this.modifiedSeconds = modifiedSeconds;
+    }
+
+    /**
+     * 디렉토리 아래 일반 파일 목록 (이름은 디렉토리 이름으로 시작하는 '/' 구분 상대 경로)
+     */
+    static List<BundleFile> listDirectory(Path directory) throws IOException {
+        Path root = directory.toAbsolutePath().normalize();
+        Path base = root.getParent() != null ? root.getParent() : root;
+        List<BundleFile> files = new ArrayList<>();
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                if (attributes.isRegularFile()) {
+                    String name = base.relativize(file).toString().replace(File.separatorChar, '/');
+                    files.add(new BundleFile(file, name, attributes.size(), attributes.lastModifiedTime().toMillis() / 1000));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return files;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.filestream.httpclient;
+
+import org.apache.http.entity.AbstractHttpEntity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.zip.GZIPOutputStream;
+
+// 청크 기반 스트리밍 엔티티 클래스
+class ChunkedStreamingEntity extends AbstractHttpEntity {
+    private final Path filePath;
+    private final long offset;
+    private final long fileSize;
+    private final int chunkSize;
+    private final boolean reportProgress;
+    private MessageDigest digest;
+    private int compressionLevel = -1; // -1 이면 압축하지 않음
+    
+    public ChunkedStreamingEntity(Path filePath, long fileSize, int chunkSize) {
+        this(filePath, 0, fileSize, chunkSize, true);
+    }
+    
+    // offset 위치부터 fileSize 바이트를 전송하는 엔티티
+    public ChunkedStreamingEntity(Path filePath, long offset, long fileSize, int chunkSize, boolean reportProgress) {
+        this.filePath = filePath;
+        this.offset = offset;
+        this.fileSize = fileSize;
+        this.chunkSize = chunkSize;
+        this.reportProgress = reportProgress;
+        setContentType("application/octet-stream");
+    }
+    
+    // 전송하는 바이트를 반영할 다이제스트 (재전송 시 초기화)
+    public void setDigest(MessageDigest digest) {
+        this.digest = digest;
+    }
+    
+    // gzip 으로 압축해 전송 (Content-Encoding: gzip, 길이를 미리 알 수 없으므로 chunked 전송)
+    public void setCompressionLevel(int compressionLevel) {
+        this.compressionLevel = compressionLevel;
+        setContentEncoding("gzip");
+    }
+    
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+    
+    @Override
+    public long getContentLength() {
+        return compressionLevel >= 0 ? -1 : fileSize;
+    }
+    
+    @Override
+    public InputStream getContent() throws IOException {
+        return openAtOffset();
+    }
+    
+    private InputStream openAtOffset() throws IOException {
+        FileChannel fileChannel = FileChannel.open(filePath);
+        fileChannel.position(offset);
+        return Channels.newInputStream(fileChannel);
+    }
+    
+    @Override
+    public void writeTo(OutputStream rawOutStream) throws IOException {
+        GZIPOutputStream gzipOutStream = null;
+        if (compressionLevel >= 0) {
+            final int level = compressionLevel;
+            gzipOutStream = new GZIPOutputStream(rawOutStream, chunkSize) {
+                {
+                    def.setLevel(level);
+                }
+            };
+        }
+        OutputStream outStream = gzipOutStream != null ? gzipOutStream : rawOutStream;
+        
+        try (InputStream inStream = openAtOffset()) {
+            if (digest != null) {
+                digest.reset();
+            }
+            // 연결(전송)마다 새로 관측해 청크 크기 결정
+            AdaptiveChunkSizer sizer = FileStreamClient.adaptiveChunk ? new AdaptiveChunkSizer() : null;
+            byte[] buffer = sizer != null ? FileStreamClient.transferBuffer(sizer.getSize()) : FileStreamClient.transferBuffer();
+            int bytesRead;
+            long totalBytesRead = 0;
+            long lastProgressUpdate = 0;
+            
+            // 구간 전송 시 fileSize 바이트까지만 읽음
+            while (totalBytesRead < fileSize
+                    && (bytesRead = inStream.read(buffer, 0, (int) Math.min(buffer.length, fileSize - totalBytesRead))) != -1) {
+                long writeStart = System.nanoTime();
+                outStream.write(buffer, 0, bytesRead);
+                long writeNanos = System.nanoTime() - writeStart;
+                if (digest != null) {
+                    digest.update(buffer, 0, bytesRead);
+                }
+                totalBytesRead += bytesRead;
+                
+                // 쓰기 지연으로 청크 크기 조정 (다음 읽기부터 새 크기 적용)
+                if (sizer != null) {
+                    sizer.record(bytesRead, writeNanos);
+                    if (sizer.getSize() != buffer.length) {
+                        buffer = FileStreamClient.transferBuffer(sizer.getSize());
+                    }
+                }
+                
+                if (!reportProgress) {
+                    continue;
+                }
+                
+                // 진행률 출력 (10% 단위)
+                long currentProgress = (totalBytesRead * 100) / fileSize;
+                if (currentProgress >= lastProgressUpdate + 10) {
+                    System.out.printf("Upload progress: %d%% (%d/%d bytes)%n", 
+                        currentProgress, totalBytesRead, fileSize);
+                    lastProgressUpdate = currentProgress;
+                }
+            }
+            
+            if (gzipOutStream != null) {
+                gzipOutStream.finish();
+            }
+            outStream.flush();
+            if (reportProgress) {
+                System.out.println("Upload progress: 100% (completed)");
+                if (sizer != null) {
+                    sizer.printSummary();
+                }
+            }
+        }
+    }
+    
+    @Override
+    public boolean isStreaming() {
+        return true;
+    }
+}
@@ -5,29 +5,79 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpHead;
+import org.apache.http.client.methods.HttpPatch;
 import org.apache.http.client.methods.HttpPost;
-import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.client.methods.HttpPut;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
 
 public class FileStreamClient {
 
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Logger logger = LoggerFactory.getLogger(FileStreamClient.class);
+
+    static final ObjectMapper objectMapper = new ObjectMapper();
+    // 스레드별로 재사용하는 복사 루프 버퍼
+    private static final ThreadLocal<byte[]> transferBuffers = new ThreadLocal<>();
     private static Properties config = new Properties();
     
     // Default values
-    private static int chunkSize = 8192; // 8KB
-    private static long maxFileSize = 1073741824L; // 1GB
+    static int chunkSize = 8192; // 8KB
+    static long maxFileSize = 1073741824L; // 1GB
     private static int connectionTimeout = 30000; // 30 seconds
     private static int readTimeout = 60000; // 60 seconds
+    private static boolean resumable = false;
+    private static int resumeMaxRetries = 5;
+    private static long resumeRetryDelay = 2000; // 2 seconds
+    private static String resumeStateDir = System.getProperty("java.io.tmpdir") + File.separator + "file-stream-sessions";
+    private static int segmentCount = 0; // 병렬 연결 수 (0 또는 1 이면 분할 업로드 사용 안 함)
+    private static long segmentSize = 0; // 0 이면 파일 크기 / segmentCount
+    private static boolean dedupProbe = false;
+    private static String compression = "none"; // none | gzip
+    private static int compressionLevel = 1; // 1(빠름) ~ 9(최대 압축)
+    private static int compressionSampleSize = 65536; // 64KB
+    private static double compressionMinSaving = 0.1; // 샘플 절감률이 10% 미만이면 압축 생략
+    static boolean adaptiveChunk = false; // 연결별로 청크 크기를 관측값에 따라 조정
+    static int adaptiveMinChunk = 4096; // 4KB
+    static int adaptiveMaxChunk = 1048576; // 1MB
+    static int adaptiveWindow = 16; // 크기를 다시 판단하기까지의 쓰기 횟수
+    static long adaptiveTargetLatency = 2000; // 2ms (microseconds)
+    static int busyMaxRetries = 5; // 서버 혼잡(503) 시 재시도 횟수
+    private static long busyBackoff = 1000; // 1 second
+    private static long busyBackoffMax = 30000; // 30 seconds
+    private static int batchConcurrency = 4; // 배치 업로드 동시 전송 수 (= 풀의 연결 수)
+    private static long batchKeepAlive = 30000; // 서버가 Keep-Alive 시간을 알려주지 않을 때 연결 유지 시간 (ms)
+    private static String batchReport = null; // 파일별 결과를 기록할 TSV 파일 (없으면 화면에만 출력)
     
     static {
         loadConfiguration();
@@ -43,12 +93,45 @@ public class FileStreamClient {
                 maxFileSize = Long.parseLong(config.getProperty("file.stream.max.size", "1073741824"));
                 connectionTimeout = Integer.parseInt(config.getProperty("file.stream.connection.timeout", "30000"));
                 readTimeout = Integer.parseInt(config.getProperty("file.stream.read.timeout", "60000"));
+                resumable = Boolean.parseBoolean(config.getProperty("file.stream.resumable", "false"));
+                resumeMaxRetries = Integer.parseInt(config.getProperty("file.stream.resume.max.retries", "5"));
+                resumeRetryDelay = Long.parseLong(config.getProperty("file.stream.resume.retry.delay", "2000"));
+                resumeStateDir = config.getProperty("file.stream.resume.state.dir", resumeStateDir);
+                segmentCount = Integer.parseInt(config.getProperty("file.stream.segment.count", "0"));
+                segmentSize = Long.parseLong(config.getProperty("file.stream.segment.size", "0"));
+                dedupProbe = Boolean.parseBoolean(config.getProperty("file.stream.dedup.probe", "false"));
+                compression = config.getProperty("file.stream.compression", "none");
+                compressionLevel = Integer.parseInt(config.getProperty("file.stream.compression.level", "1"));
+                compressionSampleSize = Integer.parseInt(config.getProperty("file.stream.compression.sample.size", "65536"));
+                compressionMinSaving = Double.parseDouble(config.getProperty("file.stream.compression.min.saving", "0.1"));
+                adaptiveChunk = Boolean.parseBoolean(config.getProperty("file.stream.chunk.adaptive", "false"));
+                adaptiveMinChunk = Integer.parseInt(config.getProperty("file.stream.chunk.adaptive.min", "4096"));
+                adaptiveMaxChunk = Integer.parseInt(config.getProperty("file.stream.chunk.adaptive.max", "1048576"));
+                adaptiveWindow = Integer.parseInt(config.getProperty("file.stream.chunk.adaptive.window", "16"));
+                adaptiveTargetLatency = Long.parseLong(config.getProperty("file.stream.chunk.adaptive.target.latency", "2000"));
+                busyMaxRetries = Integer.parseInt(config.getProperty("file.stream.busy.max.retries", "5"));
+                busyBackoff = Long.parseLong(config.getProperty("file.stream.busy.backoff", "1000"));
+                busyBackoffMax = Long.parseLong(config.getProperty("file.stream.busy.backoff.max", "30000"));
+                batchConcurrency = Integer.parseInt(config.getProperty("file.stream.batch.concurrency", "4"));
+                batchKeepAlive = Long.parseLong(config.getProperty("file.stream.batch.keepalive", "30000"));
+                batchReport = config.getProperty("file.stream.batch.report", "").trim();
+                if (batchReport.isEmpty()) {
+                    batchReport = null;
+                }
                 
                 System.out.println("Configuration loaded:");
                 System.out.println("- Chunk size: " + chunkSize + " bytes");
                 System.out.println("- Max file size: " + (maxFileSize / 1024 / 1024) + " MB");
                 System.out.println("- Connection timeout: " + connectionTimeout + " ms");
                 System.out.println("- Read timeout: " + readTimeout + " ms");
+                System.out.println("- Resumable upload: " + resumable);
+                System.out.println("- Parallel segments: " + segmentCount);
+                System.out.println("- Dedup probe: " + dedupProbe);
+                System.out.println("- Compression: " + compression + " (level " + compressionLevel + ")");
+                System.out.println("- Adaptive chunk size: " + adaptiveChunk
+                    + " (" + adaptiveMinChunk + " - " + adaptiveMaxChunk + " bytes)");
+                System.out.println("- Busy retries: " + busyMaxRetries + " (backoff " + busyBackoff + " - " + busyBackoffMax + " ms)");
+                System.out.println("- Batch concurrency: " + batchConcurrency);
             } else {
                 System.out.println("Using default configuration values");
             }
@@ -59,6 +142,7 @@ public class FileStreamClient {
 
     public static void main(String[] args) {
         String filePath = null;
+        String batchSource = null;
         String targetUrl = null;
 
         // 커맨드 라인 인자 파싱
@@ -75,24 +159,58 @@ public class FileStreamClient {
                 if (targetUrl.startsWith("\"") && targetUrl.endsWith("\"")) {
                     targetUrl = targetUrl.substring(1, targetUrl.length() - 1);
                 }
+            } else if (arg.startsWith("--resumable=")) {
+                resumable = Boolean.parseBoolean(arg.substring("--resumable=".length()));
+            } else if (arg.startsWith("--segments=")) {
+                segmentCount = Integer.parseInt(arg.substring("--segments=".length()));
+            } else if (arg.startsWith("--probe=")) {
+                dedupProbe = Boolean.parseBoolean(arg.substring("--probe=".length()));
+            } else if (arg.startsWith("--compression=")) {
+                compression = arg.substring("--compression=".length());
+            } else if (arg.startsWith("--adaptive=")) {
+                adaptiveChunk = Boolean.parseBoolean(arg.substring("--adaptive=".length()));
+            } else if (arg.startsWith("--batch=")) {
+                batchSource = stripQuotes(arg.substring("--batch=".length()));
+            } else if (arg.startsWith("--concurrency=")) {
+                batchConcurrency = Integer.parseInt(arg.substring("--concurrency=".length()));
+            } else if (arg.startsWith("--report=")) {
+                batchReport = stripQuotes(arg.substring("--report=".length()));
             }
         }
 
+        if (batchSource != null && targetUrl != null) {
+            try {
+                if (!uploadBatch(batchSource, targetUrl)) {
+                    System.exit(2);
+                }
+            } catch (Exception e) {
+                logger.error("Error in batch upload: {}", e.getMessage(), e);
+                System.exit(1);
+            }
+            return;
+        }
+
         if (filePath == null || targetUrl == null) {
             System.err.println("Usage: java -jar file-stream-client-1.0.0.jar --file.path=\"<file_path>\" --target.url=\"<target_url>\"");
             System.err.println("Example: java -jar file-stream-client-1.0.0.jar --file.path=\"C:/data/backup.zip\" --target.url=\"http://localhost:8080/api/v1/files/upload\"");
+            System.err.println("A directory as --file.path is packed into one tar stream and sent to the bundle API");
+            System.err.println("Batch: --batch=\"<directory or manifest file>\" [--concurrency=N] [--report=\"<result.tsv>\"] --target.url=...");
             System.exit(1);
         }
 
         try {
             uploadFile(filePath, targetUrl);
         } catch (Exception e) {
-            System.err.println("Error uploading file: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Error uploading file: {}", e.getMessage(), e);
             System.exit(1);
         }
     }
 
+    private static String stripQuotes(String value) {
+        return value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")
+            ? value.substring(1, value.length() - 1) : value;
+    }
+
     private static void uploadFile(String filePath, String targetUrl) throws Exception {
         // 초기 메모리 사용량 출력
         printMemoryUsage("Client startup");
@@ -103,6 +221,11 @@ public class FileStreamClient {
             throw new FileNotFoundException("File not found: " + filePath);
         }
 
+        if (Files.isDirectory(path)) {
+            uploadDirectory(path, targetUrl);
+            return;
+        }
+
         if (!Files.isRegularFile(path)) {
             throw new IllegalArgumentException("Path is not a regular file: " + filePath);
         }
@@ -119,11 +242,6 @@ public class FileStreamClient {
         
         System.out.println("Uploading file: " + filename + " (" + fileSize + " bytes)");
         System.out.println("Using chunk size: " + chunkSize + " bytes");
-        printMemoryUsage("Before upload");
-
-        // URL 인코딩된 파일명으로 최종 URL 생성
-        String encodedFilename = URLEncoder.encode(filename, "UTF-8");
-        String finalUrl = targetUrl + "?filename=" + encodedFilename;
 
         // HTTP 클라이언트 설정 (타임아웃 적용)
         RequestConfig requestConfig = RequestConfig.custom()
@@ -131,51 +249,657 @@ public class FileStreamClient {
             .setSocketTimeout(readTimeout)
             .build();
 
+        // 서버에 같은 내용이 있으면 전송 없이 파일명만 연결
+        String contentSha256 = null;
+        if (dedupProbe) {
+            contentSha256 = hashFile(path);
+            if (linkExistingContent(targetUrl, filename, contentSha256, requestConfig)) {
+                return;
+            }
+        }
+
+        if (segmentCount > 1 && fileSize > 0) {
+            uploadFileSegmented(path, filename, fileSize, targetUrl, requestConfig);
+            return;
+        }
+
+        if (resumable) {
+            uploadFileResumable(path, filename, fileSize, targetUrl, requestConfig);
+            return;
+        }
+
+        // 샘플 압축률이 충분할 때만 gzip 전송 (분할/세션 업로드는 오프셋이 저장 바이트 기준이라 제외)
+        boolean compress = shouldCompress(path, fileSize);
+
+        // URL 인코딩된 파일명으로 최종 URL 생성
+        String encodedFilename = URLEncoder.encode(filename, "UTF-8");
+        String finalUrl = targetUrl + "?filename=" + encodedFilename;
+
+        // 서버가 수락 제어로 거부하면 본문을 보내기 전에 최종 응답(503)을 받도록 Expect: 100-continue 사용
+        RequestConfig uploadConfig = RequestConfig.copy(requestConfig)
+            .setExpectContinueEnabled(true)
+            .build();
+
         try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
 
-            HttpPost httpPost = new HttpPost(finalUrl);
-            httpPost.setHeader("Content-Type", "application/octet-stream");
-            httpPost.setHeader("Content-Length", String.valueOf(fileSize));
-            httpPost.setConfig(requestConfig);
+            // 서버가 혼잡(503)하면 Retry-After 와 지터를 더한 백오프 후 재시도
+            for (int attempt = 1; ; attempt++) {
+                HttpPost httpPost = new HttpPost(finalUrl);
+                httpPost.setHeader("Content-Type", "application/octet-stream");
+                if (contentSha256 != null) {
+                    // 미리 계산한 해시는 서버에서 수신 데이터 검증에 사용
+                    httpPost.setHeader("X-Content-SHA256", contentSha256);
+                }
+                httpPost.setConfig(uploadConfig);
 
-            // 청크 기반 스트리밍 엔티티 생성
-            ChunkedStreamingEntity entity = new ChunkedStreamingEntity(path, fileSize, chunkSize);
-            httpPost.setEntity(entity);
+                // 청크 기반 스트리밍 엔티티 생성
+                // 전송하면서 SHA-256 계산
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                ChunkedStreamingEntity entity = new ChunkedStreamingEntity(path, fileSize, chunkSize);
+                entity.setDigest(digest);
+                if (compress) {
+                    entity.setCompressionLevel(compressionLevel);
+                }
+                httpPost.setEntity(entity);
 
-            System.out.println("Sending request to: " + finalUrl);
-            printMemoryUsage("During upload");
+                System.out.println("Sending request to: " + finalUrl);
 
-            HttpResponse response = httpClient.execute(httpPost);
-            int statusCode = response.getStatusLine().getStatusCode();
-            
-            printMemoryUsage("After upload");
-            
-            HttpEntity responseEntity = response.getEntity();
-            String responseBody = responseEntity != null ? EntityUtils.toString(responseEntity) : "";
+                HttpResponse response = httpClient.execute(httpPost);
+                int statusCode = response.getStatusLine().getStatusCode();
+                
+                HttpEntity responseEntity = response.getEntity();
+                String responseBody = responseEntity != null ? EntityUtils.toString(responseEntity) : "";
+
+                if (statusCode == 503 && attempt <= busyMaxRetries) {
+                    String retryAfter = response.containsHeader("Retry-After")
+                        ? response.getFirstHeader("Retry-After").getValue() : null;
+                    long delay = busyBackoffMillis(retryAfter, attempt);
+                    System.out.printf("Server busy (HTTP 503, Retry-After: %s), retry %d/%d in %d ms%n",
+                        retryAfter, attempt, busyMaxRetries, delay);
+                    Thread.sleep(delay);
+                    continue;
+                }
 
-            if (statusCode == 200) {
-                System.out.println("File '" + filename + "' uploaded successfully. Server response: " + statusCode + " OK");
+                if (statusCode == 200) {
+                    System.out.println("File '" + filename + "' uploaded successfully. Server response: " + statusCode + " OK");
+                    
+                    // JSON 응답 파싱하여 추가 정보 출력
+                    try {
+                        JsonNode jsonResponse = objectMapper.readTree(responseBody);
+                        if (jsonResponse.has("message")) {
+                            System.out.println("Server message: " + jsonResponse.get("message").asText());
+                        }
+                        if (jsonResponse.has("size")) {
+                            System.out.println("Uploaded size: " + jsonResponse.get("size").asLong() + " bytes");
+                        }
+                        if (jsonResponse.has("storedAs")) {
+                            System.out.println("Stored compressed as: " + jsonResponse.get("storedAs").asText()
+                                + " (" + jsonResponse.get("storedSize").asLong() + " bytes)");
+                        }
+                        verifyChecksum(toHex(digest.digest()), jsonResponse);
+                    } catch (IOException e) {
+                        System.out.println("Response body: " + responseBody);
+                    }
+                    
+                    printMemoryUsage("Upload completed");
+                    return;
+                } else {
+                    System.err.println("Error uploading file. Server response: " + statusCode + " " + response.getStatusLine().getReasonPhrase());
+                    System.err.println("Response body: " + responseBody);
+                    throw new RuntimeException("Server returned HTTP " + statusCode);
+                }
+            }
+        }
+    }
+    
+    /**
+     * 디렉토리 업로드. 파일마다 요청을 보내지 않고 디렉토리를 읽으면서 tar 스트림으로 묶어 번들 API(.../bundle)로 한 번에 보낸다.
+     * 작은 파일이 많을수록 요청 왕복과 헤더 비용이 줄어든다. 응답 목록의 항목별 SHA-256 을 전송 중 계산한 값과 비교한다.
+     */
+    private static void uploadDirectory(Path directory, String targetUrl) throws Exception {
+        List<BundleFile> files = BundleFile.listDirectory(directory);
+        long totalSize = 0;
+        for (BundleFile file : files) {
+            totalSize += file.size;
+        }
+        TarStreamingEntity entity = new TarStreamingEntity(files, totalSize);
+        if ("gzip".equalsIgnoreCase(compression)) {
+            entity.setCompressionLevel(compressionLevel);
+        }
+        String bundleUrl = resolveApiUrl(targetUrl, "bundle");
+        
+        System.out.println("Uploading directory: " + directory + " (" + files.size() + " files, " + totalSize
+            + " bytes, tar " + TarStreamingEntity.tarLength(files) + " bytes" + (entity.getContentEncoding() != null ? ", gzip" : "") + ")");
+        System.out.println("Sending request to: " + bundleUrl);
+        
+        RequestConfig uploadConfig = RequestConfig.custom()
+            .setConnectTimeout(connectionTimeout)
+            .setSocketTimeout(readTimeout)
+            .setExpectContinueEnabled(true)
+            .build();
+        
+        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
+            for (int attempt = 1; ; attempt++) {
+                HttpPost httpPost = new HttpPost(bundleUrl);
+                httpPost.setConfig(uploadConfig);
+                httpPost.setEntity(entity);
+                
+                long startTime = System.nanoTime();
+                HttpResponse response = httpClient.execute(httpPost);
+                int statusCode = response.getStatusLine().getStatusCode();
+                HttpEntity responseEntity = response.getEntity();
+                String responseBody = responseEntity != null ? EntityUtils.toString(responseEntity) : "";
+                double elapsedSeconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+                
+                if (statusCode == 503 && attempt <= busyMaxRetries) {
+                    String retryAfter = response.containsHeader("Retry-After")
+                        ? response.getFirstHeader("Retry-After").getValue() : null;
+                    long delay = busyBackoffMillis(retryAfter, attempt);
+                    System.out.printf("Server busy (HTTP 503, Retry-After: %s), retry %d/%d in %d ms%n",
+                        retryAfter, attempt, busyMaxRetries, delay);
+                    Thread.sleep(delay);
+                    continue;
+                }
                 
-                // JSON 응답 파싱하여 추가 정보 출력
+                if (statusCode != 200) {
+                    System.err.println("Error uploading directory. Server response: " + statusCode + " " + response.getStatusLine().getReasonPhrase());
+                    System.err.println("Response body: " + responseBody);
+                    throw new RuntimeException("Server returned HTTP " + statusCode);
+                }
+                
+                JsonNode jsonResponse = objectMapper.readTree(responseBody);
+                System.out.println("Directory '" + directory.getFileName() + "' uploaded successfully. Server response: "
+                    + statusCode + " OK");
+                System.out.println("Server message: " + jsonResponse.path("message").asText());
+                System.out.printf("Stored %d files, skipped %d (%.2f MB/s, %.1f files/s)%n",
+                    jsonResponse.path("fileCount").asInt(), jsonResponse.path("skippedCount").asInt(),
+                    elapsedSeconds > 0 ? totalSize / 1024.0 / 1024.0 / elapsedSeconds : 0.0,
+                    elapsedSeconds > 0 ? files.size() / elapsedSeconds : 0.0);
+                verifyBundleManifest(files, jsonResponse);
+                printMemoryUsage("Upload completed");
+                return;
+            }
+        }
+    }
+    
+    /**
+     * 배치 업로드. 디렉토리(하위 파일 전체) 또는 목록 파일의 파일들을 BatchUploader 로 batchConcurrency 개씩 동시에 전송한다.
+     * 모두 성공하면 true.
+     */
+    private static boolean uploadBatch(String source, String targetUrl) throws Exception {
+        printMemoryUsage("Client startup");
+        Path sourcePath = Paths.get(source);
+        if (!Files.exists(sourcePath)) {
+            throw new FileNotFoundException("Batch source not found: " + source);
+        }
+        List<BundleFile> files = Files.isDirectory(sourcePath)
+            ? BundleFile.listDirectory(sourcePath) : BatchUploader.readManifest(sourcePath);
+        long totalSize = 0;
+        for (BundleFile file : files) {
+            totalSize += file.size;
+        }
+        System.out.println("Batch uploading " + files.size() + " files (" + totalSize + " bytes) from " + source
+            + " over " + batchConcurrency + " connections");
+        System.out.println("Sending requests to: " + targetUrl);
+
+        RequestConfig uploadConfig = RequestConfig.custom()
+            .setConnectTimeout(connectionTimeout)
+            .setSocketTimeout(readTimeout)
+            .setExpectContinueEnabled(true)
+            .build();
+        BatchUploader uploader = new BatchUploader(uploadConfig, batchConcurrency, batchKeepAlive, batchReport);
+        boolean succeeded = uploader.upload(files, targetUrl);
+        printMemoryUsage("Batch completed");
+        return succeeded;
+    }
+    
+    
+    /**
+     * 서버 응답 목록의 항목별 SHA-256 을 전송 중 계산한 값과 비교 (누락/불일치 시 예외)
+     */
+    private static void verifyBundleManifest(List<BundleFile> files, JsonNode jsonResponse) {
+        Map<String, String> stored = new HashMap<>();
+        for (JsonNode entry : jsonResponse.path("entries")) {
+            if (entry.has("sha256")) {
+                stored.put(entry.get("name").asText(), entry.get("sha256").asText());
+            } else if (entry.has("skipped")) {
+                System.out.println("Skipped by server: " + entry.path("name").asText() + " (" + entry.get("skipped").asText() + ")");
+            }
+        }
+        if (stored.isEmpty() && !files.isEmpty()) {
+            // 서버 체크섬 비활성화 (file.stream.checksum.enabled=false)
+            return;
+        }
+        int verified = 0;
+        for (BundleFile file : files) {
+            String serverSha256 = stored.get(file.name);
+            if (serverSha256 == null) {
+                continue;
+            }
+            if (!serverSha256.equalsIgnoreCase(file.sha256)) {
+                throw new IllegalStateException("Checksum mismatch for " + file.name + ": sent sha256=" + file.sha256
+                    + " but server stored sha256=" + serverSha256);
+            }
+            verified++;
+        }
+        System.out.println("Checksums verified (sha256): " + verified + "/" + files.size() + " files");
+    }
+    
+    /**
+     * 세션 API 를 이용한 재개 가능 업로드.
+     * 전송이 끊기면 서버의 확정 오프셋을 조회해 그 위치부터 다시 보내며,
+     * 세션 ID 를 로컬 상태 파일에 남겨 클라이언트를 다시 실행해도 이어서 업로드한다.
+     */
+    private static void uploadFileResumable(Path path, String filename, long fileSize, String targetUrl,
+                                            RequestConfig requestConfig) throws Exception {
+        String sessionsUrl = resolveApiUrl(targetUrl, "sessions");
+        Path stateFile = resolveSessionStateFile(path, fileSize, sessionsUrl);
+
+        try (CloseableHttpClient httpClient = HttpClients.custom().setDefaultRequestConfig(requestConfig).build()) {
+
+            // 이전 실행에서 남은 세션이 있으면 이어서 전송
+            String sessionId = loadSessionId(stateFile);
+            long offset = -1;
+            if (sessionId != null) {
+                offset = querySessionOffset(httpClient, sessionsUrl + "/" + sessionId);
+                if (offset >= 0) {
+                    System.out.println("Resuming upload session " + sessionId + " from offset " + offset);
+                }
+            }
+            if (offset < 0) {
+                sessionId = createSession(httpClient, sessionsUrl, filename, fileSize, 0);
+                saveSessionId(stateFile, sessionId);
+                offset = 0;
+                System.out.println("Created upload session: " + sessionId);
+            }
+
+            String sessionUrl = sessionsUrl + "/" + sessionId;
+            int attempt = 0;
+            while (offset < fileSize) {
                 try {
-                    JsonNode jsonResponse = objectMapper.readTree(responseBody);
-                    if (jsonResponse.has("message")) {
-                        System.out.println("Server message: " + jsonResponse.get("message").asText());
+                    if (offset < 0) {
+                        offset = querySessionOffset(httpClient, sessionUrl);
+                        if (offset < 0) {
+                            Files.deleteIfExists(stateFile);
+                            throw new IllegalStateException("Upload session no longer exists on server: " + sessionId);
+                        }
+                        System.out.println("Resuming from offset " + offset);
+                        continue;
                     }
-                    if (jsonResponse.has("size")) {
-                        System.out.println("Uploaded size: " + jsonResponse.get("size").asLong() + " bytes");
+                    offset = sendSessionChunk(httpClient, sessionUrl, path, offset, fileSize);
+                } catch (IOException e) {
+                    if (++attempt > resumeMaxRetries) {
+                        throw e;
                     }
-                } catch (Exception e) {
-                    System.out.println("Response body: " + responseBody);
+                    System.err.printf("Upload interrupted: %s (retry %d/%d)%n", e.getMessage(), attempt, resumeMaxRetries);
+                    Thread.sleep(resumeRetryDelay * attempt);
+                    offset = -1;
                 }
-                
-                printMemoryUsage("Upload completed");
+            }
+
+            completeSession(httpClient, sessionUrl, filename);
+            Files.deleteIfExists(stateFile);
+            printMemoryUsage("Upload completed");
+        }
+    }
+
+    private static String createSession(CloseableHttpClient httpClient, String sessionsUrl, String filename,
+                                        long fileSize, long sessionSegmentSize) throws IOException {
+        String url = sessionsUrl + "?filename=" + URLEncoder.encode(filename, "UTF-8") + "&size=" + fileSize;
+        if (sessionSegmentSize > 0) {
+            url += "&segmentSize=" + sessionSegmentSize;
+        }
+        HttpPost httpPost = new HttpPost(url);
+        try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            String responseBody = EntityUtils.toString(response.getEntity());
+            if (statusCode != 201) {
+                throw new IOException("Failed to create upload session. Server returned HTTP " + statusCode + ": " + responseBody);
+            }
+            return objectMapper.readTree(responseBody).get("sessionId").asText();
+        }
+    }
+
+    /**
+     * 서버의 확정 오프셋 조회 (세션이 없으면 -1)
+     */
+    private static long querySessionOffset(CloseableHttpClient httpClient, String sessionUrl) throws IOException {
+        JsonNode session = fetchSession(httpClient, sessionUrl);
+        return session != null ? session.get("offset").asLong() : -1;
+    }
+
+    /**
+     * 세션 상태 조회 (세션이 없으면 null)
+     */
+    private static JsonNode fetchSession(CloseableHttpClient httpClient, String sessionUrl) throws IOException {
+        try (CloseableHttpResponse response = httpClient.execute(new HttpGet(sessionUrl))) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            String responseBody = EntityUtils.toString(response.getEntity());
+            if (statusCode == 404) {
+                return null;
+            }
+            if (statusCode != 200) {
+                throw new IOException("Failed to query upload session. Server returned HTTP " + statusCode);
+            }
+            return objectMapper.readTree(responseBody);
+        }
+    }
+
+    /**
+     * 파일을 고정 크기 구간으로 나눠 여러 연결로 병렬 전송.
+     * 서버는 각 구간을 오프셋 위치에 기록하고 마지막 구간이 도착하면 파일을 완료한다.
+     * 중단된 경우 다시 실행하면 서버에 없는 구간만 전송한다.
+     */
+    private static void uploadFileSegmented(Path path, String filename, long fileSize, String targetUrl,
+                                            RequestConfig requestConfig) throws Exception {
+        String sessionsUrl = resolveApiUrl(targetUrl, "sessions");
+        Path stateFile = resolveSessionStateFile(path, fileSize, sessionsUrl);
+        long effectiveSegmentSize = segmentSize > 0 ? segmentSize : (fileSize + segmentCount - 1) / segmentCount;
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(segmentCount);
+        connectionManager.setDefaultMaxPerRoute(segmentCount);
+        ExecutorService executor = Executors.newFixedThreadPool(segmentCount);
+
+        try (CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .build()) {
+
+            // 이전 실행에서 남은 분할 세션이 있으면 누락된 구간만 전송
+            String sessionId = loadSessionId(stateFile);
+            JsonNode session = sessionId != null ? fetchSession(httpClient, sessionsUrl + "/" + sessionId) : null;
+            if (session == null || !session.has("segmentSize")) {
+                sessionId = createSession(httpClient, sessionsUrl, filename, fileSize, effectiveSegmentSize);
+                saveSessionId(stateFile, sessionId);
+                session = fetchSession(httpClient, sessionsUrl + "/" + sessionId);
+                System.out.println("Created segmented upload session: " + sessionId);
             } else {
-                System.err.println("Error uploading file. Server response: " + statusCode + " " + response.getStatusLine().getReasonPhrase());
+                System.out.println("Resuming segmented upload session " + sessionId);
+            }
+
+            String sessionUrl = sessionsUrl + "/" + sessionId;
+            long sessionSegmentSize = session.get("segmentSize").asLong();
+            int totalSegments = session.get("segmentCount").asInt();
+            List<Integer> pending = new ArrayList<>();
+            for (JsonNode index : session.get("missingSegments")) {
+                pending.add(index.asInt());
+            }
+            System.out.printf("Uploading %d of %d segments (%d bytes each) over %d connections%n",
+                    pending.size(), totalSegments, sessionSegmentSize, segmentCount);
+
+            AtomicInteger uploaded = new AtomicInteger(totalSegments - pending.size());
+            List<Future<?>> futures = new ArrayList<>();
+            for (int index : pending) {
+                long segmentOffset = index * sessionSegmentSize;
+                long segmentLength = Math.min(sessionSegmentSize, fileSize - segmentOffset);
+                futures.add(executor.submit(() -> {
+                    sendSegment(httpClient, sessionUrl, path, index, segmentOffset, segmentLength);
+                    System.out.printf("Segment %d uploaded (%d/%d)%n", index, uploaded.incrementAndGet(), totalSegments);
+                    return null;
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw new IOException("Segment upload failed: " + e.getCause().getMessage(), e.getCause());
+                }
+            }
+
+            Files.deleteIfExists(stateFile);
+            System.out.println("File '" + filename + "' uploaded successfully in " + totalSegments + " segments");
+            printMemoryUsage("Upload completed");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 하나의 구간 전송 (실패 시 재시도)
+     */
+    private static void sendSegment(CloseableHttpClient httpClient, String sessionUrl, Path path,
+                                    int index, long segmentOffset, long segmentLength) throws Exception {
+        int attempt = 0;
+        while (true) {
+            HttpPut httpPut = new HttpPut(sessionUrl + "/segments/" + index);
+            httpPut.setEntity(new ChunkedStreamingEntity(path, segmentOffset, segmentLength, chunkSize, false));
+            try (CloseableHttpResponse response = httpClient.execute(httpPut)) {
+                int statusCode = response.getStatusLine().getStatusCode();
+                String responseBody = EntityUtils.toString(response.getEntity());
+                if (statusCode == 200) {
+                    return;
+                }
+                if (statusCode == 404 || statusCode == 400) {
+                    throw new IllegalStateException("Segment " + index + " rejected: HTTP " + statusCode + " " + responseBody);
+                }
+                throw new IOException("Segment " + index + " failed: HTTP " + statusCode);
+            } catch (IOException e) {
+                if (++attempt > resumeMaxRetries) {
+                    throw e;
+                }
+                System.err.printf("Segment %d interrupted: %s (retry %d/%d)%n", index, e.getMessage(), attempt, resumeMaxRetries);
+                Thread.sleep(resumeRetryDelay * attempt);
+            }
+        }
+    }
+
+    /**
+     * offset 위치부터 파일 끝까지 전송하고 서버가 확정한 오프셋을 반환
+     */
+    private static long sendSessionChunk(CloseableHttpClient httpClient, String sessionUrl, Path path,
+                                         long offset, long fileSize) throws IOException {
+        HttpPatch httpPatch = new HttpPatch(sessionUrl);
+        httpPatch.setHeader("Content-Range", "bytes " + offset + "-" + (fileSize - 1) + "/" + fileSize);
+        httpPatch.setEntity(new ChunkedStreamingEntity(path, offset, fileSize - offset, chunkSize, true));
+
+        try (CloseableHttpResponse response = httpClient.execute(httpPatch)) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            String responseBody = EntityUtils.toString(response.getEntity());
+            if (statusCode == 200 || statusCode == 409) {
+                return Long.parseLong(response.getFirstHeader("Upload-Offset").getValue());
+            }
+            if (statusCode == 404) {
+                throw new IllegalStateException("Upload session no longer exists on server: " + sessionUrl);
+            }
+            throw new IOException("Server returned HTTP " + statusCode + ": " + responseBody);
+        }
+    }
+
+    private static void completeSession(CloseableHttpClient httpClient, String sessionUrl, String filename) throws IOException {
+        try (CloseableHttpResponse response = httpClient.execute(new HttpPost(sessionUrl + "/complete"))) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            String responseBody = EntityUtils.toString(response.getEntity());
+            if (statusCode != 200) {
                 System.err.println("Response body: " + responseBody);
                 throw new RuntimeException("Server returned HTTP " + statusCode);
             }
+            System.out.println("File '" + filename + "' uploaded successfully. Server response: " + statusCode + " OK");
+            JsonNode jsonResponse = objectMapper.readTree(responseBody);
+            if (jsonResponse.has("message")) {
+                System.out.println("Server message: " + jsonResponse.get("message").asText());
+            }
+        }
+    }
+
+    /**
+     * 서버가 응답한 SHA-256 과 전송 중 계산한 값 비교 (불일치 시 예외)
+     */
+    private static void verifyChecksum(String localSha256, JsonNode jsonResponse) {
+        if (!jsonResponse.has("sha256")) {
+            return;
+        }
+        String serverSha256 = jsonResponse.get("sha256").asText();
+        if (!localSha256.equalsIgnoreCase(serverSha256)) {
+            throw new IllegalStateException(
+                "Checksum mismatch: sent sha256=" + localSha256 + " but server stored sha256=" + serverSha256);
+        }
+        System.out.println("Checksum verified (sha256): " + localSha256);
+    }
+
+    static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * 503 재시도 대기 시간: Retry-After (초 또는 HTTP 날짜) 이후에 [0, 지수 백오프) 구간의 지터를 더함.
+     * 함께 거부된 클라이언트들이 같은 시각에 다시 몰리지 않게 한다.
+     */
+    static long busyBackoffMillis(String retryAfter, int attempt) {
+        long retryAfterMillis = 0;
+        if (retryAfter != null) {
+            try {
+                retryAfterMillis = Long.parseLong(retryAfter.trim()) * 1000;
+            } catch (NumberFormatException e) {
+                try {
+                    retryAfterMillis = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME)
+                        .toInstant().toEpochMilli() - System.currentTimeMillis();
+                } catch (RuntimeException ignored) {
+                    // 해석할 수 없으면 백오프만 적용
+                }
+            }
+        }
+        long backoff = Math.min(busyBackoffMax, busyBackoff << Math.min(attempt - 1, 20));
+        return Math.max(retryAfterMillis, 0) + ThreadLocalRandom.current().nextLong(Math.max(backoff, 1));
+    }
+
+    /**
+     * 업로드 URL(.../upload)로부터 같은 API 의 다른 경로(.../sessions, .../blobs/{sha256} 등) 도출
+     */
+    private static String resolveApiUrl(String targetUrl, String path) {
+        String base = targetUrl.endsWith("/") ? targetUrl.substring(0, targetUrl.length() - 1) : targetUrl;
+        if (base.endsWith("/upload")) {
+            base = base.substring(0, base.length() - "/upload".length());
+        }
+        return base + "/" + path;
+    }
+
+    /**
+     * 서버에 같은 내용(SHA-256)이 있는지 조회하고, 있으면 파일명만 연결.
+     * 전송을 건너뛰었으면 true
+     */
+    private static boolean linkExistingContent(String targetUrl, String filename, String sha256,
+                                               RequestConfig requestConfig) throws IOException {
+        try (CloseableHttpClient httpClient = HttpClients.custom().setDefaultRequestConfig(requestConfig).build()) {
+            int statusCode;
+            try (CloseableHttpResponse response = httpClient.execute(new HttpHead(resolveApiUrl(targetUrl, "blobs/" + sha256)))) {
+                statusCode = response.getStatusLine().getStatusCode();
+            }
+            if (statusCode != 200) {
+                System.out.println("Content not found on server (HTTP " + statusCode + "), streaming file");
+                return false;
+            }
+
+            HttpPost httpPost = new HttpPost(resolveApiUrl(targetUrl, "link")
+                    + "?filename=" + URLEncoder.encode(filename, "UTF-8") + "&sha256=" + sha256);
+            try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
+                statusCode = response.getStatusLine().getStatusCode();
+                String responseBody = EntityUtils.toString(response.getEntity());
+                if (statusCode != 200) {
+                    // 조회와 연결 사이에 내용이 사라진 경우 일반 업로드로 진행
+                    System.out.println("Link failed (HTTP " + statusCode + "), streaming file: " + responseBody);
+                    return false;
+                }
+            }
+        }
+
+        System.out.println("File '" + filename + "' already on server (sha256=" + sha256 + "), linked without transfer");
+        return true;
+    }
+
+    /**
+     * 파일 앞부분(샘플)을 실제 압축 수준으로 압축해 보고, 절감률이 기준 이상일 때만 압축 전송
+     */
+    private static boolean shouldCompress(Path path, long fileSize) throws IOException {
+        if (!"gzip".equalsIgnoreCase(compression) || fileSize == 0) {
+            return false;
+        }
+
+        byte[] sample = new byte[(int) Math.min(compressionSampleSize, fileSize)];
+        int sampleLength = 0;
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            int bytesRead;
+            while (sampleLength < sample.length
+                    && (bytesRead = inputStream.read(sample, sampleLength, sample.length - sampleLength)) != -1) {
+                sampleLength += bytesRead;
+            }
+        }
+
+        Deflater deflater = new Deflater(compressionLevel, true);
+        try {
+            deflater.setInput(sample, 0, sampleLength);
+            deflater.finish();
+            byte[] buffer = transferBuffer();
+            long compressedLength = 0;
+            while (!deflater.finished()) {
+                compressedLength += deflater.deflate(buffer);
+            }
+
+            double saving = sampleLength > 0 ? 1.0 - (double) compressedLength / sampleLength : 0.0;
+            boolean compress = saving >= compressionMinSaving;
+            System.out.printf("Compression sample: %d -> %d bytes (%.1f%% saving), %s%n",
+                sampleLength, compressedLength, saving * 100, compress ? "sending gzip" : "sending uncompressed");
+            return compress;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * 현재 스레드의 전송 버퍼 (복사 루프마다 새로 할당하지 않고 재사용)
+     */
+    static byte[] transferBuffer() {
+        return transferBuffer(chunkSize);
+    }
+
+    static byte[] transferBuffer(int size) {
+        byte[] buffer = transferBuffers.get();
+        if (buffer == null || buffer.length != size) {
+            buffer = new byte[size];
+            transferBuffers.set(buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * 업로드 전 조회용 SHA-256 계산
+     */
+    private static String hashFile(Path path) throws IOException, NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            byte[] buffer = transferBuffer();
+            int bytesRead;
+            while ((bytesRead = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, bytesRead);
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * 파일 경로, 크기, 수정 시각, 서버 주소로 식별되는 로컬 세션 상태 파일
+     */
+    private static Path resolveSessionStateFile(Path path, long fileSize, String sessionsUrl) throws IOException {
+        String key = path.toAbsolutePath() + "|" + fileSize + "|" + Files.getLastModifiedTime(path).toMillis() + "|" + sessionsUrl;
+        return Paths.get(resumeStateDir).resolve(UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)) + ".session");
+    }
+
+    private static String loadSessionId(Path stateFile) throws IOException {
+        if (!Files.exists(stateFile)) {
+            return null;
         }
+        String sessionId = new String(Files.readAllBytes(stateFile), StandardCharsets.UTF_8).trim();
+        return sessionId.isEmpty() ? null : sessionId;
+    }
+
+    private static void saveSessionId(Path stateFile, String sessionId) throws IOException {
+        Files.createDirectories(stateFile.getParent());
+        Files.write(stateFile, sessionId.getBytes(StandardCharsets.UTF_8));
     }
     
     private static void printMemoryUsage(String phase) {
@@ -196,69 +920,4 @@ public class FileStreamClient {
                 usedMemory / 1024.0 / 1024.0);
         }
     }
-    
-    // 청크 기반 스트리밍 엔티티 클래스
-    private static class ChunkedStreamingEntity extends AbstractHttpEntity {
-        private final Path filePath;
-        private final long fileSize;
-        private final int chunkSize;
-        
-        public ChunkedStreamingEntity(Path filePath, long fileSize, int chunkSize) {
-            this.filePath = filePath;
-            this.fileSize = fileSize;
-            this.chunkSize = chunkSize;
-            setContentType("application/octet-stream");
-        }
-        
-        @Override
-        public boolean isRepeatable() {
-            return true;
-        }
-        
-        @Override
-        public long getContentLength() {
-            return fileSize;
-        }
-        
-        @Override
-        public InputStream getContent() throws IOException {
-            return Files.newInputStream(filePath);
-        }
-        
-        @Override
-        public void writeTo(OutputStream outStream) throws IOException {
-            try (InputStream inStream = Files.newInputStream(filePath)) {
-                byte[] buffer = new byte[chunkSize];
-                int bytesRead;
-                long totalBytesRead = 0;
-                long lastProgressUpdate = 0;
-                
-                while ((bytesRead = inStream.read(buffer)) != -1) {
-                    outStream.write(buffer, 0, bytesRead);
-                    totalBytesRead += bytesRead;
-                    
-                    // 진행률 출력 (10% 단위)
-                    long currentProgress = (totalBytesRead * 100) / fileSize;
-                    if (currentProgress >= lastProgressUpdate + 10) {
-                        System.out.printf("Upload progress: %d%% (%d/%d bytes)%n", 
-                            currentProgress, totalBytesRead, fileSize);
-                        lastProgressUpdate = currentProgress;
-                        
-                        // 메모리 사용량 체크 (진행률 출력 시점에만)
-                        if (currentProgress % 20 == 0) {
-                            FileStreamClient.printMemoryUsage("Progress " + currentProgress + "%");
-                        }
-                    }
-                }
-                
-                outStream.flush();
-                System.out.println("Upload progress: 100% (completed)");
-            }
-        }
-        
-        @Override
-        public boolean isStreaming() {
-            return true;
-        }
-    }
 }
@@ -0,0 +1,208 @@
+package com.example.filestream.httpclient;
+
+import org.apache.http.entity.AbstractHttpEntity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 디렉토리의 파일을 읽으면서 tar 스트림으로 기록하는 엔티티.
+ * 압축하지 않으면 tar 길이를 미리 계산해 Content-Length 로 보낸다 (서버 수락 제어가 크기를 판단할 수 있음).
+ */
+class TarStreamingEntity extends AbstractHttpEntity {
+    // 디렉토리 업로드 시 묶어 보내는 tar 블록 크기
+    private static final int TAR_BLOCK_SIZE = 512;
+    
+    private final List<BundleFile> files;
+    private final long totalSize;
+    private final long tarLength;
+    private int compressionLevel = -1; // -1 이면 압축하지 않음
+    
+    TarStreamingEntity(List<BundleFile> files, long totalSize) {
+        this.files = files;
+        this.totalSize = totalSize;
+        this.tarLength = tarLength(files);
+        setContentType("application/x-tar");
+    }
+    
+    // gzip 으로 압축해 전송 (Content-Encoding: gzip, chunked 전송)
+    void setCompressionLevel(int compressionLevel) {
+        this.compressionLevel = compressionLevel;
+        setContentEncoding("gzip");
+    }
+    
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+    
+    @Override
+    public long getContentLength() {
+        return compressionLevel >= 0 ? -1 : tarLength;
+    }
+    
+    @Override
+    public InputStream getContent() {
+        throw new UnsupportedOperationException("Tar bundle is only written to the connection");
+    }
+    
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+    
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+        try {
+            if (compressionLevel < 0) {
+                writeTar(files, outStream, totalSize);
+                return;
+            }
+            final int level = compressionLevel;
+            GZIPOutputStream gzipOutStream = new GZIPOutputStream(outStream, FileStreamClient.chunkSize) {
+                {
+                    def.setLevel(level);
+                }
+            };
+            writeTar(files, gzipOutStream, totalSize);
+            gzipOutStream.finish();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+    
+    /**
+     * 전송할 tar 스트림의 정확한 길이 (헤더, 긴 이름 항목, 패딩, 끝 표시 2블록 포함)
+     */
+    static long tarLength(List<BundleFile> files) {
+        long length = 2L * TAR_BLOCK_SIZE;
+        for (BundleFile file : files) {
+            int nameLength = file.name.getBytes(StandardCharsets.UTF_8).length;
+            if (nameLength > 100) {
+                length += TAR_BLOCK_SIZE + tarPadded(nameLength + 1);
+            }
+            length += TAR_BLOCK_SIZE + tarPadded(file.size);
+        }
+        return length;
+    }
+    
+    private static long tarPadded(long size) {
+        return (size + TAR_BLOCK_SIZE - 1) / TAR_BLOCK_SIZE * TAR_BLOCK_SIZE;
+    }
+    
+    /**
+     * 파일을 하나씩 읽으면서 tar 항목으로 기록하고 항목별 SHA-256 을 계산 (전체 진행률 10% 단위 출력)
+     */
+    private static void writeTar(List<BundleFile> files, OutputStream outputStream, long totalSize)
+            throws IOException, NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        byte[] buffer = FileStreamClient.transferBuffer();
+        long totalBytesRead = 0;
+        long lastProgressUpdate = 0;
+        
+        for (BundleFile file : files) {
+            writeTarHeader(outputStream, file.name, file.size, file.modifiedSeconds);
+            digest.reset();
+            long remaining = file.size;
+            try (InputStream inputStream = Files.newInputStream(file.path)) {
+                int bytesRead;
+                // 목록 작성 후 파일이 커졌어도 헤더에 기록한 크기까지만 전송
+                while (remaining > 0
+                        && (bytesRead = inputStream.read(buffer, 0, (int) Math.min(buffer.length, remaining))) != -1) {
+                    outputStream.write(buffer, 0, bytesRead);
+                    digest.update(buffer, 0, bytesRead);
+                    remaining -= bytesRead;
+                    totalBytesRead += bytesRead;
+                }
+            }
+            if (remaining > 0) {
+                throw new IOException("File changed while packing: " + file.path);
+            }
+            file.sha256 = FileStreamClient.toHex(digest.digest());
+            writeTarPadding(outputStream, file.size);
+            
+            long currentProgress = totalSize > 0 ? (totalBytesRead * 100) / totalSize : 100;
+            if (currentProgress >= lastProgressUpdate + 10) {
+                System.out.printf("Upload progress: %d%% (%d/%d bytes)%n", currentProgress, totalBytesRead, totalSize);
+                lastProgressUpdate = currentProgress;
+            }
+        }
+        // 끝 표시 (0 으로 채운 블록 2개)
+        outputStream.write(new byte[2 * TAR_BLOCK_SIZE]);
+        outputStream.flush();
+        System.out.println("Upload progress: 100% (completed)");
+    }
+    
+    /**
+     * ustar 헤더 기록. 100 바이트를 넘는 이름은 GNU 긴 이름 항목('L')을 앞에 둔다.
+     */
+    private static void writeTarHeader(OutputStream outputStream, String name, long size, long modifiedSeconds)
+            throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        if (nameBytes.length > 100) {
+            writeTarHeaderBlock(outputStream, "././@LongLink".getBytes(StandardCharsets.US_ASCII), nameBytes.length + 1, 0, 'L');
+            outputStream.write(nameBytes);
+            outputStream.write(0);
+            writeTarPadding(outputStream, nameBytes.length + 1);
+        }
+        writeTarHeaderBlock(outputStream, nameBytes, size, modifiedSeconds, '0');
+    }
+    
+    private static void writeTarHeaderBlock(OutputStream outputStream, byte[] nameBytes, long size,
+                                            long modifiedSeconds, char type) throws IOException {
+        byte[] header = new byte[TAR_BLOCK_SIZE];
+        System.arraycopy(nameBytes, 0, header, 0, Math.min(nameBytes.length, 100));
+        putTarOctal(header, 100, 8, 0644);
+        putTarOctal(header, 108, 8, 0);
+        putTarOctal(header, 116, 8, 0);
+        putTarOctal(header, 124, 12, size);
+        putTarOctal(header, 136, 12, modifiedSeconds);
+        header[156] = (byte) type;
+        System.arraycopy("ustar\u000000".getBytes(StandardCharsets.US_ASCII), 0, header, 257, 8);
+        
+        // 체크섬 필드를 공백으로 채운 상태의 바이트 합
+        for (int i = 148; i < 156; i++) {
+            header[i] = ' ';
+        }
+        long checksum = 0;
+        for (byte b : header) {
+            checksum += b & 0xff;
+        }
+        putTarOctal(header, 148, 7, checksum);
+        outputStream.write(header);
+    }
+    
+    /**
+     * 8진수 숫자 필드 (NUL 종료). 8진수로 담을 수 없는 크기(8GB 이상)는 GNU base-256 형식으로 기록
+     */
+    private static void putTarOctal(byte[] header, int offset, int length, long value) {
+        if (value >= 1L << (3 * (length - 1))) {
+            for (int i = offset + length - 1; i > offset; i--) {
+                header[i] = (byte) value;
+                value >>>= 8;
+            }
+            header[offset] = (byte) 0x80;
+            return;
+        }
+        String octal = Long.toOctalString(value);
+        for (int i = 0; i < length - 1; i++) {
+            int digit = octal.length() - (length - 1) + i;
+            header[offset + i] = (byte) (digit >= 0 ? octal.charAt(digit) : '0');
+        }
+        header[offset + length - 1] = 0;
+    }
+    
+    private static void writeTarPadding(OutputStream outputStream, long size) throws IOException {
+        int padding = (int) (tarPadded(size) - size);
+        if (padding > 0) {
+            outputStream.write(new byte[padding]);
+        }
+    }
+}
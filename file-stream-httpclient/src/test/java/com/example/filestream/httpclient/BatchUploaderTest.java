@@ -0,0 +1,95 @@
+package com.example.filestream.httpclient;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileNotFoundException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchUploaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("목록 파일의 주석/빈 줄을 건너뛰고 상대 경로를 목록 파일 위치 기준으로 해석하는지 테스트")
+    void readManifest_skipsCommentsAndResolvesRelativePaths() throws Exception {
+        Path dataDir = Files.createDirectories(tempDir.resolve("data"));
+        Path first = Files.write(dataDir.resolve("first.bin"), new byte[10]);
+        Path second = Files.write(tempDir.resolve("second.bin"), new byte[20]);
+        Path manifestDir = Files.createDirectories(tempDir.resolve("lists"));
+        Path manifest = Files.write(manifestDir.resolve("batch.txt"), Arrays.asList(
+                "# 배치 목록",
+                "",
+                "  ../data/first.bin  ",
+                "   # 들여쓴 주석",
+                second.toAbsolutePath().toString()), StandardCharsets.UTF_8);
+
+        List<BundleFile> files = BatchUploader.readManifest(manifest);
+
+        assertEquals(2, files.size());
+        assertEquals(first.toAbsolutePath().normalize(), files.get(0).path);
+        assertEquals("first.bin", files.get(0).name);
+        assertEquals(10, files.get(0).size);
+        assertEquals(second.toAbsolutePath(), files.get(1).path);
+        assertEquals("second.bin", files.get(1).name);
+        assertEquals(20, files.get(1).size);
+    }
+
+    @Test
+    @DisplayName("탭 뒤의 이름을 저장 이름으로 쓰고 비어 있으면 파일 이름을 쓰는지 테스트")
+    void readManifest_usesTabSeparatedName() throws Exception {
+        Files.write(tempDir.resolve("report final.csv"), "a,b".getBytes(StandardCharsets.UTF_8));
+        Files.write(tempDir.resolve("plain.txt"), "x".getBytes(StandardCharsets.UTF_8));
+        Path manifest = Files.write(tempDir.resolve("batch.txt"), Arrays.asList(
+                "report final.csv\t2024/reports/final.csv",
+                "plain.txt\t  "), StandardCharsets.UTF_8);
+
+        List<BundleFile> files = BatchUploader.readManifest(manifest);
+
+        assertEquals(2, files.size());
+        assertEquals(tempDir.resolve("report final.csv").toAbsolutePath(), files.get(0).path);
+        assertEquals("2024/reports/final.csv", files.get(0).name);
+        assertEquals(3, files.get(0).size);
+        assertEquals("plain.txt", files.get(1).name);
+    }
+
+    @Test
+    @DisplayName("없는 파일이나 디렉토리를 가리키는 줄은 줄 번호와 함께 거부하는지 테스트")
+    void readManifest_rejectsMissingFile() throws Exception {
+        Files.createDirectories(tempDir.resolve("dir"));
+        Path missing = Files.write(tempDir.resolve("missing.txt"), Arrays.asList(
+                "# 주석", "missing.bin"), StandardCharsets.UTF_8);
+        Path directory = Files.write(tempDir.resolve("directory.txt"), Arrays.asList("dir"), StandardCharsets.UTF_8);
+
+        FileNotFoundException e = assertThrows(FileNotFoundException.class,
+                () -> BatchUploader.readManifest(missing));
+        assertTrue(e.getMessage().startsWith("Manifest line 2:"), e.getMessage());
+        e = assertThrows(FileNotFoundException.class, () -> BatchUploader.readManifest(directory));
+        assertTrue(e.getMessage().startsWith("Manifest line 1:"), e.getMessage());
+    }
+
+    @Test
+    @DisplayName("정렬된 지연 값에서 nearest-rank 백분위를 구하는지 테스트")
+    void percentile_usesNearestRank() {
+        long[] sorted = {10, 20, 30, 40};
+
+        assertEquals(10, BatchUploader.percentile(sorted, 0.0));
+        assertEquals(10, BatchUploader.percentile(sorted, 0.25));
+        assertEquals(20, BatchUploader.percentile(sorted, 0.50));
+        assertEquals(30, BatchUploader.percentile(sorted, 0.51));
+        assertEquals(40, BatchUploader.percentile(sorted, 0.95));
+        assertEquals(40, BatchUploader.percentile(sorted, 1.0));
+        assertEquals(7, BatchUploader.percentile(new long[]{7}, 0.50));
+        assertEquals(7, BatchUploader.percentile(new long[]{7}, 0.95));
+    }
+}
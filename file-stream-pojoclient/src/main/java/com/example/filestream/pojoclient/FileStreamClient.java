@@ -5,14 +5,34 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.*;
 import java.net.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
 
 public class FileStreamClient {
 
     private static final ObjectMapper objectMapper = new ObjectMapper();
+    // 스레드별로 재사용하는 복사 루프 버퍼
+    private static final ThreadLocal<byte[]> transferBuffers = new ThreadLocal<>();
     private static Properties config = new Properties();
     
     // Default values
@@ -20,6 +40,26 @@ public class FileStreamClient {
     private static long maxFileSize = 1073741824L; // 1GB
     private static int connectionTimeout = 30000; // 30 seconds
     private static int readTimeout = 60000; // 60 seconds
+    private static boolean resumable = false;
+    private static int resumeMaxRetries = 5;
+    private static long resumeRetryDelay = 2000; // 2 seconds
+    private static String resumeStateDir = System.getProperty("java.io.tmpdir") + File.separator + "file-stream-sessions";
+    private static boolean dedupProbe = false;
+    private static String compression = "none"; // none | gzip
+    private static int compressionLevel = 1; // 1(빠름) ~ 9(최대 압축)
+    private static int compressionSampleSize = 65536; // 64KB
+    private static double compressionMinSaving = 0.1; // 샘플 절감률이 10% 미만이면 압축 생략
+    private static boolean adaptiveChunk = false; // 연결별로 청크 크기를 관측값에 따라 조정
+    private static int adaptiveMinChunk = 4096; // 4KB
+    private static int adaptiveMaxChunk = 1048576; // 1MB
+    private static int adaptiveWindow = 16; // 크기를 다시 판단하기까지의 쓰기 횟수
+    private static long adaptiveTargetLatency = 2000; // 2ms (microseconds)
+    private static int busyMaxRetries = 5; // 서버 혼잡(503) 시 재시도 횟수
+    private static long busyBackoff = 1000; // 1 second
+    private static long busyBackoffMax = 30000; // 30 seconds
+    
+    // 디렉토리 업로드 시 묶어 보내는 tar 블록 크기
+    private static final int TAR_BLOCK_SIZE = 512;
     
     static {
         loadConfiguration();
@@ -35,12 +75,35 @@ public class FileStreamClient {
                 maxFileSize = Long.parseLong(config.getProperty("file.stream.max.size", "1073741824"));
                 connectionTimeout = Integer.parseInt(config.getProperty("file.stream.connection.timeout", "30000"));
                 readTimeout = Integer.parseInt(config.getProperty("file.stream.read.timeout", "60000"));
+                resumable = Boolean.parseBoolean(config.getProperty("file.stream.resumable", "false"));
+                resumeMaxRetries = Integer.parseInt(config.getProperty("file.stream.resume.max.retries", "5"));
+                resumeRetryDelay = Long.parseLong(config.getProperty("file.stream.resume.retry.delay", "2000"));
+                resumeStateDir = config.getProperty("file.stream.resume.state.dir", resumeStateDir);
+                dedupProbe = Boolean.parseBoolean(config.getProperty("file.stream.dedup.probe", "false"));
+                compression = config.getProperty("file.stream.compression", "none");
+                compressionLevel = Integer.parseInt(config.getProperty("file.stream.compression.level", "1"));
+                compressionSampleSize = Integer.parseInt(config.getProperty("file.stream.compression.sample.size", "65536"));
+                compressionMinSaving = Double.parseDouble(config.getProperty("file.stream.compression.min.saving", "0.1"));
+                adaptiveChunk = Boolean.parseBoolean(config.getProperty("file.stream.chunk.adaptive", "false"));
+                adaptiveMinChunk = Integer.parseInt(config.getProperty("file.stream.chunk.adaptive.min", "4096"));
+                adaptiveMaxChunk = Integer.parseInt(config.getProperty("file.stream.chunk.adaptive.max", "1048576"));
+                adaptiveWindow = Integer.parseInt(config.getProperty("file.stream.chunk.adaptive.window", "16"));
+                adaptiveTargetLatency = Long.parseLong(config.getProperty("file.stream.chunk.adaptive.target.latency", "2000"));
+                busyMaxRetries = Integer.parseInt(config.getProperty("file.stream.busy.max.retries", "5"));
+                busyBackoff = Long.parseLong(config.getProperty("file.stream.busy.backoff", "1000"));
+                busyBackoffMax = Long.parseLong(config.getProperty("file.stream.busy.backoff.max", "30000"));
                 
                 System.out.println("Configuration loaded:");
                 System.out.println("- Chunk size: " + chunkSize + " bytes");
                 System.out.println("- Max file size: " + (maxFileSize / 1024 / 1024) + " MB");
                 System.out.println("- Connection timeout: " + connectionTimeout + " ms");
                 System.out.println("- Read timeout: " + readTimeout + " ms");
+                System.out.println("- Resumable upload: " + resumable);
+                System.out.println("- Dedup probe: " + dedupProbe);
+                System.out.println("- Compression: " + compression + " (level " + compressionLevel + ")");
+                System.out.println("- Adaptive chunk size: " + adaptiveChunk
+                    + " (" + adaptiveMinChunk + " - " + adaptiveMaxChunk + " bytes)");
+                System.out.println("- Busy retries: " + busyMaxRetries + " (backoff " + busyBackoff + " - " + busyBackoffMax + " ms)");
             } else {
                 System.out.println("Using default configuration values");
             }
@@ -67,12 +130,21 @@ public class FileStreamClient {
                 if (targetUrl.startsWith("\"") && targetUrl.endsWith("\"")) {
                     targetUrl = targetUrl.substring(1, targetUrl.length() - 1);
                 }
+            } else if (arg.startsWith("--resumable=")) {
+                resumable = Boolean.parseBoolean(arg.substring("--resumable=".length()));
+            } else if (arg.startsWith("--probe=")) {
+                dedupProbe = Boolean.parseBoolean(arg.substring("--probe=".length()));
+            } else if (arg.startsWith("--compression=")) {
+                compression = arg.substring("--compression=".length());
+            } else if (arg.startsWith("--adaptive=")) {
+                adaptiveChunk = Boolean.parseBoolean(arg.substring("--adaptive=".length()));
             }
         }
 
         if (filePath == null || targetUrl == null) {
             System.err.println("Usage: java -jar file-stream-pojoclient-1.0.0.jar --file.path=\"<file_path>\" --target.url=\"<target_url>\"");
             System.err.println("Example: java -jar file-stream-pojoclient-1.0.0.jar --file.path=\"C:/data/backup.zip\" --target.url=\"http://localhost:8080/api/v1/files/upload\"");
+            System.err.println("A directory as --file.path is packed into one tar stream and sent to the bundle API");
             System.exit(1);
         }
 
@@ -95,6 +167,11 @@ public class FileStreamClient {
             throw new FileNotFoundException("File not found: " + filePath);
         }
 
+        if (Files.isDirectory(path)) {
+            uploadDirectory(path, targetUrl);
+            return;
+        }
+
         if (!Files.isRegularFile(path)) {
             throw new IllegalArgumentException("Path is not a regular file: " + filePath);
         }
@@ -111,7 +188,23 @@ public class FileStreamClient {
         
         System.out.println("Uploading file: " + filename + " (" + fileSize + " bytes)");
         System.out.println("Using chunk size: " + chunkSize + " bytes");
-        printMemoryUsage("Before upload");
+
+        // 서버에 같은 내용이 있으면 전송 없이 파일명만 연결
+        String contentSha256 = null;
+        if (dedupProbe) {
+            contentSha256 = hashFile(path);
+            if (linkExistingContent(targetUrl, filename, contentSha256)) {
+                return;
+            }
+        }
+
+        if (resumable) {
+            uploadFileResumable(path, filename, fileSize, targetUrl);
+            return;
+        }
+
+        // 샘플 압축률이 충분할 때만 gzip 전송 (세션 업로드는 오프셋이 저장 바이트 기준이라 제외)
+        boolean compress = shouldCompress(path, fileSize);
 
         // URL 인코딩된 파일명으로 최종 URL 생성
         String encodedFilename = URLEncoder.encode(filename, "UTF-8");
@@ -119,76 +212,728 @@ public class FileStreamClient {
         
         System.out.println("Sending request to: " + finalUrl);
 
-        // URL 연결 설정
-        URL url = new URL(finalUrl);
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-        
-        try {
-            // HTTP 메서드 및 헤더 설정
-            connection.setRequestMethod("POST");
-            connection.setRequestProperty("Content-Type", "application/octet-stream");
-            connection.setRequestProperty("Content-Length", String.valueOf(fileSize));
-            connection.setDoOutput(true);
-            connection.setDoInput(true);
-            
-            // 타임아웃 설정
-            connection.setConnectTimeout(connectionTimeout);
-            connection.setReadTimeout(readTimeout);
-            
-            // 청킹 전송 활성화 (메모리 효율성을 위해)
-            connection.setChunkedStreamingMode(chunkSize);
-            
-            printMemoryUsage("During upload");
-            
-            // 파일 업로드 (스트리밍 방식)
-            try (InputStream fileInputStream = Files.newInputStream(path);
-                 OutputStream outputStream = connection.getOutputStream()) {
+        // 서버가 혼잡(503)하면 Retry-After 와 지터를 더한 백오프 후 재시도
+        for (int attempt = 1; ; attempt++) {
+            // URL 연결 설정
+            URL url = new URL(finalUrl);
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+                
+            try {
+                // HTTP 메서드 및 헤더 설정
+                connection.setRequestMethod("POST");
+                connection.setRequestProperty("Content-Type", "application/octet-stream");
+                // 서버가 수락 제어로 거부하면 본문을 보내기 전에 최종 응답(503)을 받음
+                connection.setRequestProperty("Expect", "100-continue");
+                if (contentSha256 != null) {
+                    // 미리 계산한 해시는 서버에서 수신 데이터 검증에 사용
+                    connection.setRequestProperty("X-Content-SHA256", contentSha256);
+                }
+                if (compress) {
+                    connection.setRequestProperty("Content-Encoding", "gzip");
+                }
+                connection.setDoOutput(true);
+                connection.setDoInput(true);
+                
+                // 타임아웃 설정
+                connection.setConnectTimeout(connectionTimeout);
+                connection.setReadTimeout(readTimeout);
+                
+                // 스트리밍 전송 (메모리 효율성을 위해), 압축하지 않으면 서버가 수락 판단에 쓰는 Content-Length 전송
+                if (compress) {
+                    connection.setChunkedStreamingMode(chunkSize);
+                } else {
+                    connection.setFixedLengthStreamingMode(fileSize);
+                }
+                
+                // 파일 업로드 (스트리밍 방식, 전송하면서 SHA-256 계산)
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                try (InputStream fileInputStream = Files.newInputStream(path);
+                     OutputStream outputStream = connection.getOutputStream()) {
+                
+                    if (compress) {
+                        GZIPOutputStream gzipOutputStream = newGzipOutputStream(outputStream);
+                        streamFileWithProgress(fileInputStream, gzipOutputStream, fileSize, digest);
+                        gzipOutputStream.finish();
+                    } else {
+                        streamFileWithProgress(fileInputStream, outputStream, fileSize, digest);
+                    }
+                } catch (ProtocolException e) {
+                    // 100 Continue 대신 최종 응답을 받음 (본문 전송 안 함)
+                    if (connection.getResponseCode() == -1) {
+                        throw e;
+                    }
+                }
+                String localSha256 = toHex(digest.digest());
+                
+                // 응답 처리
+                int statusCode = connection.getResponseCode();
+                String responseBody = readResponseBody(connection);
+                
+                if (statusCode == 503 && attempt <= busyMaxRetries) {
+                    String retryAfter = connection.getHeaderField("Retry-After");
+                    long delay = busyBackoffMillis(retryAfter, attempt);
+                    System.out.printf("Server busy (HTTP 503, Retry-After: %s), retry %d/%d in %d ms%n",
+                        retryAfter, attempt, busyMaxRetries, delay);
+                    Thread.sleep(delay);
+                    continue;
+                }
+                
+                if (statusCode == 200) {
+                    System.out.println("File '" + filename + "' uploaded successfully. Server response: " + statusCode + " OK");
                 
-                streamFileWithProgress(fileInputStream, outputStream, fileSize);
+                    // JSON 응답 파싱하여 추가 정보 출력
+                    try {
+                        JsonNode jsonResponse = objectMapper.readTree(responseBody);
+                        if (jsonResponse.has("message")) {
+                            System.out.println("Server message: " + jsonResponse.get("message").asText());
+                        }
+                        if (jsonResponse.has("size")) {
+                            System.out.println("Uploaded size: " + jsonResponse.get("size").asLong() + " bytes");
+                        }
+                        if (jsonResponse.has("storedAs")) {
+                            System.out.println("Stored compressed as: " + jsonResponse.get("storedAs").asText()
+                                + " (" + jsonResponse.get("storedSize").asLong() + " bytes)");
+                        }
+                        verifyChecksum(localSha256, jsonResponse);
+                    } catch (IOException e) {
+                        System.out.println("Response body: " + responseBody);
+                    }
+                
+                    printMemoryUsage("Upload completed");
+                    return;
+                } else {
+                    System.err.println("Error uploading file. Server response: " + statusCode + " " + connection.getResponseMessage());
+                    System.err.println("Response body: " + responseBody);
+                    throw new RuntimeException("Server returned HTTP " + statusCode);
+                }
+                
+            } finally {
+                connection.disconnect();
             }
-            
-            printMemoryUsage("After upload");
-            
-            // 응답 처리
-            int statusCode = connection.getResponseCode();
-            String responseBody = readResponseBody(connection);
-            
-            if (statusCode == 200) {
-                System.out.println("File '" + filename + "' uploaded successfully. Server response: " + statusCode + " OK");
+        }
+    }
+    
+    /**
+     * 디렉토리 업로드. 파일마다 요청을 보내지 않고 디렉토리를 읽으면서 tar 스트림으로 묶어 번들 API(.../bundle)로 한 번에 보낸다.
+     * 작은 파일이 많을수록 요청 왕복과 헤더 비용이 줄어든다. 응답 목록의 항목별 SHA-256 을 전송 중 계산한 값과 비교한다.
+     */
+    private static void uploadDirectory(Path directory, String targetUrl) throws Exception {
+        List<BundleFile> files = listBundleFiles(directory);
+        long tarLength = tarLength(files);
+        long totalSize = 0;
+        for (BundleFile file : files) {
+            totalSize += file.size;
+        }
+        // 압축하면 길이를 미리 알 수 없으므로 chunked 전송, 아니면 서버가 수락 판단에 쓰는 Content-Length 전송
+        boolean compress = "gzip".equalsIgnoreCase(compression);
+        String bundleUrl = resolveApiUrl(targetUrl, "bundle");
+        
+        System.out.println("Uploading directory: " + directory + " (" + files.size() + " files, " + totalSize
+            + " bytes, tar " + tarLength + " bytes" + (compress ? ", gzip" : "") + ")");
+        System.out.println("Sending request to: " + bundleUrl);
+        
+        for (int attempt = 1; ; attempt++) {
+            HttpURLConnection connection = openConnection(bundleUrl, "POST");
+            try {
+                connection.setRequestProperty("Content-Type", "application/x-tar");
+                connection.setRequestProperty("Expect", "100-continue");
+                if (compress) {
+                    connection.setRequestProperty("Content-Encoding", "gzip");
+                    connection.setChunkedStreamingMode(chunkSize);
+                } else {
+                    connection.setFixedLengthStreamingMode(tarLength);
+                }
+                connection.setDoOutput(true);
                 
-                // JSON 응답 파싱하여 추가 정보 출력
-                try {
-                    JsonNode jsonResponse = objectMapper.readTree(responseBody);
-                    if (jsonResponse.has("message")) {
-                        System.out.println("Server message: " + jsonResponse.get("message").asText());
+                long startTime = System.nanoTime();
+                try (OutputStream outputStream = connection.getOutputStream()) {
+                    if (compress) {
+                        GZIPOutputStream gzipOutputStream = newGzipOutputStream(outputStream);
+                        writeTar(files, gzipOutputStream, totalSize);
+                        gzipOutputStream.finish();
+                    } else {
+                        writeTar(files, outputStream, totalSize);
                     }
-                    if (jsonResponse.has("size")) {
-                        System.out.println("Uploaded size: " + jsonResponse.get("size").asLong() + " bytes");
+                } catch (ProtocolException e) {
+                    // 100 Continue 대신 최종 응답을 받음 (본문 전송 안 함)
+                    if (connection.getResponseCode() == -1) {
+                        throw e;
                     }
-                } catch (Exception e) {
-                    System.out.println("Response body: " + responseBody);
                 }
                 
+                int statusCode = connection.getResponseCode();
+                String responseBody = readResponseBody(connection);
+                double elapsedSeconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+                
+                if (statusCode == 503 && attempt <= busyMaxRetries) {
+                    String retryAfter = connection.getHeaderField("Retry-After");
+                    long delay = busyBackoffMillis(retryAfter, attempt);
+                    System.out.printf("Server busy (HTTP 503, Retry-After: %s), retry %d/%d in %d ms%n",
+                        retryAfter, attempt, busyMaxRetries, delay);
+                    Thread.sleep(delay);
+                    continue;
+                }
+                
+                if (statusCode != 200) {
+                    System.err.println("Error uploading directory. Server response: " + statusCode + " " + connection.getResponseMessage());
+                    System.err.println("Response body: " + responseBody);
+                    throw new RuntimeException("Server returned HTTP " + statusCode);
+                }
+                
+                JsonNode jsonResponse = objectMapper.readTree(responseBody);
+                System.out.println("Directory '" + directory.getFileName() + "' uploaded successfully. Server response: "
+                    + statusCode + " OK");
+                System.out.println("Server message: " + jsonResponse.path("message").asText());
+                System.out.printf("Stored %d files, skipped %d (%.2f MB/s, %.1f files/s)%n",
+                    jsonResponse.path("fileCount").asInt(), jsonResponse.path("skippedCount").asInt(),
+                    elapsedSeconds > 0 ? totalSize / 1024.0 / 1024.0 / elapsedSeconds : 0.0,
+                    elapsedSeconds > 0 ? files.size() / elapsedSeconds : 0.0);
+                verifyBundleManifest(files, jsonResponse);
                 printMemoryUsage("Upload completed");
-            } else {
-                System.err.println("Error uploading file. Server response: " + statusCode + " " + connection.getResponseMessage());
+                return;
+            } finally {
+                connection.disconnect();
+            }
+        }
+    }
+    
+    /**
+     * 디렉토리 아래 일반 파일 목록 (이름은 디렉토리 이름으로 시작하는 '/' 구분 상대 경로)
+     */
+    private static List<BundleFile> listBundleFiles(Path directory) throws IOException {
+        Path root = directory.toAbsolutePath().normalize();
+        Path base = root.getParent() != null ? root.getParent() : root;
+        List<BundleFile> files = new ArrayList<>();
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                if (attributes.isRegularFile()) {
+                    String name = base.relativize(file).toString().replace(File.separatorChar, '/');
+                    files.add(new BundleFile(file, name, attributes.size(), attributes.lastModifiedTime().toMillis() / 1000));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return files;
+    }
+    
+    /**
+     * 전송할 tar 스트림의 정확한 길이 (헤더, 긴 이름 항목, 패딩, 끝 표시 2블록 포함)
+     */
+    private static long tarLength(List<BundleFile> files) {
+        long length = 2L * TAR_BLOCK_SIZE;
+        for (BundleFile file : files) {
+            int nameLength = file.name.getBytes(StandardCharsets.UTF_8).length;
+            if (nameLength > 100) {
+                length += TAR_BLOCK_SIZE + tarPadded(nameLength + 1);
+            }
+            length += TAR_BLOCK_SIZE + tarPadded(file.size);
+        }
+        return length;
+    }
+    
+    private static long tarPadded(long size) {
+        return (size + TAR_BLOCK_SIZE - 1) / TAR_BLOCK_SIZE * TAR_BLOCK_SIZE;
+    }
+    
+    /**
+     * 파일을 하나씩 읽으면서 tar 항목으로 기록하고 항목별 SHA-256 을 계산 (전체 진행률 10% 단위 출력)
+     */
+    private static void writeTar(List<BundleFile> files, OutputStream outputStream, long totalSize)
+            throws IOException, NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        byte[] buffer = transferBuffer();
+        long totalBytesRead = 0;
+        long lastProgressUpdate = 0;
+        
+        for (BundleFile file : files) {
+            writeTarHeader(outputStream, file.name, file.size, file.modifiedSeconds);
+            digest.reset();
+            long remaining = file.size;
+            try (InputStream inputStream = Files.newInputStream(file.path)) {
+                int bytesRead;
+                // 목록 작성 후 파일이 커졌어도 헤더에 기록한 크기까지만 전송
+                while (remaining > 0
+                        && (bytesRead = inputStream.read(buffer, 0, (int) Math.min(buffer.length, remaining))) != -1) {
+                    outputStream.write(buffer, 0, bytesRead);
+                    digest.update(buffer, 0, bytesRead);
+                    remaining -= bytesRead;
+                    totalBytesRead += bytesRead;
+                }
+            }
+            if (remaining > 0) {
+                throw new IOException("File changed while packing: " + file.path);
+            }
+            file.sha256 = toHex(digest.digest());
+            writeTarPadding(outputStream, file.size);
+            
+            long currentProgress = totalSize > 0 ? (totalBytesRead * 100) / totalSize : 100;
+            if (currentProgress >= lastProgressUpdate + 10) {
+                System.out.printf("Upload progress: %d%% (%d/%d bytes)%n", currentProgress, totalBytesRead, totalSize);
+                lastProgressUpdate = currentProgress;
+            }
+        }
+        // 끝 표시 (0 으로 채운 블록 2개)
+        outputStream.write(new byte[2 * TAR_BLOCK_SIZE]);
+        outputStream.flush();
+        System.out.println("Upload progress: 100% (completed)");
+    }
+    
+    /**
+     * ustar 헤더 기록. 100 바이트를 넘는 이름은 GNU 긴 이름 항목('L')을 앞에 둔다.
+     */
+    private static void writeTarHeader(OutputStream outputStream, String name, long size, long modifiedSeconds)
+            throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        if (nameBytes.length > 100) {
+            writeTarHeaderBlock(outputStream, "././@LongLink".getBytes(StandardCharsets.US_ASCII), nameBytes.length + 1, 0, 'L');
+            outputStream.write(nameBytes);
+            outputStream.write(0);
+            writeTarPadding(outputStream, nameBytes.length + 1);
+        }
+        writeTarHeaderBlock(outputStream, nameBytes, size, modifiedSeconds, '0');
+    }
+    
+    private static void writeTarHeaderBlock(OutputStream outputStream, byte[] nameBytes, long size,
+                                            long modifiedSeconds, char type) throws IOException {
+        byte[] header = new byte[TAR_BLOCK_SIZE];
+        System.arraycopy(nameBytes, 0, header, 0, Math.min(nameBytes.length, 100));
+        putTarOctal(header, 100, 8, 0644);
+        putTarOctal(header, 108, 8, 0);
+        putTarOctal(header, 116, 8, 0);
+        putTarOctal(header, 124, 12, size);
+        putTarOctal(header, 136, 12, modifiedSeconds);
+        header[156] = (byte) type;
+        System.arraycopy("ustar\u000000".getBytes(StandardCharsets.US_ASCII), 0, header, 257, 8);
+        
+        // 체크섬 필드를 공백으로 채운 상태의 바이트 합
+        for (int i = 148; i < 156; i++) {
+            header[i] = ' ';
+        }
+        long checksum = 0;
+        for (byte b : header) {
+            checksum += b & 0xff;
+        }
+        putTarOctal(header, 148, 7, checksum);
+        outputStream.write(header);
+    }
+    
+    /**
+     * 8진수 숫자 필드 (NUL 종료). 8진수로 담을 수 없는 크기(8GB 이상)는 GNU base-256 형식으로 기록
+     */
+    private static void putTarOctal(byte[] header, int offset, int length, long value) {
+        if (value >= 1L << (3 * (length - 1))) {
+            for (int i = offset + length - 1; i > offset; i--) {
+                header[i] = (byte) value;
+                value >>>= 8;
+            }
+            header[offset] = (byte) 0x80;
+            return;
+        }
+        String octal = Long.toOctalString(value);
+        for (int i = 0; i < length - 1; i++) {
+            int digit = octal.length() - (length - 1) + i;
+            header[offset + i] = (byte) (digit >= 0 ? octal.charAt(digit) : '0');
+        }
+        header[offset + length - 1] = 0;
+    }
+    
+    private static void writeTarPadding(OutputStream outputStream, long size) throws IOException {
+        int padding = (int) (tarPadded(size) - size);
+        if (padding > 0) {
+            outputStream.write(new byte[padding]);
+        }
+    }
+    
+    /**
+     * 서버 응답 목록의 항목별 SHA-256 을 전송 중 계산한 값과 비교 (누락/불일치 시 예외)
+     */
+    private static void verifyBundleManifest(List<BundleFile> files, JsonNode jsonResponse) {
+        Map<String, String> stored = new HashMap<>();
+        for (JsonNode entry : jsonResponse.path("entries")) {
+            if (entry.has("sha256")) {
+                stored.put(entry.get("name").asText(), entry.get("sha256").asText());
+            } else if (entry.has("skipped")) {
+                System.out.println("Skipped by server: " + entry.path("name").asText() + " (" + entry.get("skipped").asText() + ")");
+            }
+        }
+        if (stored.isEmpty() && !files.isEmpty()) {
+            // 서버 체크섬 비활성화 (file.stream.checksum.enabled=false)
+            return;
+        }
+        int verified = 0;
+        for (BundleFile file : files) {
+            String serverSha256 = stored.get(file.name);
+            if (serverSha256 == null) {
+                continue;
+            }
+            if (!serverSha256.equalsIgnoreCase(file.sha256)) {
+                throw new IllegalStateException("Checksum mismatch for " + file.name + ": sent sha256=" + file.sha256
+                    + " but server stored sha256=" + serverSha256);
+            }
+            verified++;
+        }
+        System.out.println("Checksums verified (sha256): " + verified + "/" + files.size() + " files");
+    }
+    
+    /**
+     * 세션 API 를 이용한 재개 가능 업로드.
+     * 전송이 끊기면 서버의 확정 오프셋을 조회해 그 위치부터 다시 보내며,
+     * 세션 ID 를 로컬 상태 파일에 남겨 클라이언트를 다시 실행해도 이어서 업로드한다.
+     */
+    private static void uploadFileResumable(Path path, String filename, long fileSize, String targetUrl) throws Exception {
+        String sessionsUrl = resolveApiUrl(targetUrl, "sessions");
+        Path stateFile = resolveSessionStateFile(path, fileSize, sessionsUrl);
+
+        // 이전 실행에서 남은 세션이 있으면 이어서 전송
+        String sessionId = loadSessionId(stateFile);
+        long offset = -1;
+        if (sessionId != null) {
+            offset = querySessionOffset(sessionsUrl + "/" + sessionId);
+            if (offset >= 0) {
+                System.out.println("Resuming upload session " + sessionId + " from offset " + offset);
+            }
+        }
+        if (offset < 0) {
+            sessionId = createSession(sessionsUrl, filename, fileSize);
+            saveSessionId(stateFile, sessionId);
+            offset = 0;
+            System.out.println("Created upload session: " + sessionId);
+        }
+
+        String sessionUrl = sessionsUrl + "/" + sessionId;
+        int attempt = 0;
+        while (offset < fileSize) {
+            try {
+                if (offset < 0) {
+                    offset = querySessionOffset(sessionUrl);
+                    if (offset < 0) {
+                        Files.deleteIfExists(stateFile);
+                        throw new IllegalStateException("Upload session no longer exists on server: " + sessionId);
+                    }
+                    System.out.println("Resuming from offset " + offset);
+                    continue;
+                }
+                offset = sendSessionChunk(sessionUrl, path, offset, fileSize);
+            } catch (IOException e) {
+                if (++attempt > resumeMaxRetries) {
+                    throw e;
+                }
+                System.err.printf("Upload interrupted: %s (retry %d/%d)%n", e.getMessage(), attempt, resumeMaxRetries);
+                Thread.sleep(resumeRetryDelay * attempt);
+                offset = -1;
+            }
+        }
+
+        completeSession(sessionUrl, filename);
+        Files.deleteIfExists(stateFile);
+        printMemoryUsage("Upload completed");
+    }
+
+    private static String createSession(String sessionsUrl, String filename, long fileSize) throws IOException {
+        String url = sessionsUrl + "?filename=" + URLEncoder.encode(filename, "UTF-8") + "&size=" + fileSize;
+        HttpURLConnection connection = openConnection(url, "POST");
+        try {
+            int statusCode = connection.getResponseCode();
+            String responseBody = readResponseBody(connection);
+            if (statusCode != 201) {
+                throw new IOException("Failed to create upload session. Server returned HTTP " + statusCode + ": " + responseBody);
+            }
+            return objectMapper.readTree(responseBody).get("sessionId").asText();
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * 서버의 확정 오프셋 조회 (세션이 없으면 -1)
+     */
+    private static long querySessionOffset(String sessionUrl) throws IOException {
+        HttpURLConnection connection = openConnection(sessionUrl, "GET");
+        try {
+            int statusCode = connection.getResponseCode();
+            String responseBody = readResponseBody(connection);
+            if (statusCode == 404) {
+                return -1;
+            }
+            if (statusCode != 200) {
+                throw new IOException("Failed to query upload session. Server returned HTTP " + statusCode);
+            }
+            return objectMapper.readTree(responseBody).get("offset").asLong();
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * offset 위치부터 파일 끝까지 전송하고 서버가 확정한 오프셋을 반환
+     */
+    private static long sendSessionChunk(String sessionUrl, Path path, long offset, long fileSize) throws IOException {
+        long length = fileSize - offset;
+        HttpURLConnection connection = openConnection(sessionUrl, "POST");
+        try {
+            // HttpURLConnection 은 PATCH 를 지원하지 않으므로 메서드 오버라이드 헤더 사용
+            connection.setRequestProperty("X-HTTP-Method-Override", "PATCH");
+            connection.setRequestProperty("Content-Type", "application/octet-stream");
+            connection.setRequestProperty("Content-Range",
+                    "bytes " + offset + "-" + (fileSize - 1) + "/" + fileSize);
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(length);
+
+            try (FileChannel fileChannel = FileChannel.open(path)) {
+                fileChannel.position(offset);
+                try (InputStream fileInputStream = Channels.newInputStream(fileChannel);
+                     OutputStream outputStream = connection.getOutputStream()) {
+                    streamFileWithProgress(fileInputStream, outputStream, length, null);
+                }
+            }
+
+            int statusCode = connection.getResponseCode();
+            String responseBody = readResponseBody(connection);
+            if (statusCode == 200 || statusCode == 409) {
+                return Long.parseLong(connection.getHeaderField("Upload-Offset"));
+            }
+            if (statusCode == 404) {
+                throw new IllegalStateException("Upload session no longer exists on server: " + sessionUrl);
+            }
+            throw new IOException("Server returned HTTP " + statusCode + ": " + responseBody);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static void completeSession(String sessionUrl, String filename) throws IOException {
+        HttpURLConnection connection = openConnection(sessionUrl + "/complete", "POST");
+        try {
+            int statusCode = connection.getResponseCode();
+            String responseBody = readResponseBody(connection);
+            if (statusCode != 200) {
                 System.err.println("Response body: " + responseBody);
                 throw new RuntimeException("Server returned HTTP " + statusCode);
             }
-            
+            System.out.println("File '" + filename + "' uploaded successfully. Server response: " + statusCode + " OK");
+            JsonNode jsonResponse = objectMapper.readTree(responseBody);
+            if (jsonResponse.has("message")) {
+                System.out.println("Server message: " + jsonResponse.get("message").asText());
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * 503 재시도 대기 시간: Retry-After (초 또는 HTTP 날짜) 이후에 [0, 지수 백오프) 구간의 지터를 더함.
+     * 함께 거부된 클라이언트들이 같은 시각에 다시 몰리지 않게 한다.
+     */
+    private static long busyBackoffMillis(String retryAfter, int attempt) {
+        long retryAfterMillis = 0;
+        if (retryAfter != null) {
+            try {
+                retryAfterMillis = Long.parseLong(retryAfter.trim()) * 1000;
+            } catch (NumberFormatException e) {
+                try {
+                    retryAfterMillis = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME)
+                        .toInstant().toEpochMilli() - System.currentTimeMillis();
+                } catch (RuntimeException ignored) {
+                    // 해석할 수 없으면 백오프만 적용
+                }
+            }
+        }
+        long backoff = Math.min(busyBackoffMax, busyBackoff << Math.min(attempt - 1, 20));
+        return Math.max(retryAfterMillis, 0) + ThreadLocalRandom.current().nextLong(Math.max(backoff, 1));
+    }
+
+    private static HttpURLConnection openConnection(String url, String method) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestMethod(method);
+        connection.setConnectTimeout(connectionTimeout);
+        connection.setReadTimeout(readTimeout);
+        return connection;
+    }
+
+    /**
+     * 업로드 URL(.../upload)로부터 같은 API 의 다른 경로(.../sessions, .../blobs/{sha256} 등) 도출
+     */
+    private static String resolveApiUrl(String targetUrl, String path) {
+        String base = targetUrl.endsWith("/") ? targetUrl.substring(0, targetUrl.length() - 1) : targetUrl;
+        if (base.endsWith("/upload")) {
+            base = base.substring(0, base.length() - "/upload".length());
+        }
+        return base + "/" + path;
+    }
+
+    /**
+     * 서버에 같은 내용(SHA-256)이 있는지 조회하고, 있으면 파일명만 연결.
+     * 전송을 건너뛰었으면 true
+     */
+    private static boolean linkExistingContent(String targetUrl, String filename, String sha256) throws IOException {
+        HttpURLConnection probe = openConnection(resolveApiUrl(targetUrl, "blobs/" + sha256), "HEAD");
+        int statusCode;
+        try {
+            statusCode = probe.getResponseCode();
+        } finally {
+            probe.disconnect();
+        }
+        if (statusCode != 200) {
+            System.out.println("Content not found on server (HTTP " + statusCode + "), streaming file");
+            return false;
+        }
+
+        String linkUrl = resolveApiUrl(targetUrl, "link")
+                + "?filename=" + URLEncoder.encode(filename, "UTF-8") + "&sha256=" + sha256;
+        HttpURLConnection connection = openConnection(linkUrl, "POST");
+        try {
+            statusCode = connection.getResponseCode();
+            String responseBody = readResponseBody(connection);
+            if (statusCode != 200) {
+                // 조회와 연결 사이에 내용이 사라진 경우 일반 업로드로 진행
+                System.out.println("Link failed (HTTP " + statusCode + "), streaming file: " + responseBody);
+                return false;
+            }
         } finally {
             connection.disconnect();
         }
+
+        System.out.println("File '" + filename + "' already on server (sha256=" + sha256 + "), linked without transfer");
+        return true;
+    }
+
+    /**
+     * 파일 앞부분(샘플)을 실제 압축 수준으로 압축해 보고, 절감률이 기준 이상일 때만 압축 전송
+     */
+    private static boolean shouldCompress(Path path, long fileSize) throws IOException {
+        if (!"gzip".equalsIgnoreCase(compression) || fileSize == 0) {
+            return false;
+        }
+
+        byte[] sample = new byte[(int) Math.min(compressionSampleSize, fileSize)];
+        int sampleLength = 0;
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            int bytesRead;
+            while (sampleLength < sample.length
+                    && (bytesRead = inputStream.read(sample, sampleLength, sample.length - sampleLength)) != -1) {
+                sampleLength += bytesRead;
+            }
+        }
+
+        Deflater deflater = new Deflater(compressionLevel, true);
+        try {
+            deflater.setInput(sample, 0, sampleLength);
+            deflater.finish();
+            byte[] buffer = transferBuffer();
+            long compressedLength = 0;
+            while (!deflater.finished()) {
+                compressedLength += deflater.deflate(buffer);
+            }
+
+            double saving = sampleLength > 0 ? 1.0 - (double) compressedLength / sampleLength : 0.0;
+            boolean compress = saving >= compressionMinSaving;
+            System.out.printf("Compression sample: %d -> %d bytes (%.1f%% saving), %s%n",
+                sampleLength, compressedLength, saving * 100, compress ? "sending gzip" : "sending uncompressed");
+            return compress;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static GZIPOutputStream newGzipOutputStream(OutputStream outputStream) throws IOException {
+        return new GZIPOutputStream(outputStream, chunkSize) {
+            {
+                def.setLevel(compressionLevel);
+            }
+        };
+    }
+
+    /**
+     * 현재 스레드의 전송 버퍼 (복사 루프마다 새로 할당하지 않고 재사용)
+     */
+    private static byte[] transferBuffer() {
+        return transferBuffer(chunkSize);
+    }
+
+    private static byte[] transferBuffer(int size) {
+        byte[] buffer = transferBuffers.get();
+        if (buffer == null || buffer.length != size) {
+            buffer = new byte[size];
+            transferBuffers.set(buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * 업로드 전 조회용 SHA-256 계산
+     */
+    private static String hashFile(Path path) throws IOException, NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            byte[] buffer = transferBuffer();
+            int bytesRead;
+            while ((bytesRead = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, bytesRead);
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * 파일 경로, 크기, 수정 시각, 서버 주소로 식별되는 로컬 세션 상태 파일
+     */
+    private static Path resolveSessionStateFile(Path path, long fileSize, String sessionsUrl) throws IOException {
+        String key = path.toAbsolutePath() + "|" + fileSize + "|" + Files.getLastModifiedTime(path).toMillis() + "|" + sessionsUrl;
+        return Paths.get(resumeStateDir).resolve(UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)) + ".session");
+    }
+
+    private static String loadSessionId(Path stateFile) throws IOException {
+        if (!Files.exists(stateFile)) {
+            return null;
+        }
+        String sessionId = new String(Files.readAllBytes(stateFile), StandardCharsets.UTF_8).trim();
+        return sessionId.isEmpty() ? null : sessionId;
+    }
+
+    private static void saveSessionId(Path stateFile, String sessionId) throws IOException {
+        Files.createDirectories(stateFile.getParent());
+        Files.write(stateFile, sessionId.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * 서버가 응답한 SHA-256 과 전송 중 계산한 값 비교 (불일치 시 예외)
+     */
+    private static void verifyChecksum(String localSha256, JsonNode jsonResponse) {
+        if (!jsonResponse.has("sha256")) {
+            return;
+        }
+        String serverSha256 = jsonResponse.get("sha256").asText();
+        if (!localSha256.equalsIgnoreCase(serverSha256)) {
+            throw new IllegalStateException(
+                "Checksum mismatch: sent sha256=" + localSha256 + " but server stored sha256=" + serverSha256);
+        }
+        System.out.println("Checksum verified (sha256): " + localSha256);
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
     }
     
-    private static void streamFileWithProgress(InputStream inputStream, OutputStream outputStream, long fileSize) throws IOException {
-        byte[] buffer = new byte[chunkSize];
+    private static void streamFileWithProgress(InputStream inputStream, OutputStream outputStream, long fileSize,
+                                               MessageDigest digest) throws IOException {
+        AdaptiveChunkSizer sizer = adaptiveChunk ? new AdaptiveChunkSizer() : null;
+        byte[] buffer = sizer != null ? transferBuffer(sizer.getSize()) : transferBuffer();
         int bytesRead;
         long totalBytesRead = 0;
         long lastProgressUpdate = 0;
         
         while ((bytesRead = inputStream.read(buffer)) != -1) {
+            long writeStart = System.nanoTime();
             outputStream.write(buffer, 0, bytesRead);
+            long writeNanos = System.nanoTime() - writeStart;
+            if (digest != null) {
+                digest.update(buffer, 0, bytesRead);
+            }
             totalBytesRead += bytesRead;
             
             // 진행률 출력 (10% 단위)
@@ -197,16 +942,22 @@ public class FileStreamClient {
                 System.out.printf("Upload progress: %d%% (%d/%d bytes)%n", 
                     currentProgress, totalBytesRead, fileSize);
                 lastProgressUpdate = currentProgress;
-                
-                // 메모리 사용량 체크 (진행률 출력 시점에만)
-                if (currentProgress % 20 == 0) {
-                    printMemoryUsage("Progress " + currentProgress + "%");
+            }
+            
+            // 쓰기 지연으로 청크 크기 조정 (다음 읽기부터 새 크기 적용)
+            if (sizer != null) {
+                sizer.record(bytesRead, writeNanos);
+                if (sizer.getSize() != buffer.length) {
+                    buffer = transferBuffer(sizer.getSize());
                 }
             }
         }
         
         outputStream.flush();
         System.out.println("Upload progress: 100% (completed)");
+        if (sizer != null) {
+            sizer.printSummary();
+        }
     }
     
     private static String readResponseBody(HttpURLConnection connection) throws IOException {
@@ -251,4 +1002,97 @@ public class FileStreamClient {
                 usedMemory / 1024.0 / 1024.0);
         }
     }
+    
+    /**
+     * 디렉토리 업로드에 담을 파일 (tar 항목 이름, 크기, 전송 중 계산한 SHA-256)
+     */
+    private static class BundleFile {
+        private final Path path;
+        private final String name;
+        private final long size;
+        private final long modifiedSeconds;
+        private String sha256;
+        
+        BundleFile(Path path, String name, long size, long modifiedSeconds) {
+            this.path = path;
+            this.name = name;
+            this.size = size;
+            this.modifiedSeconds = modifiedSeconds;
+        }
+    }
+    
+    /**
+     * 연결 하나의 전송 청크 크기를 관측값으로 조정 (file.stream.chunk.adaptive=true).
+     * window 번의 쓰기마다 평균 쓰기 지연을 보고 2배 단위로 크기를 바꾼다.
+     * 지연이 목표 이하이면 확대(네트워크가 더 받을 수 있음), 목표의 4배를 넘으면 축소(느린 링크에 큰 버퍼는 낭비)하며,
+     * 그 사이에서는 유지하므로 크기는 대략 (전송 속도 x 목표 지연) 근처에서 수렴한다.
+     */
+    private static class AdaptiveChunkSizer {
+        private static final int MAX_TRACE_ENTRIES = 32;
+        
+        private final int minSize = ceilPowerOfTwo(Math.max(adaptiveMinChunk, 1));
+        private final int maxSize = Math.max(Integer.highestOneBit(Math.max(adaptiveMaxChunk, 1)), minSize);
+        private final long targetLatencyNanos = adaptiveTargetLatency * 1000;
+        private int size = minSize;
+        private int samples;
+        private long sampleBytes;
+        private long sampleNanos;
+        private long totalBytes;
+        private int adjustments;
+        private final List<String> trace = new ArrayList<>();
+        
+        AdaptiveChunkSizer() {
+            addTrace(0, 0);
+        }
+        
+        int getSize() {
+            return size;
+        }
+        
+        void record(int bytesWritten, long elapsedNanos) {
+            totalBytes += bytesWritten;
+            sampleBytes += bytesWritten;
+            sampleNanos += elapsedNanos;
+            if (++samples < Math.max(adaptiveWindow, 1)) {
+                return;
+            }
+            
+            long averageBytes = sampleBytes / samples;
+            long averageNanos = sampleNanos / samples;
+            samples = 0;
+            sampleBytes = 0;
+            sampleNanos = 0;
+            
+            int next = size;
+            if (averageBytes * 10 >= size * 9L && averageNanos <= targetLatencyNanos) {
+                next = Math.min(size * 2, maxSize);
+            } else if (averageNanos > targetLatencyNanos * 4) {
+                next = Math.max(size / 2, minSize);
+            }
+            if (next != size) {
+                size = next;
+                adjustments++;
+                addTrace(averageBytes, averageNanos);
+            }
+        }
+        
+        void printSummary() {
+            System.out.println("Adaptive chunk size: " + size + " bytes (" + adjustments + " adjustments)");
+            for (String entry : trace) {
+                System.out.println("  " + entry);
+            }
+        }
+        
+        private void addTrace(long averageBytes, long averageNanos) {
+            if (trace.size() < MAX_TRACE_ENTRIES) {
+                trace.add(String.format("at %d bytes -> %d (avg write %d bytes, %d us)",
+                    totalBytes, size, averageBytes, averageNanos / 1000));
+            }
+        }
+        
+        private static int ceilPowerOfTwo(int value) {
+            int highest = Integer.highestOneBit(value);
+            return highest == value ? value : highest << 1;
+        }
+    }
 }
@@ -0,0 +1,166 @@
+package com.example.filestream.reactive.controller;
+
+import com.example.filestream.common.checksum.StreamDigest;
+import com.example.filestream.reactive.storage.FileStorageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * file-stream-server 와 같은 /api/v1/files/upload?filename= 계약의 리액티브 구현.
+ * Reactor Netty 가 받은 DataBuffer(풀링된 direct 메모리)를 힙으로 복사하지 않고 그대로
+ * AsynchronousFileChannel 에 기록한다. 파일 쓰기가 끝나야 다음 버퍼를 요청하므로
+ * 디스크가 느리면 소켓 읽기가 멈추고 TCP 흐름 제어로 클라이언트까지 backpressure 가 전달된다.
+ * 업로드 하나가 스레드를 점유하지 않아 적은 이벤트 루프 스레드로 많은 동시 업로드를 처리한다.
+ */
+@RestController
+@RequestMapping("/api/v1/files")
+public class FileUploadController {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileUploadController.class);
+
+    @Value("${file.stream.checksum.enabled:true}")
+    private boolean checksumEnabled;
+
+    private final FileStorageService storageService;
+
+    public FileUploadController(FileStorageService storageService) {
+        this.storageService = storageService;
+    }
+
+    @PostMapping("/upload")
+    public Mono<ResponseEntity<Map<String, Object>>> uploadFile(
+            @RequestParam(name = "filename") String filename,
+            ServerHttpRequest request) {
+
+        if (!FileStorageService.isValidFilename(filename)) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("error", "Invalid filename: " + filename);
+            return Mono.just(ResponseEntity.status(400).body(response));
+        }
+
+        // 받은 바이트를 그대로 기록하므로 압축 본문은 지원하지 않음
+        String contentEncoding = request.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        if (contentEncoding != null && !"identity".equalsIgnoreCase(contentEncoding.trim())) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("error", "Unsupported Content-Encoding: " + contentEncoding);
+            return Mono.just(ResponseEntity.status(415).body(response));
+        }
+
+        StreamDigest digest = checksumEnabled ? new StreamDigest() : null;
+        String expectedSha256 = request.getHeaders().getFirst(StreamDigest.SHA256_HEADER);
+        String expectedCrc32c = request.getHeaders().getFirst(StreamDigest.CRC32C_HEADER);
+        AtomicLong bytesWritten = new AtomicLong();
+        long startTime = System.nanoTime();
+
+        // 파일 시스템 메타데이터 작업(디렉토리 생성, 이동)은 블로킹이므로 이벤트 루프 밖에서 실행
+        return Mono.fromCallable(storageService::createStagingFile)
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(stagingFile -> write(request.getBody(), stagingFile, digest, bytesWritten)
+                        .then(Mono.fromCallable(() -> complete(filename, stagingFile, digest,
+                                        expectedSha256, expectedCrc32c, bytesWritten.get(), startTime))
+                                .subscribeOn(Schedulers.boundedElastic()))
+                        .onErrorResume(e -> {
+                            logger.error("Failed to save file: {}", filename, e);
+                            storageService.discard(stagingFile);
+                            Map<String, Object> response = new HashMap<>();
+                            response.put("error", "Failed to save file on server.");
+                            return Mono.just(ResponseEntity.status(500).body(response));
+                        })
+                        // 클라이언트가 연결을 끊으면 기록 중이던 스테이징 파일 정리
+                        .doOnCancel(() -> storageService.discard(stagingFile)));
+    }
+
+    /**
+     * 요청 본문 버퍼를 순서대로 파일 채널에 기록 (기록이 끝난 버퍼는 바로 풀에 반납)
+     */
+    private Mono<Void> write(Flux<DataBuffer> body, Path stagingFile, StreamDigest digest, AtomicLong bytesWritten) {
+        return Mono.using(
+                () -> AsynchronousFileChannel.open(stagingFile,
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING),
+                fileChannel -> DataBufferUtils.write(body.doOnNext(buffer -> {
+                            bytesWritten.addAndGet(buffer.readableByteCount());
+                            if (digest != null) {
+                                // 읽기 위치를 바꾸지 않는 뷰로 계산 (복사 없음)
+                                digest.update(buffer.asByteBuffer());
+                            }
+                        }), fileChannel)
+                        .doOnNext(DataBufferUtils::release)
+                        .then(),
+                this::closeQuietly);
+    }
+
+    private ResponseEntity<Map<String, Object>> complete(String filename, Path stagingFile, StreamDigest digest,
+                                                         String expectedSha256, String expectedCrc32c,
+                                                         long fileSize, long startTime) throws IOException {
+        long elapsedNanos = System.nanoTime() - startTime;
+        Map<String, Object> response = new HashMap<>();
+
+        // 클라이언트가 보낸 체크섬 검증
+        if (digest != null && !digest.matches(expectedSha256, expectedCrc32c)) {
+            logger.warn("Checksum mismatch for file: {} (sha256={}, crc32c={})",
+                    filename, digest.getSha256(), digest.getCrc32c());
+            storageService.discard(stagingFile);
+            response.put("error", "Checksum mismatch.");
+            response.put("sha256", digest.getSha256());
+            response.put("crc32c", digest.getCrc32c());
+            return ResponseEntity.status(422).body(response);
+        }
+
+        storageService.commit(stagingFile, filename);
+        double throughputMBps = elapsedNanos > 0
+                ? (fileSize / 1024.0 / 1024.0) / (elapsedNanos / 1_000_000_000.0)
+                : 0.0;
+        logger.info("File uploaded successfully: {} ({} MB, {} MB/s via reactive)", filename,
+                fileSize / 1024 / 1024, String.format("%.2f", throughputMBps));
+
+        response.put("message", "File uploaded successfully: " + filename);
+        response.put("fileCount", 1);
+        response.put("fileSize", fileSize);
+        response.put("engine", "reactive");
+        response.put("elapsedMs", elapsedNanos / 1_000_000);
+        response.put("throughputMBps", Math.round(throughputMBps * 100) / 100.0);
+        if (digest != null) {
+            response.put("sha256", digest.getSha256());
+            response.put("crc32c", digest.getCrc32c());
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    private void closeQuietly(AsynchronousFileChannel fileChannel) {
+        try {
+            fileChannel.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close file channel", e);
+        }
+    }
+
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<Map<String, Object>> handleMissingParams(ServerWebInputException ex) {
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", "Filename parameter is missing.");
+
+        logger.warn("Missing filename parameter in upload request");
+
+        return ResponseEntity.status(400).body(response);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.filestream.reactive.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+/**
+ * 업로드 파일 저장 위치 관리 (스테이징 파일에 기록 후 최종 이름으로 이동).
+ * 파일 시스템 메타데이터 작업은 블로킹이므로 호출하는 쪽에서 이벤트 루프 밖(boundedElastic)에서 실행한다.
+ */
+@Service
+public class FileStorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileStorageService.class);
+
+    private static final String STAGING_DIRECTORY = ".incoming";
+
+    @Value("${file.upload.directory:./uploads}")
+    private String uploadDirectory;
+
+    /**
+     * 업로드 디렉토리 (없으면 생성)
+     */
+    public Path getUploadPath() throws IOException {
+        Path uploadPath = Paths.get(uploadDirectory);
+        if (!Files.exists(uploadPath)) {
+            Files.createDirectories(uploadPath);
+            logger.info("Created upload directory: {}", uploadPath.toAbsolutePath());
+        }
+        return uploadPath;
+    }
+
+    /**
+     * 업로드 디렉토리 바로 아래에 저장할 수 있는 파일명인지.
+     * 경로 구분자, '.' 으로 시작하는 이름('..', 스테이징 디렉토리 .incoming), 제어 문자가 들어간 이름은 거절
+     */
+    public static boolean isValidFilename(String filename) {
+        if (filename == null || filename.isEmpty() || filename.startsWith(".")) {
+            return false;
+        }
+        for (int i = 0; i < filename.length(); i++) {
+            char c = filename.charAt(i);
+            if (c < 0x20 || c == 0x7f || c == '/' || c == '\\') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 업로드 데이터를 기록할 스테이징 파일 경로 (동일 파일명 동시 업로드 간 충돌 방지를 위해 고유 이름 사용)
+     */
+    public Path createStagingFile() throws IOException {
+        Path stagingPath = getUploadPath().resolve(STAGING_DIRECTORY);
+        Files.createDirectories(stagingPath);
+        return stagingPath.resolve(UUID.randomUUID().toString().replace("-", "") + ".uploading");
+    }
+
+    /**
+     * 기록이 끝난 파일을 최종 이름으로 이동 (같은 파일 시스템 내 원자적 이동)
+     */
+    public Path commit(Path source, String filename) throws IOException {
+        Path target = getUploadPath().resolve(filename);
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // 원자적 이동이 지원되지 않는 파일 시스템
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return target;
+    }
+
+    /**
+     * 검증 실패 또는 오류로 버려지는 스테이징 파일 삭제
+     */
+    public void discard(Path stagingFile) {
+        try {
+            Files.deleteIfExists(stagingFile);
+        } catch (IOException e) {
+            logger.warn("Failed to delete staging file: {}", stagingFile, e);
+        }
+    }
+}
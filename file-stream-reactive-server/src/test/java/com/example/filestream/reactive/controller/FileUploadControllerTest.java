@@ -0,0 +1,80 @@
+package com.example.filestream.reactive.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.nio.charset.StandardCharsets;
+
+@SpringBootTest(properties = "file.upload.directory=./target/test-uploads")
+@AutoConfigureWebTestClient
+class FileUploadControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    @DisplayName("리액티브 스트리밍 업로드 성공 테스트")
+    void uploadFile_success() {
+        byte[] content = "reactive stream content".getBytes(StandardCharsets.UTF_8);
+        webTestClient.post()
+                .uri(uriBuilder -> uriBuilder.path("/api/v1/files/upload")
+                        .queryParam("filename", "test-reactive.txt").build())
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .bodyValue(content)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.engine").isEqualTo("reactive")
+                .jsonPath("$.fileSize").isEqualTo(content.length)
+                .jsonPath("$.sha256").exists();
+    }
+
+    @Test
+    @DisplayName("파일명 없이 업로드 시 에러 반환 테스트")
+    void uploadFile_noFilename() {
+        webTestClient.post()
+                .uri("/api/v1/files/upload")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .bodyValue("no filename".getBytes(StandardCharsets.UTF_8))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Filename parameter is missing.");
+    }
+
+    @Test
+    @DisplayName("업로드 디렉토리 밖이나 스테이징 디렉토리를 가리키는 파일명 거부 테스트")
+    void uploadFile_unsafeFilename() {
+        for (String filename : new String[]{"../test-escape.txt", ".incoming", "sub/test.txt"}) {
+            webTestClient.post()
+                    .uri(uriBuilder -> uriBuilder.path("/api/v1/files/upload")
+                            .queryParam("filename", filename).build())
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .bodyValue("escape".getBytes(StandardCharsets.UTF_8))
+                    .exchange()
+                    .expectStatus().isBadRequest()
+                    .expectBody()
+                    .jsonPath("$.error").isEqualTo("Invalid filename: " + filename);
+        }
+    }
+
+    @Test
+    @DisplayName("체크섬 불일치 시 422 반환 테스트")
+    void uploadFile_checksumMismatch() {
+        webTestClient.post()
+                .uri(uriBuilder -> uriBuilder.path("/api/v1/files/upload")
+                        .queryParam("filename", "test-reactive-bad.txt").build())
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header("X-Content-SHA256", "0000")
+                .bodyValue("corrupted".getBytes(StandardCharsets.UTF_8))
+                .exchange()
+                .expectStatus().isEqualTo(422)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Checksum mismatch.");
+    }
+}
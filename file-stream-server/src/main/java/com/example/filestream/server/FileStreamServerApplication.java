@@ -5,7 +5,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
-@SpringBootApplication
+@SpringBootApplication(scanBasePackages = {"com.example.filestream.server", "com.example.filestream.common"})
 public class FileStreamServerApplication {
     
     private static final Logger logger = LoggerFactory.getLogger(FileStreamServerApplication.class);
@@ -0,0 +1,431 @@
+package com.example.filestream.server.async;
+
+import com.example.filestream.common.buffer.StreamBuffers;
+import com.example.filestream.common.checksum.StreamDigest;
+import com.example.filestream.server.buffer.AdaptiveBufferSizer;
+import com.example.filestream.server.metrics.UploadMetrics;
+import com.example.filestream.server.ratelimit.BandwidthLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 요청 본문을 논블로킹으로 읽어 파일 채널에 순차 기록하는 ReadListener.
+ * 파일 쓰기가 진행 중인 동안에는 읽기를 멈추고(backpressure), 쓰기 완료 콜백에서 읽기를 재개한다.
+ * 대역폭 한도를 넘으면 컨테이너 스레드를 잡아두지 않고 읽기를 멈췄다가 예약된 시각에 재개한다.
+ * 요청 시간 초과와 연결 오류는 AsyncListener 로 받아 실패와 같이 정리하고, 커밋(fsync)은 별도 스레드에서 수행한다.
+ */
+class AsyncUploadHandler implements ReadListener, AsyncListener, CompletionHandler<Integer, ByteBuffer> {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncUploadHandler.class);
+
+    private final AsyncUploadServlet servlet;
+    private final AsyncContext asyncContext;
+    private final ServletInputStream inputStream;
+    private final AsynchronousFileChannel fileChannel;
+    private final Path stagingFile;
+    private final String filename;
+    private final AdaptiveBufferSizer sizer;
+    private final StreamDigest digest;
+    private final String expectedSha256;
+    private final String expectedCrc32c;
+    private final UploadMetrics.Sample metricsSample;
+    private final BandwidthLimiter.Throttle throttle;
+    private final Executor commitExecutor;
+    private final long startTime = System.nanoTime();
+
+    // 아래 상태는 컨테이너 스레드와 파일 채널 완료 스레드가 함께 접근하므로 this 로 동기화
+    private ByteBuffer buffer;
+    private boolean resizePending;
+    private long position;
+    private boolean writePending;
+    private boolean allDataRead;
+    private boolean finished;
+    private boolean bufferReleased;
+    private long throttledUntil;
+    private boolean resumeScheduled;
+    private boolean timedOut;
+
+    AsyncUploadHandler(AsyncUploadServlet servlet, AsyncContext asyncContext, AsynchronousFileChannel fileChannel,
+                       Path stagingFile, String filename, int bufferSize, AdaptiveBufferSizer sizer,
+                       StreamDigest digest, UploadMetrics.Sample metricsSample, BandwidthLimiter.Throttle throttle,
+                       Executor commitExecutor) throws IOException {
+        this.servlet = servlet;
+        this.asyncContext = asyncContext;
+        this.inputStream = asyncContext.getRequest().getInputStream();
+        this.fileChannel = fileChannel;
+        this.stagingFile = stagingFile;
+        this.filename = filename;
+        this.sizer = sizer;
+        this.buffer = servlet.getBufferPool().acquire(sizer != null ? sizer.getSize() : bufferSize);
+        this.digest = digest;
+        this.metricsSample = metricsSample;
+        this.throttle = throttle;
+        this.commitExecutor = commitExecutor;
+
+        HttpServletRequest request = (HttpServletRequest) asyncContext.getRequest();
+        this.expectedSha256 = request.getHeader(StreamDigest.SHA256_HEADER);
+        this.expectedCrc32c = request.getHeader(StreamDigest.CRC32C_HEADER);
+    }
+
+    @Override
+    public void onDataAvailable() {
+        drain();
+    }
+
+    @Override
+    public void onAllDataRead() {
+        boolean complete;
+        synchronized (this) {
+            allDataRead = true;
+            complete = !writePending;
+        }
+        if (complete) {
+            finish();
+        }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        fail(t);
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        synchronized (this) {
+            if (finished) {
+                // 이미 커밋 중 - 응답은 컨테이너가 마무리하므로 커밋 스레드는 응답을 쓰지 않는다
+                timedOut = true;
+                logger.warn("Async upload timed out while committing: {}", filename);
+                return;
+            }
+        }
+        fail(new TimeoutException("Async upload timed out after " + event.getAsyncContext().getTimeout() + " ms"),
+                HttpServletResponse.SC_REQUEST_TIMEOUT, UploadMetrics.CAUSE_TIMEOUT, "Upload timed out.");
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        fail(event.getThrowable());
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+    }
+
+    @Override
+    public void completed(Integer written, ByteBuffer chunk) {
+        synchronized (this) {
+            if (finished) {
+                // 실패 처리된 뒤 도착한 완료 콜백 - 더 이상 기록하지 않고 버퍼만 반납
+                writePending = false;
+                releaseBuffer();
+                return;
+            }
+        }
+        if (chunk.hasRemaining()) {
+            // 부분 기록 - 남은 바이트를 이어서 기록
+            long offset;
+            synchronized (this) {
+                offset = position - chunk.remaining();
+            }
+            fileChannel.write(chunk, offset, chunk, this);
+            return;
+        }
+
+        boolean complete;
+        synchronized (this) {
+            writePending = false;
+            complete = allDataRead;
+        }
+        if (complete) {
+            finish();
+        } else {
+            drain();
+        }
+    }
+
+    @Override
+    public void failed(Throwable exc, ByteBuffer chunk) {
+        synchronized (this) {
+            writePending = false;
+            if (finished) {
+                releaseBuffer();
+            }
+        }
+        fail(exc);
+    }
+
+    /**
+     * 읽을 수 있는 데이터가 있는 동안 읽어서 파일 쓰기를 예약한다.
+     * isReady()가 false 를 반환하면 컨테이너가 데이터 도착 시 onDataAvailable 을 다시 호출한다.
+     * 파일 쓰기 완료 스레드에서 스트림 끝에 도달하면 컨테이너가 onAllDataRead 를 호출하지 않으므로 직접 완료한다.
+     */
+    private void drain() {
+        boolean complete = false;
+        synchronized (this) {
+            try {
+                while (!writePending && !finished) {
+                    if (inputStream.isFinished()) {
+                        allDataRead = true;
+                        complete = true;
+                        break;
+                    }
+                    long throttleWait = throttledUntil - System.nanoTime();
+                    if (throttleWait > 0) {
+                        // 대역폭 한도 - 기다리는 동안 스레드를 반환하고 예약된 시각에 읽기 재개
+                        if (!resumeScheduled) {
+                            resumeScheduled = true;
+                            servlet.getBandwidthLimiter().resumeLater(this::resume, throttleWait);
+                        }
+                        break;
+                    }
+                    if (!inputStream.isReady()) {
+                        break;
+                    }
+                    if (resizePending) {
+                        // 진행 중인 쓰기가 없을 때만 버퍼 교체
+                        servlet.getBufferPool().release(buffer);
+                        buffer = servlet.getBufferPool().acquire(sizer.getSize());
+                        resizePending = false;
+                    }
+                    buffer.clear();
+                    long readStart = System.nanoTime();
+                    int bytesRead = StreamBuffers.read(inputStream, buffer);
+                    if (bytesRead == -1) {
+                        allDataRead = true;
+                        complete = true;
+                        break;
+                    }
+                    if (sizer != null) {
+                        // 적응형: 막히지 않고 읽을 수 있는 만큼 버퍼를 더 채운 뒤 한 번에 기록
+                        while (bytesRead > 0 && buffer.hasRemaining()
+                                && !inputStream.isFinished() && inputStream.isReady()) {
+                            int more = StreamBuffers.read(inputStream, buffer);
+                            if (more <= 0) {
+                                break;
+                            }
+                            bytesRead += more;
+                        }
+                        resizePending = sizer.record(bytesRead, System.nanoTime() - readStart);
+                    }
+                    if (bytesRead > 0) {
+                        throttledUntil = System.nanoTime() + throttle.acquire(bytesRead);
+                        buffer.flip();
+                        if (digest != null) {
+                            digest.update(buffer);
+                        }
+                        long offset = position;
+                        position += bytesRead;
+                        writePending = true;
+                        fileChannel.write(buffer, offset, buffer, this);
+                    }
+                }
+            } catch (IOException e) {
+                fail(e);
+                return;
+            }
+        }
+        if (complete) {
+            finish();
+        }
+    }
+
+    private void resume() {
+        synchronized (this) {
+            resumeScheduled = false;
+        }
+        drain();
+    }
+
+    /**
+     * 본문을 모두 기록한 뒤 커밋을 커밋 전용 스레드에 넘긴다.
+     * 파일 채널 완료 스레드나 컨테이너 스레드가 fsync/그룹 커밋 대기로 막히지 않도록 하기 위함
+     */
+    private void finish() {
+        synchronized (this) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+        }
+        throttle.close();
+        try {
+            commitExecutor.execute(this::commit);
+        } catch (RejectedExecutionException e) {
+            // 종료 중
+            synchronized (this) {
+                finished = false;
+            }
+            fail(e);
+        }
+    }
+
+    private void commit() {
+        long elapsedNanos = System.nanoTime() - startTime;
+        HttpServletResponse httpResponse = (HttpServletResponse) asyncContext.getResponse();
+        try {
+            fileChannel.close();
+
+            Map<String, Object> response = new HashMap<>();
+            if (digest != null) {
+                response.put("sha256", digest.getSha256());
+                response.put("crc32c", digest.getCrc32c());
+
+                // 클라이언트가 보낸 체크섬 검증
+                if (!digest.matches(expectedSha256, expectedCrc32c)) {
+                    logger.warn("Checksum mismatch for async upload: {}", filename);
+                    servlet.getStorageService().discard(stagingFile);
+                    response.put("error", "Checksum mismatch.");
+                    metricsSample.failure(UploadMetrics.CAUSE_CHECKSUM_MISMATCH);
+                    writeResponse(httpResponse, 422, response);
+                    return;
+                }
+            }
+
+            long commitStart = System.nanoTime();
+            servlet.getStorageService().commit(stagingFile, filename, digest != null ? digest.getSha256() : null);
+            long commitNanos = System.nanoTime() - commitStart;
+            logger.info("Async upload completed: {} ({} bytes)", filename, position);
+            metricsSample.success(position);
+
+            response.put("message", "File uploaded successfully: " + filename);
+            response.put("fileCount", 1);
+            response.put("fileSize", position);
+            response.put("engine", "async");
+            response.put("elapsedMs", elapsedNanos / 1_000_000);
+            response.put("durability", servlet.getStorageService().getDurabilityPolicy());
+            response.put("commitMs", Math.round(commitNanos / 10_000.0) / 100.0);
+            if (sizer != null) {
+                servlet.getUploadMetrics().recordBufferSize(UploadMetrics.ENDPOINT_ASYNC, sizer.getSize());
+                response.put("bufferSize", sizer.getSize());
+                response.put("bufferTrace", sizer.getTrace());
+            }
+            writeResponse(httpResponse, HttpServletResponse.SC_OK, response);
+        } catch (IOException e) {
+            logger.error("Failed to complete async upload: {}", filename, e);
+            metricsSample.failure(UploadMetrics.CAUSE_IO_ERROR);
+            servlet.getStorageService().discard(stagingFile);
+            writeErrorResponse(httpResponse, "Failed to save file on server.");
+        } catch (RuntimeException e) {
+            logger.error("Unexpected error during async upload: {}", filename, e);
+            metricsSample.failure(UploadMetrics.CAUSE_UNEXPECTED);
+            servlet.getStorageService().discard(stagingFile);
+            writeErrorResponse(httpResponse, "Unexpected error occurred.");
+        } finally {
+            synchronized (this) {
+                releaseBuffer();
+            }
+            metricsSample.stop();
+            completeRequest();
+        }
+    }
+
+    /**
+     * 커밋 실패 시 500 오류 응답 (이미 응답을 보내기 시작했으면 연결만 끝낸다)
+     */
+    private void writeErrorResponse(HttpServletResponse response, String message) {
+        try {
+            if (!response.isCommitted()) {
+                Map<String, Object> body = new HashMap<>();
+                body.put("error", message);
+                writeResponse(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, body);
+            }
+        } catch (IOException | IllegalStateException e) {
+            logger.warn("Failed to write error response for async upload: {}", filename, e);
+        }
+    }
+
+    /**
+     * 커밋 중 시간 초과로 컨테이너가 요청을 끝냈으면 응답을 쓰지 않는다
+     */
+    private void writeResponse(HttpServletResponse response, int status, Map<String, Object> body) throws IOException {
+        synchronized (this) {
+            if (timedOut) {
+                return;
+            }
+        }
+        servlet.writeJson(response, status, body);
+    }
+
+    private void completeRequest() {
+        try {
+            asyncContext.complete();
+        } catch (IllegalStateException e) {
+            logger.warn("Async upload request already completed: {}", filename);
+        }
+    }
+
+    private void fail(Throwable t) {
+        fail(t, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, UploadMetrics.CAUSE_IO_ERROR,
+                "Failed to save file on server.");
+    }
+
+    private void fail(Throwable t, int status, String cause, String message) {
+        synchronized (this) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            releaseBuffer();
+        }
+        throttle.close();
+
+        if (t instanceof TimeoutException) {
+            logger.warn("Async upload failed: {} ({})", filename, t.getMessage());
+        } else {
+            logger.error("Async upload failed: {}", filename, t);
+        }
+        metricsSample.failure(cause);
+        try {
+            fileChannel.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close partial file: {}", stagingFile, e);
+        }
+        servlet.getStorageService().discard(stagingFile);
+
+        try {
+            HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
+            if (!response.isCommitted()) {
+                Map<String, Object> body = new HashMap<>();
+                body.put("error", message);
+                servlet.writeJson(response, status, body);
+            }
+        } catch (IOException | IllegalStateException e) {
+            logger.warn("Failed to write error response for async upload: {}", filename, e);
+        } finally {
+            completeRequest();
+        }
+    }
+
+    /**
+     * 진행 중인 파일 쓰기가 없을 때 한 번만 버퍼를 풀에 반납 (this 로 동기화된 상태에서 호출)
+     */
+    private void releaseBuffer() {
+        if (!bufferReleased && !writePending) {
+            bufferReleased = true;
+            servlet.getBufferPool().release(buffer);
+        }
+    }
+}
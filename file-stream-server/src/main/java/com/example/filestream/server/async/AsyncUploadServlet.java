@@ -0,0 +1,142 @@
+package com.example.filestream.server.async;
+
+import com.example.filestream.common.buffer.DirectBufferPool;
+import com.example.filestream.common.checksum.StreamDigest;
+import com.example.filestream.server.buffer.AdaptiveBufferSizing;
+import com.example.filestream.server.metrics.UploadMetrics;
+import com.example.filestream.server.ratelimit.BandwidthLimiter;
+import com.example.filestream.server.storage.FileStorageService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servlet 3.1 논블로킹 업로드 서블릿.
+ * 요청 스레드는 AsyncContext 시작 직후 반환되고, 이후 데이터는 ReadListener 콜백으로
+ * 도착하는 만큼 AsynchronousFileChannel 에 기록된다.
+ * 커밋(이동 + fsync)은 파일 채널 완료 스레드 대신 서블릿의 커밋 전용 스레드 풀에서 수행한다.
+ */
+public class AsyncUploadServlet extends HttpServlet {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncUploadServlet.class);
+
+    private final ObjectMapper objectMapper;
+    private final FileStorageService storageService;
+    private final UploadMetrics uploadMetrics;
+    private final DirectBufferPool bufferPool;
+    private final AdaptiveBufferSizing adaptiveSizing;
+    private final BandwidthLimiter bandwidthLimiter;
+    private final int bufferSize;
+    private final long asyncTimeout;
+    private final boolean checksumEnabled;
+    private final ExecutorService commitExecutor;
+
+    public AsyncUploadServlet(ObjectMapper objectMapper, FileStorageService storageService, UploadMetrics uploadMetrics,
+                              DirectBufferPool bufferPool, AdaptiveBufferSizing adaptiveSizing,
+                              BandwidthLimiter bandwidthLimiter, int bufferSize, long asyncTimeout,
+                              boolean checksumEnabled, int commitThreads) {
+        this.objectMapper = objectMapper;
+        this.storageService = storageService;
+        this.uploadMetrics = uploadMetrics;
+        this.bufferPool = bufferPool;
+        this.adaptiveSizing = adaptiveSizing;
+        this.bandwidthLimiter = bandwidthLimiter;
+        this.bufferSize = bufferSize;
+        this.asyncTimeout = asyncTimeout;
+        this.checksumEnabled = checksumEnabled;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.commitExecutor = Executors.newFixedThreadPool(Math.max(commitThreads, 1), runnable -> {
+            Thread thread = new Thread(runnable, "async-upload-commit-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        commitExecutor.shutdown();
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String filename = request.getParameter("filename");
+        if (filename == null || filename.isEmpty()) {
+            Map<String, Object> body = new HashMap<>();
+            body.put("error", "Filename parameter is missing.");
+            uploadMetrics.start(UploadMetrics.ENDPOINT_ASYNC).failure(UploadMetrics.CAUSE_BAD_REQUEST);
+            writeJson(response, HttpServletResponse.SC_BAD_REQUEST, body);
+            return;
+        }
+        if (!FileStorageService.isStorableName(filename)) {
+            Map<String, Object> body = new HashMap<>();
+            body.put("error", "Invalid filename: " + filename);
+            uploadMetrics.start(UploadMetrics.ENDPOINT_ASYNC).failure(UploadMetrics.CAUSE_BAD_REQUEST);
+            writeJson(response, HttpServletResponse.SC_BAD_REQUEST, body);
+            return;
+        }
+
+        // 논블로킹 경로는 받은 바이트를 그대로 기록하므로 압축 본문은 지원하지 않음
+        String contentEncoding = request.getHeader("Content-Encoding");
+        if (contentEncoding != null && !"identity".equalsIgnoreCase(contentEncoding.trim())) {
+            Map<String, Object> body = new HashMap<>();
+            body.put("error", "Unsupported Content-Encoding: " + contentEncoding);
+            uploadMetrics.start(UploadMetrics.ENDPOINT_ASYNC).failure(UploadMetrics.CAUSE_UNSUPPORTED_ENCODING);
+            writeJson(response, HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE, body);
+            return;
+        }
+
+        // 스테이징 파일에 기록 후 완료 시 최종 이름으로 이동
+        Path stagingFile = storageService.createStagingFile(filename);
+        AsynchronousFileChannel fileChannel = AsynchronousFileChannel.open(stagingFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(asyncTimeout);
+
+        logger.info("Async upload started: {}", filename);
+        AsyncUploadHandler handler = new AsyncUploadHandler(this, asyncContext, fileChannel, stagingFile, filename,
+                bufferSize, adaptiveSizing.newSizer(), checksumEnabled ? new StreamDigest() : null,
+                uploadMetrics.start(UploadMetrics.ENDPOINT_ASYNC),
+                bandwidthLimiter.open(bandwidthLimiter.resolveClient(request)), commitExecutor);
+        // 시간 초과/연결 오류 시에도 채널, 버퍼, 대역폭 슬롯, 스테이징 파일을 정리하도록 읽기 시작 전에 등록
+        asyncContext.addListener(handler);
+        request.getInputStream().setReadListener(handler);
+    }
+
+    FileStorageService getStorageService() {
+        return storageService;
+    }
+
+    DirectBufferPool getBufferPool() {
+        return bufferPool;
+    }
+
+    UploadMetrics getUploadMetrics() {
+        return uploadMetrics;
+    }
+
+    BandwidthLimiter getBandwidthLimiter() {
+        return bandwidthLimiter;
+    }
+
+    void writeJson(HttpServletResponse response, int status, Map<String, Object> body) throws IOException {
+        response.setStatus(status);
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
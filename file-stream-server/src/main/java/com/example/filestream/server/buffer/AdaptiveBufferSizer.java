@@ -0,0 +1,118 @@
+package com.example.filestream.server.buffer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 업로드(연결) 하나의 전송 버퍼 크기를 관측값으로 조정한다.
+ * window 번의 읽기마다 읽기당 평균 바이트 수와 평균 읽기 지연을 보고 2배 단위로 크기를 바꾼다.
+ * <ul>
+ *   <li>버퍼의 1/4 도 채우지 못하면 관측된 크기로 축소 - 느린 피어에게 큰 버퍼는 메모리 낭비</li>
+ *   <li>버퍼를 거의 채우고 지연이 목표 이하이면 확대 - 데이터가 충분히 빨리 도착하고 있음</li>
+ *   <li>지연이 목표의 4배를 넘으면 축소</li>
+ * </ul>
+ * 확대와 축소 기준 사이에 여유를 두어, 크기를 두 배로 늘려 지연이 두 배가 되어도 다시 줄어들지 않는다.
+ * 결과적으로 버퍼 크기는 대략 (피어 전송 속도 x 목표 지연) 근처에서 수렴한다.
+ * 크기가 바뀔 때마다 변경 시점의 누적 바이트와 관측값을 추적 기록에 남긴다.
+ * 한 스레드(또는 동기화된 구간)에서만 사용한다.
+ */
+public class AdaptiveBufferSizer {
+
+    private static final int MAX_TRACE_ENTRIES = 32;
+
+    private final int minSize;
+    private final int maxSize;
+    private final int window;
+    private final long targetLatencyNanos;
+
+    private int size;
+    private int samples;
+    private long sampleBytes;
+    private long sampleNanos;
+    private long totalBytes;
+    private int adjustments;
+    private final List<Map<String, Object>> trace = new ArrayList<>();
+
+    /**
+     * 크기 경계는 2의 거듭제곱으로 맞추며 minSize 에서 시작한다.
+     */
+    public AdaptiveBufferSizer(int minSize, int maxSize, int window, long targetLatencyMicros) {
+        this.minSize = ceilPowerOfTwo(Math.max(minSize, 1));
+        this.maxSize = Math.max(Integer.highestOneBit(Math.max(maxSize, 1)), this.minSize);
+        this.window = Math.max(window, 1);
+        this.targetLatencyNanos = targetLatencyMicros * 1000;
+        this.size = this.minSize;
+        addTrace(0, 0);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * 읽기 한 번의 결과 반영
+     *
+     * @return 버퍼 크기가 바뀌었으면 true (다음 읽기부터 새 크기 사용)
+     */
+    public boolean record(int bytesRead, long elapsedNanos) {
+        totalBytes += bytesRead;
+        sampleBytes += bytesRead;
+        sampleNanos += elapsedNanos;
+        if (++samples < window) {
+            return false;
+        }
+
+        long averageBytes = sampleBytes / samples;
+        long averageNanos = sampleNanos / samples;
+        samples = 0;
+        sampleBytes = 0;
+        sampleNanos = 0;
+
+        int next = size;
+        if (averageBytes * 4 < size) {
+            next = Math.max(ceilPowerOfTwo((int) Math.max(averageBytes, 1)), minSize);
+        } else if (averageBytes * 10 >= size * 9L && averageNanos <= targetLatencyNanos) {
+            next = Math.min(size * 2, maxSize);
+        } else if (averageNanos > targetLatencyNanos * 4) {
+            next = Math.max(size / 2, minSize);
+        }
+
+        if (next == size) {
+            return false;
+        }
+        size = next;
+        adjustments++;
+        addTrace(averageBytes, averageNanos);
+        return true;
+    }
+
+    public int getAdjustments() {
+        return adjustments;
+    }
+
+    /**
+     * 크기 변경 기록 (offset: 변경 시점까지 받은 바이트, size: 새 크기, avgRead/avgLatencyUs: 판단에 쓴 관측값)
+     */
+    public List<Map<String, Object>> getTrace() {
+        return trace;
+    }
+
+    private void addTrace(long averageBytes, long averageNanos) {
+        if (trace.size() >= MAX_TRACE_ENTRIES) {
+            return;
+        }
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("offset", totalBytes);
+        entry.put("size", size);
+        entry.put("avgRead", averageBytes);
+        entry.put("avgLatencyUs", averageNanos / 1000);
+        trace.add(entry);
+    }
+
+    private static int ceilPowerOfTwo(int value) {
+        int highest = Integer.highestOneBit(value);
+        return highest == value ? value : highest << 1;
+    }
+}
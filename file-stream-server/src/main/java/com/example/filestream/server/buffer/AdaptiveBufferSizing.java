@@ -0,0 +1,47 @@
+package com.example.filestream.server.buffer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 적응형 버퍼 크기 설정 (file.stream.buffer.adaptive.*).
+ * 활성화되면 업로드마다 {@link AdaptiveBufferSizer} 를 만들어 고정 크기 file.stream.buffer.size 대신 사용한다.
+ */
+@Component
+public class AdaptiveBufferSizing {
+
+    @Value("${file.stream.buffer.adaptive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${file.stream.buffer.adaptive.min:4096}")
+    private int minSize;
+
+    @Value("${file.stream.buffer.adaptive.max:1048576}")
+    private int maxSize;
+
+    // 크기를 다시 판단하기까지의 읽기 횟수
+    @Value("${file.stream.buffer.adaptive.window:16}")
+    private int window;
+
+    // 버퍼를 채우는 데 걸린 평균 시간이 이 값 이하일 때만 확대
+    @Value("${file.stream.buffer.adaptive.target.latency:2000}")
+    private long targetLatencyMicros;
+
+    // 풀의 최대 크기 등급보다 큰 버퍼는 만들 수 없으므로 상한으로 사용
+    @Value("${file.stream.buffer.pool.max.size:1048576}")
+    private int poolMaxSize;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 업로드 하나에 사용할 크기 결정기 (비활성화 시 null)
+     */
+    public AdaptiveBufferSizer newSizer() {
+        if (!enabled) {
+            return null;
+        }
+        return new AdaptiveBufferSizer(minSize, Math.min(maxSize, poolMaxSize), window, targetLatencyMicros);
+    }
+}
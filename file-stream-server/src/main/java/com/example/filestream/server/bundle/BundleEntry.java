@@ -0,0 +1,55 @@
+package com.example.filestream.server.bundle;
+
+import java.io.InputStream;
+
+/**
+ * 번들 안의 항목 하나. 데이터는 {@link #getInputStream()} 으로 요청 본문에서 바로 읽으며,
+ * 다음 항목으로 넘어가면 더 이상 읽을 수 없다.
+ */
+public final class BundleEntry {
+
+    public enum Type {
+        FILE, DIRECTORY, OTHER
+    }
+
+    private final String name;
+    private final long size;
+    private final Type type;
+    private final InputStream inputStream;
+
+    BundleEntry(String name, long size, Type type, InputStream inputStream) {
+        this.name = name;
+        this.size = size;
+        this.type = type;
+        this.inputStream = inputStream;
+    }
+
+    /**
+     * 번들에 기록된 경로 ('/' 구분, 검증 전 값)
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 항목 크기 (zip 의 data descriptor 항목처럼 미리 알 수 없으면 -1)
+     */
+    public long getSize() {
+        return size;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public boolean isFile() {
+        return type == Type.FILE;
+    }
+
+    /**
+     * 항목 데이터 스트림 (닫아도 번들 스트림은 닫히지 않음)
+     */
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+}
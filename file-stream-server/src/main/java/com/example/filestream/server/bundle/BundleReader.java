@@ -0,0 +1,62 @@
+package com.example.filestream.server.bundle;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 스트리밍 번들 읽기. 요청 본문을 앞에서부터 한 번만 읽으며 항목을 순서대로 돌려준다.
+ * 임시 파일이나 중앙 디렉토리(zip 끝부분)를 쓰지 않으므로 본문 전체를 받기 전에 항목 저장을 시작할 수 있다.
+ */
+public interface BundleReader {
+
+    String FORMAT_TAR = "tar";
+    String FORMAT_TGZ = "tgz";
+    String FORMAT_ZIP = "zip";
+
+    /**
+     * 다음 항목 (끝이면 null). 이전 항목에서 읽지 않고 남은 데이터는 건너뛴다.
+     */
+    BundleEntry nextEntry() throws IOException;
+
+    /**
+     * 실제로 읽힌 형식 (tar / tgz / zip)
+     */
+    String getFormat();
+
+    /**
+     * 형식을 지정하지 않으면(null) 앞부분 매직 바이트로 판별한다.
+     * gzip(1f 8b) 이면 tgz, "PK" 로 시작하면 zip, 그 밖에는 tar 로 읽는다.
+     */
+    static BundleReader open(InputStream inputStream, String format, int bufferSize) throws IOException {
+        BufferedInputStream source = new BufferedInputStream(inputStream, bufferSize);
+        String detected = format != null ? format.toLowerCase() : detect(source);
+        switch (detected) {
+            case FORMAT_TAR:
+                return new TarBundleReader(source, FORMAT_TAR);
+            case "tar.gz":
+            case FORMAT_TGZ:
+                return new TarBundleReader(new BufferedInputStream(new GZIPInputStream(source, bufferSize), bufferSize),
+                        FORMAT_TGZ);
+            case FORMAT_ZIP:
+                return new ZipBundleReader(source);
+            default:
+                throw new IllegalArgumentException("Unsupported bundle format: " + format);
+        }
+    }
+
+    static String detect(BufferedInputStream source) throws IOException {
+        source.mark(2);
+        int first = source.read();
+        int second = source.read();
+        source.reset();
+        if (first == 0x1f && second == 0x8b) {
+            return FORMAT_TGZ;
+        }
+        if (first == 'P' && second == 'K') {
+            return FORMAT_ZIP;
+        }
+        return FORMAT_TAR;
+    }
+}
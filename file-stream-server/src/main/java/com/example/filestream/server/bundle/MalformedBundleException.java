@@ -0,0 +1,17 @@
+package com.example.filestream.server.bundle;
+
+import java.io.IOException;
+
+/**
+ * 번들(tar / zip) 형식 오류 (헤더 체크섬 불일치, 잘린 항목 등)
+ */
+public class MalformedBundleException extends IOException {
+
+    public MalformedBundleException(String message) {
+        super(message);
+    }
+
+    public MalformedBundleException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,315 @@
+package com.example.filestream.server.bundle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * tar(ustar) 스트림 읽기.
+ * 512 바이트 헤더 블록과 데이터 블록을 순서대로 읽으며, 긴 경로는 GNU 'L' 항목과 pax 'x' 헤더(path, size)로 지원한다.
+ * 심볼릭/하드 링크, 장치 파일 등은 {@link BundleEntry.Type#OTHER} 로 돌려주고 저장 여부는 호출자가 정한다.
+ */
+final class TarBundleReader implements BundleReader {
+
+    private static final int BLOCK_SIZE = 512;
+
+    // GNU 긴 이름, pax 헤더 항목이 가질 수 있는 최대 크기 (그 이상은 비정상 번들로 판단)
+    private static final int MAX_META_SIZE = 64 * 1024;
+
+    private final InputStream source;
+    private final String format;
+    private final byte[] header = new byte[BLOCK_SIZE];
+    private EntryInputStream current;
+    private boolean finished;
+
+    TarBundleReader(InputStream source, String format) {
+        this.source = source;
+        this.format = format;
+    }
+
+    @Override
+    public String getFormat() {
+        return format;
+    }
+
+    @Override
+    public BundleEntry nextEntry() throws IOException {
+        if (current != null) {
+            current.skipRemaining();
+            current = null;
+        }
+        String longName = null;
+        String paxPath = null;
+        long paxSize = -1;
+        while (!finished) {
+            // 끝 표시(0 블록)를 생략한 번들도 블록 경계에서 끝나면 정상 종료로 처리
+            if (!readHeader() || isZeroBlock()) {
+                finished = true;
+                break;
+            }
+            byte typeFlag = header[156];
+            long size = parseNumber(124, 12);
+            if (typeFlag == 'L') {
+                longName = trimNul(readMeta(size));
+                continue;
+            }
+            if (typeFlag == 'x') {
+                String records = readMeta(size);
+                paxPath = paxValue(records, "path", paxPath);
+                String sizeValue = paxValue(records, "size", null);
+                if (sizeValue != null) {
+                    paxSize = parseDecimal(sizeValue);
+                }
+                continue;
+            }
+            if (typeFlag == 'g') {
+                skipFully(size + padding(size));
+                continue;
+            }
+
+            String name = paxPath != null ? paxPath : longName != null ? longName : headerName();
+            if (paxSize >= 0) {
+                size = paxSize;
+            }
+            BundleEntry.Type type;
+            if (typeFlag == '5' || ((typeFlag == '0' || typeFlag == 0) && name.endsWith("/"))) {
+                type = BundleEntry.Type.DIRECTORY;
+            } else if (typeFlag == '0' || typeFlag == 0 || typeFlag == '7') {
+                type = BundleEntry.Type.FILE;
+            } else {
+                type = BundleEntry.Type.OTHER;
+            }
+            // 링크 항목의 size 는 0 이므로 데이터 블록이 없음
+            current = new EntryInputStream(type == BundleEntry.Type.DIRECTORY ? 0 : size);
+            return new BundleEntry(name, size, type, current);
+        }
+        return null;
+    }
+
+    /**
+     * 헤더 블록 하나를 읽고 체크섬을 검증. 블록 경계에서 스트림이 끝나면 false
+     */
+    private boolean readHeader() throws IOException {
+        int total = 0;
+        while (total < BLOCK_SIZE) {
+            int bytesRead = source.read(header, total, BLOCK_SIZE - total);
+            if (bytesRead == -1) {
+                if (total == 0) {
+                    return false;
+                }
+                throw new MalformedBundleException("Truncated tar header");
+            }
+            total += bytesRead;
+        }
+        if (isZeroBlock()) {
+            return true;
+        }
+
+        // 체크섬 필드(148~155)를 공백으로 보고 계산한 바이트 합 (과거 구현의 부호 있는 합도 허용)
+        long unsigned = 0;
+        long signed = 0;
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            byte b = i >= 148 && i < 156 ? (byte) ' ' : header[i];
+            unsigned += b & 0xff;
+            signed += b;
+        }
+        long expected = parseNumber(148, 8);
+        if (expected != unsigned && expected != signed) {
+            throw new MalformedBundleException("Invalid tar header checksum");
+        }
+        return true;
+    }
+
+    private boolean isZeroBlock() {
+        for (byte b : header) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * ustar 이름 (prefix 필드가 있으면 prefix/name)
+     */
+    private String headerName() {
+        String name = cString(0, 100);
+        if (cString(257, 5).equals("ustar")) {
+            String prefix = cString(345, 155);
+            if (!prefix.isEmpty()) {
+                return prefix + "/" + name;
+            }
+        }
+        return name;
+    }
+
+    private String cString(int offset, int length) {
+        int end = offset;
+        while (end < offset + length && header[end] != 0) {
+            end++;
+        }
+        return new String(header, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 8진수 숫자 필드 (최상위 비트가 켜져 있으면 GNU base-256 확장)
+     */
+    private long parseNumber(int offset, int length) throws MalformedBundleException {
+        if ((header[offset] & 0x80) != 0) {
+            long value = header[offset] & 0x7f;
+            for (int i = offset + 1; i < offset + length; i++) {
+                if (value > (Long.MAX_VALUE >> 8)) {
+                    throw new MalformedBundleException("Tar numeric field overflow");
+                }
+                value = (value << 8) | (header[i] & 0xff);
+            }
+            return value;
+        }
+        long value = 0;
+        int i = offset;
+        while (i < offset + length && (header[i] == ' ' || header[i] == 0)) {
+            i++;
+        }
+        for (; i < offset + length && header[i] != ' ' && header[i] != 0; i++) {
+            if (header[i] < '0' || header[i] > '7' || value > (Long.MAX_VALUE >> 3)) {
+                throw new MalformedBundleException("Invalid tar numeric field");
+            }
+            value = (value << 3) | (header[i] - '0');
+        }
+        return value;
+    }
+
+    private static long parseDecimal(String value) throws MalformedBundleException {
+        try {
+            long parsed = Long.parseLong(value.trim());
+            if (parsed < 0) {
+                throw new MalformedBundleException("Invalid pax size: " + value);
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new MalformedBundleException("Invalid pax size: " + value, e);
+        }
+    }
+
+    /**
+     * GNU 긴 이름 / pax 헤더 데이터 (크기 제한)
+     */
+    private String readMeta(long size) throws IOException {
+        if (size > MAX_META_SIZE) {
+            throw new MalformedBundleException("Tar extended header too large: " + size);
+        }
+        byte[] data = new byte[(int) size];
+        int total = 0;
+        while (total < data.length) {
+            int bytesRead = source.read(data, total, data.length - total);
+            if (bytesRead == -1) {
+                throw new MalformedBundleException("Truncated tar extended header");
+            }
+            total += bytesRead;
+        }
+        skipFully(padding(size));
+        return new String(data, StandardCharsets.UTF_8);
+    }
+
+    private static String trimNul(String value) {
+        int end = value.indexOf('\0');
+        return end >= 0 ? value.substring(0, end) : value;
+    }
+
+    /**
+     * pax 레코드("길이 키=값\n" 반복)에서 키의 값 (없으면 fallback)
+     */
+    private static String paxValue(String records, String key, String fallback) throws MalformedBundleException {
+        String value = fallback;
+        int position = 0;
+        while (position < records.length()) {
+            int space = records.indexOf(' ', position);
+            int newline = records.indexOf('\n', position);
+            if (space < 0 || newline < 0 || space > newline) {
+                throw new MalformedBundleException("Invalid pax header record");
+            }
+            int equals = records.indexOf('=', space);
+            if (equals > 0 && equals < newline && records.substring(space + 1, equals).equals(key)) {
+                value = records.substring(equals + 1, newline);
+            }
+            position = newline + 1;
+        }
+        return value;
+    }
+
+    private static long padding(long size) {
+        long remainder = size % BLOCK_SIZE;
+        return remainder == 0 ? 0 : BLOCK_SIZE - remainder;
+    }
+
+    private void skipFully(long count) throws IOException {
+        long remaining = count;
+        while (remaining > 0) {
+            long skipped = source.skip(remaining);
+            if (skipped <= 0) {
+                if (source.read() == -1) {
+                    throw new MalformedBundleException("Truncated tar entry");
+                }
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+    }
+
+    /**
+     * 현재 항목의 데이터 구간만 읽는 스트림. 닫거나 다음 항목으로 넘어가면 남은 데이터와 패딩을 건너뛴다.
+     */
+    private final class EntryInputStream extends InputStream {
+
+        private long remaining;
+        private final long padding;
+        private boolean done;
+
+        EntryInputStream(long size) {
+            this.remaining = size;
+            this.padding = padding(size);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (done || remaining == 0) {
+                return -1;
+            }
+            int bytesRead = source.read(buffer, offset, (int) Math.min(length, remaining));
+            if (bytesRead == -1) {
+                throw new MalformedBundleException("Truncated tar entry data");
+            }
+            remaining -= bytesRead;
+            return bytesRead;
+        }
+
+        @Override
+        public long skip(long count) throws IOException {
+            return done ? 0 : super.skip(Math.min(count, remaining));
+        }
+
+        @Override
+        public int available() throws IOException {
+            return done ? 0 : (int) Math.min(source.available(), remaining);
+        }
+
+        @Override
+        public void close() throws IOException {
+            skipRemaining();
+        }
+
+        void skipRemaining() throws IOException {
+            if (!done) {
+                done = true;
+                skipFully(remaining + padding);
+                remaining = 0;
+            }
+        }
+    }
+}
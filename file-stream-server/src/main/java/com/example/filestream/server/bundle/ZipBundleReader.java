@@ -0,0 +1,66 @@
+package com.example.filestream.server.bundle;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+
+/**
+ * zip 스트림 읽기 (로컬 파일 헤더 기준).
+ * 중앙 디렉토리를 보지 않으므로 스트리밍으로 만든 zip(data descriptor 사용)도 읽지만,
+ * data descriptor 를 쓰는 STORED 항목은 크기를 알 수 없어 ZipInputStream 이 거부한다.
+ */
+final class ZipBundleReader implements BundleReader {
+
+    private final ZipInputStream zip;
+
+    ZipBundleReader(InputStream source) {
+        this.zip = new ZipInputStream(source);
+    }
+
+    @Override
+    public String getFormat() {
+        return FORMAT_ZIP;
+    }
+
+    @Override
+    public BundleEntry nextEntry() throws IOException {
+        ZipEntry entry;
+        try {
+            entry = zip.getNextEntry();
+        } catch (ZipException e) {
+            throw new MalformedBundleException("Invalid zip entry: " + e.getMessage(), e);
+        }
+        if (entry == null) {
+            return null;
+        }
+        BundleEntry.Type type = entry.isDirectory() ? BundleEntry.Type.DIRECTORY : BundleEntry.Type.FILE;
+        return new BundleEntry(entry.getName(), entry.getSize(), type, new EntryInputStream());
+    }
+
+    /**
+     * 현재 zip 항목 스트림 (닫아도 zip 스트림은 유지, 형식 오류는 MalformedBundleException 으로 변환)
+     */
+    private final class EntryInputStream extends FilterInputStream {
+
+        EntryInputStream() {
+            super(zip);
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            try {
+                return super.read(buffer, offset, length);
+            } catch (ZipException e) {
+                throw new MalformedBundleException("Invalid zip entry data: " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void close() {
+            // 다음 항목으로 넘어갈 때 ZipInputStream 이 남은 데이터를 건너뜀
+        }
+    }
+}
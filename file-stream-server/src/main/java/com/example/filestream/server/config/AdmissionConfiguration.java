@@ -0,0 +1,17 @@
+package com.example.filestream.server.config;
+
+import com.example.filestream.common.admission.AdmissionConfigurationSupport;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 업로드 수락 제어 필터 등록 (스트림, 번들, 비동기 업로드, 재개 가능 세션의 생성/청크/세그먼트/완료)
+ */
+@Configuration
+public class AdmissionConfiguration extends AdmissionConfigurationSupport {
+
+    @Override
+    protected String[] admissionUrlPatterns() {
+        return new String[]{"/api/v1/files/upload", "/api/v1/files/bundle", AsyncUploadConfiguration.ASYNC_UPLOAD_PATH,
+                "/api/v1/files/sessions", "/api/v1/files/sessions/*"};
+    }
+}
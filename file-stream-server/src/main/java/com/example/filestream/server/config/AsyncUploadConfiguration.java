@@ -0,0 +1,44 @@
+package com.example.filestream.server.config;
+
+import com.example.filestream.common.buffer.DirectBufferPool;
+import com.example.filestream.server.async.AsyncUploadServlet;
+import com.example.filestream.server.buffer.AdaptiveBufferSizing;
+import com.example.filestream.server.metrics.UploadMetrics;
+import com.example.filestream.server.ratelimit.BandwidthLimiter;
+import com.example.filestream.server.storage.FileStorageService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 논블로킹 업로드 서블릿 등록
+ */
+@Configuration
+public class AsyncUploadConfiguration {
+
+    public static final String ASYNC_UPLOAD_PATH = "/api/v1/files/upload/async";
+
+    @Bean
+    public ServletRegistrationBean<AsyncUploadServlet> asyncUploadServlet(
+            ObjectMapper objectMapper,
+            FileStorageService storageService,
+            UploadMetrics uploadMetrics,
+            DirectBufferPool bufferPool,
+            AdaptiveBufferSizing adaptiveSizing,
+            BandwidthLimiter bandwidthLimiter,
+            @Value("${file.stream.buffer.size:8192}") int bufferSize,
+            @Value("${file.stream.async.timeout:600000}") long asyncTimeout,
+            @Value("${file.stream.checksum.enabled:true}") boolean checksumEnabled,
+            @Value("${file.stream.async.commit.threads:16}") int commitThreads) {
+
+        ServletRegistrationBean<AsyncUploadServlet> registration = new ServletRegistrationBean<>(
+                new AsyncUploadServlet(objectMapper, storageService, uploadMetrics, bufferPool, adaptiveSizing,
+                        bandwidthLimiter, bufferSize, asyncTimeout, checksumEnabled, commitThreads),
+                ASYNC_UPLOAD_PATH);
+        registration.setName("asyncUploadServlet");
+        registration.setAsyncSupported(true);
+        return registration;
+    }
+}
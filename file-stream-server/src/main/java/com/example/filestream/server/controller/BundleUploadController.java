@@ -0,0 +1,232 @@
+package com.example.filestream.server.controller;
+
+import com.example.filestream.common.checksum.StreamDigest;
+import com.example.filestream.server.bundle.BundleEntry;
+import com.example.filestream.server.bundle.BundleReader;
+import com.example.filestream.server.bundle.MalformedBundleException;
+import com.example.filestream.server.ingest.IngestEngine;
+import com.example.filestream.server.metrics.UploadMetrics;
+import com.example.filestream.server.ratelimit.BandwidthLimiter;
+import com.example.filestream.server.storage.FileStorageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * 작은 파일 여러 개를 하나의 스트림(tar, tar.gz, zip)으로 받아 항목별로 저장하는 번들 업로드 API
+ *
+ * <pre>
+ * POST /api/v1/files/bundle[?format=tar|tgz|zip]   본문을 읽으면서 항목을 순서대로 저장
+ * </pre>
+ *
+ * 형식을 지정하지 않으면 본문 앞부분으로 판별한다. 번들 전체를 임시 파일에 받지 않고,
+ * 항목마다 /upload 와 같은 스테이징 -> 커밋 과정을 거쳐 파일명(번들 안의 상대 경로)으로 저장한다.
+ * 세그먼트 저장(file.storage.packed)을 쓰면 크기가 threshold 미만인 항목은 스테이징 파일 없이 세그먼트에 바로 기록한다.
+ * 응답의 entries 는 저장한 항목별 이름, 크기, SHA-256 이며 건너뛴 항목은 skipped 사유를 가진다.
+ * 중간에 번들이 깨지면 그때까지 저장한 항목은 유지하고 목록과 함께 오류를 응답한다.
+ */
+@RestController
+@RequestMapping("/api/v1/files")
+public class BundleUploadController {
+
+    private static final Logger logger = LoggerFactory.getLogger(BundleUploadController.class);
+
+    // 번들 헤더 판별과 tar 블록 읽기에 쓰는 입력 버퍼
+    private static final int BUNDLE_BUFFER_SIZE = 64 * 1024;
+
+    @Value("${file.stream.buffer.size:8192}")
+    private int bufferSize;
+
+    @Value("${file.stream.ingest.engine:stream}")
+    private String defaultEngine;
+
+    @Value("${file.stream.checksum.enabled:true}")
+    private boolean checksumEnabled;
+
+    // 응답 목록이 메모리를 과도하게 쓰지 않도록 번들 하나의 항목 수 제한
+    @Value("${file.stream.bundle.max.entries:1000000}")
+    private int maxEntries;
+
+    private final FileStorageService storageService;
+
+    private final UploadMetrics uploadMetrics;
+
+    private final BandwidthLimiter bandwidthLimiter;
+
+    private final Map<String, IngestEngine> ingestEngines = new HashMap<>();
+
+    public BundleUploadController(FileStorageService storageService, UploadMetrics uploadMetrics,
+                                  BandwidthLimiter bandwidthLimiter, List<IngestEngine> engines) {
+        this.storageService = storageService;
+        this.uploadMetrics = uploadMetrics;
+        this.bandwidthLimiter = bandwidthLimiter;
+        for (IngestEngine engine : engines) {
+            ingestEngines.put(engine.getName(), engine);
+        }
+    }
+
+    @PostMapping("/bundle")
+    public ResponseEntity<Map<String, Object>> uploadBundle(
+            @RequestParam(name = "format", required = false) String format,
+            HttpServletRequest request) {
+
+        UploadMetrics.Sample sample = uploadMetrics.start(UploadMetrics.ENDPOINT_BUNDLE);
+        Map<String, Object> response = new HashMap<>();
+
+        IngestEngine ingestEngine = ingestEngines.get(defaultEngine);
+        String contentEncoding = request.getHeader("Content-Encoding");
+        boolean gzipEncoded = contentEncoding != null && "gzip".equalsIgnoreCase(contentEncoding.trim());
+        if (contentEncoding != null && !gzipEncoded && !"identity".equalsIgnoreCase(contentEncoding.trim())) {
+            response.put("error", "Unsupported Content-Encoding: " + contentEncoding);
+            sample.failure(UploadMetrics.CAUSE_UNSUPPORTED_ENCODING);
+            sample.stop();
+            return ResponseEntity.status(415).body(response);
+        }
+
+        List<Map<String, Object>> entries = new ArrayList<>();
+        int fileCount = 0;
+        long totalBytes = 0;
+        long startTime = System.nanoTime();
+        Path stagingFile = null;
+        try (InputStream body = bandwidthLimiter.throttle(request.getInputStream(), request)) {
+            InputStream source = gzipEncoded ? new GZIPInputStream(body, bufferSize) : body;
+            BundleReader reader = BundleReader.open(source, format, BUNDLE_BUFFER_SIZE);
+            response.put("format", reader.getFormat());
+
+            BundleEntry entry;
+            while ((entry = reader.nextEntry()) != null) {
+                if (entry.getType() == BundleEntry.Type.DIRECTORY) {
+                    // 디렉토리는 파일 저장 시 필요한 만큼 만들어짐
+                    continue;
+                }
+                if (entries.size() >= maxEntries) {
+                    logger.warn("Bundle exceeds {} entries, stopping after {} files", maxEntries, fileCount);
+                    response.put("error", "Bundle exceeds the maximum of " + maxEntries + " entries.");
+                    sample.failure(UploadMetrics.CAUSE_TOO_LARGE);
+                    return ResponseEntity.status(413).body(summarize(response, entries, fileCount, totalBytes,
+                            startTime));
+                }
+
+                String name = FileStorageService.normalizeRelativePath(entry.getName());
+                if (name == null || !entry.isFile()) {
+                    Map<String, Object> skipped = new LinkedHashMap<>();
+                    skipped.put("name", entry.getName());
+                    skipped.put("skipped", name == null ? "unsafe path" : "unsupported entry type");
+                    entries.add(skipped);
+                    logger.debug("Skipped bundle entry: {} ({})", entry.getName(), skipped.get("skipped"));
+                    continue;
+                }
+
+                StreamDigest digest = checksumEnabled ? new StreamDigest() : null;
+                long bytesWritten;
+                if (storageService.acceptsPacked(entry.getSize())) {
+                    // 크기를 미리 아는 작은 항목은 스테이징 파일 없이 세그먼트에 바로 저장
+                    byte[] data = readEntry(entry);
+                    if (digest != null) {
+                        digest.update(data, 0, data.length);
+                    }
+                    storageService.commitPacked(name, data);
+                    bytesWritten = data.length;
+                } else {
+                    // 항목마다 스테이징 파일에 기록한 뒤 상대 경로 이름으로 커밋
+                    stagingFile = storageService.createStagingFile(name);
+                    bytesWritten = ingestEngine.ingest(entry.getInputStream(), stagingFile, digest);
+                    storageService.commit(stagingFile, name, digest != null ? digest.getSha256() : null);
+                    stagingFile = null;
+                }
+
+                Map<String, Object> stored = new LinkedHashMap<>();
+                stored.put("name", name);
+                stored.put("size", bytesWritten);
+                if (digest != null) {
+                    stored.put("sha256", digest.getSha256());
+                }
+                entries.add(stored);
+                fileCount++;
+                totalBytes += bytesWritten;
+            }
+
+            summarize(response, entries, fileCount, totalBytes, startTime);
+            logger.info("Bundle uploaded successfully: {} files, {} skipped ({} MB, {} MB/s, {})", fileCount,
+                    entries.size() - fileCount, totalBytes / 1024 / 1024, response.get("throughputMBps"),
+                    reader.getFormat());
+            sample.success(totalBytes);
+            response.put("message", "Bundle uploaded successfully: " + fileCount + " files");
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected bundle upload: {}", e.getMessage());
+
+            response.put("error", e.getMessage());
+            sample.failure(UploadMetrics.CAUSE_BAD_REQUEST);
+            return ResponseEntity.status(400).body(response);
+        } catch (MalformedBundleException | ZipException e) {
+            logger.warn("Malformed bundle after {} files: {}", fileCount, e.getMessage());
+
+            response.put("error", "Malformed bundle: " + e.getMessage());
+            sample.failure(UploadMetrics.CAUSE_BAD_REQUEST);
+            return ResponseEntity.status(400).body(summarize(response, entries, fileCount, totalBytes, startTime));
+        } catch (IOException e) {
+            logger.error("Failed to save bundle after {} files", fileCount, e);
+
+            response.put("error", "Failed to save bundle on server.");
+            sample.failure(UploadMetrics.CAUSE_IO_ERROR);
+            return ResponseEntity.status(500).body(summarize(response, entries, fileCount, totalBytes, startTime));
+        } finally {
+            if (stagingFile != null) {
+                storageService.discard(stagingFile);
+            }
+            sample.stop();
+        }
+    }
+
+    /**
+     * 헤더에 적힌 크기만큼 항목 내용을 읽음
+     */
+    private static byte[] readEntry(BundleEntry entry) throws IOException {
+        byte[] data = new byte[(int) entry.getSize()];
+        InputStream in = entry.getInputStream();
+        int offset = 0;
+        while (offset < data.length) {
+            int bytesRead = in.read(data, offset, data.length - offset);
+            if (bytesRead == -1) {
+                throw new MalformedBundleException("Truncated entry: " + entry.getName());
+            }
+            offset += bytesRead;
+        }
+        return data;
+    }
+
+    /**
+     * 저장 결과 요약 (실패 응답에도 그때까지 저장한 항목 목록을 포함)
+     */
+    private Map<String, Object> summarize(Map<String, Object> response, List<Map<String, Object>> entries,
+                                          int fileCount, long totalBytes, long startTime) {
+        long elapsedNanos = System.nanoTime() - startTime;
+        double throughputMBps = elapsedNanos > 0
+                ? (totalBytes / 1024.0 / 1024.0) / (elapsedNanos / 1_000_000_000.0)
+                : 0.0;
+        response.put("fileCount", fileCount);
+        response.put("skippedCount", entries.size() - fileCount);
+        response.put("totalSize", totalBytes);
+        response.put("elapsedMs", elapsedNanos / 1_000_000);
+        response.put("throughputMBps", Math.round(throughputMBps * 100) / 100.0);
+        response.put("durability", storageService.getDurabilityPolicy());
+        response.put("entries", entries);
+        return response;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.filestream.server.controller;
+
+import com.example.filestream.server.metrics.UploadMetrics;
+import com.example.filestream.server.storage.ContentAddressableStore;
+import com.example.filestream.server.storage.FileStorageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 내용 주소 저장소(file.storage.mode=cas) 조회 API
+ *
+ * <pre>
+ * HEAD /api/v1/files/blobs/{sha256}            같은 내용이 이미 저장되어 있는지 확인 (200 / 404)
+ * POST /api/v1/files/link?filename=&sha256=    저장된 내용에 파일명 연결 (본문 전송 생략)
+ * </pre>
+ *
+ * 클라이언트는 스트리밍 전에 해시를 조회하고, 이미 있으면 link 만 호출해 전송을 건너뛴다.
+ */
+@RestController
+@RequestMapping("/api/v1/files")
+public class ContentProbeController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentProbeController.class);
+
+    private final FileStorageService storageService;
+
+    private final UploadMetrics uploadMetrics;
+
+    public ContentProbeController(FileStorageService storageService, UploadMetrics uploadMetrics) {
+        this.storageService = storageService;
+        this.uploadMetrics = uploadMetrics;
+    }
+
+    @RequestMapping(value = "/blobs/{sha256}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> probe(@PathVariable String sha256) throws IOException {
+        String digest = sha256.toLowerCase();
+        if (!storageService.containsContent(digest)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .header("Content-Length", String.valueOf(Files.size(storageService.blobPath(digest))))
+                .build();
+    }
+
+    @PostMapping("/link")
+    public ResponseEntity<Map<String, Object>> link(
+            @RequestParam(name = "filename") String filename,
+            @RequestParam(name = "sha256") String sha256) throws IOException {
+
+        Map<String, Object> response = new HashMap<>();
+        String digest = sha256.toLowerCase();
+        if (!ContentAddressableStore.isValidDigest(digest)) {
+            response.put("error", "Invalid SHA-256 digest: " + sha256);
+            return ResponseEntity.status(400).body(response);
+        }
+
+        if (!FileStorageService.isStorableName(filename)) {
+            response.put("error", "Invalid filename: " + filename);
+            return ResponseEntity.status(400).body(response);
+        }
+
+        UploadMetrics.Sample sample = uploadMetrics.start(UploadMetrics.ENDPOINT_LINK);
+        try {
+            Path blob = storageService.link(filename, digest);
+            if (blob == null) {
+                sample.failure(UploadMetrics.CAUSE_BAD_REQUEST);
+                response.put("error", "Content not found: " + digest);
+                return ResponseEntity.status(404).body(response);
+            }
+
+            long fileSize = Files.size(blob);
+            sample.success(fileSize);
+            logger.info("File linked without transfer: {} -> {}", filename, digest);
+            response.put("message", "File uploaded successfully: " + filename);
+            response.put("fileCount", 1);
+            response.put("fileSize", fileSize);
+            response.put("sha256", digest);
+            response.put("deduplicated", true);
+            return ResponseEntity.ok(response);
+        } finally {
+            sample.stop();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.filestream.server.controller;
+
+import com.example.filestream.server.storage.FileStorageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 저장된 파일 목록 / 삭제 API
+ *
+ * <pre>
+ * GET    /api/v1/files              파일 목록 (이름, 크기, 수정 시각, 저장 위치)
+ * DELETE /api/v1/files/{filename}   파일 삭제 (flat 모드, 하위 경로 이름은 dir/file.txt 형태)
+ * </pre>
+ *
+ * 개별 파일과 세그먼트에 모아 저장된 작은 파일(storage=packed)을 구분 없이 함께 보여준다.
+ * 세그먼트 파일의 삭제는 삭제 기록만 추가하고, 공간은 백그라운드 compaction 이 회수한다.
+ */
+@RestController
+@RequestMapping("/api/v1/files")
+public class FileCatalogController {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileCatalogController.class);
+
+    private final FileStorageService storageService;
+
+    public FileCatalogController(FileStorageService storageService) {
+        this.storageService = storageService;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> listFiles() throws IOException {
+        List<Map<String, Object>> files = storageService.list();
+        long totalSize = 0;
+        for (Map<String, Object> file : files) {
+            totalSize += (Long) file.get("size");
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("fileCount", files.size());
+        response.put("totalSize", totalSize);
+        response.put("files", files);
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/{*path}")
+    public ResponseEntity<Map<String, Object>> deleteFile(@PathVariable String path) throws IOException {
+        String filename = path.startsWith("/") ? path.substring(1) : path;
+        Map<String, Object> response = new HashMap<>();
+        if (storageService.isContentAddressed()) {
+            // 같은 내용을 여러 이름이 공유하므로 cas 모드에서는 삭제하지 않음
+            response.put("error", "Delete is not supported in cas storage mode");
+            return ResponseEntity.status(409).body(response);
+        }
+        if (!storageService.delete(filename)) {
+            response.put("error", "File not found: " + filename);
+            return ResponseEntity.status(404).body(response);
+        }
+
+        logger.info("File deleted: {}", filename);
+        response.put("message", "File deleted: " + filename);
+        return ResponseEntity.ok(response);
+    }
+}
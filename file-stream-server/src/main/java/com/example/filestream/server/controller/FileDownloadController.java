@@ -0,0 +1,222 @@
+package com.example.filestream.server.controller;
+
+import com.example.filestream.server.storage.FileStorageService;
+import com.example.filestream.server.storage.PackedSegmentStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpRange;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 저장된 파일 다운로드 API
+ *
+ * <pre>
+ * GET  /api/v1/files/{filename}   파일 전송 (HEAD 지원, 번들/디렉토리 업로드 항목은 dir/file.txt 처럼 상대 경로)
+ * </pre>
+ *
+ * - Range: bytes=s-e 단일 구간 요청은 206 으로 응답 (병렬/이어받기용). 여러 구간 요청은 전체 전송
+ * - If-Range: ETag 또는 Last-Modified 가 일치할 때만 Range 적용
+ * - If-None-Match / If-Modified-Since (304), If-Match / If-Unmodified-Since (412)
+ * - 업로드 중인 파일(.incoming, .sessions)은 대상에서 제외
+ *
+ * Tomcat 이 sendfile 을 지원하면 전송을 커넥터에 넘겨 커널에서 바로 소켓으로 보내고,
+ * 그렇지 않으면 FileChannel.transferTo 로 응답 스트림에 기록한다.
+ * 세그먼트에 저장된 작은 파일(file.storage.packed)은 레코드를 읽어 그대로 응답에 기록한다.
+ */
+@RestController
+@RequestMapping("/api/v1/files")
+public class FileDownloadController {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileDownloadController.class);
+
+    // Tomcat sendfile 요청 속성 (org.apache.coyote.Constants)
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    // 작은 응답은 sendfile 준비 비용보다 복사가 빠름 (Tomcat DefaultServlet 기본값과 동일)
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+    private static final long TRANSFER_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    private final FileStorageService storageService;
+
+    public FileDownloadController(FileStorageService storageService) {
+        this.storageService = storageService;
+    }
+
+    @GetMapping("/{*path}")
+    public ResponseEntity<Map<String, Object>> downloadFile(
+            @PathVariable String path,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        // {*path} 는 앞의 '/' 를 포함해 나머지 경로 전체를 받음
+        String filename = path.startsWith("/") ? path.substring(1) : path;
+
+        PackedSegmentStore.PackedFile packed = storageService.resolvePacked(filename);
+        Path file = packed == null ? storageService.resolveCommitted(filename) : null;
+        if (packed == null && file == null) {
+            Map<String, Object> body = new HashMap<>();
+            body.put("error", "File not found: " + filename);
+            return ResponseEntity.status(404).body(body);
+        }
+
+        long fileSize = packed != null ? packed.getSize() : Files.size(file);
+        long lastModified = packed != null ? packed.getLastModified() : Files.getLastModifiedTime(file).toMillis();
+        String etag = entityTag(filename, fileSize, lastModified);
+
+        // If-Match 는 Spring 5.3 의 checkNotModified 가 평가하지 않으므로 직접 처리
+        String ifMatch = request.getHeader("If-Match");
+        if (ifMatch != null && !ifMatchMatches(ifMatch, etag)) {
+            Map<String, Object> body = new HashMap<>();
+            body.put("error", "Precondition failed: " + filename);
+            return ResponseEntity.status(412).body(body);
+        }
+
+        // 조건부 요청 처리 (304 / 412 응답과 ETag, Last-Modified 헤더 설정)
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return null;
+        }
+
+        long start = 0;
+        long end = fileSize - 1;
+        int status = 200;
+        String rangeHeader = request.getHeader("Range");
+        if (rangeHeader != null && ifRangeMatches(request, etag, lastModified)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = null;
+            }
+            if (ranges != null && ranges.size() == 1) {
+                HttpRange range = ranges.get(0);
+                try {
+                    start = range.getRangeStart(fileSize);
+                    end = range.getRangeEnd(fileSize);
+                } catch (IllegalArgumentException e) {
+                    response.setHeader("Content-Range", "bytes */" + fileSize);
+                    Map<String, Object> body = new HashMap<>();
+                    body.put("error", "Requested range not satisfiable: " + rangeHeader);
+                    return ResponseEntity.status(416).body(body);
+                }
+                if (start > end) {
+                    // 빈 파일에 대한 Range 요청
+                    response.setHeader("Content-Range", "bytes */" + fileSize);
+                    return ResponseEntity.status(416).build();
+                }
+                status = 206;
+                response.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + fileSize);
+            }
+        }
+
+        long length = end - start + 1;
+        response.setStatus(status);
+        response.setContentType("application/octet-stream");
+        response.setHeader("Accept-Ranges", "bytes");
+        response.setHeader("Content-Disposition",
+                "attachment; filename*=UTF-8''" + URLEncoder.encode(filename.substring(filename.lastIndexOf('/') + 1),
+                        "UTF-8").replace("+", "%20"));
+        response.setContentLengthLong(length);
+
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return null;
+        }
+
+        if (packed != null) {
+            byte[] data = storageService.readPacked(packed);
+            if (data == null) {
+                throw new IOException("File changed while serving: " + filename);
+            }
+            response.getOutputStream().write(data, (int) start, (int) length);
+            logger.info("Served {} bytes {}-{} of {} from segment", filename, start, end, fileSize);
+            return null;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR)) && length >= SENDFILE_MIN_SIZE) {
+            // 요청 처리가 끝난 뒤 커넥터가 파일을 소켓으로 직접 전송
+            request.setAttribute(SENDFILE_FILENAME_ATTR, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, end + 1);
+            logger.info("Serving {} bytes {}-{} of {} via sendfile", filename, start, end, fileSize);
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, Math.min(remaining, TRANSFER_CHUNK_SIZE), target);
+                if (transferred <= 0) {
+                    throw new IOException("File truncated while serving: " + filename);
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+        logger.info("Served {} bytes {}-{} of {}", filename, start, end, fileSize);
+        return null;
+    }
+
+    /**
+     * cas 모드는 내용 해시, flat 모드는 크기와 수정 시각으로 만든 강한 ETag
+     */
+    private String entityTag(String filename, long fileSize, long lastModified) {
+        String contentHash = storageService.contentHash(filename);
+        if (contentHash != null) {
+            return "\"" + contentHash + "\"";
+        }
+        return "\"" + Long.toHexString(fileSize) + "-" + Long.toHexString(lastModified) + "\"";
+    }
+
+    /**
+     * If-Match 목록에 현재 ETag 가 있거나 * 이면 true (약한 ETag 는 일치로 보지 않음)
+     */
+    private boolean ifMatchMatches(String ifMatch, String etag) {
+        for (String candidate : ifMatch.split(",")) {
+            String value = candidate.trim();
+            if ("*".equals(value) || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * If-Range 가 없거나 현재 ETag / Last-Modified 와 일치하면 true (불일치 시 전체 전송)
+     */
+    private boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader("If-Range");
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.trim().startsWith("\"") || ifRange.trim().startsWith("W/")) {
+            return ifRange.trim().equals(etag);
+        }
+        try {
+            // HTTP 날짜는 초 단위
+            return request.getDateHeader("If-Range") == lastModified / 1000 * 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -1,5 +1,14 @@
 package com.example.filestream.server.controller;
 
+import com.example.filestream.common.buffer.DirectBufferPool;
+import com.example.filestream.common.checksum.StreamDigest;
+import com.example.filestream.server.buffer.AdaptiveBufferSizer;
+import com.example.filestream.server.buffer.AdaptiveBufferSizing;
+import com.example.filestream.server.ingest.CompressedPassThroughIngest;
+import com.example.filestream.server.ingest.IngestEngine;
+import com.example.filestream.server.metrics.UploadMetrics;
+import com.example.filestream.server.ratelimit.BandwidthLimiter;
+import com.example.filestream.server.storage.FileStorageService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,9 +19,11 @@ import javax.servlet.http.HttpServletRequest;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
 
 @RestController
 @RequestMapping("/api/v1/files")
@@ -20,93 +31,188 @@ public class FileUploadController {
 
     private static final Logger logger = LoggerFactory.getLogger(FileUploadController.class);
 
-    @Value("${file.upload.directory:./uploads}")
-    private String uploadDirectory;
-    
     @Value("${file.stream.buffer.size:8192}")
     private int bufferSize;
 
+    @Value("${file.stream.ingest.engine:stream}")
+    private String defaultEngine;
+
+    @Value("${file.stream.checksum.enabled:true}")
+    private boolean checksumEnabled;
+
+    // Content-Encoding: gzip 요청 처리 방식 (decode: 풀어서 저장, compressed: 압축된 그대로 {filename}.gz 로 저장)
+    @Value("${file.stream.compression.storage:decode}")
+    private String compressionStorage;
+
+    private final FileStorageService storageService;
+
+    private final UploadMetrics uploadMetrics;
+
+    private final DirectBufferPool bufferPool;
+
+    private final AdaptiveBufferSizing adaptiveSizing;
+
+    private final BandwidthLimiter bandwidthLimiter;
+
+    private final Map<String, IngestEngine> ingestEngines = new HashMap<>();
+
+    public FileUploadController(FileStorageService storageService, UploadMetrics uploadMetrics,
+                                DirectBufferPool bufferPool, AdaptiveBufferSizing adaptiveSizing,
+                                BandwidthLimiter bandwidthLimiter, List<IngestEngine> engines) {
+        this.storageService = storageService;
+        this.uploadMetrics = uploadMetrics;
+        this.bufferPool = bufferPool;
+        this.adaptiveSizing = adaptiveSizing;
+        this.bandwidthLimiter = bandwidthLimiter;
+        for (IngestEngine engine : engines) {
+            ingestEngines.put(engine.getName(), engine);
+        }
+    }
+
     @PostMapping("/upload")
     public ResponseEntity<Map<String, Object>> uploadFile(
             @RequestParam(name = "filename") String filename,
+            @RequestParam(name = "engine", required = false) String engineName,
             HttpServletRequest request) {
         
-        // 업로드 시작 시 메모리 사용량 출력
-        printMemoryUsage("Upload start for file: " + filename);
-        
+        UploadMetrics.Sample sample = uploadMetrics.start(UploadMetrics.ENDPOINT_UPLOAD);
         Map<String, Object> response = new HashMap<>();
         
+        // 수집 엔진 선택 (요청 파라미터가 설정값보다 우선)
+        String selectedEngine = engineName != null ? engineName : defaultEngine;
+        IngestEngine ingestEngine = ingestEngines.get(selectedEngine);
+        if (ingestEngine == null) {
+            logger.warn("Unknown ingest engine requested: {}", selectedEngine);
+            response.put("error", "Unknown ingest engine: " + selectedEngine);
+            sample.failure(UploadMetrics.CAUSE_BAD_REQUEST);
+            return ResponseEntity.status(400).body(response);
+        }
+        
+        // 요청 본문 인코딩 확인 (gzip 만 지원)
+        String contentEncoding = request.getHeader("Content-Encoding");
+        boolean gzipEncoded = contentEncoding != null && "gzip".equalsIgnoreCase(contentEncoding.trim());
+        if (contentEncoding != null && !gzipEncoded && !"identity".equalsIgnoreCase(contentEncoding.trim())) {
+            response.put("error", "Unsupported Content-Encoding: " + contentEncoding);
+            sample.failure(UploadMetrics.CAUSE_UNSUPPORTED_ENCODING);
+            return ResponseEntity.status(415).body(response);
+        }
+        boolean storeCompressed = gzipEncoded && "compressed".equals(compressionStorage);
+        String storedFilename = storeCompressed ? filename + ".gz" : filename;
+        
+        Path stagingFile = null;
         try {
-            // 업로드 디렉토리 생성
-            Path uploadPath = Paths.get(uploadDirectory);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-                logger.info("Created upload directory: {}", uploadPath.toAbsolutePath());
-            }
-            
-            // 파일 경로 설정
-            Path filePath = uploadPath.resolve(filename);
-            logger.info("Saving file to: {}", filePath.toAbsolutePath());
-            logger.info("Using buffer size: {} bytes", bufferSize);
-            
-            printMemoryUsage("Before file processing");
+            // 스테이징 파일에 먼저 기록 후 검증이 끝나면 최종 이름으로 이동
+            stagingFile = storageService.createStagingFile(filename);
+            logger.debug("Saving file to: {} (engine: {}, buffer size: {} bytes)",
+                    stagingFile.toAbsolutePath(), ingestEngine.getName(), bufferSize);
             
             // 스트림으로 파일 저장
-            long bytesWritten = 0;
-            try (InputStream inputStream = request.getInputStream();
-                 OutputStream outputStream = Files.newOutputStream(filePath)) {
-                
-                byte[] buffer = new byte[bufferSize]; // 설정 가능한 버퍼 크기
-                int bytesRead;
-                
-                while ((bytesRead = inputStream.read(buffer)) != -1) {
-                    outputStream.write(buffer, 0, bytesRead);
-                    bytesWritten += bytesRead;
+            long bytesWritten;
+            StreamDigest digest = checksumEnabled ? new StreamDigest() : null;
+            AdaptiveBufferSizer sizer = storeCompressed ? null : adaptiveSizing.newSizer();
+            long startTime = System.nanoTime();
+            // 클라이언트별/전체 대역폭 한도 적용
+            try (InputStream inputStream = bandwidthLimiter.throttle(request.getInputStream(), request)) {
+                if (storeCompressed) {
+                    bytesWritten = CompressedPassThroughIngest.ingest(inputStream, stagingFile, digest,
+                            bufferPool, bufferSize);
+                } else if (gzipEncoded) {
+                    bytesWritten = ingestEngine.ingest(new GZIPInputStream(inputStream, bufferSize), stagingFile, digest,
+                            sizer);
+                } else {
+                    bytesWritten = ingestEngine.ingest(inputStream, stagingFile, digest, sizer);
                 }
+            }
+            long elapsedNanos = System.nanoTime() - startTime;
+            
+            // 클라이언트가 보낸 체크섬 검증
+            if (digest != null && !digest.matches(
+                    request.getHeader(StreamDigest.SHA256_HEADER), request.getHeader(StreamDigest.CRC32C_HEADER))) {
+                logger.warn("Checksum mismatch for file: {} (sha256={}, crc32c={})",
+                        filename, digest.getSha256(), digest.getCrc32c());
                 
-                outputStream.flush();
+                response.put("error", "Checksum mismatch.");
+                response.put("sha256", digest.getSha256());
+                response.put("crc32c", digest.getCrc32c());
+                sample.failure(UploadMetrics.CAUSE_CHECKSUM_MISMATCH);
+                return ResponseEntity.status(422).body(response);
             }
+            // 압축 저장 시 내용 해시는 원본 기준이므로 cas 키로 쓰지 않음 (저장소가 저장된 바이트로 계산)
+            // 작은 파일은 세그먼트에 저장될 수 있으므로 저장 크기는 커밋 전에 확인
+            long storedSize = storeCompressed ? Files.size(stagingFile) : bytesWritten;
+            long commitStart = System.nanoTime();
+            storageService.commit(stagingFile, storedFilename,
+                    digest != null && !storeCompressed ? digest.getSha256() : null);
+            long commitNanos = System.nanoTime() - commitStart;
+            stagingFile = null;
+            double throughputMBps = elapsedNanos > 0
+                    ? (bytesWritten / 1024.0 / 1024.0) / (elapsedNanos / 1_000_000_000.0)
+                    : 0.0;
             
-            logger.info("File uploaded successfully: {} ({} MB)", filename, bytesWritten / 1024 / 1024);
-            printMemoryUsage("After file processing");
+            logger.info("File uploaded successfully: {} ({} MB, {} MB/s via {})", filename,
+                    bytesWritten / 1024 / 1024, String.format("%.2f", throughputMBps), ingestEngine.getName());
+            sample.success(bytesWritten);
             
             response.put("message", "File uploaded successfully: " + filename);
             response.put("fileCount", 1);
             response.put("fileSize", bytesWritten);
-            
-            printMemoryUsage("Upload completed");
+            response.put("engine", ingestEngine.getName());
+            response.put("elapsedMs", elapsedNanos / 1_000_000);
+            response.put("throughputMBps", Math.round(throughputMBps * 100) / 100.0);
+            response.put("durability", storageService.getDurabilityPolicy());
+            response.put("commitMs", Math.round(commitNanos / 10_000.0) / 100.0);
+            response.put("compressed", storeCompressed);
+            if (gzipEncoded) {
+                response.put("contentEncoding", "gzip");
+            }
+            if (storeCompressed) {
+                response.put("storedAs", storedFilename);
+                response.put("storedSize", storedSize);
+            }
+            if (digest != null) {
+                response.put("sha256", digest.getSha256());
+                response.put("crc32c", digest.getCrc32c());
+            }
+            if (sizer != null) {
+                // 적응형 버퍼가 최종 선택한 크기와 변경 기록
+                logger.info("Adaptive buffer for {}: {} bytes after {} adjustments", filename,
+                        sizer.getSize(), sizer.getAdjustments());
+                uploadMetrics.recordBufferSize(UploadMetrics.ENDPOINT_UPLOAD, sizer.getSize());
+                response.put("bufferSize", sizer.getSize());
+                response.put("bufferTrace", sizer.getTrace());
+            }
             
             return ResponseEntity.ok(response);
             
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected upload: {}", e.getMessage());
+            
+            response.put("error", e.getMessage());
+            sample.failure(UploadMetrics.CAUSE_BAD_REQUEST);
+            return ResponseEntity.status(400).body(response);
+        } catch (ZipException e) {
+            logger.warn("Malformed gzip request body for file: {}", filename, e);
+            
+            response.put("error", "Malformed gzip request body.");
+            sample.failure(UploadMetrics.CAUSE_BAD_REQUEST);
+            return ResponseEntity.status(400).body(response);
         } catch (IOException e) {
             logger.error("Failed to save file: {}", filename, e);
             
             response.put("error", "Failed to save file on server.");
+            sample.failure(UploadMetrics.CAUSE_IO_ERROR);
             return ResponseEntity.status(500).body(response);
         } catch (Exception e) {
             logger.error("Unexpected error during file upload: {}", filename, e);
             
             response.put("error", "Unexpected error occurred.");
+            sample.failure(UploadMetrics.CAUSE_UNEXPECTED);
             return ResponseEntity.status(500).body(response);
-        }
-    }
-    
-    private void printMemoryUsage(String phase) {
-        Runtime runtime = Runtime.getRuntime();
-        long totalMemory = runtime.totalMemory();
-        long freeMemory = runtime.freeMemory();
-        long usedMemory = totalMemory - freeMemory;
-        long maxMemory = runtime.maxMemory();
-        
-        logger.info("[{}] Memory Usage - Used: {} MB / Max: {} MB", 
-            phase, 
-            String.format("%.2f", usedMemory / 1024.0 / 1024.0), 
-            String.format("%.2f", maxMemory / 1024.0 / 1024.0));
-            
-        // 20MB 이상 사용 시 경고
-        if (usedMemory > 20 * 1024 * 1024) {
-            logger.warn("⚠️  WARNING: Memory usage exceeds 20MB limit! Used: {} MB", 
-                String.format("%.2f", usedMemory / 1024.0 / 1024.0));
+        } finally {
+            if (stagingFile != null) {
+                storageService.discard(stagingFile);
+            }
+            sample.stop();
         }
     }
     
@@ -0,0 +1,318 @@
+package com.example.filestream.server.controller;
+
+import com.example.filestream.server.metrics.UploadMetrics;
+import com.example.filestream.server.ratelimit.BandwidthLimiter;
+import com.example.filestream.server.session.UploadSession;
+import com.example.filestream.server.session.UploadSessionConflictException;
+import com.example.filestream.server.session.UploadSessionService;
+import com.example.filestream.server.session.UploadSessionSizeExceededException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 재개 가능한 업로드 세션 API
+ *
+ * <pre>
+ * POST   /api/v1/files/sessions?filename=&size=[&segmentSize=]   세션 생성
+ * GET    /api/v1/files/sessions/{id}              확정 오프셋 조회 (HEAD 지원)
+ * PATCH  /api/v1/files/sessions/{id}              Content-Range 또는 Upload-Offset 위치부터 데이터 추가
+ * PUT    /api/v1/files/sessions/{id}/segments/{n} 분할 세션의 n 번째 구간 기록 (마지막 구간 도착 시 자동 완료)
+ * POST   /api/v1/files/sessions/{id}/complete     업로드 완료
+ * DELETE /api/v1/files/sessions/{id}              세션 취소
+ * </pre>
+ *
+ * PATCH 를 지원하지 않는 클라이언트는 POST 와 X-HTTP-Method-Override: PATCH 헤더를 사용할 수 있다.
+ */
+@RestController
+@RequestMapping("/api/v1/files/sessions")
+public class UploadSessionController {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadSessionController.class);
+
+    static final String UPLOAD_OFFSET_HEADER = "Upload-Offset";
+
+    // bytes {start}-{end}/{total|*}
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+|\\*)");
+
+    private final UploadSessionService sessionService;
+
+    private final UploadMetrics uploadMetrics;
+
+    private final BandwidthLimiter bandwidthLimiter;
+
+    public UploadSessionController(UploadSessionService sessionService, UploadMetrics uploadMetrics,
+                                   BandwidthLimiter bandwidthLimiter) {
+        this.sessionService = sessionService;
+        this.uploadMetrics = uploadMetrics;
+        this.bandwidthLimiter = bandwidthLimiter;
+    }
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> createSession(
+            @RequestParam(name = "filename") String filename,
+            @RequestParam(name = "size", required = false) Long size,
+            @RequestParam(name = "segmentSize", required = false) Long segmentSize) throws IOException {
+
+        if (segmentSize != null && segmentSize > 0 && size == null) {
+            return badRequest("Segmented upload requires the size parameter.");
+        }
+
+        UploadSession session;
+        try {
+            session = sessionService.createSession(filename,
+                    size != null ? size : UploadSession.UNKNOWN_SIZE,
+                    segmentSize != null ? segmentSize : 0L);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+
+        return ResponseEntity.status(201)
+                .header("Location", "/api/v1/files/sessions/" + session.getId())
+                .header(UPLOAD_OFFSET_HEADER, "0")
+                .body(toResponse(session));
+    }
+
+    @GetMapping("/{sessionId}")
+    public ResponseEntity<Map<String, Object>> getSession(@PathVariable String sessionId) {
+        UploadSession session = sessionService.getSession(sessionId);
+        if (session == null) {
+            return notFound(sessionId);
+        }
+        return ResponseEntity.ok()
+                .header(UPLOAD_OFFSET_HEADER, String.valueOf(session.getOffset()))
+                .body(toResponse(session));
+    }
+
+    @PatchMapping("/{sessionId}")
+    public ResponseEntity<Map<String, Object>> appendChunk(
+            @PathVariable String sessionId,
+            HttpServletRequest request) throws IOException {
+        return append(sessionId, request);
+    }
+
+    @PostMapping(value = "/{sessionId}", headers = "X-HTTP-Method-Override=PATCH")
+    public ResponseEntity<Map<String, Object>> appendChunkOverride(
+            @PathVariable String sessionId,
+            HttpServletRequest request) throws IOException {
+        return append(sessionId, request);
+    }
+
+    @PutMapping("/{sessionId}/segments/{index}")
+    public ResponseEntity<Map<String, Object>> writeSegment(
+            @PathVariable String sessionId,
+            @PathVariable int index,
+            HttpServletRequest request) throws IOException {
+        UploadSession session = sessionService.getSession(sessionId);
+        if (session == null) {
+            return notFound(sessionId);
+        }
+
+        if (isEncoded(request)) {
+            return unsupportedEncoding(request);
+        }
+
+        Path target;
+        UploadMetrics.Sample sample = uploadMetrics.start(UploadMetrics.ENDPOINT_SEGMENT);
+        try (InputStream inputStream = bandwidthLimiter.throttle(request.getInputStream(), request)) {
+            target = sessionService.writeSegment(session, index, inputStream);
+            sample.success(session.segmentLength(index));
+        } catch (UploadSessionConflictException e) {
+            sample.failure(UploadMetrics.CAUSE_CONFLICT);
+            return conflict(e);
+        } catch (IllegalArgumentException e) {
+            sample.failure(UploadMetrics.CAUSE_BAD_REQUEST);
+            return badRequest(e.getMessage());
+        } catch (IOException e) {
+            sample.failure(UploadMetrics.CAUSE_IO_ERROR);
+            throw e;
+        } finally {
+            sample.stop();
+        }
+
+        Map<String, Object> response = toResponse(session);
+        boolean completed = session.missingSegments().length == 0;
+        if (target != null) {
+            // 이 구간으로 모든 구간이 채워져 세션이 완료됨
+            logger.info("Segmented upload session {} completed: {}", sessionId, target);
+            response.put("message", "File uploaded successfully: " + session.getFilename());
+            response.put("fileSize", session.getTotalSize());
+            response.put("path", target.toString());
+        }
+        response.put("completed", completed);
+        return ResponseEntity.ok()
+                .header(UPLOAD_OFFSET_HEADER, String.valueOf(session.getOffset()))
+                .body(response);
+    }
+
+    @PostMapping("/{sessionId}/complete")
+    public ResponseEntity<Map<String, Object>> completeSession(@PathVariable String sessionId) throws IOException {
+        UploadSession session = sessionService.getSession(sessionId);
+        if (session == null) {
+            return notFound(sessionId);
+        }
+
+        try {
+            Path target = sessionService.complete(session);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "File uploaded successfully: " + session.getFilename());
+            response.put("fileCount", 1);
+            response.put("fileSize", session.getOffset());
+            response.put("path", target.toString());
+            return ResponseEntity.ok(response);
+        } catch (UploadSessionConflictException e) {
+            return conflict(e);
+        }
+    }
+
+    @DeleteMapping("/{sessionId}")
+    public ResponseEntity<Map<String, Object>> abortSession(@PathVariable String sessionId) throws IOException {
+        UploadSession session = sessionService.getSession(sessionId);
+        if (session == null) {
+            return notFound(sessionId);
+        }
+        try {
+            sessionService.abort(session);
+        } catch (UploadSessionConflictException e) {
+            return conflict(e);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    private ResponseEntity<Map<String, Object>> append(String sessionId, HttpServletRequest request) throws IOException {
+        UploadSession session = sessionService.getSession(sessionId);
+        if (session == null) {
+            return notFound(sessionId);
+        }
+
+        if (isEncoded(request)) {
+            return unsupportedEncoding(request);
+        }
+
+        // 시작 오프셋 결정 (Content-Range 우선, 없으면 Upload-Offset)
+        long offset;
+        String contentRange = request.getHeader("Content-Range");
+        String uploadOffset = request.getHeader(UPLOAD_OFFSET_HEADER);
+        if (contentRange != null) {
+            Matcher matcher = CONTENT_RANGE.matcher(contentRange.trim());
+            if (!matcher.matches()) {
+                return badRequest("Malformed Content-Range header: " + contentRange);
+            }
+            offset = Long.parseLong(matcher.group(1));
+            String total = matcher.group(3);
+            if (!"*".equals(total) && session.getTotalSize() != UploadSession.UNKNOWN_SIZE
+                    && Long.parseLong(total) != session.getTotalSize()) {
+                return badRequest("Content-Range total does not match session size " + session.getTotalSize());
+            }
+        } else if (uploadOffset != null) {
+            try {
+                offset = Long.parseLong(uploadOffset.trim());
+            } catch (NumberFormatException e) {
+                return badRequest("Malformed Upload-Offset header: " + uploadOffset);
+            }
+        } else {
+            return badRequest("Content-Range or Upload-Offset header is required.");
+        }
+
+        // 본문 길이를 알면 읽기 전에 선언된 크기 초과를 거절
+        long contentLength = request.getContentLengthLong();
+        if (contentLength > 0 && session.getTotalSize() != UploadSession.UNKNOWN_SIZE
+                && offset + contentLength > session.getTotalSize()) {
+            uploadMetrics.start(UploadMetrics.ENDPOINT_SESSION).failure(UploadMetrics.CAUSE_TOO_LARGE);
+            return payloadTooLarge("Upload exceeds declared size of " + session.getTotalSize() + " bytes",
+                    session.getOffset());
+        }
+
+        UploadMetrics.Sample sample = uploadMetrics.start(UploadMetrics.ENDPOINT_SESSION);
+        try (InputStream inputStream = bandwidthLimiter.throttle(request.getInputStream(), request)) {
+            long newOffset = sessionService.append(session, offset, inputStream);
+            logger.info("Upload session {} advanced to offset {}", sessionId, newOffset);
+            sample.success(newOffset - offset);
+
+            return ResponseEntity.ok()
+                    .header(UPLOAD_OFFSET_HEADER, String.valueOf(newOffset))
+                    .body(toResponse(session));
+        } catch (UploadSessionConflictException e) {
+            sample.failure(UploadMetrics.CAUSE_CONFLICT);
+            return conflict(e);
+        } catch (UploadSessionSizeExceededException e) {
+            sample.failure(UploadMetrics.CAUSE_TOO_LARGE);
+            return payloadTooLarge(e.getMessage(), e.getCurrentOffset());
+        } catch (IOException e) {
+            sample.failure(UploadMetrics.CAUSE_IO_ERROR);
+            throw e;
+        } finally {
+            sample.stop();
+        }
+    }
+
+    private Map<String, Object> toResponse(UploadSession session) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("sessionId", session.getId());
+        response.put("filename", session.getFilename());
+        response.put("offset", session.getOffset());
+        response.put("size", session.getTotalSize());
+        if (session.isSegmented()) {
+            response.put("segmentSize", session.getSegmentSize());
+            response.put("segmentCount", session.getSegmentCount());
+            response.put("missingSegments", Arrays.stream(session.missingSegments()).boxed().toArray());
+        }
+        return response;
+    }
+
+    private ResponseEntity<Map<String, Object>> conflict(UploadSessionConflictException e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", e.getMessage());
+        response.put("offset", e.getCurrentOffset());
+        return ResponseEntity.status(409)
+                .header(UPLOAD_OFFSET_HEADER, String.valueOf(e.getCurrentOffset()))
+                .body(response);
+    }
+
+    private ResponseEntity<Map<String, Object>> payloadTooLarge(String message, long currentOffset) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", message);
+        response.put("offset", currentOffset);
+        return ResponseEntity.status(413)
+                .header(UPLOAD_OFFSET_HEADER, String.valueOf(currentOffset))
+                .body(response);
+    }
+
+    private ResponseEntity<Map<String, Object>> notFound(String sessionId) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", "Upload session not found: " + sessionId);
+        return ResponseEntity.status(404).body(response);
+    }
+
+    private ResponseEntity<Map<String, Object>> badRequest(String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", message);
+        return ResponseEntity.status(400).body(response);
+    }
+
+    /**
+     * 세션 오프셋은 저장되는 바이트 기준이므로 압축된 본문은 받지 않음
+     */
+    private boolean isEncoded(HttpServletRequest request) {
+        String contentEncoding = request.getHeader("Content-Encoding");
+        return contentEncoding != null && !"identity".equalsIgnoreCase(contentEncoding.trim());
+    }
+
+    private ResponseEntity<Map<String, Object>> unsupportedEncoding(HttpServletRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", "Unsupported Content-Encoding: " + request.getHeader("Content-Encoding"));
+        return ResponseEntity.status(415).body(response);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.filestream.server.ingest;
+
+import com.example.filestream.common.checksum.StreamDigest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 요청 스트림을 채널로 감싸 FileChannel.transferFrom 으로 드레인하는 엔진.
+ * 애플리케이션 수준의 byte[] 복사 루프 없이 JDK 내부 전송 경로를 사용한다.
+ */
+@Component
+public class ChannelIngestEngine implements IngestEngine {
+
+    public static final String NAME = "channel";
+
+    // transferFrom 한 번에 요청할 최대 바이트 수
+    @Value("${file.stream.ingest.transfer.size:1048576}")
+    private long transferSize;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public long ingest(InputStream source, Path target, StreamDigest digest) throws IOException {
+        long position = 0;
+        ReadableByteChannel channel = Channels.newChannel(source);
+        try (ReadableByteChannel sourceChannel = digest != null ? new DigestingChannel(channel, digest) : channel;
+             FileChannel fileChannel = FileChannel.open(target,
+                     StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            // 블로킹 채널이므로 0 바이트 전송은 스트림 종료를 의미
+            long transferred;
+            while ((transferred = fileChannel.transferFrom(sourceChannel, position, transferSize)) > 0) {
+                position += transferred;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * transferFrom 이 읽어 가는 데이터를 체크섬에 반영하는 채널 래퍼
+     */
+    private static class DigestingChannel implements ReadableByteChannel {
+        private final ReadableByteChannel delegate;
+        private final StreamDigest digest;
+
+        DigestingChannel(ReadableByteChannel delegate, StreamDigest digest) {
+            this.delegate = delegate;
+            this.digest = digest;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            int start = dst.position();
+            int bytesRead = delegate.read(dst);
+            if (bytesRead > 0) {
+                ByteBuffer readBytes = dst.duplicate();
+                readBytes.position(start);
+                readBytes.limit(start + bytesRead);
+                digest.update(readBytes);
+            }
+            return bytesRead;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return delegate.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.filestream.server.ingest;
+
+import com.example.filestream.common.buffer.DirectBufferPool;
+import com.example.filestream.common.buffer.StreamBuffers;
+import com.example.filestream.common.checksum.StreamDigest;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * gzip 으로 압축된 요청 본문을 압축된 그대로 저장하면서,
+ * 같은 패스에서 풀어낸 내용으로 체크섬과 원본 크기를 계산한다 (file.stream.compression.storage=compressed).
+ */
+public final class CompressedPassThroughIngest {
+
+    private CompressedPassThroughIngest() {
+    }
+
+    /**
+     * @return 압축을 푼 원본 크기
+     */
+    public static long ingest(InputStream compressed, Path target, StreamDigest digest,
+                              DirectBufferPool bufferPool, int bufferSize) throws IOException {
+        long decodedSize = 0;
+        ByteBuffer buffer = bufferPool.acquire(bufferSize);
+        try (OutputStream outputStream = Files.newOutputStream(target)) {
+            TeeInputStream tee = new TeeInputStream(compressed, outputStream);
+            GZIPInputStream decoder = new GZIPInputStream(tee, bufferSize);
+            int bytesRead;
+
+            while ((bytesRead = StreamBuffers.read(decoder, buffer)) != -1) {
+                buffer.flip();
+                if (digest != null) {
+                    digest.update(buffer);
+                }
+                buffer.clear();
+                decodedSize += bytesRead;
+            }
+
+            // 디코더가 읽지 않은 나머지 바이트까지 그대로 저장 (읽은 바이트는 tee 가 기록)
+            while (StreamBuffers.read(tee, buffer) != -1) {
+                buffer.clear();
+            }
+            outputStream.flush();
+        } finally {
+            bufferPool.release(buffer);
+        }
+        return decodedSize;
+    }
+
+    /**
+     * 읽은 바이트를 그대로 출력 스트림에도 기록
+     */
+    private static class TeeInputStream extends FilterInputStream {
+
+        private final OutputStream copy;
+
+        TeeInputStream(InputStream in, OutputStream copy) {
+            super(in);
+            this.copy = copy;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                copy.write(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int bytesRead = super.read(b, off, len);
+            if (bytesRead > 0) {
+                copy.write(b, off, bytesRead);
+            }
+            return bytesRead;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // 건너뛴 바이트도 저장해야 하므로 읽어서 처리
+            byte[] skipBuffer = new byte[(int) Math.min(n, 8192)];
+            int bytesRead = read(skipBuffer, 0, skipBuffer.length);
+            return Math.max(bytesRead, 0);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.filestream.server.ingest;
+
+import com.example.filestream.common.checksum.StreamDigest;
+import com.example.filestream.server.buffer.AdaptiveBufferSizer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * 요청 본문 스트림을 대상 파일로 저장하는 수집(ingest) 엔진
+ */
+public interface IngestEngine {
+
+    /**
+     * 설정 및 응답에 사용되는 엔진 이름
+     */
+    String getName();
+
+    /**
+     * 입력 스트림을 끝까지 읽어 대상 파일에 기록하고 기록된 바이트 수를 반환.
+     * digest 가 주어지면 기록하는 데이터를 같은 루프에서 체크섬에 반영한다.
+     */
+    long ingest(InputStream source, Path target, StreamDigest digest) throws IOException;
+
+    /**
+     * sizer 가 주어지면 전송 버퍼 크기를 관측값에 따라 조정하며 수집한다.
+     * 애플리케이션 버퍼를 쓰지 않는 엔진은 sizer 를 무시한다.
+     */
+    default long ingest(InputStream source, Path target, StreamDigest digest, AdaptiveBufferSizer sizer)
+            throws IOException {
+        return ingest(source, target, digest);
+    }
+}
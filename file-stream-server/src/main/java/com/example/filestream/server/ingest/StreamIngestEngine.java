@@ -0,0 +1,80 @@
+package com.example.filestream.server.ingest;
+
+import com.example.filestream.common.buffer.DirectBufferPool;
+import com.example.filestream.common.buffer.StreamBuffers;
+import com.example.filestream.common.checksum.StreamDigest;
+import com.example.filestream.server.buffer.AdaptiveBufferSizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 풀에서 대여한 direct 버퍼로 읽어 FileChannel 에 기록하는 기본 복사 루프 엔진
+ */
+@Component
+public class StreamIngestEngine implements IngestEngine {
+
+    public static final String NAME = "stream";
+
+    @Value("${file.stream.buffer.size:8192}")
+    private int bufferSize;
+
+    private final DirectBufferPool bufferPool;
+
+    public StreamIngestEngine(DirectBufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public long ingest(InputStream source, Path target, StreamDigest digest) throws IOException {
+        return ingest(source, target, digest, null);
+    }
+
+    @Override
+    public long ingest(InputStream source, Path target, StreamDigest digest, AdaptiveBufferSizer sizer)
+            throws IOException {
+        long bytesWritten = 0;
+        // 설정 가능한 버퍼 크기 (크기 등급으로 올림), 적응형이면 sizer 가 정한 크기
+        ByteBuffer buffer = bufferPool.acquire(sizer != null ? sizer.getSize() : bufferSize);
+        try (FileChannel fileChannel = FileChannel.open(target,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (true) {
+                long readStart = System.nanoTime();
+                int bytesRead = sizer != null ? StreamBuffers.fill(source, buffer) : StreamBuffers.read(source, buffer);
+                if (bytesRead == -1) {
+                    break;
+                }
+                long readNanos = System.nanoTime() - readStart;
+
+                buffer.flip();
+                if (digest != null) {
+                    digest.update(buffer);
+                }
+                while (buffer.hasRemaining()) {
+                    fileChannel.write(buffer);
+                }
+                buffer.clear();
+                bytesWritten += bytesRead;
+
+                if (sizer != null && sizer.record(bytesRead, readNanos)) {
+                    bufferPool.release(buffer);
+                    buffer = bufferPool.acquire(sizer.getSize());
+                }
+            }
+        } finally {
+            bufferPool.release(buffer);
+        }
+        return bytesWritten;
+    }
+}
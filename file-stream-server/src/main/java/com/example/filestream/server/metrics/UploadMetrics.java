@@ -0,0 +1,180 @@
+package com.example.filestream.server.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 업로드 계측 (/actuator/metrics)
+ *
+ * <pre>
+ * file.upload.duration    업로드 소요 시간 (endpoint, outcome 태그, p50/p95/p99)
+ * file.upload.throughput  업로드별 처리량 분포 (bytes/s)
+ * file.upload.size        파일 크기 히스토그램
+ * file.upload.inflight    진행 중인 업로드 수
+ * file.upload.errors      실패 원인별 카운터 (endpoint, cause 태그)
+ * file.upload.buffer.size 적응형 버퍼가 업로드별로 수렴한 크기
+ * </pre>
+ *
+ * 버퍼 풀(direct / mapped) 사용량은 Spring Boot 기본 JVM 계측의 jvm.buffer.* 로 노출된다.
+ */
+@Component
+public class UploadMetrics {
+
+    public static final String ENDPOINT_UPLOAD = "upload";
+    public static final String ENDPOINT_ASYNC = "async";
+    public static final String ENDPOINT_SESSION = "session";
+    public static final String ENDPOINT_SEGMENT = "segment";
+    public static final String ENDPOINT_LINK = "link";
+    public static final String ENDPOINT_BUNDLE = "bundle";
+
+    public static final String CAUSE_BAD_REQUEST = "bad_request";
+    public static final String CAUSE_CHECKSUM_MISMATCH = "checksum_mismatch";
+    public static final String CAUSE_CONFLICT = "conflict";
+    public static final String CAUSE_UNSUPPORTED_ENCODING = "unsupported_encoding";
+    public static final String CAUSE_IO_ERROR = "io_error";
+    public static final String CAUSE_UNEXPECTED = "unexpected";
+    public static final String CAUSE_ABORTED = "aborted";
+    public static final String CAUSE_TOO_LARGE = "too_large";
+    public static final String CAUSE_TIMEOUT = "timeout";
+
+    // 파일 크기 히스토그램 구간 (1KB ~ 1GB)
+    private static final double[] SIZE_BUCKETS = {
+            1024, 64 * 1024, 1024 * 1024, 16 * 1024 * 1024, 128 * 1024 * 1024, 1024 * 1024 * 1024
+    };
+
+    private final MeterRegistry registry;
+    private final AtomicInteger totalInFlight = new AtomicInteger();
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    public UploadMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder("file.upload.inflight", totalInFlight, AtomicInteger::get)
+                .description("Uploads currently in progress")
+                .tag("endpoint", "all")
+                .register(registry);
+    }
+
+    /**
+     * 업로드 계측 시작 (반환된 Sample 로 성공/실패 기록)
+     */
+    public Sample start(String endpoint) {
+        totalInFlight.incrementAndGet();
+        inFlightGauge(endpoint).incrementAndGet();
+        return new Sample(endpoint, System.nanoTime());
+    }
+
+    private AtomicInteger inFlightGauge(String endpoint) {
+        return inFlight.computeIfAbsent(endpoint, key -> {
+            AtomicInteger value = new AtomicInteger();
+            Gauge.builder("file.upload.inflight", value, AtomicInteger::get)
+                    .description("Uploads currently in progress")
+                    .tag("endpoint", key)
+                    .register(registry);
+            return value;
+        });
+    }
+
+    private Timer timer(String endpoint, String outcome) {
+        return Timer.builder("file.upload.duration")
+                .description("Upload duration")
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+
+    private DistributionSummary throughput(String endpoint) {
+        return DistributionSummary.builder("file.upload.throughput")
+                .description("Per-upload throughput")
+                .baseUnit("bytes/s")
+                .tag("endpoint", endpoint)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+
+    private DistributionSummary size(String endpoint) {
+        return DistributionSummary.builder("file.upload.size")
+                .description("Uploaded file size")
+                .baseUnit("bytes")
+                .tag("endpoint", endpoint)
+                .serviceLevelObjectives(SIZE_BUCKETS)
+                .register(registry);
+    }
+
+    /**
+     * 적응형 버퍼가 업로드 종료 시점에 선택한 크기 기록
+     */
+    public void recordBufferSize(String endpoint, int bytes) {
+        DistributionSummary.builder("file.upload.buffer.size")
+                .description("Transfer buffer size chosen by adaptive sizing")
+                .baseUnit("bytes")
+                .tag("endpoint", endpoint)
+                .register(registry)
+                .record(bytes);
+    }
+
+    private Counter errors(String endpoint, String cause) {
+        return Counter.builder("file.upload.errors")
+                .description("Failed uploads by cause")
+                .tag("endpoint", endpoint)
+                .tag("cause", cause)
+                .register(registry);
+    }
+
+    /**
+     * 업로드 한 건의 계측. success / failure 중 처음 호출된 것만 기록되며,
+     * 둘 다 호출되지 않고 stop 되면 aborted 로 기록된다.
+     */
+    public class Sample {
+
+        private final String endpoint;
+        private final long startNanos;
+        private final AtomicBoolean recorded = new AtomicBoolean();
+
+        private Sample(String endpoint, long startNanos) {
+            this.endpoint = endpoint;
+            this.startNanos = startNanos;
+        }
+
+        public void success(long bytes) {
+            if (!recorded.compareAndSet(false, true)) {
+                return;
+            }
+            long elapsedNanos = System.nanoTime() - startNanos;
+            timer(endpoint, "success").record(elapsedNanos, TimeUnit.NANOSECONDS);
+            size(endpoint).record(bytes);
+            if (elapsedNanos > 0) {
+                throughput(endpoint).record(bytes / (elapsedNanos / 1_000_000_000.0));
+            }
+            release();
+        }
+
+        public void failure(String cause) {
+            if (!recorded.compareAndSet(false, true)) {
+                return;
+            }
+            timer(endpoint, "error").record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            errors(endpoint, cause).increment();
+            release();
+        }
+
+        public void stop() {
+            failure(CAUSE_ABORTED);
+        }
+
+        private void release() {
+            totalInFlight.decrementAndGet();
+            inFlightGauge(endpoint).decrementAndGet();
+        }
+    }
+}
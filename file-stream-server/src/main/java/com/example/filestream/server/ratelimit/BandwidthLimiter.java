@@ -0,0 +1,369 @@
+package com.example.filestream.server.ratelimit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletRequest;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 업로드 수신 대역폭 제한.
+ * 클라이언트(IP 또는 X-Api-Key)별 토큰 버킷과 서버 전체 토큰 버킷을 함께 적용하여,
+ * 한 클라이언트의 대용량 백업이 NIC 를 독차지해 다른 업로드가 굶지 않도록 한다.
+ * api-key 모드에서는 설정된 키(file.stream.ratelimit.api.keys)만 키 단위로 구분하고 나머지는 IP 로 묶으며,
+ * 계측 태그와 조회 결과에는 키 원문 대신 SHA-256 앞 12자리(key:xxxxxxxxxxxx)를 사용한다.
+ * 한도는 /actuator/ratelimits 로 실행 중에 바꿀 수 있고, 진행 중인 업로드에도 바로 반영된다.
+ *
+ * <pre>
+ * file.upload.client.rate  클라이언트별 현재 수신 속도 (bytes/s, client 태그)
+ * file.upload.global.rate  서버 전체 현재 수신 속도 (bytes/s)
+ * </pre>
+ */
+@Component
+public class BandwidthLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BandwidthLimiter.class);
+
+    public static final String API_KEY_HEADER = "X-Api-Key";
+    public static final String KEY_IP = "ip";
+    public static final String KEY_API_KEY = "api-key";
+    public static final String API_KEY_CLIENT_PREFIX = "key:";
+
+    // 진행 중인 업로드가 없고 이 시간 동안 활동이 없으면 클라이언트 상태(와 계측) 제거
+    private static final long IDLE_EVICTION_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private final MeterRegistry registry;
+    private final String clientKey;
+    // 허용된 API 키 -> 클라이언트 식별자 (키 지문)
+    private final Map<String, String> apiKeyClients;
+    private final TokenBucket globalBucket;
+    private final RateMeter globalRate = new RateMeter();
+    private volatile long defaultClientRate;
+    private volatile long defaultClientBurst;
+
+    private final Map<String, ClientState> clients = new ConcurrentHashMap<>();
+    private final Map<String, long[]> overrides = new ConcurrentHashMap<>();
+
+    // 비동기 업로드의 읽기 재개와 유휴 클라이언트 정리용
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "bandwidth-limiter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BandwidthLimiter(MeterRegistry registry,
+                            @Value("${file.stream.ratelimit.client.key:ip}") String clientKey,
+                            @Value("${file.stream.ratelimit.global.rate:0}") long globalLimit,
+                            @Value("${file.stream.ratelimit.global.burst:4194304}") long globalBurst,
+                            @Value("${file.stream.ratelimit.client.rate:0}") long clientLimit,
+                            @Value("${file.stream.ratelimit.client.burst:1048576}") long clientBurst,
+                            @Value("${file.stream.ratelimit.api.keys:}") List<String> apiKeys) {
+        this.registry = registry;
+        this.clientKey = clientKey;
+        Map<String, String> keyClients = new HashMap<>();
+        for (String apiKey : apiKeys) {
+            if (!apiKey.trim().isEmpty()) {
+                keyClients.put(apiKey.trim(), API_KEY_CLIENT_PREFIX + fingerprint(apiKey.trim()));
+            }
+        }
+        this.apiKeyClients = Collections.unmodifiableMap(keyClients);
+        if (KEY_API_KEY.equals(clientKey) && apiKeyClients.isEmpty()) {
+            logger.warn("Rate limit client key is api-key but no file.stream.ratelimit.api.keys are configured; "
+                    + "all clients are limited by IP");
+        }
+        this.globalBucket = new TokenBucket(globalLimit, globalBurst);
+        this.defaultClientRate = clientLimit;
+        this.defaultClientBurst = clientBurst;
+
+        Gauge.builder("file.upload.global.rate", globalRate, RateMeter::getRate)
+                .description("Current server-wide upload ingest rate")
+                .baseUnit("bytes/s")
+                .register(registry);
+        scheduler.scheduleWithFixedDelay(this::evictIdleClients, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 요청의 클라이언트 식별자.
+     * api-key 모드에서 허용된 키면 키 지문, 헤더가 없거나 모르는 키면 IP
+     * (임의의 키를 바꿔 보내 새 버킷을 얻거나 계측 태그를 늘리지 못하도록)
+     */
+    public String resolveClient(HttpServletRequest request) {
+        if (KEY_API_KEY.equals(clientKey)) {
+            String apiKey = request.getHeader(API_KEY_HEADER);
+            String client = apiKey != null ? apiKeyClients.get(apiKey.trim()) : null;
+            if (client != null) {
+                return client;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    /**
+     * API 키 지문 (SHA-256 16진수 앞 12자리)
+     */
+    static String fingerprint(String apiKey) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(apiKey.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 6; i++) {
+                hex.append(String.format("%02x", hash[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * 업로드 하나에 대한 한도 적용 시작 (사용 후 close)
+     */
+    public Throttle open(String client) {
+        ClientState state = clients.compute(client, (key, existing) -> {
+            ClientState target = existing != null ? existing : newClientState(key);
+            target.activeUploads.incrementAndGet();
+            return target;
+        });
+        return new Throttle(state);
+    }
+
+    /**
+     * 요청 본문에 한도 적용 (블로킹 읽기 경로)
+     */
+    public InputStream throttle(InputStream inputStream, HttpServletRequest request) {
+        return new ThrottledInputStream(inputStream, open(resolveClient(request)));
+    }
+
+    /**
+     * 한도 때문에 멈춘 비동기 업로드의 읽기를 delayNanos 뒤에 재개
+     */
+    public void resumeLater(Runnable task, long delayNanos) {
+        scheduler.schedule(task, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private ClientState newClientState(String client) {
+        long[] override = overrides.get(client);
+        TokenBucket bucket = override != null
+                ? new TokenBucket(override[0], override[1])
+                : new TokenBucket(defaultClientRate, defaultClientBurst);
+        ClientState state = new ClientState(client, bucket);
+        state.gauge = Gauge.builder("file.upload.client.rate", state.rate, RateMeter::getRate)
+                .description("Current upload ingest rate per client")
+                .baseUnit("bytes/s")
+                .tag("client", client)
+                .register(registry);
+        return state;
+    }
+
+    private void evictIdleClients() {
+        long now = System.nanoTime();
+        for (String client : new ArrayList<>(clients.keySet())) {
+            clients.computeIfPresent(client, (key, state) -> {
+                if (state.activeUploads.get() > 0 || now - state.lastActive < IDLE_EVICTION_NANOS) {
+                    return state;
+                }
+                registry.remove(state.gauge);
+                return null;
+            });
+        }
+    }
+
+    // ---- 실행 중 한도 변경 (/actuator/ratelimits) ----
+
+    public void setGlobalLimit(long rate, long burst) {
+        globalBucket.setLimit(rate, burst);
+        logger.info("Global upload rate limit set to {} bytes/s (burst {} bytes)", rate, burst);
+    }
+
+    /**
+     * 개별 한도가 없는 클라이언트의 기본 한도 변경 (진행 중인 클라이언트에도 적용)
+     */
+    public void setDefaultClientLimit(long rate, long burst) {
+        defaultClientRate = rate;
+        defaultClientBurst = burst;
+        for (ClientState state : clients.values()) {
+            if (!overrides.containsKey(state.client)) {
+                state.bucket.setLimit(rate, burst);
+            }
+        }
+        logger.info("Default per-client upload rate limit set to {} bytes/s (burst {} bytes)", rate, burst);
+    }
+
+    public void setClientLimit(String client, long rate, long burst) {
+        overrides.put(client, new long[]{rate, burst});
+        ClientState state = clients.get(client);
+        if (state != null) {
+            state.bucket.setLimit(rate, burst);
+        }
+        logger.info("Upload rate limit for client {} set to {} bytes/s (burst {} bytes)", client, rate, burst);
+    }
+
+    /**
+     * 개별 한도 제거 (기본 한도로 복귀), 개별 한도가 없었으면 false
+     */
+    public boolean removeClientLimit(String client) {
+        if (overrides.remove(client) == null) {
+            return false;
+        }
+        ClientState state = clients.get(client);
+        if (state != null) {
+            state.bucket.setLimit(defaultClientRate, defaultClientBurst);
+        }
+        logger.info("Upload rate limit for client {} reset to default", client);
+        return true;
+    }
+
+    public TokenBucket getGlobalBucket() {
+        return globalBucket;
+    }
+
+    public long getDefaultClientRate() {
+        return defaultClientRate;
+    }
+
+    public long getDefaultClientBurst() {
+        return defaultClientBurst;
+    }
+
+    /**
+     * 현재 한도와 수신 속도 요약
+     */
+    public Map<String, Object> describe() {
+        Map<String, Object> global = new LinkedHashMap<>();
+        global.put("rate", globalBucket.getBytesPerSecond());
+        global.put("burst", globalBucket.getBurstBytes());
+        global.put("currentRate", globalRate.getRate());
+
+        Map<String, Object> defaults = new LinkedHashMap<>();
+        defaults.put("rate", defaultClientRate);
+        defaults.put("burst", defaultClientBurst);
+
+        List<Map<String, Object>> clientList = new ArrayList<>();
+        for (ClientState state : clients.values()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("client", state.client);
+            entry.put("rate", state.bucket.getBytesPerSecond());
+            entry.put("burst", state.bucket.getBurstBytes());
+            entry.put("override", overrides.containsKey(state.client));
+            entry.put("currentRate", state.rate.getRate());
+            entry.put("activeUploads", state.activeUploads.get());
+            clientList.add(entry);
+        }
+
+        Map<String, Object> overrideList = new LinkedHashMap<>();
+        for (Map.Entry<String, long[]> override : overrides.entrySet()) {
+            Map<String, Object> limit = new LinkedHashMap<>();
+            limit.put("rate", override.getValue()[0]);
+            limit.put("burst", override.getValue()[1]);
+            overrideList.put(override.getKey(), limit);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("clientKey", clientKey);
+        result.put("global", global);
+        result.put("defaultClient", defaults);
+        result.put("overrides", overrideList);
+        result.put("clients", clientList);
+        return result;
+    }
+
+    /**
+     * 업로드 하나의 한도 적용 핸들
+     */
+    public class Throttle {
+
+        private final ClientState state;
+        private boolean closed;
+
+        private Throttle(ClientState state) {
+            this.state = state;
+        }
+
+        /**
+         * 받은 바이트를 반영하고, 클라이언트/전체 한도를 지키기 위해 다음 읽기 전까지 기다려야 하는 시간(ns) 반환
+         */
+        public long acquire(long bytes) {
+            state.rate.record(bytes);
+            globalRate.record(bytes);
+            state.lastActive = System.nanoTime();
+            return Math.max(state.bucket.reserve(bytes), globalBucket.reserve(bytes));
+        }
+
+        public synchronized void close() {
+            if (!closed) {
+                closed = true;
+                state.lastActive = System.nanoTime();
+                state.activeUploads.decrementAndGet();
+            }
+        }
+    }
+
+    private static class ClientState {
+
+        private final String client;
+        private final TokenBucket bucket;
+        private final RateMeter rate = new RateMeter();
+        private final AtomicInteger activeUploads = new AtomicInteger();
+        private volatile long lastActive = System.nanoTime();
+        private Gauge gauge;
+
+        ClientState(String client, TokenBucket bucket) {
+            this.client = client;
+            this.bucket = bucket;
+        }
+    }
+
+    /**
+     * 받은 바이트 누적으로 계산하는 수신 속도.
+     * 조회 간격이 1초 미만이면 직전 값을 그대로 반환하여 짧은 구간의 튐을 줄인다.
+     */
+    static class RateMeter {
+
+        private static final long MIN_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+        private final LongAdder bytes = new LongAdder();
+        private long lastBytes;
+        private long lastTime = System.nanoTime();
+        private double rate;
+
+        void record(long count) {
+            bytes.add(count);
+        }
+
+        synchronized double getRate() {
+            long now = System.nanoTime();
+            long elapsed = now - lastTime;
+            if (elapsed >= MIN_INTERVAL_NANOS) {
+                long total = bytes.sum();
+                rate = (total - lastBytes) * 1_000_000_000.0 / elapsed;
+                lastBytes = total;
+                lastTime = now;
+            }
+            return Math.round(rate);
+        }
+    }
+}
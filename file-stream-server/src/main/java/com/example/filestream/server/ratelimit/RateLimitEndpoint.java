@@ -0,0 +1,61 @@
+package com.example.filestream.server.ratelimit;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * /actuator/ratelimits - 업로드 대역폭 한도 조회 및 실행 중 변경
+ *
+ * <pre>
+ * GET    /actuator/ratelimits            한도와 클라이언트별 현재 속도
+ * POST   /actuator/ratelimits            {"scope": "global" | "default" | 클라이언트, "rate": bytes/s, "burst": bytes}
+ * DELETE /actuator/ratelimits/{client}   클라이언트 개별 한도 제거 (기본 한도로 복귀)
+ * </pre>
+ * rate 0 은 제한 없음, burst 를 생략하면 현재 값을 유지한다.
+ */
+@Component
+@Endpoint(id = "ratelimits")
+public class RateLimitEndpoint {
+
+    public static final String SCOPE_GLOBAL = "global";
+    public static final String SCOPE_DEFAULT = "default";
+
+    private final BandwidthLimiter bandwidthLimiter;
+
+    public RateLimitEndpoint(BandwidthLimiter bandwidthLimiter) {
+        this.bandwidthLimiter = bandwidthLimiter;
+    }
+
+    @ReadOperation
+    public Map<String, Object> limits() {
+        return bandwidthLimiter.describe();
+    }
+
+    @WriteOperation
+    public Map<String, Object> update(String scope, long rate, @Nullable Long burst) {
+        if (SCOPE_GLOBAL.equals(scope)) {
+            bandwidthLimiter.setGlobalLimit(rate,
+                    burst != null ? burst : bandwidthLimiter.getGlobalBucket().getBurstBytes());
+        } else if (SCOPE_DEFAULT.equals(scope)) {
+            bandwidthLimiter.setDefaultClientLimit(rate,
+                    burst != null ? burst : bandwidthLimiter.getDefaultClientBurst());
+        } else {
+            bandwidthLimiter.setClientLimit(scope, rate,
+                    burst != null ? burst : bandwidthLimiter.getDefaultClientBurst());
+        }
+        return bandwidthLimiter.describe();
+    }
+
+    @DeleteOperation
+    public Map<String, Object> reset(@Selector String client) {
+        bandwidthLimiter.removeClientLimit(client);
+        return bandwidthLimiter.describe();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.filestream.server.ratelimit;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 읽은 바이트만큼 대역폭 한도를 적용하는 입력 스트림.
+ * 한도를 넘으면 읽기 후 잠들어 다음 읽기를 늦추고, 그동안 소켓 버퍼가 차면서 TCP 흐름 제어가 클라이언트를 늦춘다.
+ */
+public class ThrottledInputStream extends FilterInputStream {
+
+    private final BandwidthLimiter.Throttle throttle;
+
+    public ThrottledInputStream(InputStream in, BandwidthLimiter.Throttle throttle) {
+        super(in);
+        this.throttle = throttle;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int value = super.read();
+        if (value != -1) {
+            pause(throttle.acquire(1));
+        }
+        return value;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int bytesRead = super.read(b, off, len);
+        if (bytesRead > 0) {
+            pause(throttle.acquire(bytesRead));
+        }
+        return bytesRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            throttle.close();
+        }
+    }
+
+    private static void pause(long nanos) throws IOException {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while throttling upload");
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.filestream.server.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 바이트 단위 토큰 버킷 (락 없음).
+ * 토큰 수 대신 "버킷이 빚 없이 비는 가상 시각" 하나를 CAS 로 전진시킨다.
+ * 가상 시각이 현재보다 burst 만큼 과거에 있으면 버킷이 가득 찬 상태이고,
+ * 현재보다 미래에 있으면 그 차이만큼 기다려야 소비한 바이트가 속도 한도 안에 들어온다.
+ * 한도(초당 바이트, 버스트)는 실행 중에 바꿀 수 있으며 0 이면 제한 없음.
+ */
+public class TokenBucket {
+
+    private final AtomicLong virtualTime = new AtomicLong(Long.MIN_VALUE / 2);
+
+    // 한도 변경 시 함께 바뀌는 값은 하나의 불변 객체로 교체해 읽는 쪽이 섞인 값을 보지 않게 함
+    private volatile Limit limit;
+
+    public TokenBucket(long bytesPerSecond, long burstBytes) {
+        setLimit(bytesPerSecond, burstBytes);
+    }
+
+    public void setLimit(long bytesPerSecond, long burstBytes) {
+        this.limit = new Limit(Math.max(bytesPerSecond, 0), Math.max(burstBytes, 0));
+    }
+
+    public long getBytesPerSecond() {
+        return limit.bytesPerSecond;
+    }
+
+    public long getBurstBytes() {
+        return limit.burstBytes;
+    }
+
+    public boolean isUnlimited() {
+        return limit.nanosPerByte == 0;
+    }
+
+    /**
+     * bytes 만큼 토큰을 예약하고, 한도를 지키기 위해 기다려야 하는 시간(ns)을 반환
+     * (예약은 항상 성공하며 대기는 호출한 쪽이 담당)
+     */
+    public long reserve(long bytes) {
+        Limit current = limit;
+        if (current.nanosPerByte == 0 || bytes <= 0) {
+            return 0;
+        }
+        long cost = (long) (bytes * current.nanosPerByte);
+        while (true) {
+            long now = System.nanoTime();
+            long previous = virtualTime.get();
+            // 오래 쉬었어도 burst 이상은 쌓이지 않음
+            long start = Math.max(previous, now - current.burstNanos);
+            long next = start + cost;
+            if (virtualTime.compareAndSet(previous, next)) {
+                return Math.max(next - now, 0);
+            }
+        }
+    }
+
+    private static final class Limit {
+
+        private final long bytesPerSecond;
+        private final long burstBytes;
+        private final double nanosPerByte;
+        private final long burstNanos;
+
+        private Limit(long bytesPerSecond, long burstBytes) {
+            this.bytesPerSecond = bytesPerSecond;
+            this.burstBytes = burstBytes;
+            this.nanosPerByte = bytesPerSecond > 0 ? 1_000_000_000.0 / bytesPerSecond : 0;
+            this.burstNanos = (long) (burstBytes * nanosPerByte);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.filestream.server.session;
+
+import java.util.BitSet;
+
+/**
+ * 재개 가능한 업로드 세션 상태.
+ * segmentSize 가 0 보다 크면 고정 크기 구간을 병렬로 받는 분할(segmented) 세션이다.
+ */
+public class UploadSession {
+
+    public static final long UNKNOWN_SIZE = -1L;
+
+    private final String id;
+    private final String filename;
+    private final long totalSize;
+    private final long createdAt;
+    private final long segmentSize;
+    private final BitSet completedSegments;
+    private volatile long offset;
+    private volatile long lastActivity;
+    // 세션 잠금 상태에서만 접근
+    private boolean appending;
+
+    public UploadSession(String id, String filename, long totalSize, long createdAt, long offset) {
+        this(id, filename, totalSize, createdAt, offset, 0L, new BitSet());
+    }
+
+    public UploadSession(String id, String filename, long totalSize, long createdAt, long offset,
+                         long segmentSize, BitSet completedSegments) {
+        this.id = id;
+        this.filename = filename;
+        this.totalSize = totalSize;
+        this.createdAt = createdAt;
+        this.offset = offset;
+        this.segmentSize = segmentSize;
+        this.completedSegments = completedSegments;
+        this.lastActivity = createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    /**
+     * 전체 파일 크기, 알 수 없으면 {@link #UNKNOWN_SIZE}
+     */
+    public long getTotalSize() {
+        return totalSize;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * 디스크에 기록이 확정된 바이트 수 (다음 청크의 시작 오프셋)
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    void setOffset(long offset) {
+        this.offset = offset;
+    }
+
+    /**
+     * 마지막으로 데이터를 받은 시각 (만료 판단 기준)
+     */
+    public long getLastActivity() {
+        return lastActivity;
+    }
+
+    void setLastActivity(long lastActivity) {
+        this.lastActivity = lastActivity;
+    }
+
+    /**
+     * 이어 쓰기 요청이 본문을 받고 있는지 (세션 잠금 상태에서만 접근)
+     */
+    boolean isAppending() {
+        return appending;
+    }
+
+    void setAppending(boolean appending) {
+        this.appending = appending;
+    }
+
+    public boolean isSegmented() {
+        return segmentSize > 0;
+    }
+
+    public long getSegmentSize() {
+        return segmentSize;
+    }
+
+    public int getSegmentCount() {
+        if (!isSegmented()) {
+            return 0;
+        }
+        return (int) ((totalSize + segmentSize - 1) / segmentSize);
+    }
+
+    public long segmentOffset(int index) {
+        return index * segmentSize;
+    }
+
+    public long segmentLength(int index) {
+        return Math.min(segmentSize, totalSize - segmentOffset(index));
+    }
+
+    /**
+     * 수신 완료된 구간 비트셋 (세션 잠금 상태에서만 접근)
+     */
+    BitSet getCompletedSegments() {
+        return completedSegments;
+    }
+
+    public synchronized int[] missingSegments() {
+        int segmentCount = getSegmentCount();
+        int[] missing = new int[segmentCount - completedSegments.cardinality()];
+        int i = 0;
+        for (int index = completedSegments.nextClearBit(0); index < segmentCount;
+             index = completedSegments.nextClearBit(index + 1)) {
+            missing[i++] = index;
+        }
+        return missing;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.filestream.server.session;
+
+/**
+ * 요청 오프셋이 세션의 확정 오프셋과 다르거나 세션이 완료 가능한 상태가 아닐 때 발생
+ */
+public class UploadSessionConflictException extends RuntimeException {
+
+    private final long currentOffset;
+
+    public UploadSessionConflictException(String message, long currentOffset) {
+        super(message);
+        this.currentOffset = currentOffset;
+    }
+
+    public long getCurrentOffset() {
+        return currentOffset;
+    }
+}
@@ -0,0 +1,441 @@
+package com.example.filestream.server.session;
+
+import com.example.filestream.common.buffer.DirectBufferPool;
+import com.example.filestream.common.buffer.StreamBuffers;
+import com.example.filestream.server.storage.FileStorageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 재개 가능한 업로드 세션 관리.
+ * 세션 상태는 {sessionId}.properties, 부분 데이터는 {sessionId}.part 로 세션 디렉토리에 저장되며
+ * 서버 재시작 시 부분 파일 크기를 기준으로 확정 오프셋을 복구한다.
+ * file.stream.session.ttl 동안 데이터가 오지 않은 세션은 주기적으로 취소하여 부분 파일을 정리한다.
+ */
+@Service
+public class UploadSessionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadSessionService.class);
+
+    private static final String STATE_SUFFIX = ".properties";
+    private static final String PART_SUFFIX = ".part";
+
+    @Value("${file.stream.session.directory:${file.upload.directory:./uploads}/.sessions}")
+    private String sessionDirectory;
+
+    @Value("${file.stream.buffer.size:8192}")
+    private int bufferSize;
+
+    @Value("${file.stream.session.ttl:86400000}")
+    private long sessionTtl;
+
+    @Value("${file.stream.session.sweep.interval:600000}")
+    private long sweepInterval;
+
+    private ScheduledExecutorService sweeper;
+
+    private final FileStorageService storageService;
+
+    private final DirectBufferPool bufferPool;
+
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    public UploadSessionService(FileStorageService storageService, DirectBufferPool bufferPool) {
+        this.storageService = storageService;
+        this.bufferPool = bufferPool;
+    }
+
+    @PostConstruct
+    public void recoverSessions() throws IOException {
+        Path sessionPath = Paths.get(sessionDirectory);
+        Files.createDirectories(sessionPath);
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(sessionPath, "*" + STATE_SUFFIX)) {
+            for (Path stateFile : stream) {
+                try {
+                    UploadSession session = loadSession(stateFile);
+                    sessions.put(session.getId(), session);
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("Skipping unreadable upload session state: {}", stateFile, e);
+                }
+            }
+        }
+
+        if (!sessions.isEmpty()) {
+            logger.info("Recovered {} upload sessions from {}", sessions.size(), sessionPath.toAbsolutePath());
+        }
+
+        if (sessionTtl > 0 && sweepInterval > 0) {
+            sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "upload-session-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sweeper.scheduleWithFixedDelay(this::sweepQuietly, sweepInterval, sweepInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    /**
+     * ttl 동안 데이터가 오지 않은 세션을 취소하고, 상태 파일 없이 남은 오래된 부분 파일을 삭제한다.
+     * 이어 쓰기 중인 세션은 건너뛴다. 삭제한 세션 수를 반환
+     */
+    public int sweepExpired() throws IOException {
+        long expiredBefore = System.currentTimeMillis() - sessionTtl;
+        int expired = 0;
+        for (UploadSession session : sessions.values()) {
+            if (session.getLastActivity() >= expiredBefore) {
+                continue;
+            }
+            synchronized (session) {
+                if (session.isAppending() || session.getLastActivity() >= expiredBefore
+                        || sessions.get(session.getId()) != session) {
+                    continue;
+                }
+                abort(session);
+                expired++;
+            }
+        }
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(Paths.get(sessionDirectory), "*" + PART_SUFFIX)) {
+            for (Path part : stream) {
+                String name = part.getFileName().toString();
+                String id = name.substring(0, name.length() - PART_SUFFIX.length());
+                if (!sessions.containsKey(id) && !Files.exists(stateFile(id))
+                        && Files.getLastModifiedTime(part).toMillis() < expiredBefore) {
+                    Files.deleteIfExists(part);
+                    expired++;
+                }
+            }
+        }
+        if (expired > 0) {
+            logger.info("Expired {} idle upload sessions", expired);
+        }
+        return expired;
+    }
+
+    private void sweepQuietly() {
+        try {
+            sweepExpired();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Upload session sweep failed", e);
+        }
+    }
+
+    /**
+     * 새 업로드 세션 생성
+     */
+    public UploadSession createSession(String filename, long totalSize) throws IOException {
+        return createSession(filename, totalSize, 0L);
+    }
+
+    /**
+     * 새 업로드 세션 생성. segmentSize 가 0 보다 크면 전체 크기만큼 파일을 미리 할당한 분할 세션을 만든다.
+     */
+    public UploadSession createSession(String filename, long totalSize, long segmentSize) throws IOException {
+        if (!FileStorageService.isStorableName(filename)) {
+            throw new IllegalArgumentException("Invalid filename: " + filename);
+        }
+        if (totalSize < 0 && totalSize != UploadSession.UNKNOWN_SIZE) {
+            throw new IllegalArgumentException("Invalid upload size: " + totalSize);
+        }
+        if (segmentSize < 0) {
+            throw new IllegalArgumentException("Invalid segment size: " + segmentSize);
+        }
+        if (segmentSize > 0 && totalSize == UploadSession.UNKNOWN_SIZE) {
+            throw new IllegalArgumentException("Segmented upload requires the total size");
+        }
+
+        String id = UUID.randomUUID().toString().replace("-", "");
+        UploadSession session = new UploadSession(id, filename, totalSize, System.currentTimeMillis(), 0L,
+                Math.max(segmentSize, 0L), new BitSet());
+
+        Files.createDirectories(Paths.get(sessionDirectory));
+        Files.deleteIfExists(partFile(id));
+        Files.createFile(partFile(id));
+        if (session.isSegmented()) {
+            // 구간별 위치 기록을 위해 전체 크기 선할당
+            try (RandomAccessFile file = new RandomAccessFile(partFile(id).toFile(), "rw")) {
+                file.setLength(totalSize);
+            }
+        }
+        saveSession(session);
+
+        sessions.put(id, session);
+        logger.info("Created upload session {} for file: {} ({} bytes)", id, filename, totalSize);
+        return session;
+    }
+
+    public UploadSession getSession(String sessionId) {
+        return sessions.get(sessionId);
+    }
+
+    /**
+     * 확정 오프셋 위치부터 스트림 데이터를 이어서 기록한다.
+     * 잠금은 오프셋 확인과 쓰기 권한 획득에만 사용하고 본문은 잠금 밖에서 받으므로,
+     * 같은 세션에 동시에 들어온 다른 요청은 기다리지 않고 바로 충돌(409)로 거절된다.
+     * 전송 도중 연결이 끊겨도 이미 수신된 바이트는 확정 오프셋에 반영되어 다음 요청에서 재개할 수 있다.
+     */
+    public long append(UploadSession session, long offset, InputStream inputStream) throws IOException {
+        if (session.isSegmented()) {
+            throw new UploadSessionConflictException("Segmented session accepts segment writes only", session.getOffset());
+        }
+        synchronized (session) {
+            if (sessions.get(session.getId()) != session) {
+                throw new UploadSessionConflictException("Upload session is no longer active", session.getOffset());
+            }
+            if (session.isAppending()) {
+                throw new UploadSessionConflictException("Another append is in progress", session.getOffset());
+            }
+            if (offset != session.getOffset()) {
+                throw new UploadSessionConflictException(
+                        "Offset mismatch: expected " + session.getOffset() + " but got " + offset, session.getOffset());
+            }
+            session.setAppending(true);
+        }
+
+        long position = offset;
+        try {
+            ByteBuffer buffer = bufferPool.acquire(bufferSize);
+            try (FileChannel channel = FileChannel.open(partFile(session.getId()), StandardOpenOption.WRITE)) {
+                int bytesRead;
+                try {
+                    while ((bytesRead = StreamBuffers.read(inputStream, buffer)) != -1) {
+                        if (session.getTotalSize() != UploadSession.UNKNOWN_SIZE
+                                && position + bytesRead > session.getTotalSize()) {
+                            throw new UploadSessionSizeExceededException(
+                                    "Upload exceeds declared size of " + session.getTotalSize() + " bytes", position);
+                        }
+                        buffer.flip();
+                        while (buffer.hasRemaining()) {
+                            position += channel.write(buffer, position);
+                        }
+                        buffer.clear();
+                        session.setLastActivity(System.currentTimeMillis());
+                    }
+                } finally {
+                    // 수신된 만큼은 디스크에 반영
+                    channel.force(false);
+                }
+            } finally {
+                bufferPool.release(buffer);
+            }
+            return position;
+        } finally {
+            // 오프셋 확정 후 쓰기 권한 반납
+            synchronized (session) {
+                session.setOffset(position);
+                session.setAppending(false);
+            }
+        }
+    }
+
+    /**
+     * 분할 세션의 index 번째 구간을 해당 오프셋에 위치 기록(positional write)한다.
+     * 서로 다른 구간은 동시에 기록될 수 있으며, 이 구간으로 모든 구간이 채워지면
+     * 세션을 완료하고 최종 파일 경로를, 아니면 null 을 반환한다.
+     */
+    public Path writeSegment(UploadSession session, int index, InputStream inputStream) throws IOException {
+        if (!session.isSegmented()) {
+            throw new UploadSessionConflictException("Session is not segmented", session.getOffset());
+        }
+        if (index < 0 || index >= session.getSegmentCount()) {
+            throw new IllegalArgumentException("Segment index out of range: " + index);
+        }
+
+        long segmentStart = session.segmentOffset(index);
+        long segmentLength = session.segmentLength(index);
+        long written = 0;
+
+        // FileChannel 의 위치 지정 쓰기는 채널 위치를 바꾸지 않으므로 구간별 채널을 병렬로 사용 가능
+        ByteBuffer buffer = bufferPool.acquire(bufferSize);
+        try (FileChannel channel = FileChannel.open(partFile(session.getId()), StandardOpenOption.WRITE)) {
+            int bytesRead;
+            while ((bytesRead = StreamBuffers.read(inputStream, buffer)) != -1) {
+                if (written + bytesRead > segmentLength) {
+                    throw new IllegalArgumentException("Segment " + index + " exceeds its length of " + segmentLength + " bytes");
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    written += channel.write(buffer, segmentStart + written);
+                }
+                buffer.clear();
+                session.setLastActivity(System.currentTimeMillis());
+            }
+            if (written != segmentLength) {
+                throw new IOException("Segment " + index + " incomplete: " + written + "/" + segmentLength + " bytes");
+            }
+            channel.force(false);
+        } finally {
+            bufferPool.release(buffer);
+        }
+
+        synchronized (session) {
+            BitSet completed = session.getCompletedSegments();
+            if (completed.get(index)) {
+                return null;
+            }
+            completed.set(index);
+            session.setOffset(session.getOffset() + segmentLength);
+            if (completed.cardinality() == session.getSegmentCount()) {
+                return complete(session);
+            }
+            saveSession(session);
+            return null;
+        }
+    }
+
+    /**
+     * 업로드를 완료하고 부분 파일을 최종 위치로 이동
+     */
+    public Path complete(UploadSession session) throws IOException {
+        synchronized (session) {
+            if (session.isAppending()) {
+                throw new UploadSessionConflictException("Another append is in progress", session.getOffset());
+            }
+            if (session.getTotalSize() != UploadSession.UNKNOWN_SIZE && session.getOffset() != session.getTotalSize()) {
+                throw new UploadSessionConflictException(
+                        "Upload incomplete: " + session.getOffset() + "/" + session.getTotalSize() + " bytes",
+                        session.getOffset());
+            }
+
+            Path target = storageService.commit(partFile(session.getId()), session.getFilename());
+            Files.deleteIfExists(stateFile(session.getId()));
+            sessions.remove(session.getId());
+
+            logger.info("Completed upload session {}: {} ({} bytes)", session.getId(), target, session.getOffset());
+            return target;
+        }
+    }
+
+    /**
+     * 업로드 세션 취소 및 부분 데이터 삭제
+     */
+    public void abort(UploadSession session) throws IOException {
+        synchronized (session) {
+            if (session.isAppending()) {
+                throw new UploadSessionConflictException("Another append is in progress", session.getOffset());
+            }
+            sessions.remove(session.getId());
+            Files.deleteIfExists(partFile(session.getId()));
+            Files.deleteIfExists(stateFile(session.getId()));
+            logger.info("Aborted upload session {}", session.getId());
+        }
+    }
+
+    private void moveIntoPlace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // 원자적 이동이 지원되지 않는 파일 시스템
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private UploadSession loadSession(Path stateFile) throws IOException {
+        Properties state = new Properties();
+        try (InputStream input = Files.newInputStream(stateFile)) {
+            state.load(input);
+        }
+
+        String id = state.getProperty("id");
+        String filename = state.getProperty("filename");
+        long totalSize = Long.parseLong(state.getProperty("totalSize", String.valueOf(UploadSession.UNKNOWN_SIZE)));
+        long createdAt = Long.parseLong(state.getProperty("createdAt", "0"));
+        long segmentSize = Long.parseLong(state.getProperty("segmentSize", "0"));
+        Path part = partFile(id);
+
+        if (segmentSize > 0) {
+            // 분할 세션은 상태 파일에 기록된 완료 구간만 신뢰
+            BitSet completed = new BitSet();
+            for (String index : state.getProperty("segments", "").split(",")) {
+                if (!index.isEmpty()) {
+                    completed.set(Integer.parseInt(index));
+                }
+            }
+            UploadSession session = new UploadSession(id, filename, totalSize, createdAt, 0L, segmentSize, completed);
+            long offset = 0;
+            for (int index = completed.nextSetBit(0); index >= 0; index = completed.nextSetBit(index + 1)) {
+                offset += session.segmentLength(index);
+            }
+            session.setOffset(offset);
+            session.setLastActivity(Math.max(createdAt, Files.getLastModifiedTime(stateFile).toMillis()));
+            return session;
+        }
+
+        if (!Files.exists(part)) {
+            Files.createFile(part);
+        }
+
+        // 확정 오프셋은 실제로 디스크에 남아 있는 부분 파일 크기
+        UploadSession session = new UploadSession(id, filename, totalSize, createdAt, Files.size(part));
+        session.setLastActivity(Math.max(createdAt, Files.getLastModifiedTime(part).toMillis()));
+        return session;
+    }
+
+    private void saveSession(UploadSession session) throws IOException {
+        Properties state = new Properties();
+        state.setProperty("id", session.getId());
+        state.setProperty("filename", session.getFilename());
+        state.setProperty("totalSize", String.valueOf(session.getTotalSize()));
+        state.setProperty("createdAt", String.valueOf(session.getCreatedAt()));
+        if (session.isSegmented()) {
+            StringBuilder segments = new StringBuilder();
+            BitSet completed = session.getCompletedSegments();
+            for (int index = completed.nextSetBit(0); index >= 0; index = completed.nextSetBit(index + 1)) {
+                if (segments.length() > 0) {
+                    segments.append(',');
+                }
+                segments.append(index);
+            }
+            state.setProperty("segmentSize", String.valueOf(session.getSegmentSize()));
+            state.setProperty("segments", segments.toString());
+        }
+
+        Path stateFile = stateFile(session.getId());
+        Path tempFile = stateFile.resolveSibling(stateFile.getFileName() + ".tmp");
+        try (OutputStream output = Files.newOutputStream(tempFile)) {
+            state.store(output, "Upload session state");
+        }
+        moveIntoPlace(tempFile, stateFile);
+    }
+
+    private Path stateFile(String sessionId) {
+        return Paths.get(sessionDirectory).resolve(sessionId + STATE_SUFFIX);
+    }
+
+    private Path partFile(String sessionId) {
+        return Paths.get(sessionDirectory).resolve(sessionId + PART_SUFFIX);
+    }
+}
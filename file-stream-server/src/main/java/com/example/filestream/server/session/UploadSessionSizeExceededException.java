@@ -0,0 +1,18 @@
+package com.example.filestream.server.session;
+
+/**
+ * 세션에 선언된 전체 크기를 넘는 데이터가 도착했을 때 발생 (확정 오프셋은 넘기 전까지 기록된 위치)
+ */
+public class UploadSessionSizeExceededException extends RuntimeException {
+
+    private final long currentOffset;
+
+    public UploadSessionSizeExceededException(String message, long currentOffset) {
+        super(message);
+        this.currentOffset = currentOffset;
+    }
+
+    public long getCurrentOffset() {
+        return currentOffset;
+    }
+}
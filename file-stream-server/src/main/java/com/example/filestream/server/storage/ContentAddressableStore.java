@@ -0,0 +1,194 @@
+package com.example.filestream.server.storage;
+
+import com.example.filestream.common.buffer.DirectBufferPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * 내용 주소 기반(content-addressable) 저장소.
+ * 파일 내용은 SHA-256 값을 이름으로 하는 blob 으로 한 번만 저장하고 ({upload}/.blobs/ab/abcd...),
+ * 파일명 -> SHA-256 매핑은 추가 전용 로그({upload}/.blobs/names.log)에 기록해 시작 시 메모리로 복구한다.
+ */
+@Component
+public class ContentAddressableStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentAddressableStore.class);
+
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+    private static final String BLOB_DIRECTORY = ".blobs";
+    private static final String NAME_LOG = "names.log";
+
+    @Value("${file.upload.directory:./uploads}")
+    private String uploadDirectory;
+
+    @Value("${file.stream.buffer.size:8192}")
+    private int bufferSize;
+
+    // none 이 아니면 파일명 매핑도 기록 즉시 디스크에 반영
+    @Value("${file.storage.durability:none}")
+    private String durability;
+
+    private final DirectBufferPool bufferPool;
+
+    private final Map<String, String> names = new ConcurrentHashMap<>();
+
+    public ContentAddressableStore(DirectBufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+    }
+
+    @PostConstruct
+    public void loadNameIndex() throws IOException {
+        Path nameLog = blobRoot().resolve(NAME_LOG);
+        if (!Files.exists(nameLog)) {
+            return;
+        }
+
+        // 같은 파일명이 여러 번 기록된 경우 마지막 기록이 유효
+        try (BufferedReader reader = Files.newBufferedReader(nameLog, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf(' ');
+                if (separator == 64 && isValidDigest(line.substring(0, separator))) {
+                    names.put(line.substring(separator + 1), line.substring(0, separator));
+                }
+            }
+        }
+        logger.info("Loaded {} content-addressed file names", names.size());
+    }
+
+    /**
+     * 이름 로그는 한 줄에 "sha256 파일명" 이므로 줄바꿈이 들어간 이름은 기록할 수 없음
+     */
+    public static boolean isValidName(String filename) {
+        return filename != null && !filename.isEmpty() && filename.indexOf('\n') < 0 && filename.indexOf('\r') < 0;
+    }
+
+    public static boolean isValidDigest(String sha256) {
+        return sha256 != null && SHA256_HEX.matcher(sha256).matches();
+    }
+
+    /**
+     * blob 경로 ({upload}/.blobs/{앞 2자리}/{sha256})
+     */
+    public Path blobPath(String sha256) {
+        if (!isValidDigest(sha256)) {
+            throw new IllegalArgumentException("Invalid SHA-256 digest: " + sha256);
+        }
+        return blobRoot().resolve(sha256.substring(0, 2)).resolve(sha256);
+    }
+
+    public boolean contains(String sha256) {
+        return isValidDigest(sha256) && Files.isRegularFile(blobPath(sha256));
+    }
+
+    /**
+     * 기록이 끝난 파일을 blob 으로 저장. 같은 내용이 이미 있으면 새 사본은 버린다.
+     */
+    public Path store(Path source, String sha256) throws IOException {
+        Path blob = blobPath(sha256);
+        if (Files.exists(blob)) {
+            Files.deleteIfExists(source);
+            logger.info("Deduplicated content {}", sha256);
+            return blob;
+        }
+
+        Files.createDirectories(blob.getParent());
+        try {
+            Files.move(source, blob, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            if (Files.exists(blob)) {
+                // 같은 내용이 동시에 업로드된 경우
+                Files.deleteIfExists(source);
+            } else {
+                Files.move(source, blob, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        return blob;
+    }
+
+    /**
+     * 파일명을 blob 에 연결
+     */
+    public synchronized void bind(String filename, String sha256) throws IOException {
+        if (!isValidName(filename)) {
+            throw new IllegalArgumentException("Invalid file name for content-addressed storage: " + filename);
+        }
+        Path nameLog = blobRoot().resolve(NAME_LOG);
+        Files.createDirectories(nameLog.getParent());
+        StandardOpenOption[] options = DurabilityManager.POLICY_NONE.equals(durability)
+                ? new StandardOpenOption[]{StandardOpenOption.CREATE, StandardOpenOption.APPEND}
+                : new StandardOpenOption[]{StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC};
+        try (BufferedWriter writer = Files.newBufferedWriter(nameLog, StandardCharsets.UTF_8, options)) {
+            writer.write(sha256);
+            writer.write(' ');
+            writer.write(filename);
+            writer.newLine();
+        }
+        names.put(filename, sha256);
+    }
+
+    /**
+     * 파일명에 연결된 SHA-256 (없으면 null)
+     */
+    public String lookup(String filename) {
+        return names.get(filename);
+    }
+
+    /**
+     * 파일명 -> SHA-256 매핑 전체 (목록 조회용 사본)
+     */
+    public Map<String, String> names() {
+        return new HashMap<>(names);
+    }
+
+    /**
+     * 업로드 중 체크섬을 계산하지 않은 파일(세션 업로드 등)의 SHA-256 계산
+     */
+    public String digest(Path file) throws IOException {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            ByteBuffer buffer = bufferPool.acquire(bufferSize);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                while (channel.read(buffer) != -1) {
+                    buffer.flip();
+                    sha256.update(buffer);
+                    buffer.clear();
+                }
+            } finally {
+                bufferPool.release(buffer);
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : sha256.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private Path blobRoot() {
+        return Paths.get(uploadDirectory).resolve(BLOB_DIRECTORY);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.filestream.server.storage;
+
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * /actuator/info 에 내구성 정책과 커밋 지연 시간 통계 노출
+ */
+@Component
+public class DurabilityInfoContributor implements InfoContributor {
+
+    private final DurabilityManager durabilityManager;
+
+    public DurabilityInfoContributor(DurabilityManager durabilityManager) {
+        this.durabilityManager = durabilityManager;
+    }
+
+    @Override
+    public void contribute(Info.Builder builder) {
+        Map<String, Object> durability = new LinkedHashMap<>();
+        durability.put("policy", durabilityManager.getPolicy());
+        durability.put("commits", durabilityManager.getCommitCount());
+        durability.put("avgCommitMs", Math.round(durabilityManager.getAverageCommitMillis() * 100) / 100.0);
+        durability.put("maxCommitMs", Math.round(durabilityManager.getMaxCommitMillis() * 100) / 100.0);
+        if (DurabilityManager.POLICY_GROUP.equals(durabilityManager.getPolicy())) {
+            durability.put("batches", durabilityManager.getBatchCount());
+        }
+        builder.withDetail("durability", durability);
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.filestream.server.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 업로드 완료 시점의 내구성 정책 (file.storage.durability)
+ * - none: fsync 없이 이동만 (OS 페이지 캐시에 의존)
+ * - fsync: 업로드마다 파일 데이터 force -> 최종 위치로 이동 -> 디렉토리 force
+ * - group: 짧은 시간(window) 안에 끝난 업로드를 모아 한 번에 force / 이동 / 디렉토리 force 후 응답
+ *
+ * 어느 정책이든 파일 데이터를 먼저 디스크에 내린 뒤 최종 이름으로 이동하므로,
+ * 장애 후에도 최종 위치에 일부만 기록된 파일이 나타나지 않는다.
+ * 그룹 커밋은 최대 timeout 동안만 기다리며, 종료된 뒤에 들어온 커밋은 바로 실패한다.
+ */
+@Component
+public class DurabilityManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(DurabilityManager.class);
+
+    public static final String POLICY_NONE = "none";
+    public static final String POLICY_FSYNC = "fsync";
+    public static final String POLICY_GROUP = "group";
+
+    /**
+     * 스테이징 파일을 최종 위치에 반영하는 동작 (반영된 경로 반환)
+     */
+    public interface CommitAction {
+        Path apply() throws IOException;
+    }
+
+    @Value("${file.storage.durability:none}")
+    private String policy;
+
+    // 그룹 커밋 대기 시간 (첫 요청 도착 후 이 시간 동안 들어온 요청을 함께 처리)
+    @Value("${file.storage.group.commit.window:5}")
+    private long groupCommitWindowMs;
+
+    @Value("${file.storage.group.commit.max.batch:256}")
+    private int groupCommitMaxBatch;
+
+    // 그룹 커밋 완료를 기다리는 최대 시간 (fsync 가 멈춘 경우 요청 스레드가 무한히 묶이지 않도록)
+    @Value("${file.storage.group.commit.timeout:30000}")
+    private long groupCommitTimeoutMs;
+
+    private final BlockingQueue<PendingCommit> pendingCommits = new LinkedBlockingQueue<>();
+    private Thread groupCommitThread;
+    private volatile boolean running;
+
+    // 정책별 지연 시간 통계 (커밋 요청부터 내구성 확보까지)
+    private final AtomicLong commitCount = new AtomicLong();
+    private final AtomicLong commitNanos = new AtomicLong();
+    private final AtomicLong maxCommitNanos = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        if (!POLICY_NONE.equals(policy) && !POLICY_FSYNC.equals(policy) && !POLICY_GROUP.equals(policy)) {
+            throw new IllegalStateException("Unknown durability policy: " + policy);
+        }
+        if (POLICY_GROUP.equals(policy)) {
+            running = true;
+            groupCommitThread = new Thread(this::runGroupCommits, "durability-group-commit");
+            groupCommitThread.setDaemon(true);
+            groupCommitThread.start();
+        }
+        logger.info("Durability policy: {}", policy);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (groupCommitThread != null) {
+            groupCommitThread.interrupt();
+            groupCommitThread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    public String getPolicy() {
+        return policy;
+    }
+
+    /**
+     * 정책에 따라 source 를 디스크에 내린 뒤 action 으로 최종 위치에 반영하고,
+     * 반영된 경로의 디렉토리까지 내구성이 확보되면 반환한다.
+     */
+    public Path commit(Path source, CommitAction action) throws IOException {
+        long startTime = System.nanoTime();
+        Path committed;
+        if (POLICY_GROUP.equals(policy)) {
+            committed = awaitGroupCommit(source, action);
+        } else if (POLICY_FSYNC.equals(policy)) {
+            forceFile(source);
+            committed = action.apply();
+            forceDirectory(committed.getParent());
+        } else {
+            committed = action.apply();
+        }
+        recordLatency(System.nanoTime() - startTime);
+        return committed;
+    }
+
+    public long getCommitCount() {
+        return commitCount.get();
+    }
+
+    public double getAverageCommitMillis() {
+        long count = commitCount.get();
+        return count > 0 ? commitNanos.get() / (double) count / 1_000_000.0 : 0.0;
+    }
+
+    public double getMaxCommitMillis() {
+        return maxCommitNanos.get() / 1_000_000.0;
+    }
+
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    private Path awaitGroupCommit(Path source, CommitAction action) throws IOException {
+        if (!running) {
+            throw new IOException("Durability manager is stopped");
+        }
+        PendingCommit pending = new PendingCommit(source, action);
+        pendingCommits.add(pending);
+        if (!running) {
+            // 종료 중 남은 요청 처리가 이미 끝났을 수 있으므로 아직 처리되지 않았으면 취소
+            pending.result.completeExceptionally(new IOException("Durability manager is stopped"));
+        }
+        try {
+            return pending.result.get(groupCommitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // 아직 반영 전이면 배치에서 건너뛰도록 실패로 완료 (그 사이 반영이 끝났으면 그 결과를 사용)
+            if (pending.result.completeExceptionally(
+                    new IOException("Group commit timed out after " + groupCommitTimeoutMs + " ms"))) {
+                logger.warn("Group commit timed out after {} ms: {}", groupCommitTimeoutMs, source);
+            }
+            return awaitCompleted(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for group commit");
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static Path awaitCompleted(PendingCommit pending) throws IOException {
+        try {
+            return pending.result.getNow(null);
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Group commit failed", cause);
+        }
+    }
+
+    private static IOException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        return cause instanceof IOException ? (IOException) cause : new IOException("Group commit failed", cause);
+    }
+
+    private void runGroupCommits() {
+        List<PendingCommit> batch = new ArrayList<>();
+        while (running) {
+            try {
+                // 첫 요청을 기다린 뒤 window 동안 도착한 요청을 함께 처리
+                batch.add(pendingCommits.take());
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(groupCommitWindowMs);
+                while (batch.size() < groupCommitMaxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingCommit next = pendingCommits.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                pendingCommits.drainTo(batch, groupCommitMaxBatch - batch.size());
+                processBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+
+        // 종료 시 남은 요청 처리
+        List<PendingCommit> remaining = new ArrayList<>();
+        pendingCommits.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            processBatch(remaining);
+        }
+    }
+
+    private void processBatch(List<PendingCommit> batch) {
+        long startTime = System.nanoTime();
+
+        // 1. 파일 데이터 force
+        for (PendingCommit pending : batch) {
+            try {
+                forceFile(pending.source);
+            } catch (IOException e) {
+                pending.result.completeExceptionally(e);
+            }
+        }
+
+        // 2. 최종 위치로 반영
+        Set<Path> directories = new LinkedHashSet<>();
+        List<PendingCommit> applied = new ArrayList<>(batch.size());
+        for (PendingCommit pending : batch) {
+            if (pending.result.isDone()) {
+                continue;
+            }
+            try {
+                pending.committed = pending.action.apply();
+                directories.add(pending.committed.getParent());
+                applied.add(pending);
+            } catch (IOException | RuntimeException e) {
+                pending.result.completeExceptionally(e);
+            }
+        }
+
+        // 3. 디렉토리는 배치당 한 번씩 force
+        for (Path directory : directories) {
+            forceDirectory(directory);
+        }
+        for (PendingCommit pending : applied) {
+            pending.result.complete(pending.committed);
+        }
+
+        batchCount.incrementAndGet();
+        logger.debug("Group commit: {} files, {} directories in {} ms",
+                batch.size(), directories.size(), (System.nanoTime() - startTime) / 1_000_000);
+    }
+
+    private static void forceFile(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    private static void forceDirectory(Path directory) {
+        if (directory == null || !Files.isDirectory(directory)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // 디렉토리를 열 수 없는 플랫폼(Windows 등)에서는 생략
+            logger.debug("Directory fsync not supported for {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private void recordLatency(long nanos) {
+        commitCount.incrementAndGet();
+        commitNanos.addAndGet(nanos);
+        long max;
+        while (nanos > (max = maxCommitNanos.get())) {
+            if (maxCommitNanos.compareAndSet(max, nanos)) {
+                break;
+            }
+        }
+    }
+
+    private static class PendingCommit {
+        private final Path source;
+        private final CommitAction action;
+        private final CompletableFuture<Path> result = new CompletableFuture<>();
+        private Path committed;
+
+        PendingCommit(Path source, CommitAction action) {
+            this.source = source;
+            this.action = action;
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package com.example.filestream.server.storage;
+
+import com.example.filestream.common.storage.ShardedLayout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * 업로드 저장소 디렉토리 관리.
+ * 업로드 중인 데이터는 스테이징 디렉토리(.incoming)에 기록하고, 검증이 끝난 뒤 최종 이름으로 이동한다.
+ * 따라서 저장소 최상위에는 완전히 기록된 파일만 나타난다.
+ *
+ * 저장 모드 (file.storage.mode)
+ * - flat: 업로드 디렉토리에 파일명 그대로 저장
+ * - cas: 내용(SHA-256) 기준으로 한 번만 저장하고 파일명은 해시에 매핑 ({@link ContentAddressableStore})
+ *
+ * flat 모드에서 file.storage.packed.enabled=true 이면 threshold 보다 작은 파일은 개별 파일 대신
+ * 세그먼트 파일에 모아 저장한다 ({@link PackedSegmentStore}). 조회, 목록, 삭제는 두 저장 위치를 함께 본다.
+ * 개별 파일의 디렉토리 배치(flat / sharded)는 {@link ShardedLayout} 이 정한다.
+ */
+@Service
+public class FileStorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileStorageService.class);
+
+    private static final String STAGING_DIRECTORY = ".incoming";
+
+    public static final String MODE_FLAT = "flat";
+    public static final String MODE_CAS = "cas";
+
+    @Value("${file.upload.directory:./uploads}")
+    private String uploadDirectory;
+
+    @Value("${file.storage.mode:flat}")
+    private String storageMode;
+
+    private final ContentAddressableStore contentStore;
+
+    private final DurabilityManager durabilityManager;
+
+    private final PackedSegmentStore packedStore;
+
+    private final ShardedLayout shardedLayout;
+
+    public FileStorageService(ContentAddressableStore contentStore, DurabilityManager durabilityManager,
+                              PackedSegmentStore packedStore, ShardedLayout shardedLayout) {
+        this.contentStore = contentStore;
+        this.durabilityManager = durabilityManager;
+        this.packedStore = packedStore;
+        this.shardedLayout = shardedLayout;
+    }
+
+    public String getDurabilityPolicy() {
+        return durabilityManager.getPolicy();
+    }
+
+    public boolean isContentAddressed() {
+        return MODE_CAS.equals(storageMode);
+    }
+
+    /**
+     * 업로드 디렉토리 (없으면 생성)
+     */
+    public Path getUploadPath() throws IOException {
+        Path uploadPath = Paths.get(uploadDirectory);
+        if (!Files.exists(uploadPath)) {
+            Files.createDirectories(uploadPath);
+            logger.info("Created upload directory: {}", uploadPath.toAbsolutePath());
+        }
+        return uploadPath;
+    }
+
+    /**
+     * 저장된 파일 경로 (cas 모드에서 알 수 없는 파일명이면 null)
+     */
+    public Path resolve(String filename) throws IOException {
+        if (isContentAddressed()) {
+            String sha256 = contentStore.lookup(filename);
+            return sha256 != null ? contentStore.blobPath(sha256) : null;
+        }
+        Path existing = shardedLayout.find(filename);
+        return existing != null ? existing : shardedLayout.locate(filename);
+    }
+
+    /**
+     * 다운로드 가능한(완전히 기록된) 파일 경로.
+     * 없는 파일, 정규화되지 않았거나 내부 디렉토리(.incoming, .sessions, .blobs)나 상위 경로를 가리키는 이름이면 null
+     */
+    public Path resolveCommitted(String filename) throws IOException {
+        if (!isStorableName(filename)) {
+            return null;
+        }
+        Path file = resolve(filename);
+        return file != null && Files.isRegularFile(file) ? file : null;
+    }
+
+    /**
+     * 세그먼트에 저장된 작은 파일 (packed 저장을 쓰지 않거나 없는 파일이면 null)
+     */
+    public PackedSegmentStore.PackedFile resolvePacked(String filename) {
+        if (isContentAddressed() || !isStorableName(filename)) {
+            return null;
+        }
+        return packedStore.lookup(filename);
+    }
+
+    /**
+     * 세그먼트에 저장된 파일 내용 (조회 이후 덮어쓰였거나 삭제되었으면 null)
+     */
+    public byte[] readPacked(PackedSegmentStore.PackedFile file) throws IOException {
+        return packedStore.read(file);
+    }
+
+    /**
+     * 업로드 파일명으로 쓸 수 있는지 (비어 있지 않고 제어 문자가 없음).
+     * 줄바꿈 등이 들어간 이름은 cas 이름 로그를 깨뜨리거나 가짜 매핑을 끼워 넣을 수 있으므로 모든 모드에서 거절
+     */
+    public static boolean isValidFilename(String filename) {
+        if (filename == null || filename.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < filename.length(); i++) {
+            char c = filename.charAt(i);
+            if (c < 0x20 || c == 0x7f) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 번들 항목이나 디렉토리 업로드 경로를 저장소 상대 경로로 정규화 ('\\' 는 '/' 로, 빈 segment 와 '.' 는 제거).
+     * 절대 경로, '..' 를 포함하거나 '.' 으로 시작하는 segment(내부 디렉토리 .incoming, .sessions, .blobs 등과
+     * 목록에서 제외되는 숨김 경로)가 있거나 서버 파일 시스템에서 쓸 수 없는 이름(제어 문자, 파일명 인코딩으로
+     * 표현할 수 없는 문자 등)이면 null
+     */
+    public static String normalizeRelativePath(String name) {
+        if (name == null || name.isEmpty() || name.startsWith("/") || name.startsWith("\\") || !isValidFilename(name)) {
+            return null;
+        }
+        StringBuilder normalized = new StringBuilder();
+        for (String segment : name.replace('\\', '/').split("/")) {
+            if (segment.isEmpty() || segment.equals(".")) {
+                continue;
+            }
+            if (segment.startsWith(".") || segment.indexOf(':') >= 0) {
+                return null;
+            }
+            if (normalized.length() > 0) {
+                normalized.append('/');
+            }
+            normalized.append(segment);
+        }
+        if (normalized.length() == 0) {
+            return null;
+        }
+        try {
+            Paths.get(normalized.toString());
+        } catch (InvalidPathException e) {
+            return null;
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * 저장/조회/삭제할 수 있는 이름인지 (이미 정규화된 상대 경로, 예: dir/file.txt).
+     * '..' 나 내부 디렉토리(.incoming, .sessions 등)를 가리키는 이름으로 업로드 디렉토리 밖이나 내부 상태에 쓰지 못하게 함
+     */
+    public static boolean isStorableName(String filename) {
+        return filename.equals(normalizeRelativePath(filename));
+    }
+
+    /**
+     * 파일명에 연결된 내용 해시 (cas 모드가 아니거나 알 수 없으면 null)
+     */
+    public String contentHash(String filename) {
+        return isContentAddressed() ? contentStore.lookup(filename) : null;
+    }
+
+    /**
+     * 해당 내용이 이미 저장되어 있는지 확인 (cas 모드에서만 의미가 있음)
+     */
+    public boolean containsContent(String sha256) {
+        return isContentAddressed() && contentStore.contains(sha256);
+    }
+
+    /**
+     * 내용 해시에 해당하는 blob 경로
+     */
+    public Path blobPath(String sha256) {
+        return contentStore.blobPath(sha256);
+    }
+
+    /**
+     * 이미 저장된 내용에 새 파일명을 연결 (전송 생략). 내용이 없으면 null
+     */
+    public Path link(String filename, String sha256) throws IOException {
+        if (!isStorableName(filename)) {
+            throw new IllegalArgumentException("Invalid filename: " + filename);
+        }
+        if (!containsContent(sha256)) {
+            return null;
+        }
+        contentStore.bind(filename, sha256);
+        logger.info("Linked {} to existing content {}", filename, sha256);
+        return contentStore.blobPath(sha256);
+    }
+
+    /**
+     * 업로드 데이터를 기록할 스테이징 파일 경로 (동일 파일명 동시 업로드 간 충돌 방지를 위해 고유 이름 사용)
+     */
+    public Path createStagingFile(String filename) throws IOException {
+        if (!isStorableName(filename)) {
+            throw new IllegalArgumentException("Invalid filename: " + filename);
+        }
+        Path stagingPath = getUploadPath().resolve(STAGING_DIRECTORY);
+        Files.createDirectories(stagingPath);
+        return stagingPath.resolve(UUID.randomUUID().toString().replace("-", "") + ".uploading");
+    }
+
+    /**
+     * 기록이 끝난 파일을 최종 이름으로 이동 (같은 파일 시스템 내 원자적 이동)
+     */
+    public Path commit(Path source, String filename) throws IOException {
+        return commit(source, filename, null);
+    }
+
+    /**
+     * 기록이 끝난 파일을 저장소에 반영. cas 모드에서는 sha256 을 키로 저장하며,
+     * 업로드 중 계산된 값이 없으면(null) 파일을 읽어 계산한다.
+     * 내구성 정책(file.storage.durability)에 따라 디스크 반영이 끝난 뒤 반환된다.
+     */
+    public Path commit(Path source, String filename, String sha256) throws IOException {
+        if (isContentAddressed()) {
+            String digest = sha256 != null ? sha256 : contentStore.digest(source);
+            return durabilityManager.commit(source, () -> {
+                Path blob = contentStore.store(source, digest);
+                contentStore.bind(filename, digest);
+                return blob;
+            });
+        }
+
+        if (packedStore.isEnabled() && packedStore.accepts(Files.size(source))) {
+            Path segment = commitPacked(filename, Files.readAllBytes(source));
+            discard(source);
+            return segment;
+        }
+
+        getUploadPath();
+        // 샤드 디렉토리나 번들 항목처럼 하위 경로가 있는 이름은 디렉토리를 먼저 생성
+        Path target = shardedLayout.prepare(filename);
+        Path committed = durabilityManager.commit(source, () -> {
+            try {
+                Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                // 원자적 이동이 지원되지 않는 파일 시스템
+                Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return target;
+        });
+        // 이전에 세그먼트에 저장된 같은 이름의 작은 파일과 배치 이동 전 위치의 파일 제거
+        packedStore.delete(filename);
+        shardedLayout.removeStale(filename);
+        return committed;
+    }
+
+    /**
+     * flat 모드에서 세그먼트 저장 대상 크기인지 (번들 항목처럼 크기를 미리 알면 스테이징 파일 없이 저장)
+     */
+    public boolean acceptsPacked(long size) {
+        return !isContentAddressed() && packedStore.accepts(size);
+    }
+
+    /**
+     * 작은 파일을 세그먼트에 저장하고 같은 이름의 개별 파일은 제거. 레코드가 들어 있는 세그먼트 경로 반환
+     */
+    public Path commitPacked(String filename, byte[] data) throws IOException {
+        PackedSegmentStore.PackedFile stored = packedStore.put(filename, data, data.length);
+        Files.deleteIfExists(shardedLayout.locate(filename));
+        shardedLayout.removeStale(filename);
+        return packedStore.segmentPath(stored);
+    }
+
+    /**
+     * 저장된 파일 목록 (이름순). 내부 디렉토리는 제외하며 storage 는 flat, sharded, packed, cas 중 하나
+     */
+    public List<Map<String, Object>> list() throws IOException {
+        List<Map<String, Object>> files = new ArrayList<>();
+        if (isContentAddressed()) {
+            for (Map.Entry<String, String> entry : contentStore.names().entrySet()) {
+                Path blob = contentStore.blobPath(entry.getValue());
+                if (Files.isRegularFile(blob)) {
+                    files.add(fileInfo(entry.getKey(), Files.size(blob),
+                            Files.getLastModifiedTime(blob).toMillis(), MODE_CAS));
+                }
+            }
+        } else {
+            // sharded 배치에서도 이동하지 않은 flat 파일이 남아 있을 수 있음
+            Path uploadPath = getUploadPath();
+            collectFiles(uploadPath, true, path -> uploadPath.relativize(path).toString().startsWith(".")
+                    ? null : uploadPath.relativize(path).toString().replace('\\', '/'), MODE_FLAT, files);
+            if (shardedLayout.isSharded()) {
+                collectFiles(shardedLayout.getShardRoot(), false, shardedLayout::nameOf,
+                        ShardedLayout.LAYOUT_SHARDED, files);
+            }
+            for (PackedSegmentStore.PackedFile packed : packedStore.files()) {
+                files.add(fileInfo(packed.getName(), packed.getSize(), packed.getLastModified(), "packed"));
+            }
+        }
+        files.sort(Comparator.comparing(file -> (String) file.get("name")));
+        return files;
+    }
+
+    /**
+     * base 아래의 파일을 목록에 추가 (naming 이 null 을 반환하는 파일은 제외).
+     * skipInternal 이면 내부 디렉토리('.' 으로 시작)는 들어가지 않음
+     */
+    private void collectFiles(Path base, boolean skipInternal, Function<Path, String> naming, String storage,
+                              List<Map<String, Object>> files) throws IOException {
+        if (!Files.isDirectory(base)) {
+            return;
+        }
+        Files.walkFileTree(base, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                return skipInternal && !dir.equals(base) && dir.getFileName().toString().startsWith(".")
+                        ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                String name = naming.apply(file);
+                if (attrs.isRegularFile() && name != null) {
+                    files.add(fileInfo(name, attrs.size(), attrs.lastModifiedTime().toMillis(), storage));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                // 목록 작성 중 삭제되거나 옮겨진 파일
+                logger.debug("Skipped {} while listing: {}", file, e.getMessage());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static Map<String, Object> fileInfo(String name, long size, long lastModified, String storage) {
+        Map<String, Object> file = new LinkedHashMap<>();
+        file.put("name", name);
+        file.put("size", size);
+        file.put("lastModified", lastModified);
+        file.put("storage", storage);
+        return file;
+    }
+
+    /**
+     * 파일 삭제 (flat 모드만 지원, 개별 파일과 세그먼트 레코드 모두). 없는 파일이거나 cas 모드이면 false.
+     * cas 모드 여부는 호출하는 쪽에서 isContentAddressed() 로 먼저 확인한다
+     */
+    public boolean delete(String filename) throws IOException {
+        if (isContentAddressed() || !isStorableName(filename)) {
+            return false;
+        }
+        boolean deleted = Files.deleteIfExists(shardedLayout.locate(filename));
+        deleted |= shardedLayout.removeStale(filename);
+        return packedStore.delete(filename) || deleted;
+    }
+
+    /**
+     * 검증 실패 또는 오류로 버려지는 스테이징 파일 삭제
+     */
+    public void discard(Path stagingFile) {
+        try {
+            Files.deleteIfExists(stagingFile);
+        } catch (IOException e) {
+            logger.warn("Failed to delete staging file: {}", stagingFile, e);
+        }
+    }
+}
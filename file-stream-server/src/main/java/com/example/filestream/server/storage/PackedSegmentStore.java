@@ -0,0 +1,732 @@
+package com.example.filestream.server.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * 작은 파일용 세그먼트 저장소 (file.storage.packed.enabled=true).
+ * threshold 보다 작은 파일은 파일 하나씩 만들지 않고 큰 세그먼트 파일({upload}/.segments/segment-00000001.dat)에
+ * 레코드로 이어 붙이며, 파일명 -> (세그먼트, 위치) 색인은 메모리에 둔다. 파일마다 드는 inode, 디렉토리 항목,
+ * 열기/닫기 비용이 없고 읽기는 열어 둔 세그먼트 채널의 위치 지정 읽기 한 번이다.
+ *
+ * <pre>
+ * 레코드  magic(4) type(1) nameLength(4) dataLength(4) lastModified(8) crc32(4) name data
+ * footer  [type(1) nameLength(4) name dataLength(4) lastModified(8) offset(8)]... footerOffset(8) crc32(4) magic(8)
+ * </pre>
+ *
+ * - 세그먼트가 segment.size 에 이르면 레코드 목록(footer)을 끝에 기록해 봉인한다. 시작 시 봉인된 세그먼트는 footer 만 읽어 색인을 복구한다.
+ * - 봉인되지 않은 마지막 세그먼트는 레코드를 처음부터 검증하며 다시 읽고(로그), 기록 중 끊긴 꼬리 레코드는 잘라낸다.
+ * - 삭제는 tombstone 레코드로 기록한다. 덮어쓰기와 삭제로 생긴 빈 공간이 garbage.ratio 이상인 봉인 세그먼트는
+ *   백그라운드 compaction 이 살아 있는 레코드만 활성 세그먼트로 옮긴 뒤 삭제한다.
+ * - tombstone 은 더 오래된 세그먼트의 이전 레코드를 가려야 하므로 빈 공간으로 세지 않고, 가장 오래된 세그먼트에서만
+ *   빈 공간으로 세어 compaction 때 버린다 (옮겨 온 tombstone 때문에 같은 세그먼트를 반복해서 compaction 하지 않음).
+ */
+@Component
+public class PackedSegmentStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(PackedSegmentStore.class);
+
+    public static final String SEGMENT_DIRECTORY = ".segments";
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+    private static final int RECORD_MAGIC = 0x504b5331; // "PKS1"
+    private static final long FOOTER_MAGIC = 0x504b53464f4f5431L; // "PKSFOOT1"
+    private static final byte TYPE_PUT = 1;
+    private static final byte TYPE_DELETE = 2;
+    private static final int HEADER_SIZE = 25;
+    private static final int TRAILER_SIZE = 20;
+    private static final int MAX_NAME_LENGTH = 4096;
+
+    private final Path directory;
+    private final boolean enabled;
+    private final long threshold;
+    private final long segmentSize;
+    private final double compactionGarbageRatio;
+    private final long compactionInterval;
+    private final boolean syncOnWrite;
+
+    private final Map<String, PackedFile> index = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Integer, Segment> segments = new ConcurrentSkipListMap<>();
+    // 읽기는 read lock, compaction 의 세그먼트 삭제는 write lock (읽는 중인 세그먼트를 닫지 않도록)
+    private final ReentrantReadWriteLock segmentLock = new ReentrantReadWriteLock();
+    // 레코드 추가, 세그먼트 봉인, 색인 갱신은 이 잠금 안에서 순서대로 진행
+    private final Object appendLock = new Object();
+    private final Object syncLock = new Object();
+    private final AtomicLong appendSequence = new AtomicLong();
+    private final AtomicLong syncedSequence = new AtomicLong();
+    private final AtomicLong compactions = new AtomicLong();
+    private final AtomicLong reclaimedBytes = new AtomicLong();
+    private volatile Segment active;
+    private ScheduledExecutorService compactor;
+
+    public PackedSegmentStore(@Value("${file.upload.directory:./uploads}") String uploadDirectory,
+                              @Value("${file.storage.packed.enabled:false}") boolean enabled,
+                              @Value("${file.storage.packed.threshold:65536}") long threshold,
+                              @Value("${file.storage.packed.segment.size:268435456}") long segmentSize,
+                              @Value("${file.storage.packed.compaction.garbage.ratio:0.5}") double compactionGarbageRatio,
+                              @Value("${file.storage.packed.compaction.interval:60000}") long compactionInterval,
+                              @Value("${file.storage.durability:none}") String durability) {
+        this.directory = Paths.get(uploadDirectory).resolve(SEGMENT_DIRECTORY);
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.segmentSize = segmentSize;
+        this.compactionGarbageRatio = compactionGarbageRatio;
+        this.compactionInterval = compactionInterval;
+        this.syncOnWrite = !DurabilityManager.POLICY_NONE.equals(durability);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        if (threshold <= 0 || threshold > Integer.MAX_VALUE - HEADER_SIZE - MAX_NAME_LENGTH || threshold > segmentSize) {
+            throw new IllegalStateException("Invalid packed storage threshold: " + threshold);
+        }
+        Files.createDirectories(directory);
+        recover();
+
+        if (compactionInterval > 0) {
+            compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "packed-segment-compactor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            compactor.scheduleWithFixedDelay(this::compactQuietly, compactionInterval, compactionInterval,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (compactor != null) {
+            compactor.shutdownNow();
+        }
+        synchronized (appendLock) {
+            for (Segment segment : segments.values()) {
+                try {
+                    if (segment == active) {
+                        segment.channel.force(false);
+                    }
+                    segment.channel.close();
+                } catch (IOException e) {
+                    logger.warn("Failed to close segment {}", segment.path, e);
+                }
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 세그먼트에 저장할 크기인지 (threshold 미만)
+     */
+    public boolean accepts(long size) {
+        return enabled && size >= 0 && size < threshold;
+    }
+
+    public PackedFile lookup(String name) {
+        return enabled ? index.get(name) : null;
+    }
+
+    public Collection<PackedFile> files() {
+        return new ArrayList<>(index.values());
+    }
+
+    /**
+     * 파일 내용을 활성 세그먼트에 추가하고 색인에 반영 (같은 이름의 이전 레코드는 빈 공간이 됨).
+     * 내구성 정책이 none 이 아니면 세그먼트가 디스크에 반영된 뒤 반환한다.
+     */
+    public PackedFile put(String name, byte[] data, int length) throws IOException {
+        return put(name, data, length, System.currentTimeMillis());
+    }
+
+    private PackedFile put(String name, byte[] data, int length, long lastModified) throws IOException {
+        if (!accepts(length)) {
+            throw new IllegalArgumentException("File too large for packed storage: " + length);
+        }
+        PackedFile stored;
+        Segment segment;
+        long sequence;
+        synchronized (appendLock) {
+            stored = appendLocked(TYPE_PUT, name, data, length, lastModified);
+            segment = active;
+            sequence = appendSequence.get();
+        }
+        sync(segment, sequence);
+        return stored;
+    }
+
+    /**
+     * 삭제 기록(tombstone) 추가. 색인에 없으면 false
+     */
+    public boolean delete(String name) throws IOException {
+        if (!enabled) {
+            return false;
+        }
+        Segment segment;
+        long sequence;
+        synchronized (appendLock) {
+            if (!index.containsKey(name)) {
+                return false;
+            }
+            appendLocked(TYPE_DELETE, name, new byte[0], 0, System.currentTimeMillis());
+            segment = active;
+            sequence = appendSequence.get();
+        }
+        sync(segment, sequence);
+        return true;
+    }
+
+    /**
+     * 저장된 파일 내용. 조회 이후 compaction 으로 옮겨졌으면 새 위치에서 읽고,
+     * 그 사이 덮어쓰였거나 삭제되었으면 null
+     */
+    public byte[] read(PackedFile file) throws IOException {
+        segmentLock.readLock().lock();
+        try {
+            PackedFile location = file;
+            Segment segment = segments.get(file.segmentId);
+            if (segment == null) {
+                location = index.get(file.name);
+                if (location == null || location.size != file.size || location.lastModified != file.lastModified) {
+                    return null;
+                }
+                segment = segments.get(location.segmentId);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(location.size);
+            readFully(segment.channel, buffer, location.dataOffset);
+            return buffer.array();
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 레코드가 들어 있는 세그먼트 파일
+     */
+    public Path segmentPath(PackedFile file) {
+        return directory.resolve(segmentFileName(file.segmentId));
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    public long getFileCount() {
+        return index.size();
+    }
+
+    /**
+     * 세그먼트 전체 크기 (footer 제외)
+     */
+    public long getTotalBytes() {
+        long total = 0;
+        for (Segment segment : segments.values()) {
+            total += segment.length;
+        }
+        return total;
+    }
+
+    /**
+     * 살아 있는 레코드 크기 합 (나머지는 compaction 대상)
+     */
+    public long getLiveBytes() {
+        long live = 0;
+        for (Segment segment : segments.values()) {
+            live += segment.liveBytes.get();
+        }
+        return live;
+    }
+
+    public long getCompactions() {
+        return compactions.get();
+    }
+
+    public long getReclaimedBytes() {
+        return reclaimedBytes.get();
+    }
+
+    /**
+     * 빈 공간 비율이 garbage.ratio 이상인 봉인 세그먼트를 compaction (백그라운드 스레드에서 주기적으로 호출)
+     */
+    public void compact() throws IOException {
+        for (Segment segment : segments.values()) {
+            if (!segment.sealed) {
+                continue;
+            }
+            long garbage = segment.length - segment.liveBytes.get();
+            if (segments.firstKey() != segment.id) {
+                garbage -= segment.tombstoneBytes.get();
+            }
+            if (segment.length > 0 && garbage >= segment.length * compactionGarbageRatio) {
+                compactSegment(segment);
+            }
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Packed segment compaction failed", e);
+        }
+    }
+
+    /**
+     * 살아 있는 레코드를 활성 세그먼트로 옮기고 세그먼트 삭제.
+     * 더 오래된 세그먼트가 남아 있으면 그 안의 이전 레코드가 복구 시 되살아나지 않도록 tombstone 도 옮긴다.
+     */
+    private void compactSegment(Segment segment) throws IOException {
+        List<RecordRef> records = readFooter(segment);
+        if (records == null) {
+            records = scan(segment, false);
+        }
+        boolean oldest = segments.firstKey() == segment.id;
+        long moved = 0;
+        for (RecordRef record : records) {
+            if (record.type == TYPE_PUT) {
+                PackedFile current = index.get(record.name);
+                if (current == null || current.segmentId != segment.id || current.offset != record.offset) {
+                    continue;
+                }
+                ByteBuffer data = ByteBuffer.allocate(current.size);
+                readFully(segment.channel, data, current.dataOffset);
+                synchronized (appendLock) {
+                    // 읽는 사이 덮어쓰였거나 삭제된 레코드는 옮기지 않음
+                    if (index.get(record.name) == current) {
+                        appendLocked(TYPE_PUT, record.name, data.array(), current.size, current.lastModified);
+                        moved += current.recordSize;
+                    }
+                }
+            } else if (!oldest) {
+                synchronized (appendLock) {
+                    if (!index.containsKey(record.name)) {
+                        appendLocked(TYPE_DELETE, record.name, new byte[0], 0, record.lastModified);
+                        moved += HEADER_SIZE + record.name.getBytes(StandardCharsets.UTF_8).length;
+                    }
+                }
+            }
+        }
+
+        // 옮긴 레코드가 디스크에 반영된 뒤에만 원본 세그먼트 삭제
+        synchronized (appendLock) {
+            active.channel.force(false);
+        }
+        segmentLock.writeLock().lock();
+        try {
+            segments.remove(segment.id);
+            segment.channel.close();
+            Files.deleteIfExists(segment.path);
+        } finally {
+            segmentLock.writeLock().unlock();
+        }
+        compactions.incrementAndGet();
+        reclaimedBytes.addAndGet(segment.length - moved);
+        logger.info("Compacted segment {}: moved {} bytes, reclaimed {} bytes", segment.path.getFileName(), moved,
+                segment.length - moved);
+    }
+
+    /**
+     * appendLock 안에서 호출. 레코드를 활성 세그먼트 끝에 기록하고 색인과 세그먼트별 사용량 갱신
+     */
+    private PackedFile appendLocked(byte type, String name, byte[] data, int length, long lastModified)
+            throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        if (nameBytes.length == 0 || nameBytes.length > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Invalid name for packed storage: " + name);
+        }
+        int recordSize = HEADER_SIZE + nameBytes.length + length;
+        if (active.length > 0 && active.length + recordSize > segmentSize) {
+            roll();
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(nameBytes);
+        crc.update(data, 0, length);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(RECORD_MAGIC).put(type).putInt(nameBytes.length).putInt(length).putLong(lastModified)
+                .putInt((int) crc.getValue());
+        header.flip();
+        ByteBuffer[] buffers = {header, ByteBuffer.wrap(nameBytes), ByteBuffer.wrap(data, 0, length)};
+        long position = active.length;
+        long remaining = recordSize;
+        while (remaining > 0) {
+            remaining -= active.channel.write(buffers);
+        }
+        active.length += recordSize;
+        active.records.add(new RecordRef(type, name, length, lastModified, position));
+        appendSequence.incrementAndGet();
+
+        PackedFile stored = null;
+        PackedFile previous;
+        if (type == TYPE_PUT) {
+            stored = new PackedFile(name, active.id, position, position + HEADER_SIZE + nameBytes.length, length,
+                    lastModified, recordSize);
+            active.liveBytes.addAndGet(recordSize);
+            previous = index.put(name, stored);
+        } else {
+            active.tombstoneBytes.addAndGet(recordSize);
+            previous = index.remove(name);
+        }
+        if (previous != null) {
+            Segment previousSegment = segments.get(previous.segmentId);
+            if (previousSegment != null) {
+                previousSegment.liveBytes.addAndGet(-previous.recordSize);
+            }
+        }
+        return stored;
+    }
+
+    /**
+     * appendLock 안에서 호출. 활성 세그먼트에 footer 를 기록해 봉인하고 다음 세그먼트를 연다.
+     */
+    private void roll() throws IOException {
+        Segment sealed = active;
+        writeFooter(sealed);
+        sealed.channel.force(true);
+        sealed.sealed = true;
+        sealed.records = null;
+        syncedSequence.accumulateAndGet(appendSequence.get(), Math::max);
+        Segment next = openSegment(sealed.id + 1, true);
+        segments.put(next.id, next);
+        active = next;
+        logger.info("Sealed segment {} ({} bytes), opened {}", sealed.path.getFileName(), sealed.length,
+                active.path.getFileName());
+    }
+
+    /**
+     * 내구성 정책이 none 이 아니면 sequence 까지의 레코드가 디스크에 반영되도록 force.
+     * 대기 중 다른 스레드의 force 가 이미 반영했으면 생략하므로 동시 업로드는 force 를 함께 쓴다.
+     */
+    private void sync(Segment segment, long sequence) throws IOException {
+        if (!syncOnWrite) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (syncedSequence.get() >= sequence) {
+                return;
+            }
+            long target = appendSequence.get();
+            if (active != segment) {
+                // 기록 후 세그먼트가 봉인되며 이미 force 됨
+                return;
+            }
+            try {
+                segment.channel.force(false);
+            } catch (ClosedChannelException e) {
+                if (segment.sealed) {
+                    return;
+                }
+                throw e;
+            }
+            syncedSequence.accumulateAndGet(target, Math::max);
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Integer> ids = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                String fileName = path.getFileName().toString();
+                try {
+                    ids.add(Integer.parseInt(fileName.substring(SEGMENT_PREFIX.length(),
+                            fileName.length() - SEGMENT_SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    logger.warn("Ignoring unexpected file in segment directory: {}", path);
+                }
+            }
+        }
+        ids.sort(null);
+
+        for (int i = 0; i < ids.size(); i++) {
+            Segment segment = openSegment(ids.get(i), false);
+            segments.put(segment.id, segment);
+            List<RecordRef> records = readFooter(segment);
+            boolean last = i == ids.size() - 1;
+            if (records != null) {
+                segment.sealed = true;
+            } else {
+                records = scan(segment, last);
+                if (last) {
+                    segment.records = records;
+                    segment.channel.position(segment.length);
+                    active = segment;
+                } else {
+                    segment.sealed = true;
+                }
+            }
+            for (RecordRef record : records) {
+                if (record.type == TYPE_PUT) {
+                    int nameLength = record.name.getBytes(StandardCharsets.UTF_8).length;
+                    index.put(record.name, new PackedFile(record.name, segment.id, record.offset,
+                            record.offset + HEADER_SIZE + nameLength, record.dataLength, record.lastModified,
+                            HEADER_SIZE + nameLength + record.dataLength));
+                } else {
+                    segment.tombstoneBytes.addAndGet(HEADER_SIZE + record.name.getBytes(StandardCharsets.UTF_8).length);
+                    index.remove(record.name);
+                }
+            }
+        }
+        if (active == null) {
+            active = openSegment(ids.isEmpty() ? 1 : ids.get(ids.size() - 1) + 1, true);
+        }
+        segments.put(active.id, active);
+        for (PackedFile file : index.values()) {
+            segments.get(file.segmentId).liveBytes.addAndGet(file.recordSize);
+        }
+        logger.info("Packed storage: recovered {} files from {} segments in {} (threshold {} bytes)",
+                index.size(), segments.size(), directory.toAbsolutePath(), threshold);
+    }
+
+    private Segment openSegment(int id, boolean create) throws IOException {
+        Path path = directory.resolve(segmentFileName(id));
+        FileChannel channel = create
+                ? FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        Segment segment = new Segment(id, path, channel);
+        if (create) {
+            segment.records = new ArrayList<>();
+        }
+        return segment;
+    }
+
+    private static String segmentFileName(int id) {
+        return String.format("%s%08d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX);
+    }
+
+    /**
+     * 봉인된 세그먼트의 footer (없거나 손상되었으면 null). 세그먼트 길이는 footer 시작 위치로 설정
+     */
+    private List<RecordRef> readFooter(Segment segment) throws IOException {
+        long size = segment.channel.size();
+        if (size < TRAILER_SIZE) {
+            return null;
+        }
+        ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE);
+        readFully(segment.channel, trailer, size - TRAILER_SIZE);
+        trailer.flip();
+        long footerOffset = trailer.getLong();
+        int footerCrc = trailer.getInt();
+        if (trailer.getLong() != FOOTER_MAGIC || footerOffset < 0 || footerOffset > size - TRAILER_SIZE
+                || size - TRAILER_SIZE - footerOffset > Integer.MAX_VALUE) {
+            return null;
+        }
+
+        ByteBuffer footer = ByteBuffer.allocate((int) (size - TRAILER_SIZE - footerOffset));
+        readFully(segment.channel, footer, footerOffset);
+        CRC32 crc = new CRC32();
+        crc.update(footer.array());
+        if ((int) crc.getValue() != footerCrc) {
+            logger.warn("Corrupted footer in segment {}, scanning records", segment.path);
+            return null;
+        }
+
+        footer.flip();
+        List<RecordRef> records = new ArrayList<>();
+        while (footer.hasRemaining()) {
+            byte type = footer.get();
+            byte[] name = new byte[footer.getInt()];
+            footer.get(name);
+            int dataLength = footer.getInt();
+            long lastModified = footer.getLong();
+            long offset = footer.getLong();
+            records.add(new RecordRef(type, new String(name, StandardCharsets.UTF_8), dataLength, lastModified, offset));
+        }
+        segment.length = footerOffset;
+        return records;
+    }
+
+    /**
+     * 레코드를 처음부터 검증하며 읽음 (봉인되지 않은 세그먼트 복구).
+     * 잘리거나 체크섬이 맞지 않는 레코드에서 멈추고, truncate 이면 그 뒤를 잘라낸다.
+     */
+    private List<RecordRef> scan(Segment segment, boolean truncate) throws IOException {
+        List<RecordRef> records = new ArrayList<>();
+        long size = segment.channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (position + HEADER_SIZE <= size) {
+            header.clear();
+            readFully(segment.channel, header, position);
+            header.flip();
+            int magic = header.getInt();
+            byte type = header.get();
+            int nameLength = header.getInt();
+            int dataLength = header.getInt();
+            long lastModified = header.getLong();
+            int recordCrc = header.getInt();
+            if (magic != RECORD_MAGIC || (type != TYPE_PUT && type != TYPE_DELETE)
+                    || nameLength <= 0 || nameLength > MAX_NAME_LENGTH || dataLength < 0
+                    || position + HEADER_SIZE + nameLength + dataLength > size) {
+                break;
+            }
+            ByteBuffer body = ByteBuffer.allocate(nameLength + dataLength);
+            readFully(segment.channel, body, position + HEADER_SIZE);
+            CRC32 crc = new CRC32();
+            crc.update(body.array());
+            if ((int) crc.getValue() != recordCrc) {
+                break;
+            }
+            String name = new String(body.array(), 0, nameLength, StandardCharsets.UTF_8);
+            records.add(new RecordRef(type, name, dataLength, lastModified, position));
+            position += HEADER_SIZE + nameLength + dataLength;
+        }
+        if (position < size) {
+            if (truncate) {
+                logger.warn("Truncating {} bytes of incomplete records in segment {}", size - position, segment.path);
+                segment.channel.truncate(position);
+            } else {
+                logger.warn("Segment {} has {} unreadable bytes after offset {}", segment.path, size - position,
+                        position);
+            }
+        }
+        segment.length = position;
+        return records;
+    }
+
+    private void writeFooter(Segment segment) throws IOException {
+        ByteArrayOutputStream footerBytes = new ByteArrayOutputStream();
+        DataOutputStream footer = new DataOutputStream(footerBytes);
+        for (RecordRef record : segment.records) {
+            byte[] name = record.name.getBytes(StandardCharsets.UTF_8);
+            footer.writeByte(record.type);
+            footer.writeInt(name.length);
+            footer.write(name);
+            footer.writeInt(record.dataLength);
+            footer.writeLong(record.lastModified);
+            footer.writeLong(record.offset);
+        }
+        footer.flush();
+        byte[] entries = footerBytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(entries);
+
+        ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE);
+        trailer.putLong(segment.length).putInt((int) crc.getValue()).putLong(FOOTER_MAGIC);
+        trailer.flip();
+        ByteBuffer[] buffers = {ByteBuffer.wrap(entries), trailer};
+        long remaining = entries.length + TRAILER_SIZE;
+        while (remaining > 0) {
+            remaining -= segment.channel.write(buffers);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            int bytesRead = channel.read(buffer, offset);
+            if (bytesRead == -1) {
+                throw new IOException("Unexpected end of segment at " + offset);
+            }
+            offset += bytesRead;
+        }
+    }
+
+    /**
+     * 세그먼트에 저장된 파일 하나의 위치
+     */
+    public static final class PackedFile {
+
+        private final String name;
+        private final int segmentId;
+        private final long offset;
+        private final long dataOffset;
+        private final int size;
+        private final long lastModified;
+        private final int recordSize;
+
+        PackedFile(String name, int segmentId, long offset, long dataOffset, int size, long lastModified,
+                   int recordSize) {
+            this.name = name;
+            this.segmentId = segmentId;
+            this.offset = offset;
+            this.dataOffset = dataOffset;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.recordSize = recordSize;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+    }
+
+    private static final class Segment {
+
+        private final int id;
+        private final Path path;
+        private final FileChannel channel;
+        private final AtomicLong liveBytes = new AtomicLong();
+        // tombstone 레코드 크기 합 (가장 오래된 세그먼트가 아니면 살아 있는 레코드로 셈)
+        private final AtomicLong tombstoneBytes = new AtomicLong();
+        // 레코드 끝 위치 (활성 세그먼트는 다음 기록 위치, 봉인된 세그먼트는 footer 시작 위치)
+        private volatile long length;
+        private volatile boolean sealed;
+        // 활성 세그먼트의 레코드 목록 (봉인 시 footer 로 기록)
+        private List<RecordRef> records;
+
+        Segment(int id, Path path, FileChannel channel) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+        }
+    }
+
+    private static final class RecordRef {
+
+        private final byte type;
+        private final String name;
+        private final int dataLength;
+        private final long lastModified;
+        private final long offset;
+
+        RecordRef(byte type, String name, int dataLength, long lastModified, long offset) {
+            this.type = type;
+            this.name = name;
+            this.dataLength = dataLength;
+            this.lastModified = lastModified;
+            this.offset = offset;
+        }
+    }
+}
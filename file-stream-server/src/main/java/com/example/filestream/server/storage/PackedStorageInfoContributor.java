@@ -0,0 +1,36 @@
+package com.example.filestream.server.storage;
+
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * /actuator/info 에 세그먼트 저장소 사용량과 compaction 통계 노출 (file.storage.packed.enabled=true 일 때)
+ */
+@Component
+public class PackedStorageInfoContributor implements InfoContributor {
+
+    private final PackedSegmentStore packedStore;
+
+    public PackedStorageInfoContributor(PackedSegmentStore packedStore) {
+        this.packedStore = packedStore;
+    }
+
+    @Override
+    public void contribute(Info.Builder builder) {
+        if (!packedStore.isEnabled()) {
+            return;
+        }
+        Map<String, Object> packed = new LinkedHashMap<>();
+        packed.put("files", packedStore.getFileCount());
+        packed.put("segments", packedStore.getSegmentCount());
+        packed.put("totalBytes", packedStore.getTotalBytes());
+        packed.put("liveBytes", packedStore.getLiveBytes());
+        packed.put("compactions", packedStore.getCompactions());
+        packed.put("reclaimedBytes", packedStore.getReclaimedBytes());
+        builder.withDetail("packedStorage", packed);
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.filestream.server.async;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "file.upload.directory=./target/async-uploads",
+        "file.stream.async.timeout=3000"
+})
+class AsyncUploadServletTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    @DisplayName("논블로킹 업로드 성공 테스트")
+    @SuppressWarnings("rawtypes")
+    void asyncUpload_success() {
+        byte[] content = new byte[256 * 1024];
+        Arrays.fill(content, (byte) 'a');
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+
+        ResponseEntity<Map> response = restTemplate.postForEntity(
+                "/api/v1/files/upload/async?filename=test-async.dat", new HttpEntity<>(content, headers), Map.class);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(content.length, ((Number) response.getBody().get("fileSize")).intValue());
+        assertEquals("async", response.getBody().get("engine"));
+    }
+
+    @Test
+    @DisplayName("논블로킹 업로드 파일명 누락 시 에러 반환 테스트")
+    void asyncUpload_noFilename() {
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                "/api/v1/files/upload/async", new HttpEntity<>(new byte[]{1, 2, 3}), String.class);
+
+        assertEquals(400, response.getStatusCodeValue());
+    }
+
+    @Test
+    @DisplayName("논블로킹 업로드 파일명이 업로드 디렉토리 밖을 가리키면 400 반환 테스트")
+    void asyncUpload_unsafeFilename() {
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                "/api/v1/files/upload/async?filename=../test-escape.dat", new HttpEntity<>(new byte[]{1, 2, 3}),
+                String.class);
+
+        assertEquals(400, response.getStatusCodeValue());
+        assertFalse(Files.exists(Paths.get("./target/test-escape.dat")));
+    }
+
+    @Test
+    @DisplayName("커밋이 실패하면 500 오류 응답을 보내고 스테이징 파일을 정리하는지 테스트")
+    @SuppressWarnings("rawtypes")
+    void asyncUpload_commitFailure() throws Exception {
+        // 같은 이름의 비어 있지 않은 디렉토리가 있어 최종 이름으로 이동할 수 없음
+        Path uploads = Paths.get("./target/async-uploads");
+        Files.createDirectories(uploads.resolve("test-commit-blocked.dat"));
+        Files.write(uploads.resolve("test-commit-blocked.dat").resolve("child.txt"), new byte[]{1});
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+
+        ResponseEntity<Map> response = restTemplate.postForEntity(
+                "/api/v1/files/upload/async?filename=test-commit-blocked.dat",
+                new HttpEntity<>(new byte[1024], headers), Map.class);
+
+        assertEquals(500, response.getStatusCodeValue());
+        assertEquals("Failed to save file on server.", response.getBody().get("error"));
+        try (Stream<Path> files = Files.list(uploads.resolve(".incoming"))) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("본문이 멈춘 업로드가 시간 초과되면 408 을 반환하고 스테이징 파일과 진행 중 집계를 정리하는지 테스트")
+    void asyncUpload_timeout() throws Exception {
+        String response;
+        try (Socket socket = new Socket("localhost", port)) {
+            socket.setSoTimeout(15000);
+            OutputStream out = socket.getOutputStream();
+            out.write(("POST /api/v1/files/upload/async?filename=test-stalled.dat HTTP/1.1\r\n"
+                    + "Host: localhost\r\nContent-Type: application/octet-stream\r\n"
+                    + "Content-Length: 1000000\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.write(new byte[1000]);
+            out.flush();
+            // 나머지 본문을 보내지 않고 응답을 기다림
+            response = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII))
+                    .readLine();
+        }
+
+        assertTrue(response.contains(" 408"), response);
+        Path staging = Paths.get("./target/async-uploads/.incoming");
+        try (Stream<Path> files = Files.list(staging)) {
+            assertEquals(0, files.count());
+        }
+        assertEquals(0, meterRegistry.get("file.upload.inflight").gauge().value());
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.filestream.server.buffer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveBufferSizerTest {
+
+    @Test
+    @DisplayName("버퍼를 빠르게 가득 채우면 최대 크기까지 확대되는지 테스트")
+    void record_growsOnFullFastReads() {
+        AdaptiveBufferSizer sizer = new AdaptiveBufferSizer(4096, 65536, 4, 2000);
+        assertEquals(4096, sizer.getSize());
+
+        for (int i = 0; i < 100; i++) {
+            sizer.record(sizer.getSize(), 50_000);
+        }
+
+        assertEquals(65536, sizer.getSize());
+        assertEquals(4, sizer.getAdjustments());
+        // 시작 크기 + 변경 4회
+        assertEquals(5, sizer.getTrace().size());
+        assertEquals(65536, sizer.getTrace().get(4).get("size"));
+    }
+
+    @Test
+    @DisplayName("읽기가 버퍼의 1/4 도 채우지 못하면 관측 크기로 축소되는지 테스트")
+    void record_shrinksOnPartialReads() {
+        AdaptiveBufferSizer sizer = new AdaptiveBufferSizer(4096, 65536, 2, 2000);
+        for (int i = 0; i < 8; i++) {
+            sizer.record(sizer.getSize(), 10_000);
+        }
+        assertEquals(65536, sizer.getSize());
+
+        assertFalse(sizer.record(5000, 10_000));
+        assertTrue(sizer.record(5000, 10_000));
+        assertEquals(8192, sizer.getSize());
+    }
+
+    @Test
+    @DisplayName("가득 채우더라도 읽기 지연이 길면 축소되는지 테스트")
+    void record_shrinksOnSlowReads() {
+        AdaptiveBufferSizer sizer = new AdaptiveBufferSizer(4096, 65536, 1, 2000);
+        sizer.record(4096, 10_000);
+        sizer.record(8192, 10_000);
+        assertEquals(16384, sizer.getSize());
+
+        // 목표 지연(2ms)의 4배 초과
+        sizer.record(16384, 10_000_000);
+        assertEquals(8192, sizer.getSize());
+    }
+}
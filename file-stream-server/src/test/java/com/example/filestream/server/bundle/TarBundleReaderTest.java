@@ -0,0 +1,159 @@
+package com.example.filestream.server.bundle;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TarBundleReaderTest {
+
+    @Test
+    @DisplayName("ustar 항목, GNU 긴 이름, pax 경로를 순서대로 읽고 gzip 을 자동 판별하는지 테스트")
+    void nextEntry_readsTarVariants() throws Exception {
+        StringBuilder longName = new StringBuilder("deep");
+        while (longName.length() < 150) {
+            longName.append("/nested");
+        }
+        longName.append("/long.txt");
+
+        ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        writeDirectory(tar, "docs/");
+        writeFile(tar, "docs/a.txt", "alpha");
+        writeMeta(tar, 'L', longName + "\0");
+        writeFile(tar, "ignored", "long name");
+        writeMeta(tar, 'x', paxRecord("path", "pax/데이터.txt"));
+        writeFile(tar, "ignored", "pax path");
+        writeEntry(tar, "link", '2', null);
+        writeFile(tar, "empty.txt", "");
+        tar.write(new byte[1024]);
+
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+            out.write(tar.toByteArray());
+        }
+
+        BundleReader reader = BundleReader.open(new ByteArrayInputStream(gzip.toByteArray()), null, 1024);
+        assertEquals("tgz", reader.getFormat());
+
+        assertEquals(BundleEntry.Type.DIRECTORY, reader.nextEntry().getType());
+        BundleEntry entry = reader.nextEntry();
+        assertEquals("docs/a.txt", entry.getName());
+        assertEquals("alpha", read(entry.getInputStream()));
+        // 데이터를 읽지 않은 항목은 다음 항목으로 넘어갈 때 건너뜀
+        assertEquals(longName.toString(), reader.nextEntry().getName());
+        entry = reader.nextEntry();
+        assertEquals("pax/데이터.txt", entry.getName());
+        assertEquals("pax path", read(entry.getInputStream()));
+        assertEquals(BundleEntry.Type.OTHER, reader.nextEntry().getType());
+        entry = reader.nextEntry();
+        assertTrue(entry.isFile());
+        assertEquals(0, entry.getSize());
+        assertNull(reader.nextEntry());
+    }
+
+    @Test
+    @DisplayName("헤더 체크섬 오류와 잘린 데이터를 형식 오류로 보고하는지 테스트")
+    void nextEntry_rejectsMalformedTar() throws Exception {
+        ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        writeFile(tar, "a.txt", "alpha");
+        byte[] corrupted = tar.toByteArray();
+        corrupted[0] = 'b';
+        BundleReader reader = BundleReader.open(new ByteArrayInputStream(corrupted), "tar", 1024);
+        assertThrows(MalformedBundleException.class, reader::nextEntry);
+
+        byte[] truncated = new byte[512 + 2];
+        System.arraycopy(tar.toByteArray(), 0, truncated, 0, truncated.length);
+        BundleEntry entry = BundleReader.open(new ByteArrayInputStream(truncated), "tar", 1024).nextEntry();
+        assertThrows(MalformedBundleException.class, () -> read(entry.getInputStream()));
+    }
+
+    @Test
+    @DisplayName("zip 번들을 판별해 항목 데이터를 읽는지 테스트")
+    void nextEntry_readsZip() throws Exception {
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(zip)) {
+            out.putNextEntry(new ZipEntry("dir/"));
+            out.putNextEntry(new ZipEntry("dir/b.txt"));
+            out.write("bravo".getBytes(StandardCharsets.UTF_8));
+        }
+
+        BundleReader reader = BundleReader.open(new ByteArrayInputStream(zip.toByteArray()), null, 1024);
+        assertEquals("zip", reader.getFormat());
+        assertEquals(BundleEntry.Type.DIRECTORY, reader.nextEntry().getType());
+        BundleEntry entry = reader.nextEntry();
+        assertEquals("dir/b.txt", entry.getName());
+        assertEquals("bravo", read(entry.getInputStream()));
+        assertNull(reader.nextEntry());
+    }
+
+    private static void writeFile(ByteArrayOutputStream tar, String name, String content) throws IOException {
+        writeEntry(tar, name, '0', content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeDirectory(ByteArrayOutputStream tar, String name) throws IOException {
+        writeEntry(tar, name, '5', null);
+    }
+
+    private static void writeMeta(ByteArrayOutputStream tar, char type, String content) throws IOException {
+        writeEntry(tar, "././@LongLink", type, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String paxRecord(String key, String value) {
+        String record = " " + key + "=" + value + "\n";
+        int length = record.getBytes(StandardCharsets.UTF_8).length;
+        int total = length + String.valueOf(length).length();
+        if (String.valueOf(total).length() != String.valueOf(length).length()) {
+            total++;
+        }
+        return total + record;
+    }
+
+    private static void writeEntry(ByteArrayOutputStream tar, String name, char type, byte[] data)
+            throws IOException {
+        int size = data != null ? data.length : 0;
+        byte[] header = new byte[512];
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(nameBytes, 0, header, 0, Math.min(nameBytes.length, 100));
+        putOctal(header, 100, 8, 0644);
+        putOctal(header, 124, 12, size);
+        header[156] = (byte) type;
+        System.arraycopy("ustar\u000000".getBytes(StandardCharsets.US_ASCII), 0, header, 257, 8);
+        for (int i = 148; i < 156; i++) {
+            header[i] = ' ';
+        }
+        int checksum = 0;
+        for (byte b : header) {
+            checksum += b & 0xff;
+        }
+        putOctal(header, 148, 7, checksum);
+        tar.write(header);
+        if (data != null) {
+            tar.write(data);
+            tar.write(new byte[(512 - size % 512) % 512]);
+        }
+    }
+
+    private static void putOctal(byte[] header, int offset, int length, long value) {
+        String octal = String.format("%0" + (length - 1) + "o", value);
+        System.arraycopy(octal.getBytes(StandardCharsets.US_ASCII), 0, header, offset, length - 1);
+    }
+
+    private static String read(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[3];
+        int bytesRead;
+        while ((bytesRead = inputStream.read(buffer)) != -1) {
+            out.write(buffer, 0, bytesRead);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.filestream.server.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.nio.charset.StandardCharsets;
+
+@SpringBootTest(properties = {
+        "file.upload.directory=./target/test-uploads",
+        "file.upload.admission.max.concurrent=0"
+})
+@AutoConfigureMockMvc
+class AdmissionControlTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("세션 생성, 청크 추가, 세그먼트 업로드도 본문을 읽기 전에 수락 제어로 거부하는지 테스트")
+    void sessionUploads_rejectedWhenSaturated() throws Exception {
+        byte[] chunk = "chunk".getBytes(StandardCharsets.UTF_8);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/files/sessions")
+                        .param("filename", "test-admission.txt")
+                        .param("size", "5"))
+                .andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+                .andExpect(MockMvcResultMatchers.header().string("Retry-After", "1"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.reason").value("concurrency"));
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/v1/files/sessions/unknown")
+                        .header("Upload-Offset", "0")
+                        .content(chunk))
+                .andExpect(MockMvcResultMatchers.status().isServiceUnavailable());
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/v1/files/sessions/unknown/segments/0")
+                        .content(chunk))
+                .andExpect(MockMvcResultMatchers.status().isServiceUnavailable());
+    }
+
+    @Test
+    @DisplayName("본문이 없는 세션 조회와 삭제는 수락 제어를 거치지 않는지 테스트")
+    void sessionQueries_bypassAdmission() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/files/sessions/unknown"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/v1/files/sessions/unknown"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+}
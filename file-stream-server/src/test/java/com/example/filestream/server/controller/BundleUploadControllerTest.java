@@ -0,0 +1,104 @@
+package com.example.filestream.server.controller;
+
+import com.example.filestream.server.storage.FileStorageService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(properties = "file.upload.directory=./target/test-uploads")
+@AutoConfigureMockMvc
+class BundleUploadControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("zip 번들의 항목을 상대 경로로 저장하고 안전하지 않은 경로는 건너뛰는지 테스트")
+    void uploadBundle_zip() throws Exception {
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(zip)) {
+            putEntry(out, "test-bundle/a.txt", "alpha");
+            putEntry(out, "test-bundle/sub/b.txt", "bravo");
+            putEntry(out, "../test-bundle-escape.txt", "escape");
+            putEntry(out, ".incoming/test-bundle.txt", "internal");
+        }
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/files/bundle")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(zip.toByteArray()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.format").value("zip"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.fileCount").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.skippedCount").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.entries[1].name").value("test-bundle/sub/b.txt"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.entries[1].size").value(5))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.entries[1].sha256").exists())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.entries[2].skipped").value("unsafe path"));
+
+        Path uploads = Paths.get("./target/test-uploads");
+        assertEquals("bravo", new String(Files.readAllBytes(uploads.resolve("test-bundle/sub/b.txt")),
+                StandardCharsets.UTF_8));
+        assertFalse(Files.exists(uploads.resolve("../test-bundle-escape.txt")));
+    }
+
+    @Test
+    @DisplayName("빈 tar 는 0 개 저장, 형식 오류 번들과 지원하지 않는 형식은 400 반환 테스트")
+    void uploadBundle_malformed() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/files/bundle")
+                        .param("format", "tar")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(new byte[600]))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.fileCount").value(0));
+
+        byte[] garbage = new byte[600];
+        garbage[0] = 'x';
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/files/bundle")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(garbage))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.entries").isEmpty());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/files/bundle")
+                        .param("format", "rar")
+                        .content(garbage))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.error").value("Unsupported bundle format: rar"));
+    }
+
+    @Test
+    @DisplayName("번들 항목 경로 정규화 테스트")
+    void normalizeEntryName() {
+        assertEquals("a/b.txt", FileStorageService.normalizeRelativePath("./a//b.txt"));
+        assertEquals("a/b.txt", FileStorageService.normalizeRelativePath("a\\b.txt"));
+        assertNull(FileStorageService.normalizeRelativePath("a\\.hidden"));
+        assertNull(FileStorageService.normalizeRelativePath("/etc/passwd"));
+        assertNull(FileStorageService.normalizeRelativePath("a/../../b"));
+        assertNull(FileStorageService.normalizeRelativePath(".blobs/x"));
+        assertNull(FileStorageService.normalizeRelativePath("C:/x"));
+    }
+
+    private static void putEntry(ZipOutputStream out, String name, String content) throws Exception {
+        out.putNextEntry(new ZipEntry(name));
+        out.write(content.getBytes(StandardCharsets.UTF_8));
+        out.closeEntry();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.filestream.server.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import com.example.filestream.server.storage.ContentAddressableStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(properties = {
+        "file.storage.mode=cas",
+        "file.upload.directory=./target/cas-uploads"
+})
+@AutoConfigureMockMvc
+class ContentProbeControllerTest {
+
+    // "123456789" 의 SHA-256
+    private static final String SHA256 = "15e2b0d3c33891ebb0f1ef609ec419420c20e320ce94c65fbc8c3312448eb225";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ContentAddressableStore contentStore;
+
+    @Test
+    @DisplayName("저장된 내용은 조회 후 전송 없이 다른 파일명으로 연결 테스트")
+    void probeAndLink() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/files/upload")
+                        .param("filename", "cas-original.txt")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content("123456789".getBytes(StandardCharsets.US_ASCII)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.sha256").value(SHA256));
+
+        mockMvc.perform(MockMvcRequestBuilders.head("/api/v1/files/blobs/" + SHA256))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("Content-Length", "9"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/files/link")
+                        .param("filename", "cas-copy.txt")
+                        .param("sha256", SHA256))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.deduplicated").value(true))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.fileSize").value(9));
+    }
+
+    @Test
+    @DisplayName("저장되지 않은 내용 조회 및 연결 시 404 반환 테스트")
+    void probeMissing() throws Exception {
+        String missing = "0000000000000000000000000000000000000000000000000000000000000000";
+        mockMvc.perform(MockMvcRequestBuilders.head("/api/v1/files/blobs/" + missing))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/files/link")
+                        .param("filename", "cas-missing.txt")
+                        .param("sha256", missing))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("줄바꿈이 들어간 파일명은 업로드와 연결 모두 400 으로 거절하고 이름 로그에 매핑을 끼워 넣지 못하는지 테스트")
+    void rejectsNewlineInFilename() throws Exception {
+        String injected = "cas-evil.txt\n" + SHA256 + " injected.txt";
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/files/upload")
+                        .param("filename", injected)
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content("123456789".getBytes(StandardCharsets.US_ASCII)))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/files/link")
+                        .param("filename", injected)
+                        .param("sha256", SHA256))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        // 재시작 시 이름 로그를 다시 읽어도 끼워 넣은 매핑이 없어야 함
+        contentStore.loadNameIndex();
+        assertNull(contentStore.lookup("injected.txt"));
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.filestream.server.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.nio.charset.StandardCharsets;
+
+@SpringBootTest(properties = "file.upload.directory=./target/test-uploads")
+@AutoConfigureMockMvc
+class FileDownloadControllerTest {
+
+    private static final String CONTENT = "0123456789abcdefghij";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void uploadFile() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/files/upload")
+                        .param("filename", "test-download.txt")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(CONTENT.getBytes(StandardCharsets.US_ASCII)))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    @DisplayName("전체 파일 다운로드 및 ETag 조건부 요청 테스트")
+    void download_fullAndConditional() throws Exception {
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/files/test-download.txt"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("Accept-Ranges", "bytes"))
+                .andExpect(MockMvcResultMatchers.content().bytes(CONTENT.getBytes(StandardCharsets.US_ASCII)))
+                .andReturn();
+        String etag = result.getResponse().getHeader("ETag");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/files/test-download.txt")
+                        .header("If-None-Match", etag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/files/test-download.txt")
+                        .header("If-Match", "\"other\""))
+                .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+    }
+
+    @Test
+    @DisplayName("Range / If-Range 부분 다운로드 테스트")
+    void download_range() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/files/test-download.txt")
+                        .header("Range", "bytes=5-9"))
+                .andExpect(MockMvcResultMatchers.status().isPartialContent())
+                .andExpect(MockMvcResultMatchers.header().string("Content-Range", "bytes 5-9/20"))
+                .andExpect(MockMvcResultMatchers.content().string("56789"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/files/test-download.txt")
+                        .header("Range", "bytes=-3"))
+                .andExpect(MockMvcResultMatchers.status().isPartialContent())
+                .andExpect(MockMvcResultMatchers.content().string("hij"));
+
+        // ETag 가 다르면 Range 를 무시하고 전체 전송
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/files/test-download.txt")
+                        .header("Range", "bytes=5-9")
+                        .header("If-Range", "\"stale\""))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string(CONTENT));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/files/test-download.txt")
+                        .header("Range", "bytes=100-200"))
+                .andExpect(MockMvcResultMatchers.status().isRequestedRangeNotSatisfiable())
+                .andExpect(MockMvcResultMatchers.header().string("Content-Range", "bytes */20"));
+    }
+
+    @Test
+    @DisplayName("없는 파일 및 내부 디렉토리 접근 시 404 반환 테스트")
+    void download_notFound() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/files/no-such-file.txt"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/files/.incoming"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/files/docs/.incoming/x"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("하위 경로 이름(dir/file) 다운로드 및 삭제 테스트")
+    void downloadAndDelete_nestedPath() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/files/upload")
+                        .param("filename", "docs/nested.txt")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(CONTENT.getBytes(StandardCharsets.US_ASCII)))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/files/docs/nested.txt"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("Content-Disposition",
+                        "attachment; filename*=UTF-8''nested.txt"))
+                .andExpect(MockMvcResultMatchers.content().string(CONTENT));
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/v1/files/docs/nested.txt"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/files/docs/nested.txt"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/v1/files/docs/nested.txt"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+}
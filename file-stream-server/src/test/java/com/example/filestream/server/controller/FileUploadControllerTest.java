@@ -11,9 +11,11 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
 
-@SpringBootTest
+@SpringBootTest(properties = "file.upload.directory=./target/test-uploads")
 @AutoConfigureMockMvc
 class FileUploadControllerTest {
 
@@ -42,5 +44,114 @@ class FileUploadControllerTest {
                         .file(file1))
                 .andExpect(MockMvcResultMatchers.status().isBadRequest());
     }
-}
 
+    @Test
+    @DisplayName("channel 엔진으로 업로드 시 처리량 정보 반환 테스트")
+    void uploadFile_channelEngine() throws Exception {
+        byte[] content = "channel engine content".getBytes(StandardCharsets.UTF_8);
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/files/upload")
+                        .param("filename", "test-channel.txt")
+                        .param("engine", "channel")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(content))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.engine").value("channel"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.fileSize").value(content.length))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.throughputMBps").exists());
+    }
+
+    @Test
+    @DisplayName("알 수 없는 엔진 지정 시 에러 반환 테스트")
+    void uploadFile_unknownEngine() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/files/upload")
+                        .param("filename", "test-unknown.txt")
+                        .param("engine", "bogus")
+                        .content("x".getBytes(StandardCharsets.UTF_8)))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("업로드 디렉토리 밖이나 내부 디렉토리를 가리키는 파일명 거부 테스트")
+    void uploadFile_unsafeFilename() throws Exception {
+        for (String filename : new String[]{"../test-escape.txt", "sub/../../test-escape.txt", ".sessions/x",
+                "/tmp/test-escape.txt", "a//b.txt"}) {
+            mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/files/upload")
+                            .param("filename", filename)
+                            .content("x".getBytes(StandardCharsets.UTF_8)))
+                    .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        }
+    }
+
+    @Test
+    @DisplayName("업로드 체크섬 계산 및 검증 성공 테스트")
+    void uploadFile_checksumVerified() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/files/upload")
+                        .param("filename", "test-checksum.txt")
+                        .header("X-Content-CRC32C", "e3069283")
+                        .header("X-Content-SHA256", "15e2b0d3c33891ebb0f1ef609ec419420c20e320ce94c65fbc8c3312448eb225")
+                        .content("123456789".getBytes(StandardCharsets.UTF_8)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.crc32c").value("e3069283"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.sha256")
+                        .value("15e2b0d3c33891ebb0f1ef609ec419420c20e320ce94c65fbc8c3312448eb225"));
+    }
+
+    @Test
+    @DisplayName("체크섬 불일치 시 업로드 거부 테스트")
+    void uploadFile_checksumMismatch() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/files/upload")
+                        .param("filename", "test-checksum-mismatch.txt")
+                        .param("engine", "channel")
+                        .header("X-Content-SHA256", "0000000000000000000000000000000000000000000000000000000000000000")
+                        .content("abc".getBytes(StandardCharsets.UTF_8)))
+                .andExpect(MockMvcResultMatchers.status().isUnprocessableEntity())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.sha256")
+                        .value("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad"));
+    }
+
+    @Test
+    @DisplayName("gzip 인코딩 요청 본문을 풀어서 저장 테스트")
+    void uploadFile_gzipEncoded() throws Exception {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write("123456789".getBytes(StandardCharsets.UTF_8));
+        }
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/files/upload")
+                        .param("filename", "test-gzip.txt")
+                        .header("Content-Encoding", "gzip")
+                        .header("X-Content-SHA256", "15e2b0d3c33891ebb0f1ef609ec419420c20e320ce94c65fbc8c3312448eb225")
+                        .content(compressed.toByteArray()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.fileSize").value(9))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.contentEncoding").value("gzip"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.compressed").value(false));
+    }
+
+    @Test
+    @DisplayName("업로드 계측이 /actuator/metrics 로 노출되는지 테스트")
+    void uploadFile_metrics() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/files/upload")
+                        .param("filename", "test-metrics.txt")
+                        .content("metrics".getBytes(StandardCharsets.UTF_8)))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/files/upload")
+                        .param("filename", "test-metrics-bad.txt")
+                        .param("engine", "bogus")
+                        .content("x".getBytes(StandardCharsets.UTF_8)))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/metrics/file.upload.duration")
+                        .param("tag", "endpoint:upload")
+                        .param("tag", "outcome:success"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/metrics/file.upload.errors")
+                        .param("tag", "cause:bad_request"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/metrics/file.upload.inflight")
+                        .param("tag", "endpoint:all"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.measurements[0].value").value(0.0));
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/metrics/jvm.buffer.memory.used"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+}
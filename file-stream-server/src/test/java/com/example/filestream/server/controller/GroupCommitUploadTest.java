@@ -0,0 +1,62 @@
+package com.example.filestream.server.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@SpringBootTest(properties = {
+        "file.upload.directory=./target/test-uploads",
+        "file.storage.durability=group",
+        "file.storage.group.commit.window=20"
+})
+@AutoConfigureMockMvc
+class GroupCommitUploadTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("그룹 커밋 정책으로 동시 업로드 시 모두 디스크 반영 후 응답 테스트")
+    void uploadFiles_groupCommit() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> uploads = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                final String filename = "test-group-" + i + ".txt";
+                uploads.add(executor.submit(() -> {
+                    mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/files/upload")
+                                    .param("filename", filename)
+                                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                                    .content(filename.getBytes(StandardCharsets.UTF_8)))
+                            .andExpect(MockMvcResultMatchers.status().isOk())
+                            .andExpect(MockMvcResultMatchers.jsonPath("$.durability").value("group"))
+                            .andExpect(MockMvcResultMatchers.jsonPath("$.commitMs").exists());
+                    return null;
+                }));
+            }
+            for (Future<?> upload : uploads) {
+                upload.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/info"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.durability.policy").value("group"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.durability.commits").value(8));
+    }
+}
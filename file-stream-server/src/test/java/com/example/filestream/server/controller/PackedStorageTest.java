@@ -0,0 +1,61 @@
+package com.example.filestream.server.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest(properties = {
+        "file.upload.directory=./target/packed-uploads",
+        "file.storage.packed.enabled=true",
+        "file.storage.packed.threshold=1024"
+})
+@AutoConfigureMockMvc
+class PackedStorageTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("작은 파일을 세그먼트에 저장하고 다운로드, 목록, 삭제하는지 테스트")
+    void uploadSmallFile_storedInSegment() throws Exception {
+        byte[] content = "packed file content".getBytes(StandardCharsets.UTF_8);
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/files/upload")
+                        .param("filename", "test-packed.txt")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(content))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        assertFalse(Files.exists(Paths.get("./target/packed-uploads/test-packed.txt")));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/files/test-packed.txt"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().exists("ETag"))
+                .andExpect(MockMvcResultMatchers.content().bytes(content));
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/files/test-packed.txt").header("Range", "bytes=0-5"))
+                .andExpect(MockMvcResultMatchers.status().isPartialContent())
+                .andExpect(MockMvcResultMatchers.content().string("packed"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/files"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.files[?(@.name == 'test-packed.txt')].storage")
+                        .value("packed"));
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/v1/files/test-packed.txt"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/files/test-packed.txt"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/v1/files/test-packed.txt"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+}
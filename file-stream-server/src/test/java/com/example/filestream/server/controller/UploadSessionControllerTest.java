@@ -0,0 +1,200 @@
+package com.example.filestream.server.controller;
+
+import com.example.filestream.server.session.UploadSession;
+import com.example.filestream.server.session.UploadSessionConflictException;
+import com.example.filestream.server.session.UploadSessionService;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "file.upload.directory=./target/test-uploads")
+@AutoConfigureMockMvc
+class UploadSessionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UploadSessionService sessionService;
+
+    @Test
+    @DisplayName("세션 업로드 중단 후 오프셋부터 재개 테스트")
+    void resumableUpload_success() throws Exception {
+        byte[] content = "0123456789abcdefghij".getBytes(StandardCharsets.UTF_8);
+        String sessionId = createSession("test-resume.txt", content.length);
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/v1/files/sessions/" + sessionId)
+                        .header("Content-Range", "bytes 0-9/" + content.length)
+                        .content(slice(content, 0, 10)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("Upload-Offset", "10"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/files/sessions/" + sessionId))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.offset").value(10));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/files/sessions/" + sessionId)
+                        .header("X-HTTP-Method-Override", "PATCH")
+                        .header("Upload-Offset", "10")
+                        .content(slice(content, 10, content.length)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.offset").value(content.length));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/files/sessions/" + sessionId + "/complete"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.fileSize").value(content.length));
+    }
+
+    @Test
+    @DisplayName("확정 오프셋과 다른 위치의 청크 전송 시 충돌 반환 테스트")
+    void resumableUpload_offsetMismatch() throws Exception {
+        String sessionId = createSession("test-conflict.txt", 20);
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/v1/files/sessions/" + sessionId)
+                        .header("Content-Range", "bytes 5-9/20")
+                        .content("abcde".getBytes(StandardCharsets.UTF_8)))
+                .andExpect(MockMvcResultMatchers.status().isConflict())
+                .andExpect(MockMvcResultMatchers.header().string("Upload-Offset", "0"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/files/sessions/" + sessionId + "/complete"))
+                .andExpect(MockMvcResultMatchers.status().isConflict());
+    }
+
+    @Test
+    @DisplayName("분할 세션의 구간을 순서와 무관하게 기록 후 자동 완료 테스트")
+    void segmentedUpload_outOfOrder() throws Exception {
+        byte[] content = "0123456789".getBytes(StandardCharsets.UTF_8);
+        String body = mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/files/sessions")
+                        .param("filename", "test-segmented.txt")
+                        .param("size", String.valueOf(content.length))
+                        .param("segmentSize", "4"))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.segmentCount").value(3))
+                .andReturn().getResponse().getContentAsString();
+        String sessionId = JsonPath.read(body, "$.sessionId");
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/v1/files/sessions/" + sessionId + "/segments/2")
+                        .content(slice(content, 8, 10)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.completed").value(false));
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/v1/files/sessions/" + sessionId + "/segments/0")
+                        .content(slice(content, 0, 4)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.missingSegments[0]").value(1));
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/v1/files/sessions/" + sessionId + "/segments/1")
+                        .content(slice(content, 4, 8)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.completed").value(true))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.fileSize").value(content.length));
+    }
+
+    @Test
+    @DisplayName("잘못된 크기나 파일명으로 세션 생성 시 400, 선언된 크기를 넘는 청크는 413 반환 테스트")
+    void resumableUpload_sizeValidation() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/files/sessions")
+                        .param("filename", "test-negative.txt")
+                        .param("size", "-5"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/files/sessions")
+                        .param("filename", "../test-escape.txt")
+                        .param("size", "4"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        String sessionId = createSession("test-oversize.txt", 4);
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/v1/files/sessions/" + sessionId)
+                        .header("Upload-Offset", "0")
+                        .content("0123456789".getBytes(StandardCharsets.UTF_8)))
+                .andExpect(MockMvcResultMatchers.status().isPayloadTooLarge())
+                .andExpect(MockMvcResultMatchers.header().string("Upload-Offset", "0"));
+    }
+
+    @Test
+    @DisplayName("본문을 받는 중인 세션에 들어온 두 번째 이어 쓰기는 기다리지 않고 충돌, 만료된 세션은 정리 테스트")
+    void resumableUpload_concurrentAppendAndExpiry() throws Exception {
+        UploadSession session = sessionService.createSession("test-concurrent.txt", 10);
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        InputStream stalled = new InputStream() {
+            private boolean sent;
+
+            @Override
+            public int read() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (sent) {
+                    return -1;
+                }
+                reading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                b[off] = 'a';
+                sent = true;
+                return 1;
+            }
+        };
+        CompletableFuture<Long> first = CompletableFuture.supplyAsync(() -> {
+            try {
+                return sessionService.append(session, 0, stalled);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        reading.await(5, TimeUnit.SECONDS);
+
+        assertThrows(UploadSessionConflictException.class,
+                () -> sessionService.append(session, 0, new ByteArrayInputStream(new byte[1])));
+        release.countDown();
+        assertEquals(1L, first.get(5, TimeUnit.SECONDS));
+
+        // 음수 ttl 이면 지금까지 활동한 모든 세션이 만료 대상
+        ReflectionTestUtils.setField(sessionService, "sessionTtl", -1L);
+        try {
+            sessionService.sweepExpired();
+        } finally {
+            ReflectionTestUtils.setField(sessionService, "sessionTtl", 86400000L);
+        }
+        assertNull(sessionService.getSession(session.getId()));
+    }
+
+    private String createSession(String filename, long size) throws Exception {
+        String body = mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/files/sessions")
+                        .param("filename", filename)
+                        .param("size", String.valueOf(size)))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(body, "$.sessionId");
+    }
+
+    private static byte[] slice(byte[] source, int from, int to) {
+        byte[] result = new byte[to - from];
+        System.arraycopy(source, from, result, 0, result.length);
+        return result;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.filestream.server.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BandwidthLimiterTest {
+
+    @Test
+    @DisplayName("api-key 모드에서 허용된 키만 키 지문으로 구분하고, 모르는 키는 IP 버킷을 쓰며 키 원문이 노출되지 않는지 테스트")
+    void apiKeyClients_areFingerprintedAndValidated() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BandwidthLimiter limiter = new BandwidthLimiter(registry, BandwidthLimiter.KEY_API_KEY, 0, 4096, 0, 1024,
+                Arrays.asList("secret-key-1", " secret-key-2 "));
+        try {
+            String known = limiter.resolveClient(request("secret-key-1"));
+            assertTrue(known.startsWith(BandwidthLimiter.API_KEY_CLIENT_PREFIX));
+            assertEquals(BandwidthLimiter.API_KEY_CLIENT_PREFIX.length() + 12, known.length());
+            assertEquals(known, limiter.resolveClient(request("secret-key-1")));
+            assertEquals("192.0.2.10", limiter.resolveClient(request("random-" + System.nanoTime())));
+            assertEquals("192.0.2.10", limiter.resolveClient(request(null)));
+
+            limiter.open(limiter.resolveClient(request("secret-key-2"))).close();
+            limiter.open(limiter.resolveClient(request("guessed-key"))).close();
+            assertEquals(2, registry.find("file.upload.client.rate").gauges().size());
+            assertFalse(limiter.describe().toString().contains("secret-key"));
+            assertFalse(registry.getMetersAsString().contains("secret-key"));
+        } finally {
+            limiter.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("허용 키 목록이 없으면 api-key 모드에서도 IP 로 구분하는지 테스트")
+    void apiKeyMode_withoutKeys_usesIp() {
+        List<String> none = Arrays.asList("");
+        BandwidthLimiter limiter = new BandwidthLimiter(new SimpleMeterRegistry(), BandwidthLimiter.KEY_API_KEY,
+                0, 4096, 0, 1024, none);
+        try {
+            assertEquals("192.0.2.10", limiter.resolveClient(request("secret-key-1")));
+            Map<String, Object> description = limiter.describe();
+            assertEquals(BandwidthLimiter.KEY_API_KEY, description.get("clientKey"));
+        } finally {
+            limiter.shutdown();
+        }
+    }
+
+    private static MockHttpServletRequest request(String apiKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("192.0.2.10");
+        if (apiKey != null) {
+            request.addHeader(BandwidthLimiter.API_KEY_HEADER, apiKey);
+        }
+        return request;
+    }
+}
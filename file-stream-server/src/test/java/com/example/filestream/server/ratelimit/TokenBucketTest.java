@@ -0,0 +1,46 @@
+package com.example.filestream.server.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    @Test
+    @DisplayName("버스트 안에서는 기다리지 않고 넘으면 속도에 비례해 기다리는지 테스트")
+    void reserve_waitsBeyondBurst() {
+        // 1MB/s, 버스트 64KB
+        TokenBucket bucket = new TokenBucket(1024 * 1024, 64 * 1024);
+
+        assertEquals(0, bucket.reserve(64 * 1024));
+
+        // 버스트를 다 쓴 뒤 512KB 는 약 0.5초 대기
+        long wait = bucket.reserve(512 * 1024);
+        assertTrue(wait > TimeUnit.MILLISECONDS.toNanos(450), "wait=" + wait);
+        assertTrue(wait <= TimeUnit.MILLISECONDS.toNanos(500), "wait=" + wait);
+
+        // 대기는 누적됨 (앞선 예약 뒤에 줄을 섬)
+        long next = bucket.reserve(512 * 1024);
+        assertTrue(next > TimeUnit.MILLISECONDS.toNanos(950), "next=" + next);
+    }
+
+    @Test
+    @DisplayName("한도 0 이면 제한하지 않고 실행 중 한도 변경이 바로 반영되는지 테스트")
+    void setLimit_appliesImmediately() {
+        TokenBucket bucket = new TokenBucket(0, 0);
+        assertTrue(bucket.isUnlimited());
+        assertEquals(0, bucket.reserve(Long.MAX_VALUE / 1024));
+
+        bucket.setLimit(1000, 0);
+        long wait = bucket.reserve(500);
+        assertTrue(wait > TimeUnit.MILLISECONDS.toNanos(450), "wait=" + wait);
+
+        bucket.setLimit(0, 0);
+        assertEquals(0, bucket.reserve(1_000_000));
+        assertEquals(0, bucket.getBytesPerSecond());
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.filestream.server.storage;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DurabilityManagerTest {
+
+    @TempDir
+    Path directory;
+
+    private DurabilityManager groupManager(long timeoutMs) {
+        DurabilityManager manager = new DurabilityManager();
+        ReflectionTestUtils.setField(manager, "policy", DurabilityManager.POLICY_GROUP);
+        ReflectionTestUtils.setField(manager, "groupCommitWindowMs", 1L);
+        ReflectionTestUtils.setField(manager, "groupCommitMaxBatch", 16);
+        ReflectionTestUtils.setField(manager, "groupCommitTimeoutMs", timeoutMs);
+        manager.start();
+        return manager;
+    }
+
+    @Test
+    @DisplayName("그룹 커밋이 멈추면 timeout 후 실패하고, 대기열에 남은 다음 커밋은 반영되지 않는지 테스트")
+    void groupCommit_timesOut() throws Exception {
+        DurabilityManager manager = groupManager(200);
+        Path first = Files.write(directory.resolve("first.tmp"), new byte[]{1});
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // 배치 처리 스레드를 반영 단계에서 멈춤
+            IOException stuck = assertThrows(IOException.class, () -> manager.commit(first, () -> {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return first;
+            }));
+            assertTrue(stuck.getMessage().contains("timed out"));
+
+            Path second = Files.write(directory.resolve("second.tmp"), new byte[]{2});
+            Path target = directory.resolve("second.dat");
+            assertThrows(IOException.class, () -> manager.commit(second, () -> Files.move(second, target)));
+            release.countDown();
+            Thread.sleep(100);
+            assertFalse(Files.exists(target));
+        } finally {
+            release.countDown();
+            manager.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("종료된 뒤 들어온 그룹 커밋은 기다리지 않고 바로 실패하는지 테스트")
+    void groupCommit_rejectedAfterStop() throws Exception {
+        DurabilityManager manager = groupManager(30000);
+        Path file = Files.write(directory.resolve("a.tmp"), new byte[]{1});
+        assertEquals(file, manager.commit(file, () -> file));
+        manager.stop();
+
+        long start = System.nanoTime();
+        assertThrows(IOException.class, () -> manager.commit(file, () -> file));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.filestream.server.storage;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PackedSegmentStoreTest {
+
+    @TempDir
+    Path uploadDirectory;
+
+    private PackedSegmentStore open(long segmentSize) throws IOException {
+        PackedSegmentStore store = new PackedSegmentStore(uploadDirectory.toString(), true, 64, segmentSize,
+                0.5, 0, "none");
+        store.start();
+        return store;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("저장, 덮어쓰기, 삭제 후 재시작 시 기록 로그로 색인을 복구하고 끊긴 레코드는 잘라내는지 테스트")
+    void recover_replaysUnsealedSegment() throws IOException {
+        PackedSegmentStore store = open(1024 * 1024);
+        store.put("a.txt", bytes("alpha"), 5);
+        store.put("b.txt", bytes("bravo"), 5);
+        store.put("a.txt", bytes("alpha-2"), 7);
+        assertTrue(store.delete("b.txt"));
+        assertFalse(store.delete("missing.txt"));
+        assertArrayEquals(bytes("alpha-2"), store.read(store.lookup("a.txt")));
+        assertNull(store.lookup("b.txt"));
+        store.stop();
+
+        // 기록 도중 중단된 레코드
+        Path segment = uploadDirectory.resolve(".segments").resolve("segment-00000001.dat");
+        long validLength = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(java.nio.ByteBuffer.wrap(new byte[]{0x50, 0x4b, 0x53, 0x31, 1, 0, 0}));
+        }
+
+        PackedSegmentStore recovered = open(1024 * 1024);
+        assertEquals(validLength, Files.size(segment));
+        assertEquals(1, recovered.getFileCount());
+        assertArrayEquals(bytes("alpha-2"), recovered.read(recovered.lookup("a.txt")));
+        assertNull(recovered.lookup("b.txt"));
+
+        recovered.put("c.txt", bytes("charlie"), 7);
+        recovered.stop();
+        PackedSegmentStore reopened = open(1024 * 1024);
+        assertArrayEquals(bytes("charlie"), reopened.read(reopened.lookup("c.txt")));
+        reopened.stop();
+    }
+
+    @Test
+    @DisplayName("가득 찬 세그먼트를 footer 와 함께 봉인하고 재시작 시 footer 로 색인을 복구하는지 테스트")
+    void roll_sealsSegmentsWithFooter() throws IOException {
+        PackedSegmentStore store = open(256);
+        for (int i = 0; i < 20; i++) {
+            store.put("file-" + i + ".txt", bytes("content-" + i), ("content-" + i).length());
+        }
+        int segmentCount = store.getSegmentCount();
+        assertTrue(segmentCount > 1);
+        store.stop();
+
+        PackedSegmentStore recovered = open(256);
+        assertEquals(segmentCount, recovered.getSegmentCount());
+        assertEquals(20, recovered.getFileCount());
+        for (int i = 0; i < 20; i++) {
+            assertArrayEquals(bytes("content-" + i), recovered.read(recovered.lookup("file-" + i + ".txt")));
+        }
+        recovered.stop();
+    }
+
+    @Test
+    @DisplayName("삭제와 덮어쓰기로 빈 공간이 많은 세그먼트를 compaction 후에도 내용과 삭제 상태가 유지되는지 테스트")
+    void compact_reclaimsGarbageSegments() throws IOException {
+        PackedSegmentStore store = open(256);
+        for (int i = 0; i < 20; i++) {
+            store.put("file-" + i + ".txt", bytes("content-" + i), ("content-" + i).length());
+        }
+        for (int i = 0; i < 20; i++) {
+            if (i % 4 != 0) {
+                store.delete("file-" + i + ".txt");
+            }
+        }
+        PackedSegmentStore.PackedFile before = store.lookup("file-0.txt");
+        long totalBefore = store.getTotalBytes();
+
+        store.compact();
+        assertTrue(store.getCompactions() > 0);
+        assertTrue(store.getTotalBytes() < totalBefore);
+        // 조회 후 옮겨진 레코드도 읽을 수 있음
+        assertArrayEquals(bytes("content-0"), store.read(before));
+        store.stop();
+
+        PackedSegmentStore recovered = open(256);
+        assertEquals(5, recovered.getFileCount());
+        for (int i = 0; i < 20; i++) {
+            PackedSegmentStore.PackedFile file = recovered.lookup("file-" + i + ".txt");
+            if (i % 4 == 0) {
+                assertArrayEquals(bytes("content-" + i), recovered.read(file));
+            } else {
+                assertNull(file);
+            }
+        }
+        recovered.stop();
+    }
+
+    @Test
+    @DisplayName("옮겨 온 tombstone 만 남은 세그먼트를 반복해서 compaction 하지 않는지 테스트")
+    void compact_doesNotRecompactCarriedTombstones() throws IOException {
+        PackedSegmentStore store = open(256);
+        // 가장 오래된 세그먼트는 살아 있는 레코드로 채워 compaction 대상이 아니게 함
+        int keep = 0;
+        while (store.getSegmentCount() == 1) {
+            store.put("keep-" + keep + ".txt", bytes("content-" + keep), ("content-" + keep).length());
+            keep++;
+        }
+        for (int i = 0; i < 20; i++) {
+            store.put("temp-" + i + ".txt", bytes("content-" + i), ("content-" + i).length());
+        }
+        for (int i = 0; i < 20; i++) {
+            store.delete("temp-" + i + ".txt");
+        }
+
+        store.compact();
+        long compactions = store.getCompactions();
+        assertTrue(compactions > 0);
+        store.compact();
+        store.compact();
+        assertEquals(compactions, store.getCompactions());
+        store.stop();
+
+        PackedSegmentStore recovered = open(256);
+        recovered.compact();
+        assertEquals(0, recovered.getCompactions());
+        assertEquals(keep, recovered.getFileCount());
+        for (int i = 0; i < 20; i++) {
+            assertNull(recovered.lookup("temp-" + i + ".txt"));
+        }
+        recovered.stop();
+    }
+}
@@ -0,0 +1,4 @@
+@echo off
+echo Starting File Stream Reactive Server...
+cd file-stream-reactive-server
+java -jar target\file-stream-reactive-server-1.0.0.jar